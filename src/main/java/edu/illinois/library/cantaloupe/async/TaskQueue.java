@@ -1,59 +1,263 @@
 package edu.illinois.library.cantaloupe.async;
 
+import edu.illinois.library.cantaloupe.config.Configuration;
+import edu.illinois.library.cantaloupe.config.Key;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.Callable;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
- * Queue of serial tasks, backed internally by {@link ThreadPool}. Should be
- * preferred over {@link ThreadPool} for tasks that are not time-sensitive.
+ * <p>Queue of tasks that are not time-sensitive. Should be preferred over
+ * {@link ThreadPool} for such tasks.</p>
+ *
+ * <p>Tasks are divided into {@link Lane lanes}, each with its own bounded
+ * queue, worker threads, and {@link OverflowPolicy overflow policy}, so that
+ * e.g. a slow cache write can't hold up a purge. The number of workers and
+ * queue size of each lane are configurable.</p>
  */
 public final class TaskQueue {
 
-    private static TaskQueue instance = new TaskQueue();
+    /**
+     * What to do with a task that is submitted while its lane's queue is
+     * full.
+     */
+    public enum OverflowPolicy {
+
+        /**
+         * Run the task in the submitting thread, which slows down
+         * submitters until the queue has drained.
+         */
+        CALLER_RUNS,
+
+        /**
+         * Discard the task. Appropriate for tasks whose only purpose is to
+         * improve efficiency, like cache writes.
+         */
+        DROP,
+
+        /**
+         * Throw a {@link RejectedExecutionException} from {@link #submit}.
+         */
+        REJECT
+
+    }
+
+    /**
+     * Category of task.
+     */
+    public enum Lane {
+
+        /**
+         * Tasks invoked via the HTTP API, which may be long-running, and
+         * should not run in parallel with each other.
+         */
+        API(Key.TASK_QUEUE_API_WORKERS, Key.TASK_QUEUE_API_MAX_SIZE,
+                1, 100, OverflowPolicy.REJECT),
+
+        /**
+         * Cache writes and cache access-time updates.
+         */
+        CACHE_WRITE(Key.TASK_QUEUE_CACHE_WRITE_WORKERS,
+                Key.TASK_QUEUE_CACHE_WRITE_MAX_SIZE,
+                4, 1000, OverflowPolicy.DROP),
+
+        /**
+         * Anything else.
+         */
+        GENERAL(Key.TASK_QUEUE_GENERAL_WORKERS,
+                Key.TASK_QUEUE_GENERAL_MAX_SIZE,
+                1, 1000, OverflowPolicy.CALLER_RUNS),
+
+        /**
+         * Cache purges and deletions of stale content.
+         */
+        PURGE(Key.TASK_QUEUE_PURGE_WORKERS, Key.TASK_QUEUE_PURGE_MAX_SIZE,
+                1, 1000, OverflowPolicy.CALLER_RUNS);
+
+        private final Key workersKey, maxSizeKey;
+        private final int defaultWorkers, defaultMaxSize;
+        private final OverflowPolicy overflowPolicy;
 
-    private final TaskRunner runner;
+        Lane(Key workersKey,
+             Key maxSizeKey,
+             int defaultWorkers,
+             int defaultMaxSize,
+             OverflowPolicy overflowPolicy) {
+            this.workersKey     = workersKey;
+            this.maxSizeKey     = maxSizeKey;
+            this.defaultWorkers = defaultWorkers;
+            this.defaultMaxSize = defaultMaxSize;
+            this.overflowPolicy = overflowPolicy;
+        }
+
+        public OverflowPolicy getOverflowPolicy() {
+            return overflowPolicy;
+        }
+
+        /**
+         * @return Number of workers from the application configuration.
+         */
+        int getNumWorkers() {
+            int value = Configuration.getInstance().getInt(
+                    workersKey, defaultWorkers);
+            return (value > 0) ? value : defaultWorkers;
+        }
+
+        /**
+         * @return Max queue size from the application configuration.
+         */
+        int getMaxSize() {
+            int value = Configuration.getInstance().getInt(
+                    maxSizeKey, defaultMaxSize);
+            return (value > 0) ? value : defaultMaxSize;
+        }
+
+    }
+
+    private static TaskQueue instance;
+
+    private final Map<Lane,TaskRunner> runners = new EnumMap<>(Lane.class);
 
     /**
      * For testing only.
      */
     static synchronized void clearInstance() {
-        instance = new TaskQueue();
+        if (instance != null) {
+            instance.runners.values().forEach(TaskRunner::shutdown);
+        }
+        instance = null;
     }
 
     /**
      * @return Singleton instance.
      */
     public static synchronized TaskQueue getInstance() {
+        if (instance == null) {
+            instance = new TaskQueue();
+        }
         return instance;
     }
 
     private TaskQueue() {
-        runner = new TaskRunner();
-        ThreadPool.getInstance().submit(runner);
+        for (Lane lane : Lane.values()) {
+            runners.put(lane, new TaskRunner(lane,
+                    lane.getNumWorkers(),
+                    lane.getMaxSize(),
+                    lane.getOverflowPolicy()));
+        }
+    }
+
+    /**
+     * @return Number of workers in the given lane currently running a task.
+     */
+    public int getNumActiveWorkers(Lane lane) {
+        return runners.get(lane).getNumActiveWorkers();
+    }
+
+    /**
+     * @return Number of tasks in the given lane that have finished running.
+     */
+    public long getNumCompletedTasks(Lane lane) {
+        return runners.get(lane).getNumCompleted();
     }
 
     /**
-     * @return Unmodifiable list of all queued tasks, including the one
-     *         currently running, if any. Completed tasks are not included.
+     * @return Number of tasks in the given lane that were dropped or rejected
+     *         because its queue was full.
+     */
+    public long getNumDroppedTasks(Lane lane) {
+        return runners.get(lane).getNumDropped();
+    }
+
+    /**
+     * @return Number of tasks in the given lane that were run in the
+     *         submitting thread because its queue was full.
+     */
+    public long getNumTasksRunInCaller(Lane lane) {
+        return runners.get(lane).getNumRunInCaller();
+    }
+
+    /**
+     * @return Maximum time a task in the given lane has spent queued, in
+     *         milliseconds.
+     */
+    public long getMaxWaitMsec(Lane lane) {
+        return runners.get(lane).getMaxWaitMsec();
+    }
+
+    /**
+     * @return Mean time tasks in the given lane have spent queued, in
+     *         milliseconds.
+     */
+    public double getMeanWaitMsec(Lane lane) {
+        return runners.get(lane).getMeanWaitMsec();
+    }
+
+    /**
+     * @return Mean time tasks in the given lane have spent running, in
+     *         milliseconds.
+     */
+    public double getMeanRunMsec(Lane lane) {
+        return runners.get(lane).getMeanRunMsec();
+    }
+
+    /**
+     * @return Number of tasks queued in the given lane, not including running
+     *         ones.
+     */
+    public int getQueueDepth(Lane lane) {
+        return runners.get(lane).getQueueDepth();
+    }
+
+    /**
+     * @return Unmodifiable list of all queued tasks in all lanes, not
+     *         including running ones. Completed tasks are not included.
      *         Tasks may change from moment to moment, but the returned list
      *         is fixed and immutable.
      */
     List<Object> queuedTasks() {
-        return runner.queuedTasks();
+        final List<Object> tasks = new ArrayList<>();
+        runners.values().forEach(r -> tasks.addAll(r.queuedTasks()));
+        return Collections.unmodifiableList(tasks);
     }
 
     /**
-     * Adds a task to the queue.
+     * Adds a task to the {@link Lane#GENERAL general lane}.
      */
     public void submit(Callable<?> callable) {
-        runner.submit(callable);
+        submit(callable, Lane.GENERAL);
     }
 
     /**
-     * Adds a task to the queue.
+     * Adds a task to the given lane.
+     *
+     * @throws RejectedExecutionException if the lane's queue is full and its
+     *         overflow policy is {@link OverflowPolicy#REJECT}.
+     */
+    public void submit(Callable<?> callable, Lane lane) {
+        runners.get(lane).submit(callable);
+    }
+
+    /**
+     * Adds a task to the {@link Lane#GENERAL general lane}.
      */
     public void submit(Runnable runnable) {
-        runner.submit(runnable);
+        submit(runnable, Lane.GENERAL);
+    }
+
+    /**
+     * Adds a task to the given lane.
+     *
+     * @throws RejectedExecutionException if the lane's queue is full and its
+     *         overflow policy is {@link OverflowPolicy#REJECT}.
+     */
+    public void submit(Runnable runnable, Lane lane) {
+        runners.get(lane).submit(runnable);
     }
 
 }
@@ -5,70 +5,229 @@ import org.slf4j.LoggerFactory;
 
 import java.time.Instant;
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.Callable;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
 
-final class TaskRunner implements Runnable {
-
-    private static final Logger LOGGER = LoggerFactory.
-            getLogger(TaskRunner.class);
-
-    private final BlockingQueue<Object> queue = new LinkedBlockingQueue<>();
+/**
+ * Runs the tasks of one {@link TaskQueue.Lane} using a fixed number of worker
+ * threads and a bounded queue, applying the lane's {@link
+ * TaskQueue.OverflowPolicy} when the queue is full.
+ */
+final class TaskRunner {
 
     /**
-     * @return Unmodifiable list of all queued tasks, including the one
-     *         currently running, if any. Completed tasks are not included.
-     *         Tasks may change from moment to moment, but the returned list
-     *         is fixed.
+     * Wraps a submitted task in order to record how long it was queued and
+     * how long it ran.
      */
-    List<Object> queuedTasks() {
-        Object[] tasks = new Object[] {};
-        return List.of(queue.toArray(tasks));
-    }
+    private final class QueuedTask implements Runnable {
 
-    @Override
-    public void run() {
-        while (true) {
-            Object object;
-            try {
-                object = queue.take();
+        private final Object task;
+        private final long nanosQueued = System.nanoTime();
 
-                LOGGER.trace("run(): running {}", object);
-                if (object instanceof Runnable) {
-                    ((Runnable) object).run();
-                } else if (object instanceof Callable) {
-                    ((Callable<?>) object).call();
+        QueuedTask(Object task) {
+            this.task = task;
+        }
+
+        @Override
+        public void run() {
+            final long nanosStarted = System.nanoTime();
+            totalWaitNanos.addAndGet(nanosStarted - nanosQueued);
+            maxWaitNanos.accumulateAndGet(
+                    nanosStarted - nanosQueued, Math::max);
+            try {
+                LOGGER.trace("run(): running {}", task);
+                if (task instanceof Runnable) {
+                    ((Runnable) task).run();
+                } else if (task instanceof Callable) {
+                    ((Callable<?>) task).call();
                 }
             } catch (Exception e) {
                 LOGGER.error("run(): {}", e.getMessage(), e);
+            } finally {
+                totalRunNanos.addAndGet(System.nanoTime() - nanosStarted);
+                numCompleted.incrementAndGet();
             }
         }
+
+        @Override
+        public String toString() {
+            return task.toString();
+        }
+
+    }
+
+    private static final Logger LOGGER = LoggerFactory.
+            getLogger(TaskRunner.class);
+
+    private final TaskQueue.Lane lane;
+    private final TaskQueue.OverflowPolicy overflowPolicy;
+    private final BlockingQueue<Runnable> queue;
+    private final ThreadPoolExecutor executor;
+
+    private final AtomicLong numCompleted   = new AtomicLong();
+    private final AtomicLong numDropped     = new AtomicLong();
+    private final AtomicLong numRunInCaller = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos   = new AtomicLong();
+    private final AtomicLong totalRunNanos  = new AtomicLong();
+
+    /**
+     * @param lane           Lane whose tasks the instance will run.
+     * @param numWorkers     Number of worker threads.
+     * @param maxSize        Maximum number of queued tasks, not including
+     *                       running ones.
+     * @param overflowPolicy Policy to apply to tasks submitted while the
+     *                       queue is full.
+     */
+    TaskRunner(TaskQueue.Lane lane,
+               int numWorkers,
+               int maxSize,
+               TaskQueue.OverflowPolicy overflowPolicy) {
+        this.lane           = lane;
+        this.overflowPolicy = overflowPolicy;
+        this.queue          = new ArrayBlockingQueue<>(maxSize);
+
+        final String lowerName  = lane.toString().toLowerCase();
+        final AtomicInteger num = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                numWorkers, numWorkers, 60, TimeUnit.SECONDS, queue,
+                runnable -> {
+                    Thread thread = new Thread(runnable);
+                    thread.setName("task-" + lowerName + "-" +
+                            num.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * @return Number of workers currently running a task.
+     */
+    int getNumActiveWorkers() {
+        return executor.getActiveCount();
+    }
+
+    /**
+     * @return Number of tasks that have finished running, successfully or
+     *         not.
+     */
+    long getNumCompleted() {
+        return numCompleted.get();
+    }
+
+    /**
+     * @return Number of tasks that were dropped or rejected because the queue
+     *         was full.
+     */
+    long getNumDropped() {
+        return numDropped.get();
+    }
+
+    /**
+     * @return Number of tasks that were run in the submitting thread because
+     *         the queue was full.
+     */
+    long getNumRunInCaller() {
+        return numRunInCaller.get();
+    }
+
+    /**
+     * @return Maximum time a task has spent in the queue before starting, in
+     *         milliseconds.
+     */
+    long getMaxWaitMsec() {
+        return TimeUnit.NANOSECONDS.toMillis(maxWaitNanos.get());
+    }
+
+    /**
+     * @return Mean time tasks have spent in the queue before starting, in
+     *         milliseconds.
+     */
+    double getMeanWaitMsec() {
+        final long count = numCompleted.get();
+        return (count > 0) ? totalWaitNanos.get() / (double) count / 1e6 : 0;
+    }
+
+    /**
+     * @return Mean time tasks have spent running, in milliseconds.
+     */
+    double getMeanRunMsec() {
+        final long count = numCompleted.get();
+        return (count > 0) ? totalRunNanos.get() / (double) count / 1e6 : 0;
     }
 
     /**
-     * @param callable Object to submit to the queue.
-     * @throws IllegalStateException If the queue is full.
+     * @return Number of queued tasks, not including running ones.
      */
-    boolean submit(Callable<?> callable) {
-        LOGGER.trace("submit(): {} (queue size: {})", callable, queue.size());
-        return queue.add(callable);
+    int getQueueDepth() {
+        return queue.size();
     }
 
     /**
-     * @param runnable Object to submit to the queue.
-     * @throws IllegalStateException If the queue is full.
+     * @return Unmodifiable list of all queued tasks, not including running
+     *         ones. Completed tasks are not included. Tasks may change from
+     *         moment to moment, but the returned list is fixed.
      */
-    boolean submit(Runnable runnable) {
-        LOGGER.trace("submit(): {} (queue size: {})", runnable, queue.size());
-        final boolean result = queue.add(runnable);
+    List<Object> queuedTasks() {
+        return queue.stream()
+                .map(r -> ((QueuedTask) r).task)
+                .collect(Collectors.toUnmodifiableList());
+    }
 
-        if (runnable instanceof AuditableFutureTask) {
-            AuditableFutureTask<?> aTask = (AuditableFutureTask<?>) runnable;
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * @param task {@link Runnable} or {@link Callable} to submit to the
+     *             queue.
+     * @throws RejectedExecutionException if the queue is full and the
+     *         overflow policy is {@link TaskQueue.OverflowPolicy#REJECT}.
+     */
+    void submit(Object task) {
+        LOGGER.trace("submit(): {} ({} queue size: {})",
+                task, lane, queue.size());
+        if (task instanceof AuditableFutureTask) {
+            AuditableFutureTask<?> aTask = (AuditableFutureTask<?>) task;
             aTask.setStatus(TaskStatus.QUEUED);
             aTask.setInstantQueued(Instant.now());
         }
-        return result;
+
+        final QueuedTask queuedTask = new QueuedTask(task);
+        try {
+            executor.execute(queuedTask);
+        } catch (RejectedExecutionException e) {
+            switch (overflowPolicy) {
+                case CALLER_RUNS:
+                    LOGGER.debug("submit(): {} queue is full; running {} " +
+                            "in the calling thread", lane, task);
+                    numRunInCaller.incrementAndGet();
+                    queuedTask.run();
+                    break;
+                case DROP:
+                    LOGGER.warn("submit(): {} queue is full; dropping {}",
+                            lane, task);
+                    numDropped.incrementAndGet();
+                    if (task instanceof Future) {
+                        ((Future<?>) task).cancel(false);
+                    }
+                    break;
+                default:
+                    numDropped.incrementAndGet();
+                    throw new RejectedExecutionException(
+                            "The " + lane + " queue is full", e);
+            }
+        }
     }
 
 }
@@ -1,27 +1,83 @@
 package edu.illinois.library.cantaloupe.async;
 
+import edu.illinois.library.cantaloupe.config.Configuration;
+import edu.illinois.library.cantaloupe.config.Key;
+
 import java.util.Random;
 import java.util.concurrent.Callable;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
 import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
 import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 /**
- * Global application thread pool Singleton.
+ * <p>Global application thread pool Singleton.</p>
+ *
+ * <p>Each {@link Priority} has its own pool with a maximum number of threads,
+ * sized according to the number of available processors unless configured
+ * otherwise. Tasks submitted while all of a pool's threads are busy are
+ * queued. Long-running tasks, like file watchers, should be submitted at
+ * {@link Priority#LOW} priority, whose pool is sized with them in mind.</p>
+ *
+ * <p>Short tasks that drain the output of a process that a request thread
+ * waits on must not wait behind other tasks in a queue, as the process could
+ * block on a full pipe, so they are {@link #submitIO(Runnable) submitted} to
+ * a separate, unqueued pool that starts a new thread whenever all of its
+ * existing ones are busy, up to a maximum, beyond which tasks are
+ * rejected.</p>
+ *
+ * <p>There is also a {@link #getComputePool() fork-join pool} for CPU-bound
+ * work, like image processing, which is sized to the number of available
+ * processors.</p>
  */
 public final class ThreadPool {
 
     public enum Priority {
-        LOW, NORMAL, HIGH
+
+        LOW(Key.THREAD_POOL_LOW_MAX_THREADS, 2, 8),
+        NORMAL(Key.THREAD_POOL_NORMAL_MAX_THREADS, 8, 16),
+        HIGH(Key.THREAD_POOL_HIGH_MAX_THREADS, 4, 8);
+
+        private final Key maxThreadsKey;
+        private final int threadsPerProcessor, minThreads;
+
+        Priority(Key maxThreadsKey, int threadsPerProcessor, int minThreads) {
+            this.maxThreadsKey       = maxThreadsKey;
+            this.threadsPerProcessor = threadsPerProcessor;
+            this.minThreads          = minThreads;
+        }
+
+        /**
+         * @return Max number of threads from the application configuration,
+         *         or else a number derived from the number of available
+         *         processors.
+         */
+        int getMaxThreads() {
+            final int defaultValue = Math.max(minThreads,
+                    threadsPerProcessor * NUM_PROCESSORS);
+            final int value = Configuration.getInstance().getInt(
+                    maxThreadsKey, defaultValue);
+            return (value > 0) ? value : defaultValue;
+        }
+
     }
 
+    private static final int NUM_PROCESSORS =
+            Runtime.getRuntime().availableProcessors();
+
+    private static final int IO_THREADS_PER_PROCESSOR = 8, MIN_IO_THREADS = 64;
+
     private static abstract class AbstractThreadFactory {
 
         private static final int maxID = 9999999;
         private static final Random rng = new Random();
 
-        private String getThreadID() {
+        String getThreadID() {
             // Get a random number
             final int id = rng.nextInt(maxID + 1);
             // Left-pad it with zeroes
@@ -62,15 +118,43 @@ public final class ThreadPool {
         }
     }
 
+    private static class IOThreadFactory
+            extends AbstractThreadFactory implements ThreadFactory {
+        @Override
+        String getThreadNamePrefix() {
+            return "work-io";
+        }
+    }
+
+    private static class ComputeThreadFactory extends AbstractThreadFactory
+            implements ForkJoinPool.ForkJoinWorkerThreadFactory {
+        @Override
+        String getThreadNamePrefix() {
+            return "work-cpu";
+        }
+
+        @Override
+        public ForkJoinWorkerThread newThread(ForkJoinPool pool) {
+            ForkJoinWorkerThread thread =
+                    ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName(getThreadNamePrefix() + "-" + getThreadID());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+
     private static ThreadPool instance;
 
     private boolean isShutdown = false;
-    private final ExecutorService lowPriorityPool =
-            Executors.newCachedThreadPool(new LowPriorityThreadFactory());
-    private final ExecutorService normalPriorityPool =
-            Executors.newCachedThreadPool(new NormalPriorityThreadFactory());
-    private final ExecutorService highPriorityPool =
-            Executors.newCachedThreadPool(new HighPriorityThreadFactory());
+    private final ThreadPoolExecutor lowPriorityPool = newBoundedPool(
+            Priority.LOW, new LowPriorityThreadFactory());
+    private final ThreadPoolExecutor normalPriorityPool = newBoundedPool(
+            Priority.NORMAL, new NormalPriorityThreadFactory());
+    private final ThreadPoolExecutor highPriorityPool = newBoundedPool(
+            Priority.HIGH, new HighPriorityThreadFactory());
+    private final ThreadPoolExecutor ioPool = newIOPool();
+    private final ForkJoinPool computePool = new ForkJoinPool(
+            getComputeParallelism(), new ComputeThreadFactory(), null, false);
 
     /**
      * @return Shared instance.
@@ -90,9 +174,150 @@ public final class ThreadPool {
         instance = null;
     }
 
+    /**
+     * @return Pool whose number of threads is limited to the max for the
+     *         given priority, with an unbounded queue.
+     */
+    private static ThreadPoolExecutor newBoundedPool(Priority priority,
+                                                     ThreadFactory factory) {
+        final int maxThreads = priority.getMaxThreads();
+        final ThreadPoolExecutor pool = new ThreadPoolExecutor(
+                maxThreads, maxThreads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), factory);
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+
+    /**
+     * @return Unqueued pool whose number of threads is limited to {@link
+     *         #getIOMaxThreads()}, which rejects tasks submitted while all of
+     *         them are busy.
+     */
+    private static ThreadPoolExecutor newIOPool() {
+        return new ThreadPoolExecutor(
+                0, getIOMaxThreads(), 60, TimeUnit.SECONDS,
+                new SynchronousQueue<>(), new IOThreadFactory(),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * @return Max number of threads in the I/O pool from the application
+     *         configuration, or else a number derived from the number of
+     *         available processors.
+     */
+    private static int getIOMaxThreads() {
+        final int defaultValue = Math.max(MIN_IO_THREADS,
+                IO_THREADS_PER_PROCESSOR * NUM_PROCESSORS);
+        final int value = Configuration.getInstance().getInt(
+                Key.THREAD_POOL_IO_MAX_THREADS, defaultValue);
+        return (value > 0) ? value : defaultValue;
+    }
+
+    /**
+     * @return Parallelism of the compute pool from the application
+     *         configuration, or else the number of available processors.
+     */
+    private static int getComputeParallelism() {
+        final int value = Configuration.getInstance().getInt(
+                Key.THREAD_POOL_COMPUTE_PARALLELISM, NUM_PROCESSORS);
+        return (value > 0) ? value : NUM_PROCESSORS;
+    }
+
     private ThreadPool() {
     }
 
+    /**
+     * @return Fork-join pool for CPU-bound work. Clients that wait on tasks
+     *         submitted to it should use {@link
+     *         java.util.concurrent.ForkJoinTask#join()} so that waiting
+     *         workers can help run them.
+     */
+    public ForkJoinPool getComputePool() {
+        return computePool;
+    }
+
+    /**
+     * @return Number of threads in the given priority's pool that are
+     *         currently running a task.
+     */
+    public int getNumActiveThreads(Priority priority) {
+        return getPool(priority).getActiveCount();
+    }
+
+    /**
+     * @return Approximate number of tasks completed by the given priority's
+     *         pool.
+     */
+    public long getNumCompletedTasks(Priority priority) {
+        return getPool(priority).getCompletedTaskCount();
+    }
+
+    /**
+     * @return Number of tasks waiting for a thread in the given priority's
+     *         pool.
+     */
+    public int getNumQueuedTasks(Priority priority) {
+        return getPool(priority).getQueue().size();
+    }
+
+    /**
+     * @return Max number of threads in the given priority's pool.
+     */
+    public int getMaxThreads(Priority priority) {
+        return getPool(priority).getMaximumPoolSize();
+    }
+
+    /**
+     * @return Number of threads in the I/O pool that are currently running a
+     *         task.
+     */
+    public int getNumActiveIOThreads() {
+        return ioPool.getActiveCount();
+    }
+
+    /**
+     * @return Max number of threads in the I/O pool.
+     */
+    public int getMaxIOThreads() {
+        return ioPool.getMaximumPoolSize();
+    }
+
+    /**
+     * @return Estimated number of compute pool threads that are currently
+     *         running a task.
+     */
+    public int getNumActiveComputeThreads() {
+        return computePool.getActiveThreadCount();
+    }
+
+    /**
+     * @return Estimated number of tasks waiting for a thread in the compute
+     *         pool.
+     */
+    public long getNumQueuedComputeTasks() {
+        return computePool.getQueuedTaskCount() +
+                computePool.getQueuedSubmissionCount();
+    }
+
+    /**
+     * @return Estimated number of tasks stolen from one compute pool thread's
+     *         queue by another.
+     */
+    public long getNumComputeSteals() {
+        return computePool.getStealCount();
+    }
+
+    private ThreadPoolExecutor getPool(Priority priority) {
+        switch (priority) {
+            case LOW:
+                return lowPriorityPool;
+            case HIGH:
+                return highPriorityPool;
+            default:
+                return normalPriorityPool;
+        }
+    }
+
     public boolean isShutdown() {
         return isShutdown;
     }
@@ -101,49 +326,65 @@ public final class ThreadPool {
         lowPriorityPool.shutdownNow();
         normalPriorityPool.shutdownNow();
         highPriorityPool.shutdownNow();
+        ioPool.shutdownNow();
+        computePool.shutdownNow();
         isShutdown = true;
     }
 
     /**
-     * Submits a task for immediate execution.
+     * Submits a task for execution as soon as a thread is available.
      */
     public Future<?> submit(Callable<?> task) {
         return submit(task, Priority.NORMAL);
     }
 
     /**
-     * Submits a task for immediate execution.
+     * Submits a task for execution as soon as a thread is available.
      */
     public Future<?> submit(Callable<?> task, Priority priority) {
-        switch (priority) {
-            case LOW:
-                return lowPriorityPool.submit(task);
-            case HIGH:
-                return highPriorityPool.submit(task);
-            default:
-                return normalPriorityPool.submit(task);
-        }
+        return getPool(priority).submit(task);
     }
 
     /**
-     * Submits a task for immediate execution.
+     * Submits a task for execution as soon as a thread is available.
      */
     public Future<?> submit(Runnable task) {
         return submit(task, Priority.NORMAL);
     }
 
     /**
-     * Submits a task for immediate execution.
+     * Submits a task for execution as soon as a thread is available.
      */
     public Future<?> submit(Runnable task, Priority priority) {
-        switch (priority) {
-            case LOW:
-                return lowPriorityPool.submit(task);
-            case HIGH:
-                return highPriorityPool.submit(task);
-            default:
-                return normalPriorityPool.submit(task);
-        }
+        return getPool(priority).submit(task);
+    }
+
+    /**
+     * Submits a short, blocking I/O task, like a process stream drain, for
+     * immediate execution, starting a new thread if necessary, regardless of
+     * how busy the other pools are. Longer-running I/O, like uploads and
+     * downloads, should be {@link #submit(Callable) submitted} to one of the
+     * queued pools instead.
+     *
+     * @throws RejectedExecutionException if the I/O pool already has its
+     *         maximum number of threads, all of which are busy.
+     */
+    public Future<?> submitIO(Callable<?> task) {
+        return ioPool.submit(task);
+    }
+
+    /**
+     * Submits a short, blocking I/O task, like a process stream drain, for
+     * immediate execution, starting a new thread if necessary, regardless of
+     * how busy the other pools are. Longer-running I/O, like uploads and
+     * downloads, should be {@link #submit(Runnable) submitted} to one of the
+     * queued pools instead.
+     *
+     * @throws RejectedExecutionException if the I/O pool already has its
+     *         maximum number of threads, all of which are busy.
+     */
+    public Future<?> submitIO(Runnable task) {
+        return ioPool.submit(task);
     }
 
 }
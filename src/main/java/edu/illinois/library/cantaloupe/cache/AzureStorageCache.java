@@ -325,7 +325,7 @@ class AzureStorageCache implements DerivativeCache {
                 LOGGER.warn("purgeAsync(): failed to delete {}: {}",
                         blob, e.getMessage());
             }
-        });
+        }, TaskQueue.Lane.PURGE);
     }
 
     @Override
@@ -5,6 +5,8 @@ import edu.illinois.library.cantaloupe.image.Identifier;
 import edu.illinois.library.cantaloupe.image.Info;
 import edu.illinois.library.cantaloupe.operation.OperationList;
 import edu.illinois.library.cantaloupe.processor.Processor;
+import edu.illinois.library.cantaloupe.processor.PdfDocumentCache;
+import edu.illinois.library.cantaloupe.processor.codec.DecodedTileCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -138,6 +140,12 @@ public final class CacheFacade {
         // Purge the info service.
         InfoService.getInstance().purgeObjectCache();
 
+        // Purge the decoded tile cache.
+        DecodedTileCache.getInstance().purge();
+
+        // Purge the PDF document cache.
+        PdfDocumentCache.getInstance().purge();
+
         // Purge the derivative cache.
         Optional<DerivativeCache> optDerivativeCache = getDerivativeCache();
         if (optDerivativeCache.isPresent()) {
@@ -158,6 +166,12 @@ public final class CacheFacade {
         // Purge it from the info service.
         InfoService.getInstance().purgeObjectCache(identifier);
 
+        // Purge it from the decoded tile cache.
+        DecodedTileCache.getInstance().purge(identifier);
+
+        // Purge it from the PDF document cache.
+        PdfDocumentCache.getInstance().purge(identifier);
+
         // Purge it from the derivative cache.
         Optional<DerivativeCache> optDerivativeCache = getDerivativeCache();
         if (optDerivativeCache.isPresent()) {
@@ -182,7 +196,7 @@ public final class CacheFacade {
                 LOGGER.error("purgeAsync(): {}", e.getMessage());
             }
             return null;
-        });
+        }, TaskQueue.Lane.PURGE);
     }
 
     /**
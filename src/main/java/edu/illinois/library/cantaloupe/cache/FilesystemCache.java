@@ -14,6 +14,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
@@ -575,6 +576,12 @@ class FilesystemCache implements SourceCache, DerivativeCache {
         return Optional.empty();
     }
 
+    /**
+     * @return {@link FileInputStream} (so that its {@link
+     *         FileInputStream#getChannel() channel} can be used to send the
+     *         file to the client without copying it through the heap), or
+     *         {@literal null} if a valid image does not exist in the cache.
+     */
     @Override
     public InputStream newDerivativeImageInputStream(OperationList ops)
             throws IOException {
@@ -586,8 +593,8 @@ class FilesystemCache implements SourceCache, DerivativeCache {
                 try {
                     LOGGER.debug("newDerivativeImageInputStream(): hit: {} ({})",
                             ops, cacheFile);
-                    inputStream = Files.newInputStream(cacheFile);
-                } catch (NoSuchFileException e) {
+                    inputStream = new FileInputStream(cacheFile.toFile());
+                } catch (FileNotFoundException e) {
                     LOGGER.error(e.getMessage(), e);
                 }
             } else {
@@ -832,7 +839,7 @@ class FilesystemCache implements SourceCache, DerivativeCache {
             } catch (IOException e) {
                 LOGGER.warn("purgeAsync(): unable to delete {}", path);
             }
-        });
+        }, TaskQueue.Lane.PURGE);
     }
 
     /**
@@ -13,6 +13,13 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * <p>Used to obtain {@link Info} instances in an efficient way, utilizing
@@ -25,10 +32,32 @@ public final class InfoService {
     private static final Logger LOGGER =
             LoggerFactory.getLogger(InfoService.class);
 
+    /**
+     * Default maximum amount of time to wait for another thread's read of an
+     * info before reading it anew.
+     */
+    private static final long DEFAULT_MAX_WAIT_MSEC = 30000;
+
     private static InfoService instance;
 
     private final InfoCache infoCache = new InfoCache();
 
+    /**
+     * Infos currently being read by a processor, keyed by identifier. Threads
+     * that need an info that is already being read wait on its future rather
+     * than reading it themselves.
+     */
+    private final ConcurrentMap<Identifier, CompletableFuture<Info>>
+            infosInFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Number of times that an info was obtained by waiting on another
+     * thread's read rather than by reading it.
+     */
+    private final AtomicLong numCoalescedReads = new AtomicLong();
+
+    private long maxWaitMsec = DEFAULT_MAX_WAIT_MSEC;
+
     /**
      * For testing only!
      */
@@ -100,6 +129,21 @@ public final class InfoService {
         return infoCache;
     }
 
+    /**
+     * @return Number of infos currently being read by a processor.
+     */
+    public long getNumInfosInFlight() {
+        return infosInFlight.size();
+    }
+
+    /**
+     * @return Number of times that an info was obtained by waiting on another
+     *         thread's concurrent read of it.
+     */
+    public long getNumCoalescedReads() {
+        return numCoalescedReads.get();
+    }
+
     /**
      * <p>Returns an {@link Info} for the source image corresponding to the
      * given identifier.</p>
@@ -113,7 +157,9 @@ public final class InfoService {
      *     {@link CacheFactory#getDerivativeCache()};</li>
      *     <li>The given processor. If this is the case, it will also be cached
      *     in whichever of the above caches are available. (This may happen
-     *     asynchronously.)</li>
+     *     asynchronously.) If another thread is already reading the info of
+     *     the same image, the calling thread will wait for and share its
+     *     result instead.</li>
      * </ol>
      *
      * @param identifier Identifier of the source image for which to retrieve
@@ -129,24 +175,91 @@ public final class InfoService {
         // Try to retrieve it from an object or derivative cache.
         Optional<Info> optInfo = getInfo(identifier);
         if (optInfo.isEmpty()) {
-            // Read it from the processor and then add it to both the
-            // derivative and object caches.
-            Info info = readInfo(identifier, proc);
-
-            // Add it to the derivative and object caches.
-            final DerivativeCache derivCache = CacheFactory.getDerivativeCache();
-            putInCachesAsync(identifier, info, derivCache);
-            optInfo = Optional.of(info);
+            final CompletableFuture<Info> future = new CompletableFuture<>();
+            final CompletableFuture<Info> inFlight =
+                    infosInFlight.putIfAbsent(identifier, future);
+            if (inFlight != null) {
+                // Another thread is already reading it, so wait for it. If it
+                // takes too long, read it here, leaving the caching to the
+                // other thread.
+                numCoalescedReads.incrementAndGet();
+                Info info = awaitInfo(identifier, inFlight);
+                if (info == null) {
+                    info = readInfo(identifier, proc);
+                }
+                optInfo = Optional.of(info);
+            } else {
+                try {
+                    // Read it from the processor and then add it to both the
+                    // derivative and object caches.
+                    Info info = readInfo(identifier, proc);
+
+                    // Add it to the derivative and object caches.
+                    final DerivativeCache derivCache =
+                            CacheFactory.getDerivativeCache();
+                    putInCachesAsync(identifier, info, derivCache);
+                    future.complete(info);
+                    optInfo = Optional.of(info);
+                } catch (Throwable t) {
+                    // Errors must be passed along too, or else waiting
+                    // threads would wait for nothing.
+                    future.completeExceptionally(t);
+                    throw t;
+                } finally {
+                    infosInFlight.remove(identifier, future);
+                }
+            }
         }
         LOGGER.trace("Info for {}: {}", identifier, optInfo.get().toJSON());
         return optInfo;
     }
 
+    /**
+     * Waits for another thread's read of an info to complete.
+     *
+     * @return The info, or {@literal null} if the read did not complete
+     *         within the {@link #setMaxWait max wait time}.
+     * @throws IOException if the read failed or the wait was interrupted.
+     */
+    private Info awaitInfo(Identifier identifier,
+                           CompletableFuture<Info> inFlight) throws IOException {
+        final Stopwatch watch = new Stopwatch();
+        LOGGER.debug("awaitInfo(): waiting on another thread to read {}",
+                identifier);
+        try {
+            Info info = inFlight.get(maxWaitMsec, TimeUnit.MILLISECONDS);
+            LOGGER.debug("awaitInfo(): received {} in {}", identifier, watch);
+            return info;
+        } catch (TimeoutException e) {
+            LOGGER.debug("awaitInfo(): gave up waiting for {} after {}",
+                    identifier, watch);
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(e);
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
     boolean isObjectCacheEnabled() {
         return Configuration.getInstance().
                 getBoolean(Key.INFO_CACHE_ENABLED, false);
     }
 
+    /**
+     * For testing only!
+     */
+    void setMaxWait(long msec) {
+        this.maxWaitMsec = msec;
+    }
+
     public void purgeObjectCache() {
         LOGGER.debug("purgeObjectCache()");
         infoCache.purge();
@@ -188,7 +301,7 @@ public final class InfoService {
                 }
             }
             return null;
-        });
+        }, TaskQueue.Lane.CACHE_WRITE);
     }
 
     /**
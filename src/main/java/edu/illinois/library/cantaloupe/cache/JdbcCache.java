@@ -260,7 +260,7 @@ class JdbcCache implements DerivativeCache {
             } catch (SQLException e) {
                 LOGGER.error("accessDerivativeImageAsync(): {}", e.getMessage());
             }
-        });
+        }, TaskQueue.Lane.CACHE_WRITE);
     }
 
     /**
@@ -295,7 +295,7 @@ class JdbcCache implements DerivativeCache {
             } catch (SQLException e) {
                 LOGGER.error("accessInfoAsync(): {}", e.getMessage());
             }
-        });
+        }, TaskQueue.Lane.CACHE_WRITE);
     }
 
     Timestamp earliestValidDate() {
@@ -494,7 +494,7 @@ class JdbcCache implements DerivativeCache {
             } catch (SQLException e) {
                 LOGGER.error("purgeDerivativeImageAsync(): {}", e.getMessage());
             }
-        });
+        }, TaskQueue.Lane.PURGE);
     }
 
     /**
@@ -572,7 +572,7 @@ class JdbcCache implements DerivativeCache {
             } catch (SQLException e) {
                 LOGGER.error("purgeImageInfosAsync(): {}", e.getMessage());
             }
-        });
+        }, TaskQueue.Lane.PURGE);
     }
 
     /**
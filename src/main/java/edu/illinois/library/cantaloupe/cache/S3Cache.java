@@ -430,7 +430,7 @@ class S3Cache implements DerivativeCache {
                     key, bucketName);
             s3.deleteObject(bucketName, key);
             return null;
-        });
+        }, TaskQueue.Lane.PURGE);
     }
 
     @Override
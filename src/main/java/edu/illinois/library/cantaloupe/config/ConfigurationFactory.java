@@ -7,7 +7,11 @@ public final class ConfigurationFactory {
 
     public static final String CONFIG_VM_ARGUMENT = "cantaloupe.config";
 
-    private static Configuration instance;
+    /**
+     * Read without synchronization by {@link #getInstance()}, which is called
+     * very frequently from many threads.
+     */
+    private static volatile Configuration instance;
 
     public static synchronized void clearInstance() {
         if (instance != null) {
@@ -22,45 +26,64 @@ public final class ConfigurationFactory {
      * string {@literal memory} to use an in-memory configuration (which will
      * be empty).
      *
+     * <p>Only the first invocation acquires a lock; subsequent invocations
+     * return the shared instance without synchronization. (Reloading the
+     * configuration mutates the instance rather than replacing it.)</p>
+     *
      * @return Shared application configuration instance.
      * @throws RuntimeException If the {@link #CONFIG_VM_ARGUMENT} VM argument
      *                          is not set.
      */
-    static synchronized Configuration getInstance() {
-        if (instance == null) {
-            // We are going to return a ConfigurationProvider with either a
-            // MapConfiguration at position 0 (for testing) or an
-            // EnvironmentConfiguration at position 0 and a
-            // HeritablePropertiesConfiguration at position 1 (for production).
-            final List<Configuration> configs = new ArrayList<>();
-
-            final String configArg = System.getProperty(CONFIG_VM_ARGUMENT);
-            if (configArg != null) {
-                switch (configArg) {
-                    case "memory": // we are in "test mode"
-                        configs.add(new MapConfiguration());
-                        break;
-                    default:
-                        configs.add(new EnvironmentConfiguration());
-                        configs.add(new HeritablePropertiesConfiguration());
-                        break;
+    static Configuration getInstance() {
+        Configuration config = instance;
+        if (config == null) {
+            synchronized (ConfigurationFactory.class) {
+                config = instance;
+                if (config == null) {
+                    config = newInstance();
+                    instance = config;
                 }
-            } else {
-                throw new RuntimeException(
-                        "Missing " + CONFIG_VM_ARGUMENT + " VM option.");
             }
+        }
+        return config;
+    }
 
-            configs.forEach(c -> {
-                try {
-                    c.reload();
-                } catch (Exception e) {
-                    System.err.println("ConfigurationFactory.getInstance(): " +
-                            e.getMessage());
-                }
-            });
-            instance = new ConfigurationProvider(configs);
+    /**
+     * @return New configuration instance, read from the source specified by
+     *         the {@link #CONFIG_VM_ARGUMENT} VM argument.
+     */
+    private static Configuration newInstance() {
+        // We are going to return a ConfigurationProvider with either a
+        // MapConfiguration at position 0 (for testing) or an
+        // EnvironmentConfiguration at position 0 and a
+        // HeritablePropertiesConfiguration at position 1 (for production).
+        final List<Configuration> configs = new ArrayList<>();
+
+        final String configArg = System.getProperty(CONFIG_VM_ARGUMENT);
+        if (configArg != null) {
+            switch (configArg) {
+                case "memory": // we are in "test mode"
+                    configs.add(new MapConfiguration());
+                    break;
+                default:
+                    configs.add(new EnvironmentConfiguration());
+                    configs.add(new HeritablePropertiesConfiguration());
+                    break;
+            }
+        } else {
+            throw new RuntimeException(
+                    "Missing " + CONFIG_VM_ARGUMENT + " VM option.");
         }
-        return instance;
+
+        configs.forEach(c -> {
+            try {
+                c.reload();
+            } catch (Exception e) {
+                System.err.println("ConfigurationFactory.newInstance(): " +
+                        e.getMessage());
+            }
+        });
+        return new ConfigurationProvider(configs);
     }
 
     private ConfigurationFactory() {}
@@ -28,6 +28,9 @@ public enum Key {
     ADMIN_ENABLED("endpoint.admin.enabled"),
     ADMIN_SECRET("endpoint.admin.secret"),
     ADMIN_USERNAME("endpoint.admin.username"),
+    ADMISSION_CONTROL_ENABLED("admission_control.enabled"),
+    ADMISSION_CONTROL_MAX_MEMORY("admission_control.max_memory"),
+    ADMISSION_CONTROL_MAX_WAIT("admission_control.max_wait"),
     API_ENABLED("endpoint.api.enabled"),
     API_SECRET("endpoint.api.secret"),
     API_USERNAME("endpoint.api.username"),
@@ -166,10 +169,20 @@ public enum Key {
     PROCESSOR_FALLBACK_RETRIEVAL_STRATEGY("processor.fallback_retrieval_strategy"),
     PROCESSOR_JPG_PROGRESSIVE("processor.jpg.progressive"),
     PROCESSOR_JPG_QUALITY("processor.jpg.quality"),
+    PROCESSOR_MAX_SAMPLE_SIZE("processor.max_sample_size"),
+    PROCESSOR_PDF_DOCUMENT_CACHE_ENABLED("processor.pdf.document_cache.enabled"),
+    PROCESSOR_PDF_DOCUMENT_CACHE_MAX_INSTANCES("processor.pdf.document_cache.max_instances"),
+    PROCESSOR_PDF_DOCUMENT_CACHE_MAX_SIZE("processor.pdf.document_cache.max_size"),
+    PROCESSOR_PDF_DOCUMENT_CACHE_TTL("processor.pdf.document_cache.ttl_seconds"),
+    PROCESSOR_RESAMPLE_KERNEL("processor.resample_kernel"),
     PROCESSOR_SELECTION_STRATEGY("processor.selection_strategy"),
     PROCESSOR_SHARPEN("processor.sharpen"),
     PROCESSOR_STREAM_RETRIEVAL_STRATEGY("processor.stream_retrieval_strategy"),
+    PROCESSOR_TILE_CACHE_ENABLED("processor.tile_cache.enabled"),
+    PROCESSOR_TILE_CACHE_MAX_SIZE("processor.tile_cache.max_size"),
+    PROCESSOR_TILE_CACHE_TTL("processor.tile_cache.ttl_seconds"),
     PROCESSOR_TIF_COMPRESSION("processor.tif.compression"),
+    PROCESSOR_TIF_PARALLEL_DECODING("processor.tif.parallel_decoding"),
     PROCESSOR_UPSCALE_FILTER("processor.upscale_filter"),
     REDACTION_ENABLED("redaction.enabled"),
     REDISCACHE_DATABASE("RedisCache.database"),
@@ -178,6 +191,11 @@ public enum Key {
     REDISCACHE_PORT("RedisCache.port"),
     REDISCACHE_SSL("RedisCache.ssl"),
     SOURCE_DELEGATE("source.delegate"),
+    SOURCE_READ_AHEAD_ENABLED("source.chunking.read_ahead.enabled"),
+    SOURCE_READ_AHEAD_MAX_THREADS("source.chunking.read_ahead.max_threads"),
+    SOURCE_READ_AHEAD_WINDOWS("source.chunking.read_ahead.windows"),
+    SOURCE_SHARED_CHUNK_CACHE_ENABLED("source.chunking.shared_cache.enabled"),
+    SOURCE_SHARED_CHUNK_CACHE_MAX_SIZE("source.chunking.shared_cache.max_size"),
     SOURCE_STATIC("source.static"),
     S3CACHE_ACCESS_KEY_ID("S3Cache.access_key_id"),
     S3CACHE_BUCKET_NAME("S3Cache.bucket.name"),
@@ -199,7 +217,20 @@ public enum Key {
     SLASH_SUBSTITUTE("slash_substitute"),
     SOURCE_CACHE("cache.server.source"),
     SOURCE_CACHE_TTL("cache.server.source.ttl_seconds"),
-    TEMP_PATHNAME("temp_pathname");
+    TASK_QUEUE_API_MAX_SIZE("task_queue.api.max_size"),
+    TASK_QUEUE_API_WORKERS("task_queue.api.workers"),
+    TASK_QUEUE_CACHE_WRITE_MAX_SIZE("task_queue.cache_write.max_size"),
+    TASK_QUEUE_CACHE_WRITE_WORKERS("task_queue.cache_write.workers"),
+    TASK_QUEUE_GENERAL_MAX_SIZE("task_queue.general.max_size"),
+    TASK_QUEUE_GENERAL_WORKERS("task_queue.general.workers"),
+    TASK_QUEUE_PURGE_MAX_SIZE("task_queue.purge.max_size"),
+    TASK_QUEUE_PURGE_WORKERS("task_queue.purge.workers"),
+    TEMP_PATHNAME("temp_pathname"),
+    THREAD_POOL_COMPUTE_PARALLELISM("thread_pool.compute.parallelism"),
+    THREAD_POOL_HIGH_MAX_THREADS("thread_pool.high.max_threads"),
+    THREAD_POOL_IO_MAX_THREADS("thread_pool.io.max_threads"),
+    THREAD_POOL_LOW_MAX_THREADS("thread_pool.low.max_threads"),
+    THREAD_POOL_NORMAL_MAX_THREADS("thread_pool.normal.max_threads");
 
     private String key;
 
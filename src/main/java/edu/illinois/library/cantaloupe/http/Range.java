@@ -1,14 +1,79 @@
 package edu.illinois.library.cantaloupe.http;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
  * HTTP byte range.
  */
 public final class Range {
 
+    private static final Pattern SPEC_PATTERN =
+            Pattern.compile("(\\d*)\\s*-\\s*(\\d*)");
+
     public long start, end, length;
 
+    /**
+     * Parses the value of a {@literal Range} request header (RFC 7233 sec.
+     * 3.1) against a representation of the given length. Unsatisfiable
+     * ranges are omitted, and the end of any range that extends past the end
+     * of the representation is truncated to it.
+     *
+     * @param value  Header value, like {@literal bytes=0-499,-500}.
+     * @param length Length of the representation.
+     * @return       Satisfiable ranges, in the requested order, with their
+     *               {@link #length} set to the given length. If empty, none
+     *               of the requested ranges are satisfiable.
+     * @throws IllegalArgumentException if the value is not a valid byte
+     *         ranges specifier, in which case the header should be ignored.
+     */
+    public static List<Range> parse(String value, long length) {
+        final String prefix = "bytes=";
+        if (value == null ||
+                !value.regionMatches(true, 0, prefix, 0, prefix.length())) {
+            throw new IllegalArgumentException("Unsupported range unit: " +
+                    value);
+        }
+        final List<Range> ranges = new ArrayList<>();
+        for (String spec : value.substring(prefix.length()).split(",")) {
+            final Matcher matcher = SPEC_PATTERN.matcher(spec.trim());
+            if (!matcher.matches() ||
+                    (matcher.group(1).isEmpty() && matcher.group(2).isEmpty())) {
+                throw new IllegalArgumentException("Invalid range: " + spec);
+            }
+            try {
+                if (matcher.group(1).isEmpty()) {
+                    // suffix-byte-range-spec, like "-500"
+                    final long suffixLength = Long.parseLong(matcher.group(2));
+                    if (suffixLength > 0 && length > 0) {
+                        ranges.add(new Range(
+                                Math.max(0, length - suffixLength),
+                                length - 1, length));
+                    }
+                } else {
+                    final long start = Long.parseLong(matcher.group(1));
+                    final long end   = matcher.group(2).isEmpty() ?
+                            Long.MAX_VALUE : Long.parseLong(matcher.group(2));
+                    if (end < start) {
+                        throw new IllegalArgumentException(
+                                "Invalid range: " + spec);
+                    }
+                    if (start < length) {
+                        ranges.add(new Range(start,
+                                Math.min(end, length - 1), length));
+                    }
+                }
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(
+                        "Invalid range: " + spec, e);
+            }
+        }
+        return ranges;
+    }
+
     public Range() {}
 
     public Range(long start, long end) {
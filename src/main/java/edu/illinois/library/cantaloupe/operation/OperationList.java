@@ -274,6 +274,11 @@ public final class OperationList implements Iterable<Operation> {
                         config.getInt(Key.PROCESSOR_JPG_QUALITY, 80);
                 encode.setQuality(quality);
                 break;
+            case PNG:
+                // Sample size
+                encode.setMaxComponentSize(
+                        config.getInt(Key.PROCESSOR_MAX_SAMPLE_SIZE, 8));
+                break;
             case TIF:
                 // Compression
                 final String compressionStr =
@@ -281,6 +286,9 @@ public final class OperationList implements Iterable<Operation> {
                 final Compression compression =
                         Compression.valueOf(compressionStr.toUpperCase());
                 encode.setCompression(compression);
+                // Sample size
+                encode.setMaxComponentSize(
+                        config.getInt(Key.PROCESSOR_MAX_SAMPLE_SIZE, 8));
                 break;
         }
 
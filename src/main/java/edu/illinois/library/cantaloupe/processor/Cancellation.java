@@ -0,0 +1,58 @@
+package edu.illinois.library.cantaloupe.processor;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>Signals that the result of some image processing is no longer
+ * wanted&mdash;typically because writing it to the client failed, which
+ * means that the client has disconnected&mdash;so that it isn't retried or
+ * reported as an error.</p>
+ *
+ * <p>N.B.: the Servlet container doesn't read from a connection while a
+ * request is being handled, so it can't tell that the client has closed it
+ * until the response is written. Cancellation therefore can't interrupt
+ * decoding or resampling that has already started; a failed write is what
+ * stops the encoding.</p>
+ *
+ * @since 5.0
+ */
+public final class Cancellation {
+
+    private static final AtomicLong NUM_CANCELLED = new AtomicLong();
+
+    private volatile boolean isCancelled;
+    private boolean isCounted;
+
+    /**
+     * @return Number of instances that have been {@link #check() found to be
+     *         cancelled} since the application started.
+     */
+    public static long getNumCancelled() {
+        return NUM_CANCELLED.get();
+    }
+
+    public void cancel() {
+        isCancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return isCancelled;
+    }
+
+    /**
+     * @throws ProcessingCancelledException if the instance has been
+     *         cancelled.
+     */
+    public void check() {
+        if (isCancelled()) {
+            synchronized (this) {
+                if (!isCounted) {
+                    isCounted = true;
+                    NUM_CANCELLED.incrementAndGet();
+                }
+            }
+            throw new ProcessingCancelledException();
+        }
+    }
+
+}
@@ -162,7 +162,7 @@ class FfmpegProcessor extends AbstractProcessor implements FileProcessor {
 
             try (final InputStream processInputStream = process.getInputStream();
                  final InputStream processErrorStream = process.getErrorStream()) {
-                ThreadPool.getInstance().submit(
+                ThreadPool.getInstance().submitIO(
                         new StreamCopier(processErrorStream, errorBucket));
 
                 final ImageReader reader = new ImageReaderFactory().newImageReader(
@@ -8,6 +8,7 @@ import edu.illinois.library.cantaloupe.image.Orientation;
 import edu.illinois.library.cantaloupe.operation.ColorTransform;
 import edu.illinois.library.cantaloupe.operation.Crop;
 import edu.illinois.library.cantaloupe.operation.CropByPercent;
+import edu.illinois.library.cantaloupe.operation.Encode;
 import edu.illinois.library.cantaloupe.operation.Operation;
 import edu.illinois.library.cantaloupe.operation.OperationList;
 import edu.illinois.library.cantaloupe.operation.ReductionFactor;
@@ -34,8 +35,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Queue;
 import java.util.Set;
-import java.util.concurrent.CountDownLatch;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinTask;
 import java.util.stream.Collectors;
 
 /**
@@ -105,7 +106,14 @@ final class Java2DPostProcessor {
             readerHints = EnumSet.noneOf(ReaderHint.class);
         }
 
-        image = Java2DUtil.reduceTo8Bits(image);
+
+        // Images with more than 8 bits per sample are only reduced if the
+        // output format requires it, and not until they have been cropped
+        // and scaled, which works at any bit depth, so that fewer pixels have
+        // to be converted. The same goes for transposition and right-angle
+        // rotation, which only rearrange pixels. The remaining operations
+        // work only in 8 bits.
+        final boolean isReducing = isReducingTo8Bits(opList);
 
         final Dimension fullSize = info.getSize();
 
@@ -146,6 +154,9 @@ final class Java2DPostProcessor {
                         op.hasEffect(fullSize, opList))
                 .map(op -> (Redaction) op)
                 .collect(Collectors.toSet());
+        if (!redactions.isEmpty()) {
+            image = Java2DUtil.reduceTo8Bits(image);
+        }
         Java2DUtil.applyRedactions(image, fullSize, crop,
                 new double[] { 1.0, 1.0 }, reductionFactor,
                 opList.getScaleConstraint(), redactions);
@@ -153,6 +164,12 @@ final class Java2DPostProcessor {
         // Apply remaining operations.
         for (Operation op : opList) {
             if (op.hasEffect(fullSize, opList)) {
+                if ((op instanceof Rotate &&
+                        !Java2DUtil.isRightAngle((Rotate) op)) ||
+                        op instanceof ColorTransform ||
+                        op instanceof Sharpen || op instanceof Overlay) {
+                    image = Java2DUtil.reduceTo8Bits(image);
+                }
                 if (op instanceof Scale) {
                     image = Java2DUtil.scale(image, (Scale) op,
                             opList.getScaleConstraint(), reductionFactor);
@@ -169,9 +186,24 @@ final class Java2DPostProcessor {
                 }
             }
         }
+        if (isReducing) {
+            image = Java2DUtil.reduceTo8Bits(image);
+        }
         return image;
     }
 
+    /**
+     * @param opList Operation list to process.
+     * @return       Whether the {@link Encode#getMaxComponentSize() maximum
+     *               sample size} of the {@link Encode} operation in the given
+     *               operation list requires images to be reduced to 8 bits
+     *               per sample.
+     */
+    static boolean isReducingTo8Bits(OperationList opList) {
+        final Encode encode = (Encode) opList.getFirst(Encode.class);
+        return (encode == null || encode.getMaxComponentSize() <= 8);
+    }
+
     /**
      * For processing {@link BufferedImageSequence image sequences}, such as to
      * support animated GIFs.
@@ -203,7 +235,6 @@ final class Java2DPostProcessor {
                     numFrames, Runtime.getRuntime().availableProcessors());
             final int framesPerThread =
                     (int) Math.ceil(numFrames / (float) numThreads);
-            final CountDownLatch latch = new CountDownLatch(numFrames);
 
             LOGGER.debug("Processing {} frames in {} threads ({} frames/thread)",
                     numFrames, numThreads, framesPerThread);
@@ -227,31 +258,36 @@ final class Java2DPostProcessor {
                 }
             }
 
-            // Process each queue in a separate thread.
+            // Process each queue in a separate compute pool task.
+            final List<ForkJoinTask<?>> tasks = new ArrayList<>(numThreads);
             int i = 0;
             for (Queue<Map<String,Object>> queue : processingQueues) {
                 final int queueNum = i;
-                ThreadPool.getInstance().submit(() -> {
+                tasks.add(ThreadPool.getInstance().getComputePool().submit(() -> {
                     Map<String,Object> dict;
                     while ((dict = queue.poll()) != null) {
                         int frameNum = (int) dict.get("frame");
-                        LOGGER.trace("Thread {}: processing frame {} (latch count: {})",
-                                queueNum, frameNum, latch.getCount());
+                        LOGGER.trace("Thread {}: processing frame {}",
+                                queueNum, frameNum);
                         BufferedImage image = (BufferedImage) dict.get("image");
                         image = postProcess(image, null, opList, info, null);
                         sequence.set(frameNum, image);
-                        latch.countDown();
                     }
                     return null;
-                });
+                }));
                 i++;
             }
 
-            // Wait for all threads to finish.
+            // Wait for all tasks to finish. (When called from a compute pool
+            // thread, ForkJoinTask.get() helps run them rather than blocking.)
             try {
-                latch.await(5, TimeUnit.MINUTES); // hopefully not this long...
+                for (ForkJoinTask<?> task : tasks) {
+                    task.get();
+                }
             } catch (InterruptedException e) {
                 throw new IOException(e);
+            } catch (ExecutionException e) {
+                throw new IOException(e.getCause());
             }
         }
     }
@@ -1,5 +1,8 @@
 package edu.illinois.library.cantaloupe.processor;
 
+import edu.illinois.library.cantaloupe.async.ThreadPool;
+import edu.illinois.library.cantaloupe.config.Configuration;
+import edu.illinois.library.cantaloupe.config.Key;
 import edu.illinois.library.cantaloupe.image.Dimension;
 import edu.illinois.library.cantaloupe.image.Orientation;
 import edu.illinois.library.cantaloupe.image.Rectangle;
@@ -36,18 +39,33 @@ import java.awt.FontMetrics;
 import java.awt.Graphics2D;
 import java.awt.RenderingHints;
 import java.awt.Shape;
+import java.awt.color.ColorSpace;
 import java.awt.font.FontRenderContext;
 import java.awt.font.GlyphVector;
 import java.awt.geom.AffineTransform;
-import java.awt.image.AffineTransformOp;
 import java.awt.image.BufferedImage;
 import java.awt.image.ColorConvertOp;
 import java.awt.image.ColorModel;
 import java.awt.image.ComponentColorModel;
+import java.awt.image.DataBuffer;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferInt;
+import java.awt.image.DataBufferShort;
+import java.awt.image.DataBufferUShort;
+import java.awt.image.DirectColorModel;
+import java.awt.image.PixelInterleavedSampleModel;
+import java.awt.image.Raster;
+import java.awt.image.SampleModel;
+import java.awt.image.SinglePixelPackedSampleModel;
 import java.awt.image.WritableRaster;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 /**
  * <p>Collection of methods for operating on {@link BufferedImage}s.</p>
@@ -117,9 +135,250 @@ import java.util.Set;
  */
 public final class Java2DUtil {
 
+    /**
+     * Direct view of the samples of an image whose color samples are 8 bits
+     * wide and either interleaved in a byte array or packed into an int
+     * array, which is the case for most of the standard {@link BufferedImage}
+     * types. Operating on it avoids the per-pixel color model conversions of
+     * {@link BufferedImage#getRGB(int, int)} and {@link
+     * BufferedImage#setRGB(int, int, int)}.
+     */
+    private static final class DirectPixels {
+
+        /**
+         * Exactly one of these is non-{@literal null}.
+         */
+        private final byte[] bytes;
+        private final int[] ints;
+
+        /**
+         * Interleaved: offset of each color sample within a pixel. Packed:
+         * bit offset of each color sample. Either way, in the order of the
+         * color components (red, green, blue or gray), excluding alpha.
+         */
+        private final int[] bands;
+
+        /**
+         * Array index of the pixel at {@literal (0, 0)}.
+         */
+        private final int origin;
+
+        private final int pixelStride, scanlineStride;
+
+        /**
+         * @return Instance over the given image, or {@literal null} if its
+         *         layout or color model is not supported.
+         */
+        static DirectPixels of(BufferedImage image) {
+            final ColorModel cm = image.getColorModel();
+            // Samples of other color models, like IndexColorModel, are not
+            // color components.
+            if (!(cm instanceof ComponentColorModel ||
+                    cm instanceof DirectColorModel)) {
+                return null;
+            }
+            final int colorSpaceType = cm.getColorSpace().getType();
+            if (cm.isAlphaPremultiplied() ||
+                    !(cm.getColorSpace().isCS_sRGB() ||
+                            colorSpaceType == ColorSpace.TYPE_GRAY)) {
+                return null;
+            }
+            for (int size : cm.getComponentSize()) {
+                if (size != 8) {
+                    return null;
+                }
+            }
+            final WritableRaster raster = image.getRaster();
+            final SampleModel sm = raster.getSampleModel();
+            final DataBuffer db = raster.getDataBuffer();
+            if (db.getNumBanks() != 1 ||
+                    sm.getNumBands() != cm.getNumComponents()) {
+                return null;
+            }
+            final int numColorBands = cm.getNumColorComponents();
+            // Rasters of BufferedImages are always based at (0, 0), but
+            // those of subimages are translated relative to their sample
+            // models.
+            final int tx = -raster.getSampleModelTranslateX();
+            final int ty = -raster.getSampleModelTranslateY();
+
+            if (sm instanceof PixelInterleavedSampleModel &&
+                    db instanceof DataBufferByte) {
+                final PixelInterleavedSampleModel pism =
+                        (PixelInterleavedSampleModel) sm;
+                final int[] bands = Arrays.copyOf(
+                        pism.getBandOffsets(), numColorBands);
+                return new DirectPixels(
+                        ((DataBufferByte) db).getData(), null, bands,
+                        db.getOffset() + ty * pism.getScanlineStride() +
+                                tx * pism.getPixelStride(),
+                        pism.getPixelStride(), pism.getScanlineStride());
+            } else if (sm instanceof SinglePixelPackedSampleModel &&
+                    db instanceof DataBufferInt) {
+                final SinglePixelPackedSampleModel sppsm =
+                        (SinglePixelPackedSampleModel) sm;
+                final int[] bands = Arrays.copyOf(
+                        sppsm.getBitOffsets(), numColorBands);
+                for (int i = 0; i < numColorBands; i++) {
+                    if (sppsm.getBitMasks()[i] != 0xff << bands[i]) {
+                        return null;
+                    }
+                }
+                return new DirectPixels(
+                        null, ((DataBufferInt) db).getData(), bands,
+                        db.getOffset() + ty * sppsm.getScanlineStride() + tx,
+                        1, sppsm.getScanlineStride());
+            }
+            return null;
+        }
+
+        private DirectPixels(byte[] bytes, int[] ints, int[] bands,
+                             int origin, int pixelStride, int scanlineStride) {
+            this.bytes          = bytes;
+            this.ints           = ints;
+            this.bands          = bands;
+            this.origin         = origin;
+            this.pixelStride    = pixelStride;
+            this.scanlineStride = scanlineStride;
+        }
+
+        /**
+         * @return Array index of the first sample of the pixel at the given
+         *         coordinates.
+         */
+        int index(int x, int y) {
+            return origin + y * scanlineStride + x * pixelStride;
+        }
+
+    }
+
+    /**
+     * Direct view of the samples of a raster whose pixels each occupy one
+     * element, or a run of consecutive elements, of a single array, which is
+     * the case for most of the standard {@link BufferedImage} types. Unlike
+     * {@link DirectPixels}, it makes no assumptions about what the samples
+     * represent, so it is only suitable for copying whole pixels.
+     */
+    private static final class RasterArray {
+
+        /**
+         * {@literal byte}, {@literal short}, or {@literal int} array.
+         */
+        private final Object data;
+
+        /**
+         * Array index of the first sample of the pixel at {@literal (0, 0)}.
+         */
+        private final int origin;
+
+        private final int pixelStride, scanlineStride;
+
+        /**
+         * @return Instance over the given raster, or {@literal null} if its
+         *         layout is not supported.
+         */
+        static RasterArray of(Raster raster) {
+            final SampleModel sm = raster.getSampleModel();
+            final DataBuffer db = raster.getDataBuffer();
+            if (db.getNumBanks() != 1) {
+                return null;
+            }
+            final Object data;
+            if (db instanceof DataBufferByte) {
+                data = ((DataBufferByte) db).getData();
+            } else if (db instanceof DataBufferUShort) {
+                data = ((DataBufferUShort) db).getData();
+            } else if (db instanceof DataBufferShort) {
+                data = ((DataBufferShort) db).getData();
+            } else if (db instanceof DataBufferInt) {
+                data = ((DataBufferInt) db).getData();
+            } else {
+                return null;
+            }
+
+            final int pixelStride, scanlineStride;
+            if (sm instanceof PixelInterleavedSampleModel) {
+                final PixelInterleavedSampleModel pism =
+                        (PixelInterleavedSampleModel) sm;
+                // Each pixel must span exactly its samples, starting at the
+                // first, for pixels to be copied as a unit, and for rasters
+                // created compatible with this one to have the same layout.
+                final int[] offsets = pism.getBandOffsets();
+                pixelStride = pism.getPixelStride();
+                if (Arrays.stream(offsets).min().orElse(0) != 0 ||
+                        Arrays.stream(offsets).max().orElse(0) != pixelStride - 1) {
+                    return null;
+                }
+                scanlineStride = pism.getScanlineStride();
+            } else if (sm instanceof SinglePixelPackedSampleModel) {
+                pixelStride    = 1;
+                scanlineStride =
+                        ((SinglePixelPackedSampleModel) sm).getScanlineStride();
+            } else {
+                return null;
+            }
+            final int x = raster.getMinX() - raster.getSampleModelTranslateX();
+            final int y = raster.getMinY() - raster.getSampleModelTranslateY();
+            return new RasterArray(data,
+                    db.getOffset() + y * scanlineStride + x * pixelStride,
+                    pixelStride, scanlineStride);
+        }
+
+        private RasterArray(Object data, int origin,
+                            int pixelStride, int scanlineStride) {
+            this.data           = data;
+            this.origin         = origin;
+            this.pixelStride    = pixelStride;
+            this.scanlineStride = scanlineStride;
+        }
+
+        /**
+         * @return Array index of the first sample of the pixel at the given
+         *         coordinates, relative to the minimum coordinates of the
+         *         raster.
+         */
+        int index(int x, int y) {
+            return origin + y * scanlineStride + x * pixelStride;
+        }
+
+    }
+
+    /**
+     * Operates on a range of rows of an image.
+     */
+    @FunctionalInterface
+    private interface RowBandFunction {
+
+        /**
+         * @param startY First row, inclusive.
+         * @param endY   Last row, exclusive.
+         */
+        void apply(int startY, int endY);
+
+    }
+
     private static final Logger LOGGER =
             LoggerFactory.getLogger(Java2DUtil.class);
 
+    /**
+     * Images with fewer pixels than this are processed by {@link
+     * #forEachRowBand} in the calling thread only.
+     */
+    private static final long MIN_PARALLEL_PIXELS = 1024 * 1024;
+
+    /**
+     * Minimum height of the bands that {@link #forEachRowBand} splits
+     * images into.
+     */
+    private static final int MIN_BAND_HEIGHT = 64;
+
+    /**
+     * Width and height of the tiles that {@link #remap} copies pixels in.
+     * Tiles of 64x64 4-byte pixels fill 16KB, half of a typical L1 data
+     * cache.
+     */
+    private static final int REMAP_TILE_SIZE = 64;
+
     /**
      * See the inline documentation in {@link #scale} for a rationale for
      * choosing this.
@@ -344,6 +603,39 @@ public final class Java2DUtil {
         return crop(inImage, roi, true);
     }
 
+    /**
+     * Invokes the given function over all of the rows of the given image.
+     * Large images are split into bands of rows, one of which is processed
+     * in the calling thread and the rest in the {@link
+     * ThreadPool#getComputePool() compute pool}, and this method returns when
+     * all of them have been processed. Bands don't overlap, so functions
+     * that only write to their own rows don't need to synchronize.
+     */
+    private static void forEachRowBand(BufferedImage image,
+                                       RowBandFunction function) {
+        final int height = image.getHeight();
+        final ForkJoinPool pool = ThreadPool.getInstance().getComputePool();
+        final int numBands =
+                ((long) image.getWidth() * height < MIN_PARALLEL_PIXELS) ?
+                        1 : Math.min(pool.getParallelism(),
+                        height / MIN_BAND_HEIGHT);
+        if (numBands <= 1) {
+            function.apply(0, height);
+            return;
+        }
+        final int bandHeight = (int) Math.ceil(height / (double) numBands);
+        final List<ForkJoinTask<?>> tasks = new ArrayList<>(numBands - 1);
+        for (int y = bandHeight; y < height; y += bandHeight) {
+            final int startY = y;
+            final int endY   = Math.min(y + bandHeight, height);
+            tasks.add(pool.submit(() -> function.apply(startY, endY)));
+        }
+        function.apply(0, bandHeight);
+        // Joining, rather than blocking, allows a compute pool thread to
+        // help process the bands.
+        tasks.forEach(ForkJoinTask::join);
+    }
+
     /**
      * @param overlay
      * @return Overlay image.
@@ -710,6 +1002,22 @@ public final class Java2DUtil {
         return new BufferedImage(colorModel, raster, isAlphaPremultiplied, null);
     }
 
+    /**
+     * @return Kernel specified by {@link Key#PROCESSOR_RESAMPLE_KERNEL}, or
+     *         {@link ResampleOp.Kernel#FLOAT} if it is not set or invalid.
+     */
+    private static ResampleOp.Kernel getResampleKernel() {
+        final String value = Configuration.getInstance().getString(
+                Key.PROCESSOR_RESAMPLE_KERNEL, "float");
+        try {
+            return ResampleOp.Kernel.valueOf(value.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            LOGGER.warn("getResampleKernel(): invalid value for {}: {}",
+                    Key.PROCESSOR_RESAMPLE_KERNEL, value);
+            return ResampleOp.Kernel.FLOAT;
+        }
+    }
+
     /**
      * Reduces an image's sample/component size to 8 bits if greater. This
      * involves copying it into a new {@link BufferedImage}, which is expensive.
@@ -821,7 +1129,28 @@ public final class Java2DUtil {
     static BufferedImage rotate(final BufferedImage inImage,
                                 final Rotate rotate) {
         BufferedImage outImage = inImage;
-        if (rotate.hasEffect()) {
+        if (isRightAngle(rotate)) {
+            // Right-angle rotations are a permutation of the pixels, which
+            // can be done exactly and without changing the image type.
+            final Stopwatch watch = new Stopwatch();
+            final int width = inImage.getWidth();
+            final int height = inImage.getHeight();
+            switch ((int) Math.round(rotate.getDegrees() / 90) % 4) {
+                case 1:
+                    outImage = remap(inImage, height, width,
+                            new int[] { 0, -1, height - 1, 1, 0, 0 });
+                    break;
+                case 2:
+                    outImage = remap(inImage, width, height,
+                            new int[] { -1, 0, width - 1, 0, -1, height - 1 });
+                    break;
+                default:
+                    outImage = remap(inImage, height, width,
+                            new int[] { 0, 1, 0, -1, 0, width - 1 });
+                    break;
+            }
+            LOGGER.debug("rotate() executed in {}", watch);
+        } else if (rotate.hasEffect()) {
             final Stopwatch watch = new Stopwatch();
             final double radians = Math.toRadians(rotate.getDegrees());
             final int sourceWidth = inImage.getWidth();
@@ -877,6 +1206,178 @@ public final class Java2DUtil {
         return outImage;
     }
 
+    /**
+     * @param rotate Rotate operation.
+     * @return       Whether the given rotation is by 90, 180, or 270 degrees,
+     *               which {@link #rotate(BufferedImage, Rotate)} performs
+     *               losslessly.
+     */
+    static boolean isRightAngle(Rotate rotate) {
+        final double degrees = rotate.getDegrees();
+        final long quarterTurns = Math.round(degrees / 90);
+        return (quarterTurns % 4 != 0 &&
+                Math.abs(degrees - quarterTurns * 90) < 0.0001);
+    }
+
+    /**
+     * Rearranges the pixels of an image without resampling them, for {@link
+     * #rotate rotations} by multiples of 90 degrees and {@link #transpose
+     * transpositions}. Each source pixel {@literal (x, y)} is copied verbatim
+     * to {@literal (ax * x + bx * y + cx, ay * x + by * y + cy)} in an image
+     * with the same color and sample models as the source.
+     *
+     * @param inImage   Image to remap.
+     * @param outWidth  Width of the remapped image.
+     * @param outHeight Height of the remapped image.
+     * @param mapping   Six-element {@literal {ax, bx, cx, ay, by, cy}} array.
+     * @return          New image.
+     */
+    private static BufferedImage remap(final BufferedImage inImage,
+                                       final int outWidth,
+                                       final int outHeight,
+                                       final int[] mapping) {
+        final WritableRaster inRaster  = inImage.getRaster();
+        final WritableRaster outRaster =
+                inRaster.createCompatibleWritableRaster(outWidth, outHeight);
+        final int ax = mapping[0], bx = mapping[1], cx = mapping[2];
+        final int ay = mapping[3], by = mapping[4], cy = mapping[5];
+        final int width = inImage.getWidth();
+        // Mappings that keep rows as rows don't need narrow tiles.
+        final int tileWidth = (ay == 0) ? width : REMAP_TILE_SIZE;
+        final RasterArray in  = RasterArray.of(inRaster);
+        final RasterArray out = RasterArray.of(outRaster);
+
+        // Pixels are copied a tile at a time so that both the rows being
+        // read and the columns being written stay in cache.
+        if (in != null && out != null && in.pixelStride == out.pixelStride) {
+            // Copy directly between the backing arrays.
+            final int n = in.pixelStride;
+            forEachRowBand(inImage, (startY, endY) -> {
+                for (int ty = startY; ty < endY; ty += REMAP_TILE_SIZE) {
+                    final int th = Math.min(REMAP_TILE_SIZE, endY - ty);
+                    for (int tx = 0; tx < width; tx += tileWidth) {
+                        final int tw = Math.min(tileWidth, width - tx);
+                        copyPixels(in.data, in.index(tx, ty),
+                                n, in.scanlineStride,
+                                out.data, out.index(ax * tx + bx * ty + cx,
+                                        ay * tx + by * ty + cy),
+                                ax * n + ay * out.scanlineStride,
+                                bx * n + by * out.scanlineStride,
+                                tw, th, n);
+                    }
+                }
+            });
+        } else {
+            // Copy through the raster, which works with any sample model.
+            final int minX = inRaster.getMinX();
+            final int minY = inRaster.getMinY();
+            final int n    = inRaster.getNumDataElements();
+            forEachRowBand(inImage, (startY, endY) -> {
+                Object inTile = null;
+                final Object outTile = outRaster.getDataElements(0, 0,
+                        Math.min(tileWidth, outWidth),
+                        Math.min(REMAP_TILE_SIZE, outHeight), null);
+                for (int ty = startY; ty < endY; ty += REMAP_TILE_SIZE) {
+                    final int th = Math.min(REMAP_TILE_SIZE, endY - ty);
+                    for (int tx = 0; tx < width; tx += tileWidth) {
+                        final int tw = Math.min(tileWidth, width - tx);
+                        inTile = inRaster.getDataElements(
+                                minX + tx, minY + ty, tw, th, inTile);
+
+                        // The destination rectangle is spanned by the images
+                        // of two opposite corners of the tile.
+                        final int x0 = ax * tx + bx * ty + cx;
+                        final int y0 = ay * tx + by * ty + cy;
+                        final int x1 = x0 + ax * (tw - 1) + bx * (th - 1);
+                        final int y1 = y0 + ay * (tw - 1) + by * (th - 1);
+                        final int rx = Math.min(x0, x1);
+                        final int ry = Math.min(y0, y1);
+                        final int rw = Math.abs(x1 - x0) + 1;
+                        final int rh = Math.abs(y1 - y0) + 1;
+                        copyPixels(inTile, 0, n, tw * n,
+                                outTile, ((x0 - rx) + (y0 - ry) * rw) * n,
+                                (ax + ay * rw) * n, (bx + by * rw) * n,
+                                tw, th, n);
+                        outRaster.setDataElements(rx, ry, rw, rh, outTile);
+                    }
+                }
+            });
+        }
+        return new BufferedImage(inImage.getColorModel(), outRaster,
+                inImage.isAlphaPremultiplied(), null);
+    }
+
+    /**
+     * Copies a rectangle of pixels between two arrays of samples, in which
+     * the pixels may be laid out in different directions.
+     *
+     * @param src          Source {@literal byte}, {@literal short}, {@literal
+     *                     int}, or other primitive array.
+     * @param srcStart     Index of the first sample of the first pixel.
+     * @param srcColStep   Distance between horizontally adjacent pixels.
+     * @param srcRowStep   Distance between vertically adjacent pixels.
+     * @param dst          Destination array of the same type.
+     * @param dstStart     Index to copy the first pixel to.
+     * @param dstColStep   Distance between the pixels that horizontally
+     *                     adjacent source pixels are copied to.
+     * @param dstRowStep   Distance between the pixels that vertically adjacent
+     *                     source pixels are copied to.
+     * @param width        Width of the rectangle.
+     * @param height       Height of the rectangle.
+     * @param n            Number of consecutive samples per pixel.
+     */
+    private static void copyPixels(Object src, int srcStart,
+                                   int srcColStep, int srcRowStep,
+                                   Object dst, int dstStart,
+                                   int dstColStep, int dstRowStep,
+                                   int width, int height, int n) {
+        if (src instanceof byte[]) {
+            final byte[] in = (byte[]) src, out = (byte[]) dst;
+            for (int y = 0; y < height; y++) {
+                int s = srcStart + y * srcRowStep;
+                int d = dstStart + y * dstRowStep;
+                for (int x = 0; x < width; x++, s += srcColStep, d += dstColStep) {
+                    out[d] = in[s];
+                    for (int b = 1; b < n; b++) {
+                        out[d + b] = in[s + b];
+                    }
+                }
+            }
+        } else if (src instanceof short[]) {
+            final short[] in = (short[]) src, out = (short[]) dst;
+            for (int y = 0; y < height; y++) {
+                int s = srcStart + y * srcRowStep;
+                int d = dstStart + y * dstRowStep;
+                for (int x = 0; x < width; x++, s += srcColStep, d += dstColStep) {
+                    out[d] = in[s];
+                    for (int b = 1; b < n; b++) {
+                        out[d + b] = in[s + b];
+                    }
+                }
+            }
+        } else if (src instanceof int[]) {
+            final int[] in = (int[]) src, out = (int[]) dst;
+            for (int y = 0; y < height; y++) {
+                int s = srcStart + y * srcRowStep;
+                int d = dstStart + y * dstRowStep;
+                for (int x = 0; x < width; x++, s += srcColStep, d += dstColStep) {
+                    out[d] = in[s];
+                    for (int b = 1; b < n; b++) {
+                        out[d + b] = in[s + b];
+                    }
+                }
+            }
+        } else {
+            for (int y = 0; y < height; y++) {
+                int s = srcStart + y * srcRowStep;
+                int d = dstStart + y * dstRowStep;
+                for (int x = 0; x < width; x++, s += srcColStep, d += dstColStep) {
+                    System.arraycopy(src, s, dst, d, n);
+                }
+            }
+        }
+    }
+
     /**
      * <p>Scales an image, taking an already-applied reduction factor into
      * account. In other words, the dimensions of the input image have already
@@ -980,6 +1481,7 @@ public final class Java2DUtil {
                     }
                 }
                 resampleOp.setFilter(filter);
+                resampleOp.setKernel(getResampleKernel());
 
                 scaledImage = resampleOp.filter(inImage, null);
 
@@ -1031,8 +1533,8 @@ public final class Java2DUtil {
      * @return               Filtered image, or the input image if the given
      *                       operation is a no-op.
      */
-    static BufferedImage transformColor(final BufferedImage inImage,
-                                        final ColorTransform colorTransform) {
+    public static BufferedImage transformColor(final BufferedImage inImage,
+                                               final ColorTransform colorTransform) {
         BufferedImage outImage = inImage;
         final Stopwatch watch = new Stopwatch();
 
@@ -1054,76 +1556,182 @@ public final class Java2DUtil {
     }
 
     /**
-     * Grayscales the given image's pixels.
+     * Grayscales the given image's pixels in place, preserving alpha.
      */
     private static void grayscale(BufferedImage image) {
-        for (int x = 0; x < image.getWidth(); x++) {
-            for (int j = 0; j < image.getHeight(); j++) {
-                int alpha = new java.awt.Color(image.getRGB(x, j)).getAlpha();
-                int red   = new java.awt.Color(image.getRGB(x, j)).getRed();
-                int green = new java.awt.Color(image.getRGB(x, j)).getGreen();
-                int blue  = new java.awt.Color(image.getRGB(x, j)).getBlue();
-
-                red = (int) (0.21 * red + 0.71 * green + 0.07 * blue);
-                Color color = new Color(red, red, red, alpha);
-                image.setRGB(x, j, color.getARGB());
-            }
+        if (image.getColorModel().getColorSpace().getType() ==
+                ColorSpace.TYPE_GRAY) {
+            return;
+        }
+        final int width = image.getWidth();
+        final DirectPixels px = DirectPixels.of(image);
+        if (px == null) {
+            forEachRowBand(image, (startY, endY) -> {
+                final int[] row = new int[width];
+                for (int y = startY; y < endY; y++) {
+                    image.getRGB(0, y, width, 1, row, 0, width);
+                    for (int x = 0; x < width; x++) {
+                        final int argb = row[x];
+                        final int v = luma((argb >> 16) & 0xff,
+                                (argb >> 8) & 0xff, argb & 0xff);
+                        row[x] = (argb & 0xff000000) | (v << 16) | (v << 8) | v;
+                    }
+                    image.setRGB(0, y, width, 1, row, 0, width);
+                }
+            });
+        } else if (px.bytes != null) {
+            final byte[] data = px.bytes;
+            final int r = px.bands[0], g = px.bands[1], b = px.bands[2];
+            forEachRowBand(image, (startY, endY) -> {
+                for (int y = startY; y < endY; y++) {
+                    int i = px.index(0, y);
+                    for (int x = 0; x < width; x++, i += px.pixelStride) {
+                        final byte v = (byte) luma(data[i + r] & 0xff,
+                                data[i + g] & 0xff, data[i + b] & 0xff);
+                        data[i + r] = v;
+                        data[i + g] = v;
+                        data[i + b] = v;
+                    }
+                }
+            });
+        } else {
+            final int[] data = px.ints;
+            final int r = px.bands[0], g = px.bands[1], b = px.bands[2];
+            final int colorMask = (0xff << r) | (0xff << g) | (0xff << b);
+            forEachRowBand(image, (startY, endY) -> {
+                for (int y = startY; y < endY; y++) {
+                    int i = px.index(0, y);
+                    for (int x = 0; x < width; x++, i++) {
+                        final int pixel = data[i];
+                        final int v = luma((pixel >>> r) & 0xff,
+                                (pixel >>> g) & 0xff, (pixel >>> b) & 0xff);
+                        data[i] = (pixel & ~colorMask) |
+                                (v << r) | (v << g) | (v << b);
+                    }
+                }
+            });
         }
     }
 
+    private static int luma(int red, int green, int blue) {
+        return (21 * red + 71 * green + 7 * blue) / 100;
+    }
+
     /**
-     * Binarizes the given image's pixels.
+     * Binarizes the given image's pixels in place, preserving alpha. The
+     * threshold is computed from the red (or gray) samples using Otsu's
+     * method.
      *
      * @see <a href="https://bostjan-cigan.com/java-image-binarization-using-otsus-algorithm/">
      *     Java Image Binarization Using Otsu's Algorithm</a>
      */
     private static void binarize(BufferedImage image) {
-        int red;
-        int newPixel;
-        int threshold = otsuThreshold(image);
-
-        for (int x = 0; x < image.getWidth(); x++) {
-            for (int y = 0; y < image.getHeight(); y++) {
-                red = new Color(image.getRGB(x, y)).getRed();
-                int alpha = new Color(image.getRGB(x, y)).getAlpha();
-                if (red > threshold) {
-                    newPixel = 255;
-                } else {
-                    newPixel = 0;
+        final int width = image.getWidth();
+        final DirectPixels px = DirectPixels.of(image);
+        final int threshold = otsuThreshold(histogram(image, px),
+                width * image.getHeight());
+
+        if (px == null) {
+            forEachRowBand(image, (startY, endY) -> {
+                final int[] row = new int[width];
+                for (int y = startY; y < endY; y++) {
+                    image.getRGB(0, y, width, 1, row, 0, width);
+                    for (int x = 0; x < width; x++) {
+                        final int argb = row[x];
+                        final int v = (((argb >> 16) & 0xff) > threshold) ?
+                                0xffffff : 0;
+                        row[x] = (argb & 0xff000000) | v;
+                    }
+                    image.setRGB(0, y, width, 1, row, 0, width);
+                }
+            });
+        } else if (px.bytes != null) {
+            final byte[] data = px.bytes;
+            final int[] bands = px.bands;
+            forEachRowBand(image, (startY, endY) -> {
+                for (int y = startY; y < endY; y++) {
+                    int i = px.index(0, y);
+                    for (int x = 0; x < width; x++, i += px.pixelStride) {
+                        final byte v = ((data[i + bands[0]] & 0xff) > threshold) ?
+                                (byte) 0xff : 0;
+                        for (int band : bands) {
+                            data[i + band] = v;
+                        }
+                    }
                 }
-                Color color = new Color(newPixel, newPixel, newPixel, alpha);
-                image.setRGB(x, y, color.getARGB());
+            });
+        } else {
+            final int[] data = px.ints;
+            final int r = px.bands[0];
+            int mask = 0;
+            for (int band : px.bands) {
+                mask |= 0xff << band;
             }
+            final int colorMask = mask;
+            forEachRowBand(image, (startY, endY) -> {
+                for (int y = startY; y < endY; y++) {
+                    int i = px.index(0, y);
+                    for (int x = 0; x < width; x++, i++) {
+                        final int pixel = data[i];
+                        data[i] = (((pixel >>> r) & 0xff) > threshold) ?
+                                pixel | colorMask : pixel & ~colorMask;
+                    }
+                }
+            });
         }
     }
 
     /**
-     * @return Histogram of a grayscale image.
+     * @param image Image to analyze.
+     * @param px    Direct view of the image, or {@literal null} if it
+     *              doesn't have one.
+     * @return      Histogram of the red (or gray) samples of the image.
      */
-    private static int[] histogram(BufferedImage input) {
-        int[] histogram = new int[256];
-
-        for (int i = 0; i < histogram.length; i++) {
-            histogram[i] = 0;
-        }
-
-        for (int x = 0; x < input.getWidth(); x++) {
-            for (int y = 0; y < input.getHeight(); y++) {
-                int red = new Color(input.getRGB(x, y)).getRed();
-                histogram[red]++;
+    private static int[] histogram(BufferedImage image, DirectPixels px) {
+        final int width = image.getWidth();
+        final int[] histogram = new int[256];
+        forEachRowBand(image, (startY, endY) -> {
+            final int[] bandHistogram = new int[256];
+            if (px == null) {
+                final int[] row = new int[width];
+                for (int y = startY; y < endY; y++) {
+                    image.getRGB(0, y, width, 1, row, 0, width);
+                    for (int x = 0; x < width; x++) {
+                        bandHistogram[(row[x] >> 16) & 0xff]++;
+                    }
+                }
+            } else if (px.bytes != null) {
+                final int r = px.bands[0];
+                for (int y = startY; y < endY; y++) {
+                    int i = px.index(0, y) + r;
+                    for (int x = 0; x < width; x++, i += px.pixelStride) {
+                        bandHistogram[px.bytes[i] & 0xff]++;
+                    }
+                }
+            } else {
+                final int r = px.bands[0];
+                for (int y = startY; y < endY; y++) {
+                    int i = px.index(0, y);
+                    for (int x = 0; x < width; x++, i++) {
+                        bandHistogram[(px.ints[i] >>> r) & 0xff]++;
+                    }
+                }
             }
-        }
+            synchronized (histogram) {
+                for (int i = 0; i < histogram.length; i++) {
+                    histogram[i] += bandHistogram[i];
+                }
+            }
+        });
         return histogram;
     }
 
     /**
-     * @param image
-     * @return Binary threshold using Otsu's method.
+     * @param histogram 256-bin histogram.
+     * @param total     Sum of all of the bins.
+     * @return          Binary threshold using Otsu's method.
      */
-    private static int otsuThreshold(BufferedImage image) {
-        int[] histogram = histogram(image);
-        int total = image.getHeight() * image.getWidth();
-
+    private static int otsuThreshold(int[] histogram, int total) {
         float sum = 0;
         for (int i = 0; i < 256; i++) {
             sum += i * histogram[i];
@@ -1162,6 +1770,8 @@ public final class Java2DUtil {
     }
 
     /**
+     * Flips an image losslessly, preserving its type.
+     *
      * @param inImage   Image to transpose.
      * @param transpose Operation to apply.
      * @return          Transposed image.
@@ -1169,18 +1779,18 @@ public final class Java2DUtil {
     static BufferedImage transpose(final BufferedImage inImage,
                                    final Transpose transpose) {
         final Stopwatch watch = new Stopwatch();
-        AffineTransform tx = AffineTransform.getScaleInstance(-1, 1);
+        final int width = inImage.getWidth();
+        final int height = inImage.getHeight();
+        final int[] mapping;
         switch (transpose) {
-            case HORIZONTAL:
-                tx.translate(-inImage.getWidth(null), 0);
-                break;
             case VERTICAL:
-                tx.translate(0, -inImage.getHeight(null));
+                mapping = new int[] { 1, 0, 0, 0, -1, height - 1 };
+                break;
+            default:
+                mapping = new int[] { -1, 0, width - 1, 0, 1, 0 };
                 break;
         }
-        AffineTransformOp op = new AffineTransformOp(tx,
-                AffineTransformOp.TYPE_BILINEAR);
-        BufferedImage outImage = op.filter(inImage, null);
+        final BufferedImage outImage = remap(inImage, width, height, mapping);
 
         LOGGER.debug("transpose(): transposed image in {}", watch);
         return outImage;
@@ -52,6 +52,7 @@ class Java2dProcessor extends AbstractImageIOProcessor
         ImageReader reader = null;
         try {
             reader = getReader();
+            reader.setIdentifier(ops.getIdentifier());
             final ReductionFactor rf    = new ReductionFactor();
             final Set<ReaderHint> hints = EnumSet.noneOf(ReaderHint.class);
 
@@ -515,8 +515,8 @@ class OpenJpegProcessor extends AbstractProcessor implements FileProcessor {
         try (final InputStream processInputStream =
                      new BufferedInputStream(process.getInputStream());
              final InputStream processErrorStream = process.getErrorStream()) {
-            pool.submit(new StreamCopier(processErrorStream, errorOutput));
-            pool.submit(new StreamCopier(processInputStream, inputBucket));
+            pool.submitIO(new StreamCopier(processErrorStream, errorOutput));
+            pool.submitIO(new StreamCopier(processInputStream, inputBucket));
 
             final int code = process.waitFor();
             if (code != 0) {
@@ -572,7 +572,7 @@ class OpenJpegProcessor extends AbstractProcessor implements FileProcessor {
         try (final InputStream processInputStream =
                      new BufferedInputStream(process.getInputStream());
              final InputStream processErrorStream = process.getErrorStream()) {
-            ThreadPool.getInstance().submit(
+            ThreadPool.getInstance().submitIO(
                     new StreamCopier(processErrorStream, errorOutput));
 
             final ImageReader reader = new ImageReaderFactory().newImageReader(
@@ -3,9 +3,12 @@ package edu.illinois.library.cantaloupe.processor;
 import edu.illinois.library.cantaloupe.config.Configuration;
 import edu.illinois.library.cantaloupe.config.Key;
 import edu.illinois.library.cantaloupe.image.Dimension;
+import edu.illinois.library.cantaloupe.image.Identifier;
 import edu.illinois.library.cantaloupe.image.Info;
 import edu.illinois.library.cantaloupe.image.Metadata;
+import edu.illinois.library.cantaloupe.image.Rectangle;
 import edu.illinois.library.cantaloupe.image.ScaleConstraint;
+import edu.illinois.library.cantaloupe.operation.Crop;
 import edu.illinois.library.cantaloupe.operation.Encode;
 import edu.illinois.library.cantaloupe.operation.OperationList;
 import edu.illinois.library.cantaloupe.operation.ReductionFactor;
@@ -18,7 +21,7 @@ import edu.illinois.library.cantaloupe.processor.codec.ImageWriterFacade;
 import edu.illinois.library.cantaloupe.resource.iiif.ProcessorFeature;
 import edu.illinois.library.cantaloupe.source.StreamFactory;
 import edu.illinois.library.cantaloupe.util.Stopwatch;
-import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.CountingInputStream;
 import org.apache.pdfbox.cos.COSObject;
 import org.apache.pdfbox.pdmodel.DefaultResourceCache;
 import org.apache.pdfbox.pdmodel.PDDocument;
@@ -30,11 +33,14 @@ import org.apache.pdfbox.rendering.PDFRenderer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.awt.Color;
+import java.awt.Graphics2D;
 import java.awt.image.BufferedImage;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Collections;
 import java.util.EnumSet;
@@ -54,8 +60,16 @@ class PdfBoxProcessor extends AbstractProcessor
 
     private static final int DEFAULT_DPI = 150;
 
-    private PDDocument doc;
-    private Metadata metadata;
+    /**
+     * Tile size reported in {@link #readInfo() infos}. PDF pages aren't
+     * physically tiled, but as regions are rendered individually, this
+     * encourages clients to request regions rather than whole pages at high
+     * scales.
+     */
+    private static final int TILE_SIZE = 512;
+
+    private Identifier identifier;
+    private PdfDocumentCache.Lease lease;
     private Path sourceFile;
     private StreamFactory streamFactory;
 
@@ -72,9 +86,10 @@ class PdfBoxProcessor extends AbstractProcessor
 
     @Override
     public void close() {
-        IOUtils.closeQuietly(doc);
-        doc = null;
-        metadata = null;
+        if (lease != null) {
+            lease.close();
+            lease = null;
+        }
     }
 
     @Override
@@ -116,6 +131,10 @@ class PdfBoxProcessor extends AbstractProcessor
         try {
             super.process(opList, imageInfo, outputStream);
 
+            if (identifier == null) {
+                identifier = opList.getIdentifier();
+            }
+
             final ScaleConstraint scaleConstraint = opList.getScaleConstraint();
 
             final Set<ReaderHint> hints = EnumSet.noneOf(ReaderHint.class);
@@ -130,8 +149,17 @@ class PdfBoxProcessor extends AbstractProcessor
             // This processor supports a "page" URI query argument.
             int page = getPageNumber(opList.getOptions());
 
-            BufferedImage image = readImage(
-                    page - 1, reductionFactor, scaleConstraint);
+            // If the request is for a region, render only that region,
+            // rather than rendering the whole page and cropping it.
+            BufferedImage image;
+            final Crop crop = (Crop) opList.getFirst(Crop.class);
+            if (crop != null && crop.hasEffect(imageInfo.getSize(), opList)) {
+                image = readRegion(
+                        page - 1, crop, reductionFactor, scaleConstraint);
+                hints.add(ReaderHint.ALREADY_CROPPED);
+            } else {
+                image = readImage(page - 1, reductionFactor, scaleConstraint);
+            }
             image = Java2DPostProcessor.postProcess(
                     image, hints, opList, imageInfo, reductionFactor);
             ImageWriterFacade.write(image,
@@ -170,43 +198,90 @@ class PdfBoxProcessor extends AbstractProcessor
         return false;
     }
 
+    /**
+     * Acquires a {@link #lease} on the source document, from the {@link
+     * PdfDocumentCache} if it is enabled.
+     */
     private void readDocument() throws IOException {
-        if (doc == null) {
-            final Stopwatch watch = new Stopwatch();
-
+        if (lease == null) {
+            if (!PdfDocumentCache.isEnabled()) {
+                lease = PdfDocumentCache.uncached(loadDocument(false));
+                return;
+            }
+            final PdfDocumentCache.DocumentKey key;
             if (sourceFile != null) {
-                doc = PDDocument.load(sourceFile.toFile());
+                key = new PdfDocumentCache.DocumentKey(
+                        identifier,
+                        (identifier == null) ? sourceFile : null,
+                        Files.getLastModifiedTime(sourceFile).toMillis(),
+                        Files.size(sourceFile));
+            } else if (identifier != null) {
+                // Streams have no validator, so documents read from them
+                // expire instead.
+                key = new PdfDocumentCache.DocumentKey(identifier, null, 0, 0);
             } else {
-                try (InputStream is = streamFactory.newInputStream()) {
-                    doc = PDDocument.load(is);
-                } catch (IOException e) {
-                    throw new SourceFormatException();
-                }
+                lease = PdfDocumentCache.uncached(loadDocument(false));
+                return;
             }
+            lease = PdfDocumentCache.getInstance()
+                    .acquire(key, () -> loadDocument(true));
+        }
+    }
 
-            // Disable the document's cache of PDImageXObjects
-            // See: https://pdfbox.apache.org/2.0/faq.html#outofmemoryerror
-            // This cache has never proven to be a problem, but it's not needed.
-            doc.setResourceCache(new DefaultResourceCache() {
-                @Override
-                public void put(COSObject indirect, PDXObject xobject) {
-                    // no-op
-                }
-            });
-
-            // Read the document's XMP metadata.
-            final PDMetadata pdfMetadata = doc.getDocumentCatalog().getMetadata();
-            if (pdfMetadata != null) {
-                try (InputStream is = pdfMetadata.exportXMPMetadata()) {
-                    ByteArrayOutputStream os = new ByteArrayOutputStream();
-                    is.transferTo(os);
-                    metadata = new Metadata();
-                    metadata.setXMP(os.toByteArray());
-                }
+    /**
+     * @param isCached Whether the document will be cached. Cached documents
+     *                 are read fully into memory rather than being backed by
+     *                 their source file, which would otherwise be held open
+     *                 indefinitely.
+     */
+    private PdfDocumentCache.Entry loadDocument(boolean isCached)
+            throws IOException {
+        final Stopwatch watch = new Stopwatch();
+        final PDDocument doc;
+        final long byteSize;
+
+        if (sourceFile != null && isCached) {
+            try (InputStream is = Files.newInputStream(sourceFile)) {
+                doc = PDDocument.load(is);
+            }
+            byteSize = Files.size(sourceFile);
+        } else if (sourceFile != null) {
+            doc = PDDocument.load(sourceFile.toFile());
+            byteSize = Files.size(sourceFile);
+        } else {
+            try (CountingInputStream is =
+                         new CountingInputStream(streamFactory.newInputStream())) {
+                doc = PDDocument.load(is);
+                byteSize = is.getByteCount();
+            } catch (IOException e) {
+                throw new SourceFormatException();
             }
+        }
 
-            LOGGER.debug("Loaded document in {}", watch);
+        // Disable the document's cache of PDImageXObjects
+        // See: https://pdfbox.apache.org/2.0/faq.html#outofmemoryerror
+        // This cache has never proven to be a problem, but it's not needed.
+        doc.setResourceCache(new DefaultResourceCache() {
+            @Override
+            public void put(COSObject indirect, PDXObject xobject) {
+                // no-op
+            }
+        });
+
+        // Read the document's XMP metadata.
+        Metadata metadata = null;
+        final PDMetadata pdfMetadata = doc.getDocumentCatalog().getMetadata();
+        if (pdfMetadata != null) {
+            try (InputStream is = pdfMetadata.exportXMPMetadata()) {
+                ByteArrayOutputStream os = new ByteArrayOutputStream();
+                is.transferTo(os);
+                metadata = new Metadata();
+                metadata.setXMP(os.toByteArray());
+            }
         }
+
+        LOGGER.debug("Loaded document in {}", watch);
+        return new PdfDocumentCache.Entry(doc, metadata, byteSize);
     }
 
     /**
@@ -230,10 +305,74 @@ class PdfBoxProcessor extends AbstractProcessor
         LOGGER.debug("DPI: {}", dpi);
 
         readDocument();
+        final PDDocument doc = lease.getDocument();
         PDFRenderer renderer = new PDFRenderer(doc);
         return renderer.renderImageWithDPI(pageIndex, (float) dpi);
     }
 
+    /**
+     * @param pageIndex       Zero-based page index.
+     * @param crop            Crop to apply to the page.
+     * @param rf              Reduction factor, which determines the DPI.
+     * @param scaleConstraint Scale constraint.
+     * @return                Rasterized region of the PDF page, rendered
+     *                        without rasterizing the rest of the page.
+     */
+    private BufferedImage readRegion(int pageIndex,
+                                     Crop crop,
+                                     ReductionFactor rf,
+                                     ScaleConstraint scaleConstraint) throws IOException {
+        final double dpi = new RasterizationHelper().getDPI(
+                rf.factor, scaleConstraint);
+        final float scale = (float) (dpi / 72.0);
+        LOGGER.debug("DPI: {}", dpi);
+
+        readDocument();
+        final PDDocument doc = lease.getDocument();
+        final Dimension pageSize =
+                getRenderedSize(doc.getPage(pageIndex), scale);
+        final Rectangle region =
+                crop.getRectangle(pageSize, rf, scaleConstraint);
+        final int width  = Math.max(region.intWidth(), 1);
+        final int height = Math.max(region.intHeight(), 1);
+        LOGGER.debug("Rendering {}x{} region of {} page",
+                width, height, pageSize);
+
+        // This mimics PDFRenderer.renderImage(), except that the page is
+        // translated so that only the region is drawn.
+        final BufferedImage image = new BufferedImage(
+                width, height, BufferedImage.TYPE_INT_RGB);
+        final Graphics2D g2d = image.createGraphics();
+        try {
+            g2d.setBackground(Color.WHITE);
+            g2d.clearRect(0, 0, width, height);
+            g2d.translate(-region.intX(), -region.intY());
+            new PDFRenderer(doc).renderPageToGraphics(pageIndex, g2d, scale);
+        } finally {
+            g2d.dispose();
+        }
+        return image;
+    }
+
+    /**
+     * @return Size of the image that {@link
+     *         PDFRenderer#renderImage(int, float)} would render from the given
+     *         page at the given scale.
+     */
+    static Dimension getRenderedSize(PDPage page, float scale) {
+        final PDRectangle cropBox = page.getCropBox();
+        int width  = (int) Math.max(Math.floor(cropBox.getWidth() * scale), 1);
+        int height = (int) Math.max(Math.floor(cropBox.getHeight() * scale), 1);
+        final int rotationAngle = page.getRotation();
+        if (rotationAngle == 90 || rotationAngle == 270) {
+            int tmp = width;
+            //noinspection SuspiciousNameCombination
+            width   = height;
+            height  = tmp;
+        }
+        return new Dimension(width, height);
+    }
+
     @Override
     public Info readInfo() throws IOException {
         readDocument();
@@ -243,14 +382,15 @@ class PdfBoxProcessor extends AbstractProcessor
         final float scale = dpi / 72f;
         final Info info = Info.builder()
                 .withFormat(getSourceFormat())
-                .withMetadata(metadata)
+                .withMetadata(lease.getMetadata())
                 .withNumResolutions(1)
                 .build();
         info.getImages().clear();
 
+        final PDDocument doc = lease.getDocument();
         for (int i = 0; i < doc.getNumberOfPages(); i++) {
-            // PDF doesn't have native dimensions, so figure out the dimensions
-            // at the current DPI setting.
+            // PDF doesn't have native dimensions, so figure out the
+            // dimensions at the current DPI setting.
             final PDPage page         = doc.getPage(i);
             final PDRectangle cropBox = page.getCropBox();
             final float widthPt       = cropBox.getWidth();
@@ -266,15 +406,21 @@ class PdfBoxProcessor extends AbstractProcessor
                 heightPx = tmp;
             }
 
-            Dimension size   = new Dimension(widthPx, heightPx);
             Info.Image image = new Info.Image();
-            image.setSize(size);
-            image.setTileSize(size);
+            image.setSize(new Dimension(widthPx, heightPx));
+            image.setTileSize(new Dimension(
+                    Math.min(widthPx, TILE_SIZE),
+                    Math.min(heightPx, TILE_SIZE)));
             info.getImages().add(image);
         }
         return info;
     }
 
+    @Override
+    public void setIdentifier(Identifier identifier) {
+        this.identifier = identifier;
+    }
+
     @Override
     public void setSourceFile(Path sourceFile) {
         this.streamFactory = null;
@@ -299,8 +445,12 @@ class PdfBoxProcessor extends AbstractProcessor
         if (pageStr != null) {
             final int page = Integer.parseInt(pageStr);
             try {
+                if (identifier == null) {
+                    identifier = opList.getIdentifier();
+                }
                 readDocument();
-                if (page > doc.getNumberOfPages()) {
+                final int numPages = lease.getDocument().getNumberOfPages();
+                if (page > numPages) {
                     close();
                     throw new ValidationException(
                             "Page number is out-of-bounds.");
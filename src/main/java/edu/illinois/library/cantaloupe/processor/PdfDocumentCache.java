@@ -0,0 +1,562 @@
+package edu.illinois.library.cantaloupe.processor;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import edu.illinois.library.cantaloupe.config.Configuration;
+import edu.illinois.library.cantaloupe.config.Key;
+import edu.illinois.library.cantaloupe.image.Identifier;
+import edu.illinois.library.cantaloupe.image.Metadata;
+import org.apache.commons.io.IOUtils;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>Heap cache of loaded {@link PDDocument}s, shared across requests, so that
+ * requests for different pages, tiles, or infos of the same PDF don't have to
+ * parse it again.</p>
+ *
+ * <p>Documents are keyed by identifier (or, lacking one, source file path)
+ * and, for file-based sources, the source file's modification time and
+ * length. Documents read from streams, which have no such validator, expire
+ * after {@link Key#PROCESSOR_PDF_DOCUMENT_CACHE_TTL} so that changed sources
+ * are eventually reloaded. The cache is bounded by the total byte size of the
+ * source documents, which is a rough proxy for the memory occupied by their
+ * parsed object graphs.</p>
+ *
+ * <p>As {@link PDDocument}s are not thread-safe, each {@link Lease lease}
+ * has exclusive use of a document instance. Up to {@link
+ * Key#PROCESSOR_PDF_DOCUMENT_CACHE_MAX_INSTANCES} instances of the same
+ * document are loaded for concurrent leases, after which further leases wait
+ * for an instance to be released. Each instance counts toward the size of the
+ * cache.</p>
+ *
+ * <p>Entries are reference-counted: an evicted entry's instances are not
+ * closed until all of its leases have been released.</p>
+ *
+ * @since 5.0
+ */
+public final class PdfDocumentCache {
+
+    /**
+     * Loads a document that isn't cached.
+     */
+    @FunctionalInterface
+    interface Loader {
+        Entry load() throws IOException;
+    }
+
+    static final class DocumentKey {
+
+        private final Identifier identifier;
+        private final Path file;
+        private final long lastModified, length;
+
+        /**
+         * @param identifier   Source image identifier. May be {@literal null}
+         *                     if {@literal file} is not.
+         * @param file         Source file. May be {@literal null} if {@literal
+         *                     identifier} is not.
+         * @param lastModified Last-modified time of {@literal file}, or
+         *                     {@literal 0} if {@literal file} is {@literal
+         *                     null}.
+         * @param length       Length of {@literal file}, or {@literal 0} if
+         *                     {@literal file} is {@literal null}.
+         */
+        DocumentKey(Identifier identifier,
+                    Path file,
+                    long lastModified,
+                    long length) {
+            this.identifier   = identifier;
+            this.file         = file;
+            this.lastModified = lastModified;
+            this.length       = length;
+        }
+
+        /**
+         * @return Whether the key identifies a version of the source file,
+         *         rather than only an identifier.
+         */
+        boolean hasValidator() {
+            return lastModified != 0 || length != 0;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == this) {
+                return true;
+            } else if (obj instanceof DocumentKey) {
+                DocumentKey other = (DocumentKey) obj;
+                return lastModified == other.lastModified &&
+                        length == other.length &&
+                        Objects.equals(identifier, other.identifier) &&
+                        Objects.equals(file, other.file);
+            }
+            return false;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(identifier, file, lastModified, length);
+        }
+
+        @Override
+        public String toString() {
+            return ((identifier != null) ? identifier : file) +
+                    " [" + lastModified + "/" + length + "]";
+        }
+
+    }
+
+    /**
+     * Cached document, comprising one or more loaded instances of it, along
+     * with its metadata and reference count.
+     */
+    static final class Entry {
+
+        /**
+         * All open instances, whether idle or leased.
+         */
+        private final List<PDDocument> documents = new ArrayList<>();
+        private final Deque<PDDocument> idleDocuments = new ArrayDeque<>();
+        private final Metadata metadata;
+        private final int byteSize;
+        private int numLoading, refCount;
+        private boolean isEvicted, isClosed;
+
+        /**
+         * @param document Loaded document.
+         * @param metadata Metadata read from the document. May be {@literal
+         *                 null}.
+         * @param byteSize Byte size of the source document.
+         */
+        Entry(PDDocument document, Metadata metadata, long byteSize) {
+            this.documents.add(document);
+            this.idleDocuments.push(document);
+            this.metadata = metadata;
+            this.byteSize = (int) Math.min(byteSize, Integer.MAX_VALUE);
+        }
+
+        /**
+         * @return Number of open instances.
+         */
+        synchronized int getNumInstances() {
+            return documents.size();
+        }
+
+        /**
+         * @return Byte size of the source document times the number of open
+         *         instances.
+         */
+        synchronized int getWeight() {
+            return (int) Math.min(
+                    (long) byteSize * documents.size(), Integer.MAX_VALUE);
+        }
+
+        /**
+         * Checks out an idle instance for exclusive use. If there are none,
+         * and fewer than the given maximum are open, a new one is loaded with
+         * the given loader. Otherwise, this method waits for one to be
+         * {@link #checkIn checked in}.
+         */
+        PDDocument checkOut(Loader loader,
+                            int maxInstances) throws IOException {
+            synchronized (this) {
+                while (idleDocuments.isEmpty() &&
+                        documents.size() + numLoading >= maxInstances) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new InterruptedIOException();
+                    }
+                }
+                if (!idleDocuments.isEmpty()) {
+                    return idleDocuments.pop();
+                }
+                numLoading++;
+            }
+            PDDocument document = null;
+            try {
+                document = loader.load().documents.get(0);
+                return document;
+            } finally {
+                synchronized (this) {
+                    numLoading--;
+                    if (document != null) {
+                        documents.add(document);
+                    }
+                    notifyAll();
+                }
+            }
+        }
+
+        synchronized void checkIn(PDDocument document) {
+            idleDocuments.push(document);
+            notifyAll();
+        }
+
+        /**
+         * @return Whether a reference was acquired. If not, the document has
+         *         already been closed.
+         */
+        synchronized boolean retain() {
+            if (isClosed) {
+                return false;
+            }
+            refCount++;
+            return true;
+        }
+
+        synchronized void release() {
+            refCount--;
+            closeIfUnused();
+        }
+
+        synchronized void evict() {
+            isEvicted = true;
+            closeIfUnused();
+        }
+
+        private void closeIfUnused() {
+            if (isEvicted && refCount <= 0 && !isClosed) {
+                isClosed = true;
+                documents.forEach(IOUtils::closeQuietly);
+            }
+        }
+
+        synchronized boolean isClosed() {
+            return isClosed;
+        }
+
+    }
+
+    /**
+     * Exclusive use of a document instance. Its {@link #close()} method
+     * returns the instance to its entry and releases the reference, closing
+     * the entry's instances only if it has been evicted and is not referenced
+     * anywhere else.
+     */
+    static final class Lease implements AutoCloseable {
+
+        private final Entry entry;
+        private final PDDocument document;
+        private boolean isReleased;
+
+        private Lease(Entry entry, PDDocument document) {
+            this.entry    = entry;
+            this.document = document;
+        }
+
+        /**
+         * @return Leased document, which is not used by any other thread
+         *         until the lease is closed.
+         */
+        PDDocument getDocument() {
+            return document;
+        }
+
+        /**
+         * @return Metadata read from the document. May be {@literal null}.
+         */
+        Metadata getMetadata() {
+            return entry.metadata;
+        }
+
+        @Override
+        public synchronized void close() {
+            if (!isReleased) {
+                isReleased = true;
+                entry.checkIn(document);
+                entry.release();
+            }
+        }
+
+    }
+
+    private static final Logger LOGGER =
+            LoggerFactory.getLogger(PdfDocumentCache.class);
+
+    private static final int DEFAULT_MAX_INSTANCES = 4;
+
+    private static final long DEFAULT_MAX_SIZE = 1024 * 1024 * 100;
+
+    private static final long DEFAULT_TTL_SECONDS = 3600;
+
+    private static PdfDocumentCache instance;
+
+    private final long maxSize;
+
+    private final int maxInstances;
+
+    // This is thread-safe.
+    private final Cache<DocumentKey, Entry> store;
+
+    private final AtomicLong numHits   = new AtomicLong();
+    private final AtomicLong numMisses = new AtomicLong();
+
+    /**
+     * For testing only!
+     */
+    static synchronized void clearInstance() {
+        instance = null;
+    }
+
+    /**
+     * @return Shared instance.
+     */
+    public static synchronized PdfDocumentCache getInstance() {
+        if (instance == null) {
+            final Configuration config = Configuration.getInstance();
+            final long maxSize = config.getLongBytes(
+                    Key.PROCESSOR_PDF_DOCUMENT_CACHE_MAX_SIZE,
+                    DEFAULT_MAX_SIZE);
+            final int maxInstances = config.getInt(
+                    Key.PROCESSOR_PDF_DOCUMENT_CACHE_MAX_INSTANCES,
+                    DEFAULT_MAX_INSTANCES);
+            final long ttl = config.getLong(
+                    Key.PROCESSOR_PDF_DOCUMENT_CACHE_TTL, DEFAULT_TTL_SECONDS);
+            instance = new PdfDocumentCache(maxSize,
+                    (maxInstances > 0) ? maxInstances : DEFAULT_MAX_INSTANCES,
+                    ttl);
+        }
+        return instance;
+    }
+
+    /**
+     * @return Whether the document cache is enabled in the application
+     *         configuration.
+     */
+    public static boolean isEnabled() {
+        return Configuration.getInstance().getBoolean(
+                Key.PROCESSOR_PDF_DOCUMENT_CACHE_ENABLED, false);
+    }
+
+    /**
+     * Returns a lease on a document that is not cached, which will be closed
+     * as soon as the lease is released.
+     */
+    static Lease uncached(Entry entry) {
+        // Retain the entry before evicting it, as evicting an unreferenced
+        // entry closes it.
+        entry.retain();
+        entry.evict();
+        synchronized (entry) {
+            return new Lease(entry, entry.idleDocuments.pop());
+        }
+    }
+
+    /**
+     * @param maxSize Maximum total byte size of all cached documents.
+     */
+    PdfDocumentCache(long maxSize) {
+        this(maxSize, DEFAULT_MAX_INSTANCES);
+    }
+
+    /**
+     * @param maxSize      Maximum total byte size of all cached documents.
+     * @param maxInstances Maximum number of instances of each document.
+     */
+    PdfDocumentCache(long maxSize, int maxInstances) {
+        this(maxSize, maxInstances, 0);
+    }
+
+    /**
+     * @param maxSize      Maximum total byte size of all cached documents.
+     * @param maxInstances Maximum number of instances of each document.
+     * @param ttlSeconds   Number of seconds after which a document whose key
+     *                     has no {@link DocumentKey#hasValidator() validator}
+     *                     expires, or {@literal 0} for no expiry.
+     */
+    PdfDocumentCache(long maxSize, int maxInstances, long ttlSeconds) {
+        LOGGER.info("Max {} size: {} bytes; max instances per document: {}; " +
+                        "TTL: {} seconds",
+                PdfDocumentCache.class.getSimpleName(), maxSize, maxInstances,
+                ttlSeconds);
+        this.maxSize      = maxSize;
+        this.maxInstances = maxInstances;
+        final long ttlNanos = (ttlSeconds > 0) ?
+                TimeUnit.SECONDS.toNanos(ttlSeconds) : Long.MAX_VALUE;
+        this.store        = Caffeine.newBuilder()
+                .maximumWeight(maxSize)
+                .<DocumentKey, Entry>weigher((key, entry) -> entry.getWeight())
+                .expireAfter(new Expiry<DocumentKey, Entry>() {
+                    @Override
+                    public long expireAfterCreate(DocumentKey key,
+                                                  Entry entry,
+                                                  long currentTime) {
+                        return key.hasValidator() ? Long.MAX_VALUE : ttlNanos;
+                    }
+
+                    // Entries are only updated in order to be reweighed, which
+                    // doesn't renew them.
+                    @Override
+                    public long expireAfterUpdate(DocumentKey key,
+                                                  Entry entry,
+                                                  long currentTime,
+                                                  long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(DocumentKey key,
+                                                Entry entry,
+                                                long currentTime,
+                                                long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                // Run the listener in the evicting thread so that documents
+                // are closed promptly.
+                .executor(Runnable::run)
+                .removalListener((DocumentKey key, Entry entry, RemovalCause cause) -> {
+                    LOGGER.debug("Removing {} ({})", key, cause);
+                    // Entries are only ever replaced by themselves, in order
+                    // to be reweighed.
+                    if (entry != null && cause != RemovalCause.REPLACED) {
+                        entry.evict();
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * Returns a lease on an instance of the document corresponding to the
+     * given key, loading it with the given loader if it is not cached.
+     * Concurrent calls for an uncached key share one load. If all of a cached
+     * document's instances are leased, another one is loaded, unless there
+     * are already as many as {@link #maxInstances()}, in which case this
+     * method waits for one to be released.
+     *
+     * @param key    Document key.
+     * @param loader Loader to invoke in case of a cache miss, or to load
+     *               another instance.
+     * @return       Lease, which the caller must {@link Lease#close() close}
+     *               when it is done with the document.
+     */
+    Lease acquire(DocumentKey key, Loader loader) throws IOException {
+        while (true) {
+            final boolean[] isLoaded = new boolean[1];
+            final Entry entry;
+            try {
+                entry = store.get(key, k -> {
+                    try {
+                        // Retain the new entry before it is added, so that it
+                        // can't be closed by an immediate eviction (e.g. if it
+                        // is bigger than the whole cache).
+                        Entry newEntry = loader.load();
+                        newEntry.retain();
+                        isLoaded[0] = true;
+                        return newEntry;
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            if (isLoaded[0]) {
+                numMisses.incrementAndGet();
+                return checkOut(key, entry, loader);
+            } else if (entry.retain()) {
+                numHits.incrementAndGet();
+                return checkOut(key, entry, loader);
+            }
+            // The entry was evicted and closed in between being retrieved and
+            // retained; make sure it's gone and try again.
+            store.asMap().remove(key, entry);
+        }
+    }
+
+    /**
+     * @param entry Entry that has been {@link Entry#retain() retained}, which
+     *              will be released if no instance can be checked out.
+     */
+    private Lease checkOut(DocumentKey key,
+                           Entry entry,
+                           Loader loader) throws IOException {
+        final int numInstances = entry.getNumInstances();
+        final PDDocument document;
+        try {
+            document = entry.checkOut(loader, maxInstances);
+        } catch (IOException | RuntimeException e) {
+            entry.release();
+            throw e;
+        }
+        if (entry.getNumInstances() > numInstances) {
+            LOGGER.debug("Loaded instance {} of {}",
+                    entry.getNumInstances(), key);
+            // Reweigh the entry now that it has another instance.
+            store.asMap().replace(key, entry, entry);
+        }
+        return new Lease(entry, document);
+    }
+
+    /**
+     * Performs any pending maintenance, such as evictions.
+     */
+    void cleanUp() {
+        store.cleanUp();
+    }
+
+    public long getNumHits() {
+        return numHits.get();
+    }
+
+    public long getNumMisses() {
+        return numMisses.get();
+    }
+
+    /**
+     * @return Maximum number of instances of each document.
+     */
+    public int maxInstances() {
+        return maxInstances;
+    }
+
+    /**
+     * @return Maximum total byte size of all cached documents.
+     */
+    public long maxSize() {
+        return maxSize;
+    }
+
+    public void purge() {
+        LOGGER.debug("purge()");
+        store.invalidateAll();
+    }
+
+    /**
+     * Purges all documents corresponding to the given identifier.
+     */
+    public void purge(Identifier identifier) {
+        LOGGER.debug("purge(Identifier): purging {}", identifier);
+        store.asMap().keySet()
+                .removeIf(key -> identifier.equals(key.identifier));
+    }
+
+    /**
+     * @return Current total byte size of all cached documents. This is
+     *         approximate, as it does not account for pending evictions.
+     */
+    public long size() {
+        return store.policy().eviction()
+                .map(e -> e.weightedSize().orElse(0))
+                .orElse(0L);
+    }
+
+}
@@ -0,0 +1,20 @@
+package edu.illinois.library.cantaloupe.processor;
+
+import java.util.concurrent.CancellationException;
+
+/**
+ * Thrown by {@link Cancellation#check()} when the result of some image
+ * processing is no longer wanted. Unlike other {@link
+ * CancellationException}s, which may be thrown by cancelled tasks in other
+ * threads for any number of reasons, this one always means that the work was
+ * abandoned deliberately.
+ *
+ * @since 5.0
+ */
+public class ProcessingCancelledException extends CancellationException {
+
+    public ProcessingCancelledException() {
+        super("Processing was cancelled");
+    }
+
+}
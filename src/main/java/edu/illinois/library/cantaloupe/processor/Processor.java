@@ -2,6 +2,7 @@ package edu.illinois.library.cantaloupe.processor;
 
 import edu.illinois.library.cantaloupe.image.Dimension;
 import edu.illinois.library.cantaloupe.image.Format;
+import edu.illinois.library.cantaloupe.image.Identifier;
 import edu.illinois.library.cantaloupe.image.Info;
 import edu.illinois.library.cantaloupe.operation.OperationList;
 import edu.illinois.library.cantaloupe.operation.ValidationException;
@@ -172,6 +173,17 @@ public interface Processor extends AutoCloseable {
      */
     Info readInfo() throws IOException;
 
+    /**
+     * <p>Tells the instance the identifier of the source image, which it may
+     * use to key any caches of source-derived data across instances.</p>
+     *
+     * <p>This default implementation does nothing.</p>
+     *
+     * @param identifier Identifier of the source image.
+     * @since 5.0
+     */
+    default void setIdentifier(Identifier identifier) {}
+
     /**
      * @param format Expected format of the source image.
      * @throws SourceFormatException if the given format is not supported.
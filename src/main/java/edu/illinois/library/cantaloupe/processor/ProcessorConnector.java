@@ -142,6 +142,8 @@ public final class ProcessorConnector {
         final String sourceName    = source.getClass().getSimpleName();
         final String processorName = processor.getClass().getSimpleName();
 
+        processor.setIdentifier(identifier);
+
         if (source instanceof FileSource) {
             if (processor instanceof FileProcessor) {
                 LOGGER.debug("{} -> {} connection between {} and {}",
@@ -15,6 +15,7 @@ import edu.illinois.library.cantaloupe.operation.OperationList;
 import edu.illinois.library.cantaloupe.operation.ReductionFactor;
 import edu.illinois.library.cantaloupe.operation.Rotate;
 import edu.illinois.library.cantaloupe.operation.Scale;
+import edu.illinois.library.cantaloupe.operation.ScaleByPixels;
 import edu.illinois.library.cantaloupe.operation.Sharpen;
 import edu.illinois.library.cantaloupe.operation.Transpose;
 import edu.illinois.library.cantaloupe.operation.overlay.Overlay;
@@ -22,14 +23,18 @@ import edu.illinois.library.cantaloupe.operation.redaction.Redaction;
 import edu.illinois.library.cantaloupe.processor.codec.jpeg.JPEGMetadataReader;
 import edu.illinois.library.cantaloupe.processor.codec.jpeg.TurboJPEGImageReader;
 import edu.illinois.library.cantaloupe.processor.codec.jpeg.TurboJPEGImageWriter;
+import edu.illinois.library.cantaloupe.processor.codec.jpeg.TransformationNotSupportedException;
 import edu.illinois.library.cantaloupe.resource.iiif.ProcessorFeature;
 import edu.illinois.library.cantaloupe.source.StreamFactory;
+import edu.illinois.library.cantaloupe.util.Rational;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.imageio.stream.FileImageInputStream;
 import java.awt.image.BufferedImage;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.file.Path;
 import java.util.Collections;
 import java.util.EnumSet;
 import java.util.Set;
@@ -50,7 +55,7 @@ import java.util.stream.Collectors;
  * @author Alex Dolski UIUC
  */
 public class TurboJpegProcessor extends AbstractProcessor
-        implements StreamProcessor {
+        implements FileProcessor, StreamProcessor {
 
     private static final Logger LOGGER =
             LoggerFactory.getLogger(TurboJpegProcessor.class);
@@ -91,6 +96,12 @@ public class TurboJpegProcessor extends AbstractProcessor
 
     private static boolean isClassInitialized;
 
+    /**
+     * Largest reduction factor corresponding to a libjpeg-turbo scaling
+     * factor (1/8).
+     */
+    private static final int MAX_REDUCTION_FACTOR = 3;
+
     private static final boolean USE_FAST_DECODE_DCT = true;
     private static final boolean USE_FAST_ENCODE_DCT = true;
 
@@ -99,8 +110,38 @@ public class TurboJpegProcessor extends AbstractProcessor
     private TurboJPEGImageReader imageReader;
     private final JPEGMetadataReader metadataReader = new JPEGMetadataReader();
 
+    private Path sourceFile;
+
+    /**
+     * Will be {@literal null} if {@link #sourceFile} isn't.
+     */
     private StreamFactory streamFactory;
 
+    /**
+     * @param roiWithinSafeRegion ROI within the MCU-safe region returned by
+     *                            the reader, in full-scale coordinates.
+     * @param reductionFactor     Reduction factor applied by the reader.
+     * @param imageWidth          Width of the image returned by the reader.
+     * @param imageHeight         Height of the image returned by the reader.
+     * @return                    ROI within the image returned by the reader.
+     */
+    static Rectangle getReducedROI(Rectangle roiWithinSafeRegion,
+                                   ReductionFactor reductionFactor,
+                                   int imageWidth,
+                                   int imageHeight) {
+        final Rectangle roi    = new Rectangle(roiWithinSafeRegion);
+        final double rfScale   = reductionFactor.getScale();
+        roi.scaleX(rfScale);
+        roi.scaleY(rfScale);
+        roi.setX(Math.min(roi.intX(), imageWidth - 1));
+        roi.setY(Math.min(roi.intY(), imageHeight - 1));
+        roi.setWidth(Math.max(1,
+                Math.min(roi.intWidth(), imageWidth - roi.intX())));
+        roi.setHeight(Math.max(1,
+                Math.min(roi.intHeight(), imageHeight - roi.intY())));
+        return roi;
+    }
+
     private static synchronized void initializeClass() {
         if (!isClassInitialized) {
             isClassInitialized = true;
@@ -143,6 +184,11 @@ public class TurboJpegProcessor extends AbstractProcessor
         return initializationError;
     }
 
+    @Override
+    public Path getSourceFile() {
+        return sourceFile;
+    }
+
     @Override
     public Format getSourceFormat() {
         return Format.JPG;
@@ -175,6 +221,23 @@ public class TurboJpegProcessor extends AbstractProcessor
         return false;
     }
 
+    /**
+     * Reading from a file is preferable to reading from a stream, as the
+     * reader can then size its buffer exactly.
+     */
+    @Override
+    public void setSourceFile(Path sourceFile) {
+        this.sourceFile    = sourceFile;
+        this.streamFactory = null;
+        imageReader.setSource(sourceFile);
+        try {
+            metadataReader.setSource(
+                    new FileImageInputStream(sourceFile.toFile()));
+        } catch (IOException e) {
+            LOGGER.warn(e.getMessage());
+        }
+    }
+
     @Override
     public void setSourceFormat(Format format)
             throws SourceFormatException {
@@ -186,6 +249,7 @@ public class TurboJpegProcessor extends AbstractProcessor
     @Override
     public void setStreamFactory(StreamFactory streamFactory) {
         this.streamFactory = streamFactory;
+        this.sourceFile    = null;
         try {
             imageReader.setSource(streamFactory.newInputStream());
         } catch (IOException e) {
@@ -213,21 +277,64 @@ public class TurboJpegProcessor extends AbstractProcessor
             writer.setUseFastDCT(USE_FAST_ENCODE_DCT);
             writer.setSubsampling(imageReader.getSubsampling());
 
+            // If there is a crop operation, have the reader decompress only
+            // the MCU blocks covering it, and retain a reference to it for
+            // subsequent operations to refer to.
+            Crop crop = (Crop) opList.getFirst(Crop.class);
+            Rectangle roi = new Rectangle(0, 0,
+                    fullSize.width(), fullSize.height());
+            if (crop != null && crop.hasEffect(fullSize, opList)) {
+                roi = crop.getRectangle(fullSize, scaleConstraint);
+                imageReader.setRegion(roi.intX(), roi.intY(),
+                        roi.intWidth(), roi.intHeight());
+            } else {
+                crop = new CropByPercent();
+            }
+
+            // If the image is to be rotated by a right angle and not cropped,
+            // have libjpeg-turbo rotate it losslessly, in the DCT domain,
+            // before decompressing it.
+            TurboJPEGImageReader.Transform transform =
+                    getLosslessTransform(opList, fullSize);
+            if (transform != null) {
+                try {
+                    imageReader.setTransform(transform);
+                } catch (TransformationNotSupportedException e) {
+                    LOGGER.debug("process(): {}", e.getMessage());
+                    transform = null;
+                }
+            }
+
+            // Have libjpeg-turbo decompress at the smallest power-of-two
+            // scale that is still at least as large as the requested scale.
+            // ResampleOp will take care of the remainder.
+            final Scale scale = (Scale) opList.getFirst(Scale.class);
+            if (scale != null && scale.hasEffect(fullSize, opList)) {
+                reductionFactor.factor = scale.getReductionFactor(
+                        roi.size(), scaleConstraint,
+                        MAX_REDUCTION_FACTOR).factor;
+                if (reductionFactor.factor > 0) {
+                    try {
+                        imageReader.setScale(
+                                new Rational(1, 1 << reductionFactor.factor));
+                    } catch (TransformationNotSupportedException e) {
+                        LOGGER.debug("process(): {}", e.getMessage());
+                        reductionFactor.factor = 0;
+                    }
+                }
+            }
+
             final Rectangle roiWithinSafeRegion = new Rectangle();
             BufferedImage image =
                     imageReader.readAsBufferedImage(roiWithinSafeRegion);
 
-            // Apply the crop operation, if present, and retain a reference
-            // to it for subsequent operations to refer to.
-            Crop crop = new CropByPercent();
-            for (Operation op : opList) {
-                if (op instanceof Crop) {
-                    crop = (Crop) op;
-                    if (crop.hasEffect(fullSize, opList)) {
-                        image = Java2DUtil.crop(image, crop, reductionFactor,
-                                opList.getScaleConstraint());
-                    }
-                }
+            // The reader has returned an MCU-aligned region that may be
+            // slightly larger than the ROI, so crop away the excess.
+            if (crop.hasEffect(fullSize, opList)) {
+                image = Java2DUtil.crop(image,
+                        getReducedROI(roiWithinSafeRegion, reductionFactor,
+                                image.getWidth(), image.getHeight()),
+                        true);
             }
 
             // Redactions happen immediately after cropping.
@@ -245,12 +352,14 @@ public class TurboJpegProcessor extends AbstractProcessor
                     continue;
                 }
                 if (op instanceof Scale) {
-                    image = Java2DUtil.scale(image, (Scale) op,
-                            scaleConstraint, reductionFactor);
+                    image = scale(image, (Scale) op, scaleConstraint,
+                            reductionFactor, transform);
                 } else if (op instanceof Transpose) {
                     image = Java2DUtil.transpose(image, (Transpose) op);
                 } else if (op instanceof Rotate) {
-                    image = Java2DUtil.rotate(image, (Rotate) op);
+                    if (transform == null) {
+                        image = Java2DUtil.rotate(image, (Rotate) op);
+                    }
                 } else if (op instanceof ColorTransform) {
                     image = Java2DUtil.transformColor(image, (ColorTransform) op);
                 } else if (op instanceof Sharpen) {
@@ -276,6 +385,66 @@ public class TurboJpegProcessor extends AbstractProcessor
         }
     }
 
+    /**
+     * @param opList   Operation list to process.
+     * @param fullSize Full size of the source image.
+     * @return         Lossless transform equivalent to the right-angle
+     *                 rotation in the given operation list, or {@code null}
+     *                 if there is none or it can't be applied to the whole
+     *                 image before any other operations.
+     */
+    private static TurboJPEGImageReader.Transform getLosslessTransform(
+            OperationList opList, Dimension fullSize) {
+        final Rotate rotate = (Rotate) opList.getFirst(Rotate.class);
+        if (rotate == null || !Java2DUtil.isRightAngle(rotate)) {
+            return null;
+        }
+        // Crops and redactions are relative to the unrotated image, and
+        // transpositions precede rotation.
+        for (Operation op : opList) {
+            if ((op instanceof Crop || op instanceof Redaction ||
+                    op instanceof Transpose) && op.hasEffect(fullSize, opList)) {
+                return null;
+            }
+        }
+        switch ((int) Math.round(rotate.getDegrees() / 90) % 4) {
+            case 1:
+                return TurboJPEGImageReader.Transform.ROTATE_90;
+            case 2:
+                return TurboJPEGImageReader.Transform.ROTATE_180;
+            default:
+                return TurboJPEGImageReader.Transform.ROTATE_270;
+        }
+    }
+
+    /**
+     * Wraps {@link Java2DUtil#scale} to account for a {@link
+     * #getLosslessTransform lossless transform} that has already been applied
+     * to the image, even though the scale is relative to the image as it was
+     * before.
+     *
+     * @param transform Transform applied by the reader. May be {@code null}.
+     */
+    private static BufferedImage scale(BufferedImage image,
+                                       Scale scale,
+                                       ScaleConstraint scaleConstraint,
+                                       ReductionFactor reductionFactor,
+                                       TurboJPEGImageReader.Transform transform) {
+        if (transform != null && transform.isTransposing()) {
+            final Dimension size = scale.getResultingSize(
+                    new Dimension(image.getHeight(), image.getWidth()),
+                    reductionFactor, scaleConstraint);
+            final ScaleByPixels transposedScale = new ScaleByPixels(
+                    Math.max(1, size.intHeight()),
+                    Math.max(1, size.intWidth()),
+                    ScaleByPixels.Mode.NON_ASPECT_FILL);
+            transposedScale.setFilter(scale.getFilter());
+            scale = transposedScale;
+        }
+        return Java2DUtil.scale(image, scale, scaleConstraint,
+                reductionFactor);
+    }
+
     @Override
     public Info readInfo() throws IOException {
         return Info.builder()
@@ -1,6 +1,8 @@
 package edu.illinois.library.cantaloupe.processor.codec;
 
+import edu.illinois.library.cantaloupe.async.ThreadPool;
 import edu.illinois.library.cantaloupe.image.Dimension;
+import edu.illinois.library.cantaloupe.image.Identifier;
 import edu.illinois.library.cantaloupe.image.Rectangle;
 import edu.illinois.library.cantaloupe.image.ScaleConstraint;
 import edu.illinois.library.cantaloupe.operation.Crop;
@@ -19,15 +21,22 @@ import org.slf4j.Logger;
 import javax.imageio.IIOException;
 import javax.imageio.ImageIO;
 import javax.imageio.ImageReadParam;
+import javax.imageio.spi.ImageReaderSpi;
 import javax.imageio.stream.ImageInputStream;
 import java.awt.image.BufferedImage;
 import java.awt.image.RenderedImage;
+import java.awt.image.WritableRaster;
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 /**
  * Supplies some base functionality and tries to be efficient with most
@@ -35,6 +44,19 @@ import java.util.Set;
  */
 public abstract class AbstractIIOImageReader {
 
+    /**
+     * Minimum number of tiles that a region must span in order to be decoded
+     * in parallel by {@link #tileAwareRead}.
+     */
+    private static final int MIN_PARALLEL_TILES = 4;
+
+    /**
+     * Maximum number of tiles that a region can span in order for its tiles
+     * to be cached in the {@link DecodedTileCache}. Larger regions are read
+     * directly, so as not to flush the cache.
+     */
+    private static final int MAX_CACHEABLE_TILES = 64;
+
     /**
      * Assigned by {@link #createReader()}.
      */
@@ -50,6 +72,13 @@ public abstract class AbstractIIOImageReader {
      */
     protected Object source;
 
+    /**
+     * Identifier of the source image, used as a key in the {@link
+     * DecodedTileCache}. May be {@literal null}, in which case that cache
+     * will not be used.
+     */
+    private Identifier identifier;
+
     protected static void handle(IIOException e) throws IOException {
         // Image I/O ImageReaders don't distinguish between errors resulting
         // from an incompatible format and other kinds of errors, so we have to
@@ -66,6 +95,62 @@ public abstract class AbstractIIOImageReader {
         throw e;
     }
 
+    /**
+     * @return Pool used for parallel decoding.
+     */
+    private static ForkJoinPool getDecodingPool() {
+        return ThreadPool.getInstance().getComputePool();
+    }
+
+    /**
+     * Divides a region into parts that are aligned to the tile grid, for the
+     * purpose of decoding them in parallel. The region is split along
+     * whichever axis spans more tiles.
+     *
+     * @param region   Region to split, which must lie within the image.
+     * @param tileSize Tile size.
+     * @param maxParts Maximum number of parts.
+     * @return         Parts, in row-major order, that together cover the
+     *                 region. If the region spans fewer than {@link
+     *                 #MIN_PARALLEL_TILES}, the list contains only the
+     *                 region.
+     */
+    static List<Rectangle> splitRegion(Rectangle region,
+                                       Dimension tileSize,
+                                       int maxParts) {
+        final int tileWidth  = tileSize.intWidth();
+        final int tileHeight = tileSize.intHeight();
+        final int x1 = region.intX(), y1 = region.intY();
+        final int x2 = x1 + region.intWidth(), y2 = y1 + region.intHeight();
+        final int firstCol = x1 / tileWidth, lastCol = (x2 - 1) / tileWidth;
+        final int firstRow = y1 / tileHeight, lastRow = (y2 - 1) / tileHeight;
+        final int numCols = lastCol - firstCol + 1;
+        final int numRows = lastRow - firstRow + 1;
+
+        final List<Rectangle> parts = new ArrayList<>();
+        if (numCols * numRows < MIN_PARALLEL_TILES || maxParts < 2) {
+            parts.add(region);
+            return parts;
+        }
+
+        final boolean splitRows = (numRows >= numCols);
+        final int numTiles      = splitRows ? numRows : numCols;
+        final int numParts      = Math.min(numTiles, maxParts);
+        final int tilesPerPart  = (int) Math.ceil(numTiles / (double) numParts);
+        for (int i = 0; i < numTiles; i += tilesPerPart) {
+            if (splitRows) {
+                int py1 = Math.max(y1, (firstRow + i) * tileHeight);
+                int py2 = Math.min(y2, (firstRow + i + tilesPerPart) * tileHeight);
+                parts.add(new Rectangle(x1, py1, x2 - x1, py2 - py1));
+            } else {
+                int px1 = Math.max(x1, (firstCol + i) * tileWidth);
+                int px2 = Math.min(x2, (firstCol + i + tilesPerPart) * tileWidth);
+                parts.add(new Rectangle(px1, y1, px2 - px1, y2 - y1));
+            }
+        }
+        return parts;
+    }
+
     private List<javax.imageio.ImageReader> availableIIOReaders() {
         final Iterator<javax.imageio.ImageReader> it;
         if (getFormat() != null) {
@@ -277,6 +362,14 @@ public abstract class AbstractIIOImageReader {
         }
     }
 
+    /**
+     * @param identifier Identifier of the source image, which enables use of
+     *                   the {@link DecodedTileCache}. May be {@literal null}.
+     */
+    public void setIdentifier(Identifier identifier) {
+        this.identifier = identifier;
+    }
+
     public void setSource(Path inputFile) throws IOException {
         dispose();
         source = inputFile;
@@ -520,12 +613,309 @@ public abstract class AbstractIIOImageReader {
         }
 
         hints.add(ReaderHint.ALREADY_CROPPED);
+
+        if (!tileSize.equals(imageSize)) {
+            final Rectangle clippedRegion = clip(region, imageSize);
+            if (!clippedRegion.isEmpty()) {
+                if (identifier != null && DecodedTileCache.isEnabled()) {
+                    final BufferedImage image = cachingRead(
+                            imageIndex, clippedRegion, imageSize, tileSize);
+                    if (image != null) {
+                        return image;
+                    }
+                }
+                return readRegion(imageIndex, clippedRegion, tileSize);
+            }
+        }
+
+        prefetchRegion(iioReader, inputStream, imageIndex, region);
         final ImageReadParam param = iioReader.getDefaultReadParam();
         param.setSourceRegion(region.toAWTRectangle());
 
         return iioReader.read(imageIndex, param);
     }
 
+    /**
+     * @return New instance clipped to the bounds of an image of the given
+     *         size.
+     */
+    private static Rectangle clip(Rectangle region, Dimension imageSize) {
+        final int x = Math.max(0, region.intX());
+        final int y = Math.max(0, region.intY());
+        return new Rectangle(x, y,
+                Math.min(region.intX() + region.intWidth(), imageSize.intWidth()) - x,
+                Math.min(region.intY() + region.intHeight(), imageSize.intHeight()) - y);
+    }
+
+    /**
+     * Reads a region of a tiled image, in parallel if possible.
+     *
+     * @param region Region lying entirely within the image.
+     */
+    private BufferedImage readRegion(final int imageIndex,
+                                     final Rectangle region,
+                                     final Dimension tileSize) throws IOException {
+        if (isParallelDecodingEnabled() && canOpenIndependentStreams()) {
+            final List<Rectangle> parts = splitRegion(region,
+                    tileSize, getDecodingPool().getParallelism());
+            if (parts.size() > 1) {
+                return parallelRead(imageIndex, region, parts);
+            }
+        }
+        prefetchRegion(iioReader, inputStream, imageIndex, region);
+        final ImageReadParam param = iioReader.getDefaultReadParam();
+        param.setSourceRegion(region.toAWTRectangle());
+        return iioReader.read(imageIndex, param);
+    }
+
+    /**
+     * @return Validator of the version of the source image, used to key its
+     *         tiles in the {@link DecodedTileCache}: the last-modified time
+     *         and length of a source file, or {@literal null} for other
+     *         sources, whose tiles rely on the cache's expiry instead.
+     */
+    private String getSourceValidator() throws IOException {
+        if (source instanceof Path) {
+            final Path file = (Path) source;
+            return Files.getLastModifiedTime(file).toMillis() + "/" +
+                    Files.size(file);
+        }
+        return null;
+    }
+
+    /**
+     * <p>Reads a region of a tiled image by assembling it from whole tiles,
+     * obtaining as many as possible from the {@link DecodedTileCache}. The
+     * rest are decoded in one {@link #readRegion read} of their bounding box,
+     * and added to the cache.</p>
+     *
+     * @param region Region lying entirely within the image.
+     * @return       Image, or {@literal null} if the region spans too many
+     *               tiles to be worth caching.
+     */
+    private BufferedImage cachingRead(final int imageIndex,
+                                      final Rectangle region,
+                                      final Dimension imageSize,
+                                      final Dimension tileSize) throws IOException {
+        final int tileWidth  = tileSize.intWidth();
+        final int tileHeight = tileSize.intHeight();
+        final int firstCol   = region.intX() / tileWidth;
+        final int firstRow   = region.intY() / tileHeight;
+        final int lastCol    = (region.intX() + region.intWidth() - 1) / tileWidth;
+        final int lastRow    = (region.intY() + region.intHeight() - 1) / tileHeight;
+        final int numCols    = lastCol - firstCol + 1;
+        final int numRows    = lastRow - firstRow + 1;
+        if (numCols * numRows > MAX_CACHEABLE_TILES) {
+            return null;
+        }
+
+        final DecodedTileCache cache = DecodedTileCache.getInstance();
+        final String validator = getSourceValidator();
+        final BufferedImage[][] tiles = new BufferedImage[numRows][numCols];
+        int minMissingCol = Integer.MAX_VALUE, minMissingRow = Integer.MAX_VALUE;
+        int maxMissingCol = -1, maxMissingRow = -1;
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int col = firstCol; col <= lastCol; col++) {
+                final BufferedImage tile =
+                        cache.get(identifier, validator, imageIndex, col, row);
+                if (tile != null) {
+                    tiles[row - firstRow][col - firstCol] = tile;
+                } else {
+                    minMissingCol = Math.min(minMissingCol, col);
+                    minMissingRow = Math.min(minMissingRow, row);
+                    maxMissingCol = Math.max(maxMissingCol, col);
+                    maxMissingRow = Math.max(maxMissingRow, row);
+                }
+            }
+        }
+
+        if (maxMissingCol >= 0) {
+            final Rectangle missingRegion = clip(new Rectangle(
+                    minMissingCol * tileWidth,
+                    minMissingRow * tileHeight,
+                    (maxMissingCol - minMissingCol + 1) * tileWidth,
+                    (maxMissingRow - minMissingRow + 1) * tileHeight),
+                    imageSize);
+            getLogger().debug("cachingRead(): decoding {} of {} tiles",
+                    (maxMissingCol - minMissingCol + 1) *
+                            (maxMissingRow - minMissingRow + 1),
+                    numCols * numRows);
+            final BufferedImage decoded =
+                    readRegion(imageIndex, missingRegion, tileSize);
+            for (int row = minMissingRow; row <= maxMissingRow; row++) {
+                for (int col = minMissingCol; col <= maxMissingCol; col++) {
+                    if (tiles[row - firstRow][col - firstCol] != null) {
+                        continue;
+                    }
+                    final Rectangle tileRect = clip(new Rectangle(
+                            col * tileWidth, row * tileHeight,
+                            tileWidth, tileHeight), imageSize);
+                    final BufferedImage tile = copyRegion(decoded,
+                            tileRect.intX() - missingRegion.intX(),
+                            tileRect.intY() - missingRegion.intY(),
+                            tileRect.intWidth(), tileRect.intHeight());
+                    cache.put(identifier, validator, imageIndex, col, row, tile);
+                    tiles[row - firstRow][col - firstCol] = tile;
+                }
+            }
+        }
+
+        final BufferedImage firstTile = tiles[0][0];
+        final WritableRaster raster = firstTile.getRaster()
+                .createCompatibleWritableRaster(
+                        region.intWidth(), region.intHeight());
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int col = firstCol; col <= lastCol; col++) {
+                // Portions of the tile lying outside the region are clipped.
+                raster.setRect(
+                        col * tileWidth - region.intX(),
+                        row * tileHeight - region.intY(),
+                        tiles[row - firstRow][col - firstCol].getRaster());
+            }
+        }
+        return new BufferedImage(firstTile.getColorModel(), raster,
+                firstTile.isAlphaPremultiplied(), null);
+    }
+
+    /**
+     * @return Copy of a region of the given image that does not share its
+     *         raster.
+     */
+    private static BufferedImage copyRegion(BufferedImage image,
+                                            int x, int y,
+                                            int width, int height) {
+        final WritableRaster raster = image.getRaster()
+                .createCompatibleWritableRaster(width, height);
+        raster.setRect(-x, -y, image.getRaster());
+        return new BufferedImage(image.getColorModel(), raster,
+                image.isAlphaPremultiplied(), null);
+    }
+
+    /**
+     * Decodes the given parts of a region in parallel, each using its own
+     * {@link javax.imageio.ImageReader} and stream, and assembles them into
+     * one image. The first part is decoded in the calling thread using the
+     * instance's reader.
+     */
+    private BufferedImage parallelRead(final int imageIndex,
+                                       final Rectangle region,
+                                       final List<Rectangle> parts) throws IOException {
+        getLogger().debug("Decoding region {},{}/{}x{} in {} parts",
+                region.intX(), region.intY(),
+                region.intWidth(), region.intHeight(),
+                parts.size());
+        final ImageReaderSpi spi = iioReader.getOriginatingProvider();
+        final List<ForkJoinTask<BufferedImage>> tasks = new ArrayList<>();
+        try {
+            for (Rectangle part : parts.subList(1, parts.size())) {
+                tasks.add(getDecodingPool().submit(
+                        () -> readIndependently(spi, imageIndex, part)));
+            }
+
+            prefetchRegion(iioReader, inputStream, imageIndex, parts.get(0));
+            final ImageReadParam param = iioReader.getDefaultReadParam();
+            param.setSourceRegion(parts.get(0).toAWTRectangle());
+            final BufferedImage firstImage = iioReader.read(imageIndex, param);
+
+            final WritableRaster raster = firstImage.getRaster()
+                    .createCompatibleWritableRaster(
+                            region.intWidth(), region.intHeight());
+            raster.setRect(0, 0, firstImage.getRaster());
+            for (int i = 0; i < tasks.size(); i++) {
+                final Rectangle part = parts.get(i + 1);
+                final BufferedImage partImage = tasks.get(i).get();
+                raster.setRect(part.intX() - region.intX(),
+                        part.intY() - region.intY(),
+                        partImage.getRaster());
+            }
+            return new BufferedImage(firstImage.getColorModel(), raster,
+                    firstImage.isAlphaPremultiplied(), null);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException(e.getCause());
+        } finally {
+            tasks.forEach(t -> t.cancel(true));
+        }
+    }
+
+    /**
+     * Reads a region using a new reader and stream, independent of the
+     * instance's, so that it is safe to invoke from any thread.
+     */
+    private BufferedImage readIndependently(ImageReaderSpi spi,
+                                            int imageIndex,
+                                            Rectangle region) throws IOException {
+        try (ImageInputStream is = newIndependentStream()) {
+            final javax.imageio.ImageReader reader =
+                    spi.createReaderInstance();
+            try {
+                reader.setInput(is, false, false);
+                prefetchRegion(reader, is, imageIndex, region);
+                final ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceRegion(region.toAWTRectangle());
+                return reader.read(imageIndex, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * @return Whether {@link #newIndependentStream()} will work. Only file
+     *         sources qualify. Streams from other sources may block on remote
+     *         reads, which would tie up the threads of the compute pool that
+     *         the parts are decoded in, starving other CPU-bound work.
+     */
+    private boolean canOpenIndependentStreams() {
+        return source instanceof Path;
+    }
+
+    /**
+     * @return New stream from the same source file as {@link #inputStream}.
+     */
+    private ImageInputStream newIndependentStream() throws IOException {
+        return ImageIO.createImageInputStream(((Path) source).toFile());
+    }
+
+    /**
+     * <p>Whether {@link #tileAwareRead} may decode regions spanning several
+     * tiles in parallel. This requires the underlying {@link
+     * javax.imageio.ImageReader} to be able to decode regions of a tiled image
+     * efficiently, without decoding the preceding tiles.</p>
+     *
+     * <p>This implementation returns {@literal false}.</p>
+     */
+    protected boolean isParallelDecodingEnabled() {
+        return false;
+    }
+
+    /**
+     * <p>Called before a region of an image is read. Readers of formats whose
+     * structure reveals where the data for a region is located within the
+     * source (like tiled TIFF) can override this to fetch all of that data in
+     * advance, which is much more efficient than letting the underlying
+     * {@link javax.imageio.ImageReader} fetch it piece by piece when reading
+     * from a remote source.</p>
+     *
+     * <p>This implementation does nothing.</p>
+     *
+     * @param reader     Reader that will read the region, which may not be
+     *                   {@link #iioReader} when decoding in parallel.
+     * @param stream     Stream from which {@literal reader} will read.
+     * @param imageIndex Index of the image about to be read.
+     * @param region     Region of the image about to be read.
+     */
+    protected void prefetchRegion(javax.imageio.ImageReader reader,
+                                  ImageInputStream stream,
+                                  int imageIndex,
+                                  Rectangle region) throws IOException {
+    }
+
     public BufferedImageSequence readSequence() throws IOException {
         BufferedImageSequence seq = new BufferedImageSequence();
         for (int i = 0, count = getNumImages(); i < count; i++) {
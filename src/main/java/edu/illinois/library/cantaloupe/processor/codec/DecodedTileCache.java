@@ -0,0 +1,225 @@
+package edu.illinois.library.cantaloupe.processor.codec;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import edu.illinois.library.cantaloupe.config.Configuration;
+import edu.illinois.library.cantaloupe.config.Key;
+import edu.illinois.library.cantaloupe.image.Identifier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>Heap cache of decoded source image tiles, shared across requests, so
+ * that requests whose regions overlap the same source tiles&mdash;for example
+ * requests for different qualities, rotations, or formats of the same
+ * region&mdash;don't have to decode them again.</p>
+ *
+ * <p>Tiles are keyed by identifier, source validator, image index (i.e.
+ * resolution level) and tile column and row. The validator identifies the
+ * version of the source image that a tile was decoded from&mdash;for a file,
+ * its last-modified time and length&mdash;so that tiles of a source image
+ * that has changed are not served. Sources that have no cheap validator, like
+ * streams, are covered by expiring tiles after {@link
+ * Key#PROCESSOR_TILE_CACHE_TTL}. The cache is bounded by the total byte size
+ * of the tiles' raster data.</p>
+ *
+ * @since 5.0
+ */
+public final class DecodedTileCache {
+
+    static final class TileKey {
+
+        private final Identifier identifier;
+        private final String validator;
+        private final int imageIndex, column, row;
+
+        TileKey(Identifier identifier,
+                String validator,
+                int imageIndex,
+                int column,
+                int row) {
+            this.identifier = identifier;
+            this.validator  = validator;
+            this.imageIndex = imageIndex;
+            this.column     = column;
+            this.row        = row;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == this) {
+                return true;
+            } else if (obj instanceof TileKey) {
+                TileKey other = (TileKey) obj;
+                return imageIndex == other.imageIndex &&
+                        column == other.column &&
+                        row == other.row &&
+                        identifier.equals(other.identifier) &&
+                        Objects.equals(validator, other.validator);
+            }
+            return false;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(identifier, validator, imageIndex, column, row);
+        }
+
+    }
+
+    private static final Logger LOGGER =
+            LoggerFactory.getLogger(DecodedTileCache.class);
+
+    private static final long DEFAULT_MAX_SIZE = 1024 * 1024 * 256;
+
+    private static final long DEFAULT_TTL_SECONDS = 3600;
+
+    private static DecodedTileCache instance;
+
+    private final long maxSize;
+
+    // This is thread-safe.
+    private final Cache<TileKey, BufferedImage> store;
+
+    /**
+     * For testing only!
+     */
+    static synchronized void clearInstance() {
+        instance = null;
+    }
+
+    /**
+     * @return Shared instance.
+     */
+    public static synchronized DecodedTileCache getInstance() {
+        if (instance == null) {
+            final long maxSize = Configuration.getInstance().getLongBytes(
+                    Key.PROCESSOR_TILE_CACHE_MAX_SIZE, DEFAULT_MAX_SIZE);
+            final long ttl = Configuration.getInstance().getLong(
+                    Key.PROCESSOR_TILE_CACHE_TTL, DEFAULT_TTL_SECONDS);
+            instance = new DecodedTileCache(maxSize, ttl);
+        }
+        return instance;
+    }
+
+    /**
+     * @return Whether the decoded tile cache is enabled in the application
+     *         configuration.
+     */
+    public static boolean isEnabled() {
+        return Configuration.getInstance().getBoolean(
+                Key.PROCESSOR_TILE_CACHE_ENABLED, false);
+    }
+
+    /**
+     * @return Approximate number of bytes occupied by the given image's
+     *         raster data.
+     */
+    static int getByteSize(BufferedImage image) {
+        final DataBuffer buffer = image.getRaster().getDataBuffer();
+        final long size = (long) buffer.getSize() * buffer.getNumBanks() *
+                DataBuffer.getDataTypeSize(buffer.getDataType()) / 8;
+        return (int) Math.min(size, Integer.MAX_VALUE);
+    }
+
+    /**
+     * @param maxSize Maximum total byte size of all cached tiles.
+     */
+    DecodedTileCache(long maxSize) {
+        this(maxSize, 0);
+    }
+
+    /**
+     * @param maxSize    Maximum total byte size of all cached tiles.
+     * @param ttlSeconds Number of seconds after which a tile expires, or
+     *                   {@literal 0} for no expiry.
+     */
+    DecodedTileCache(long maxSize, long ttlSeconds) {
+        LOGGER.info("Max {} size: {} bytes; TTL: {} seconds",
+                DecodedTileCache.class.getSimpleName(), maxSize, ttlSeconds);
+        this.maxSize = maxSize;
+        Caffeine<TileKey, BufferedImage> builder = Caffeine.newBuilder()
+                .maximumWeight(maxSize)
+                .weigher((key, tile) -> getByteSize(tile));
+        if (ttlSeconds > 0) {
+            builder = builder.expireAfterWrite(ttlSeconds, TimeUnit.SECONDS);
+        }
+        this.store = builder.build();
+    }
+
+    /**
+     * Performs any pending maintenance, such as evictions.
+     */
+    void cleanUp() {
+        store.cleanUp();
+    }
+
+    /**
+     * @param validator Version of the source image, such as its last-modified
+     *                  time and length. May be {@literal null} if unknown.
+     * @return          Tile corresponding to the given arguments, or {@literal
+     *                  null} if not present. It must not be modified.
+     */
+    BufferedImage get(Identifier identifier,
+                      String validator,
+                      int imageIndex,
+                      int column,
+                      int row) {
+        return store.getIfPresent(
+                new TileKey(identifier, validator, imageIndex, column, row));
+    }
+
+    /**
+     * @param validator Version of the source image that the tile was decoded
+     *                  from. May be {@literal null} if unknown.
+     * @param tile      Tile, which must not share its raster with any other
+     *                  image, and must not be modified after it has been
+     *                  added.
+     */
+    void put(Identifier identifier,
+             String validator,
+             int imageIndex,
+             int column,
+             int row,
+             BufferedImage tile) {
+        store.put(new TileKey(identifier, validator, imageIndex, column, row),
+                tile);
+    }
+
+    /**
+     * @return Maximum total byte size of all cached tiles.
+     */
+    public long maxSize() {
+        return maxSize;
+    }
+
+    public void purge() {
+        LOGGER.debug("purge()");
+        store.invalidateAll();
+    }
+
+    /**
+     * Purges all tiles of the image with the given identifier.
+     */
+    public void purge(Identifier identifier) {
+        LOGGER.debug("purge(Identifier): purging {}", identifier);
+        store.asMap().keySet()
+                .removeIf(key -> key.identifier.equals(identifier));
+    }
+
+    /**
+     * @return Current total byte size of all cached tiles. This is
+     *         approximate, as it does not account for pending evictions.
+     */
+    public long size() {
+        return store.policy().eviction()
+                .map(e -> e.weightedSize().orElse(0))
+                .orElse(0L);
+    }
+
+}
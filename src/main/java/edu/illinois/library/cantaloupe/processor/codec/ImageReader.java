@@ -2,6 +2,7 @@ package edu.illinois.library.cantaloupe.processor.codec;
 
 import edu.illinois.library.cantaloupe.image.Compression;
 import edu.illinois.library.cantaloupe.image.Dimension;
+import edu.illinois.library.cantaloupe.image.Identifier;
 import edu.illinois.library.cantaloupe.image.Metadata;
 import edu.illinois.library.cantaloupe.image.ScaleConstraint;
 import edu.illinois.library.cantaloupe.operation.Crop;
@@ -143,6 +144,13 @@ public interface ImageReader {
     /**
      * Sets the source to a file.
      */
+    /**
+     * @param identifier Identifier of the source image. Readers may use it as
+     *                   a cache key. May be {@literal null}.
+     * @since 5.0
+     */
+    void setIdentifier(Identifier identifier);
+
     void setSource(Path imageFile) throws IOException;
 
     /**
@@ -11,9 +11,10 @@ import org.libjpegturbo.turbojpeg.TJTransform;
 import org.libjpegturbo.turbojpeg.TJTransformer;
 
 import java.awt.image.BufferedImage;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 
 /**
  * <p>Reader using libjpeg-turbo via its bundled TurboJPEG JNI binding.</p>
@@ -53,6 +54,22 @@ public final class TurboJPEGImageReader implements AutoCloseable {
         Transform(int tjEquivalentTx) {
             this.tjEquivalentTx = tjEquivalentTx;
         }
+
+        /**
+         * @return Whether the transform swaps the width and height of the
+         *         image.
+         */
+        public boolean isTransposing() {
+            switch (this) {
+                case TRANSPOSE:
+                case TRANSVERSE:
+                case ROTATE_90:
+                case ROTATE_270:
+                    return true;
+                default:
+                    return false;
+            }
+        }
     }
 
     /**
@@ -81,12 +98,19 @@ public final class TurboJPEGImageReader implements AutoCloseable {
 
     /**
      * Stream from which JPEG data will be read and stored in {@link
-     * #jpegBytes}.
+     * #jpegBytes}. Will be {@literal null} if {@link #sourceFile} isn't.
      */
     private InputStream inputStream;
 
     /**
-     * Buffered JPEG data read from {@link #inputStream}.
+     * File from which JPEG data will be read and stored in {@link
+     * #jpegBytes}. Will be {@literal null} if {@link #inputStream} isn't.
+     */
+    private Path sourceFile;
+
+    /**
+     * Buffered JPEG data read from {@link #inputStream} or {@link
+     * #sourceFile}.
      */
     private byte[] jpegBytes;
 
@@ -340,6 +364,25 @@ public final class TurboJPEGImageReader implements AutoCloseable {
      */
     public void setSource(InputStream source) {
         this.inputStream = source;
+        this.sourceFile  = null;
+    }
+
+    /**
+     * <p>Alternative to {@link #setSource(InputStream)} that should be
+     * preferred when the JPEG data resides in a file. As the file size is
+     * known up front, the data can be read into a buffer of the exact size
+     * needed, which avoids the buffer growth and final array copy involved in
+     * consuming a stream of unknown length.</p>
+     *
+     * <p>(The TurboJPEG JNI binding only accepts heap byte arrays, so a
+     * memory-mapped or direct buffer would only have to be copied into one
+     * anyway.)</p>
+     *
+     * @param sourceFile JPEG file, which will be read fully into memory.
+     */
+    public void setSource(Path sourceFile) {
+        this.sourceFile  = sourceFile;
+        this.inputStream = null;
     }
 
     /**
@@ -427,6 +470,24 @@ public final class TurboJPEGImageReader implements AutoCloseable {
         return mcuSafeRegion;
     }
 
+    /**
+     * @return Width of the full image after the {@link #setTransform
+     *         transform}, if any.
+     */
+    private int getTransformedWidth() throws IOException {
+        return (transform != null && transform.isTransposing()) ?
+                getHeight() : getWidth();
+    }
+
+    /**
+     * @return Height of the full image after the {@link #setTransform
+     *         transform}, if any.
+     */
+    private int getTransformedHeight() throws IOException {
+        return (transform != null && transform.isTransposing()) ?
+                getWidth() : getHeight();
+    }
+
     /**
      * @return One of the {@link TJ#FLAG_ACCURATEDCT TJ#FLAG_*} constant
      *         values.
@@ -465,7 +526,7 @@ public final class TurboJPEGImageReader implements AutoCloseable {
 
     private void initDecompressor() throws IOException {
         if (decompressor == null) {
-            jpegBytes = readInputStream();
+            jpegBytes = readSource();
             try {
                 decompressor = new TJDecompressor(jpegBytes);
             } catch (TJException e) {
@@ -518,18 +579,15 @@ public final class TurboJPEGImageReader implements AutoCloseable {
     }
 
     /**
-     * Reads all JPEG data from {@link #inputStream} into a byte array.
-     * Unfortunately the TurboJPEG API isn't capable of reading from streams.
+     * Reads all JPEG data from {@link #sourceFile} or {@link #inputStream}
+     * into a byte array. Unfortunately the TurboJPEG API isn't capable of
+     * reading from streams.
      */
-    private byte[] readInputStream() throws IOException {
-        try (ByteArrayOutputStream os = new ByteArrayOutputStream()) {
-            byte[] buffer = new byte[8192];
-            int n;
-            while ((n = inputStream.read(buffer)) != -1) {
-                os.write(buffer, 0, n);
-            }
-            return os.toByteArray();
+    private byte[] readSource() throws IOException {
+        if (sourceFile != null) {
+            return Files.readAllBytes(sourceFile);
         }
+        return inputStream.readAllBytes();
     }
 
     /**
@@ -540,8 +598,8 @@ public final class TurboJPEGImageReader implements AutoCloseable {
         final Rectangle margin  = new Rectangle();
         initDecompressor(margin);
 
-        int width  = getWidth();
-        int height = getHeight();
+        int width  = getTransformedWidth();
+        int height = getTransformedHeight();
         final Rectangle safeRegion = getMCUSafeRegion(new Rectangle());
         if (safeRegion != null) {
             width  = safeRegion.intWidth();
@@ -575,8 +633,8 @@ public final class TurboJPEGImageReader implements AutoCloseable {
             throws IOException {
         initDecompressor(roiWithinSafeRegion);
 
-        int width  = getWidth();
-        int height = getHeight();
+        int width  = getTransformedWidth();
+        int height = getTransformedHeight();
         final Rectangle safeRegion = getMCUSafeRegion(roiWithinSafeRegion);
         if (safeRegion != null) {
             width  = safeRegion.intWidth();
@@ -1,8 +1,11 @@
 package edu.illinois.library.cantaloupe.processor.codec.tiff;
 
 import edu.illinois.library.cantaloupe.config.Configuration;
+import edu.illinois.library.cantaloupe.config.Key;
+import edu.illinois.library.cantaloupe.http.Range;
 import edu.illinois.library.cantaloupe.image.Compression;
 import edu.illinois.library.cantaloupe.image.Metadata;
+import edu.illinois.library.cantaloupe.image.Rectangle;
 import edu.illinois.library.cantaloupe.image.ScaleConstraint;
 import edu.illinois.library.cantaloupe.operation.Crop;
 import edu.illinois.library.cantaloupe.image.Format;
@@ -14,14 +17,22 @@ import edu.illinois.library.cantaloupe.processor.SourceFormatException;
 import edu.illinois.library.cantaloupe.processor.codec.AbstractIIOImageReader;
 import edu.illinois.library.cantaloupe.processor.codec.ImageReader;
 import edu.illinois.library.cantaloupe.processor.codec.ReaderHint;
+import edu.illinois.library.cantaloupe.source.stream.HTTPImageInputStream;
+import it.geosolutions.imageio.plugins.tiff.BaselineTIFFTagSet;
+import it.geosolutions.imageio.plugins.tiff.TIFFDirectory;
+import it.geosolutions.imageio.plugins.tiff.TIFFField;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.w3c.dom.NodeList;
 
+import javax.imageio.metadata.IIOInvalidTreeException;
 import javax.imageio.metadata.IIOMetadata;
 import javax.imageio.metadata.IIOMetadataNode;
+import javax.imageio.stream.ImageInputStream;
 import java.awt.image.BufferedImage;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
 
 public final class TIFFImageReader extends AbstractIIOImageReader
@@ -90,6 +101,101 @@ public final class TIFFImageReader extends AbstractIIOImageReader
         }
     }
 
+    /**
+     * @return Byte ranges of all of the tiles or strips intersecting the given
+     *         region of the image at the given index, in the order in which
+     *         they appear in the image's tile/strip offsets field. If the
+     *         image lacks the needed fields, the list is empty.
+     */
+    List<Range> getByteRanges(int imageIndex,
+                              Rectangle region) throws IOException {
+        return getByteRanges(iioReader, imageIndex, region);
+    }
+
+    private static List<Range> getByteRanges(javax.imageio.ImageReader reader,
+                                             int imageIndex,
+                                             Rectangle region) throws IOException {
+        final List<Range> ranges = new ArrayList<>();
+        final TIFFDirectory ifd = TIFFDirectory.createFromMetadata(
+                reader.getImageMetadata(imageIndex));
+
+        final TIFFField widthField =
+                ifd.getTIFFField(BaselineTIFFTagSet.TAG_IMAGE_WIDTH);
+        final TIFFField heightField =
+                ifd.getTIFFField(BaselineTIFFTagSet.TAG_IMAGE_LENGTH);
+        if (widthField == null || heightField == null) {
+            return ranges;
+        }
+        final int imageWidth  = widthField.getAsInt(0);
+        final int imageHeight = heightField.getAsInt(0);
+
+        TIFFField offsetsField =
+                ifd.getTIFFField(BaselineTIFFTagSet.TAG_TILE_OFFSETS);
+        TIFFField countsField =
+                ifd.getTIFFField(BaselineTIFFTagSet.TAG_TILE_BYTE_COUNTS);
+        int blockWidth, blockHeight;
+        if (offsetsField != null && countsField != null) {
+            final TIFFField tileWidthField =
+                    ifd.getTIFFField(BaselineTIFFTagSet.TAG_TILE_WIDTH);
+            final TIFFField tileHeightField =
+                    ifd.getTIFFField(BaselineTIFFTagSet.TAG_TILE_LENGTH);
+            if (tileWidthField == null || tileHeightField == null) {
+                return ranges;
+            }
+            blockWidth  = tileWidthField.getAsInt(0);
+            blockHeight = tileHeightField.getAsInt(0);
+        } else {
+            offsetsField =
+                    ifd.getTIFFField(BaselineTIFFTagSet.TAG_STRIP_OFFSETS);
+            countsField =
+                    ifd.getTIFFField(BaselineTIFFTagSet.TAG_STRIP_BYTE_COUNTS);
+            if (offsetsField == null || countsField == null) {
+                return ranges;
+            }
+            final TIFFField rowsField =
+                    ifd.getTIFFField(BaselineTIFFTagSet.TAG_ROWS_PER_STRIP);
+            blockWidth  = imageWidth;
+            blockHeight = (rowsField != null) ?
+                    Math.min(rowsField.getAsInt(0), imageHeight) : imageHeight;
+        }
+        if (blockWidth < 1 || blockHeight < 1) {
+            return ranges;
+        }
+
+        final int numBlocks      = offsetsField.getCount();
+        final int blocksAcross   = (imageWidth + blockWidth - 1) / blockWidth;
+        final int blocksDown     = (imageHeight + blockHeight - 1) / blockHeight;
+        final int blocksPerPlane = blocksAcross * blocksDown;
+        final int numPlanes      = Math.max(1, numBlocks / blocksPerPlane);
+
+        final int minX = Math.max(0, region.intX()) / blockWidth;
+        final int minY = Math.max(0, region.intY()) / blockHeight;
+        final int maxX = Math.min(imageWidth - 1,
+                region.intX() + region.intWidth() - 1) / blockWidth;
+        final int maxY = Math.min(imageHeight - 1,
+                region.intY() + region.intHeight() - 1) / blockHeight;
+
+        for (int plane = 0; plane < numPlanes; plane++) {
+            for (int y = minY; y <= maxY; y++) {
+                for (int x = minX; x <= maxX; x++) {
+                    final int index = plane * blocksPerPlane +
+                            y * blocksAcross + x;
+                    if (index >= numBlocks) {
+                        continue;
+                    }
+                    final long count = countsField.getAsLong(index);
+                    if (count > 0) {
+                        final Range range = new Range();
+                        range.start = offsetsField.getAsLong(index);
+                        range.end   = range.start + count - 1;
+                        ranges.add(range);
+                    }
+                }
+            }
+        }
+        return ranges;
+    }
+
     @Override
     protected Format getFormat() {
         return Format.TIF;
@@ -120,6 +226,49 @@ public final class TIFFImageReader extends AbstractIIOImageReader
         return config.getString(IMAGEIO_PLUGIN_CONFIG_KEY);
     }
 
+    /**
+     * Override that returns the value of {@link
+     * Key#PROCESSOR_TIF_PARALLEL_DECODING}.
+     */
+    @Override
+    protected boolean isParallelDecodingEnabled() {
+        return Configuration.getInstance().getBoolean(
+                Key.PROCESSOR_TIF_PARALLEL_DECODING, false);
+    }
+
+    /**
+     * Override that, when reading from an {@link HTTPImageInputStream},
+     * fetches all of the tiles or strips needed to read the given region in
+     * one batch. If that fails, they are fetched on demand as usual.
+     */
+    @Override
+    protected void prefetchRegion(javax.imageio.ImageReader reader,
+                                  ImageInputStream stream,
+                                  int imageIndex,
+                                  Rectangle region) throws IOException {
+        if (stream instanceof HTTPImageInputStream) {
+            List<Range> ranges;
+            try {
+                ranges = getByteRanges(reader, imageIndex, region);
+            } catch (IllegalArgumentException | IIOInvalidTreeException e) {
+                // The metadata may not be in the expected format, e.g. if
+                // the fallback reader is in use. The read can proceed without
+                // prefetching.
+                LOGGER.debug("prefetchRegion(): {}", e.getMessage());
+                return;
+            }
+            LOGGER.debug("prefetchRegion(): prefetching {} tiles/strips",
+                    ranges.size());
+            try {
+                ((HTTPImageInputStream) stream).prefetch(ranges);
+            } catch (IOException e) {
+                // Prefetching is only an optimization, and the read will
+                // fetch whatever it needs.
+                LOGGER.debug("prefetchRegion(): {}", e.getMessage(), e);
+            }
+        }
+    }
+
     /**
      * <p>Override that is multi-resolution- and tile-aware.</p>
      *
@@ -55,8 +55,9 @@ class ImageUtils {
      * @param img
      * @param y
      * @param w
-     * @param array Array into which the pixels will be read.
-     * @param temp  must be either null or a array with length of width * height.
+     * @param array Array into which the pixels will be read. May be longer
+     *              than necessary.
+     * @param temp  Array with a length of at least {@literal w}.
      */
     public static void readPixelsBGR(BufferedImage img,
                                      int y,
@@ -66,8 +67,8 @@ class ImageUtils {
         final int x = 0;
         final int h = 1;
 
-        assert array.length == temp.length * numberOfChannels(img);
-        assert (temp.length == w);
+        assert array.length >= w * numberOfChannels(img);
+        assert temp.length >= w;
 
         int imageType = img.getType();
         Raster raster;
@@ -83,26 +84,26 @@ class ImageUtils {
             case BufferedImage.TYPE_INT_BGR:
                 raster = img.getRaster();
                 raster.getDataElements(x, y, w, h, temp);
-                ints2bytes(temp, array, 0, 1, 2);  // bgr -->  bgr
+                ints2bytes(temp, w, array, 0, 1, 2);  // bgr -->  bgr
                 break;
             case BufferedImage.TYPE_INT_RGB:
                 raster = img.getRaster();
                 raster.getDataElements(x, y, w, h, temp);
-                ints2bytes(temp, array, 2, 1, 0);  // rgb -->  bgr
+                ints2bytes(temp, w, array, 2, 1, 0);  // rgb -->  bgr
                 break;
             case BufferedImage.TYPE_INT_ARGB:
             case BufferedImage.TYPE_INT_ARGB_PRE:
                 raster = img.getRaster();
                 raster.getDataElements(x, y, w, h, temp);
-                ints2bytes(temp, array, 2, 1, 0, 3);  // argb -->  abgr
+                ints2bytes(temp, w, array, 2, 1, 0, 3);  // argb -->  abgr
                 break;
             case BufferedImage.TYPE_CUSTOM: // TODO: works for my icon image loader, but else ???
                 img.getRGB(x, y, w, h, temp, 0, w);
-                ints2bytes(temp, array, 2, 1, 0, 3);  // argb -->  abgr
+                ints2bytes(temp, w, array, 2, 1, 0, 3);  // argb -->  abgr
                 break;
             default:
                 img.getRGB(x, y, w, h, temp, 0, w);
-                ints2bytes(temp, array, 2, 1, 0);  // rgb -->  bgr
+                ints2bytes(temp, w, array, 2, 1, 0);  // rgb -->  bgr
                 break;
         }
     }
@@ -155,9 +156,9 @@ class ImageUtils {
         }
     }
 
-    private static void ints2bytes(int[] in, byte[] out,
+    private static void ints2bytes(int[] in, int length, byte[] out,
                                    int index1, int index2, int index3) {
-        for (int i = 0; i < in.length; i++) {
+        for (int i = 0; i < length; i++) {
             int index = i * 3;
             int value = in[i];
             out[index + index1] = (byte) value;
@@ -168,9 +169,9 @@ class ImageUtils {
         }
     }
 
-    private static void ints2bytes(int[] in, byte[] out,
+    private static void ints2bytes(int[] in, int length, byte[] out,
                                    int index1, int index2, int index3, int index4) {
-        for (int i = 0; i < in.length; i++) {
+        for (int i = 0; i < length; i++) {
             int index = i * 4;
             int value = in[i];
             out[index + index1] = (byte) value;
@@ -7,11 +7,26 @@
 package edu.illinois.library.cantaloupe.processor.resample;
 
 import edu.illinois.library.cantaloupe.async.ThreadPool;
+import edu.illinois.library.cantaloupe.util.ObjectCache;
 
 import java.awt.image.BufferedImage;
+import java.awt.image.ColorModel;
+import java.awt.image.ComponentColorModel;
 import java.awt.image.DataBuffer;
-import java.util.concurrent.CountDownLatch;
+import java.awt.image.DataBufferByte;
+import java.awt.image.PixelInterleavedSampleModel;
+import java.awt.image.WritableRaster;
+import java.lang.ref.SoftReference;
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
 
 /**
  * @author Morten Nobel-Joergensen
@@ -20,6 +35,30 @@ import java.util.concurrent.atomic.AtomicInteger;
  */
 public class ResampleOp extends AdvancedResizeOp {
 
+    /**
+     * Implementation of the resampling loops used for images with 8 bits per
+     * sample. Images with more bits per sample are always resampled in
+     * floating point.
+     */
+    public enum Kernel {
+
+        /**
+         * Floating point weights over interleaved samples, with the result of
+         * the horizontal pass rounded to 8 bits.
+         */
+        FLOAT,
+
+        /**
+         * Fixed point weights over int samples, with a vertical pass that
+         * works on whole rows at a time so that the JIT compiler can
+         * vectorize it. The result of the horizontal pass retains some
+         * precision beyond 8 bits, so results can differ from those of
+         * {@link #FLOAT} by a level or so.
+         */
+        FIXED_POINT
+
+    }
+
     private static class SubSamplingData {
 
         /**
@@ -37,6 +76,13 @@ public class ResampleOp extends AdvancedResizeOp {
          */
         private final float[] arrWeight;
 
+        /**
+         * {@link #arrWeight} in fixed point with {@link #WEIGHT_BITS}
+         * fraction bits, adjusted so that the weights of each row or column
+         * still sum to exactly 1.
+         */
+        private final int[] arrFixedWeight;
+
         /**
          * Primary index length for the arrPixel and arrWeight arrays.
          */
@@ -47,20 +93,153 @@ public class ResampleOp extends AdvancedResizeOp {
             this.arrN = arrN;
             this.arrPixel = arrPixel;
             this.arrWeight = arrWeight;
+            this.arrFixedWeight = toFixedPoint(arrN, arrWeight, numContributors);
             this.numContributors = numContributors;
         }
 
+        private static int[] toFixedPoint(int[] arrN, float[] arrWeight,
+                                          int numContributors) {
+            final int[] fixed = new int[arrWeight.length];
+            for (int i = 0; i < arrN.length; i++) {
+                final int subindex = i * numContributors;
+                int sum = 0, largest = subindex;
+                for (int k = subindex; k < subindex + arrN[i]; k++) {
+                    fixed[k] = Math.round(arrWeight[k] * (1 << WEIGHT_BITS));
+                    sum += fixed[k];
+                    if (fixed[k] > fixed[largest]) {
+                        largest = k;
+                    }
+                }
+                // Rounding errors would otherwise show up as noise in flat
+                // regions.
+                if (sum != 0) {
+                    fixed[largest] += (1 << WEIGHT_BITS) - sum;
+                }
+            }
+            return fixed;
+        }
+
+    }
+
+    private static class SubSamplingKey {
+
+        private final ResampleFilter filter;
+        private final int srcSize, dstSize;
+
+        private SubSamplingKey(ResampleFilter filter, int srcSize, int dstSize) {
+            this.filter = filter;
+            this.srcSize = srcSize;
+            this.dstSize = dstSize;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj instanceof SubSamplingKey) {
+                SubSamplingKey other = (SubSamplingKey) obj;
+                return filter.equals(other.filter) &&
+                        srcSize == other.srcSize &&
+                        dstSize == other.dstSize;
+            }
+            return false;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(filter, srcSize, dstSize);
+        }
+
     }
 
     private static final int MAX_CHANNEL_VALUE = 255;
 
+    /**
+     * Number of fraction bits of {@link SubSamplingData#arrFixedWeight}.
+     */
+    private static final int WEIGHT_BITS = 14;
+
+    /**
+     * Number of fraction bits of the samples in the work buffer of the
+     * {@link Kernel#FIXED_POINT} kernel. With {@link #WEIGHT_BITS}, this
+     * leaves enough headroom for the sums of the vertical pass, including
+     * the overshoot of filters with negative lobes, to fit in an int.
+     */
+    private static final int WORK_FRACTION_BITS = 6;
+
     private static final int THREAD_COUNT =
             Runtime.getRuntime().availableProcessors();
 
+    /**
+     * Sub-sampling data depends only on the filter and the source and
+     * destination sizes, which tend to repeat from one invocation to the
+     * next, e.g. when every tile of an image is scaled by the same factor.
+     */
+    private static final ObjectCache<SubSamplingKey, SubSamplingData>
+            SUBSAMPLING_CACHE = new ObjectCache<>(128);
+
+    /**
+     * Work buffers up to this size in bytes are retained by the threads that used
+     * them, for reuse by subsequent invocations.
+     */
+    private static final int MAX_RETAINED_WORK_BUFFER_SIZE = 16 * 1024 * 1024;
+
+    /**
+     * Work buffer retained by each thread. It is softly referenced so that it
+     * can be reclaimed when memory is tight, and removed while it's in use so
+     * that a nested invocation in the same thread&mdash;which can happen when
+     * a compute pool thread helps to run other tasks while joining its
+     * own&mdash;gets a buffer of its own.
+     */
+    private static final ThreadLocal<SoftReference<byte[]>> WORK_BUFFER =
+            new ThreadLocal<>();
+
+    /**
+     * Equivalents of {@link #WORK_BUFFER} for the {@link Kernel#FIXED_POINT}
+     * kernel and for {@link #doFilterHighBitDepth}.
+     */
+    private static final ThreadLocal<SoftReference<int[]>> INT_WORK_BUFFER =
+            new ThreadLocal<>();
+    private static final ThreadLocal<SoftReference<float[]>> FLOAT_WORK_BUFFER =
+            new ThreadLocal<>();
+
+    /**
+     * Row buffers of each thread, which are only used within a single slice.
+     */
+    private static final ThreadLocal<byte[]> ROW_BUFFER = new ThreadLocal<>();
+    private static final ThreadLocal<int[]> INT_ROW_BUFFER = new ThreadLocal<>();
+    private static final ThreadLocal<float[]> FLOAT_ROW_BUFFER = new ThreadLocal<>();
+
     private int numChannels;
     private int srcWidth, srcHeight;
     private int destWidth, destHeight;
 
+    /**
+     * Length of each row of the work buffer, which contains the result of
+     * the horizontal pass, one row after another.
+     */
+    private int workRowLength;
+
+    /**
+     * Buffer that the vertical pass writes to, which is the data buffer of
+     * the destination image if possible.
+     */
+    private byte[] outPixels;
+
+    /**
+     * Index of the first sample of the first pixel in {@link #outPixels}.
+     */
+    private int outOrigin;
+
+    /**
+     * Distance between rows in {@link #outPixels}.
+     */
+    private int outScanlineStride;
+
+    /**
+     * Offsets of each channel, in the channel order of the work buffer,
+     * within a pixel in {@link #outPixels}.
+     */
+    private int[] outBandOffsets;
+
     private SubSamplingData horizontalSubsamplingData;
     private SubSamplingData verticalSubsamplingData;
 
@@ -71,6 +250,27 @@ public class ResampleOp extends AdvancedResizeOp {
      */
     private ResampleFilter filter = ResampleFilters.getLanczos3Filter();
 
+    /**
+     * Set by {@link #setKernel(Kernel)}.
+     */
+    private Kernel kernel = Kernel.FLOAT;
+
+    /**
+     * @return Sub-sampling data from the cache, or else from {@link
+     *         #createSubSampling}.
+     */
+    private static SubSamplingData getSubSampling(ResampleFilter filter,
+                                                  int srcSize,
+                                                  int dstSize) {
+        final SubSamplingKey key = new SubSamplingKey(filter, srcSize, dstSize);
+        SubSamplingData data = SUBSAMPLING_CACHE.get(key);
+        if (data == null) {
+            data = createSubSampling(filter, srcSize, dstSize);
+            SUBSAMPLING_CACHE.put(key, data);
+        }
+        return data;
+    }
+
     private static SubSamplingData createSubSampling(ResampleFilter filter,
                                                      int srcSize,
                                                      int dstSize) {
@@ -200,6 +400,14 @@ public class ResampleOp extends AdvancedResizeOp {
         this.filter = filter;
     }
 
+    public Kernel getKernel() {
+        return kernel;
+    }
+
+    public void setKernel(Kernel kernel) {
+        this.kernel = kernel;
+    }
+
     @Override
     public BufferedImage doFilter(BufferedImage srcImage,
                                   BufferedImage destImage,
@@ -215,6 +423,14 @@ public class ResampleOp extends AdvancedResizeOp {
         assert multipleInvocationLock.incrementAndGet() == 1 :
                 "Multiple concurrent invocations detected";
 
+        if (isHighBitDepth(srcImage)) {
+            final BufferedImage out =
+                    doFilterHighBitDepth(srcImage, destImage, dstWidth, dstHeight);
+            assert multipleInvocationLock.decrementAndGet() == 0 :
+                    "Multiple concurrent invocations detected";
+            return out;
+        }
+
         if (srcImage.getType() == BufferedImage.TYPE_BYTE_BINARY ||
                 srcImage.getType() == BufferedImage.TYPE_BYTE_INDEXED ||
                 srcImage.getType() == BufferedImage.TYPE_CUSTOM)
@@ -225,52 +441,131 @@ public class ResampleOp extends AdvancedResizeOp {
         assert numChannels > 0;
         this.srcWidth = srcImage.getWidth();
         this.srcHeight = srcImage.getHeight();
-
-        byte[][] workPixels = new byte[srcHeight][dstWidth * numChannels];
+        this.workRowLength = dstWidth * numChannels;
 
         // Pre-calculate sub-sampling
-        horizontalSubsamplingData = createSubSampling(filter, srcWidth, dstWidth);
-        verticalSubsamplingData = createSubSampling(filter, srcHeight, dstHeight);
+        horizontalSubsamplingData = getSubSampling(filter, srcWidth, dstWidth);
+        verticalSubsamplingData = getSubSampling(filter, srcHeight, dstHeight);
+
+        final boolean isFixedPoint = (kernel == Kernel.FIXED_POINT);
+        final byte[] workPixels = isFixedPoint ? null :
+                acquireWorkBuffer(WORK_BUFFER, srcHeight * workRowLength,
+                        byte[]::new);
+        final int[] fixedWorkPixels = isFixedPoint ?
+                acquireWorkBuffer(INT_WORK_BUFFER, srcHeight * workRowLength,
+                        int[]::new) : null;
+        final BufferedImage out;
+        try {
+            final BufferedImage scrImgCopy = srcImage;
+            if (isFixedPoint) {
+                runInParallel(i -> horizontalFromSrcToWorkFixedPoint(
+                        scrImgCopy, fixedWorkPixels, i, THREAD_COUNT));
+            } else {
+                runInParallel(i -> horizontalFromSrcToWork(
+                        scrImgCopy, workPixels, i, THREAD_COUNT));
+            }
 
-        final ThreadPool threadPool = ThreadPool.getInstance();
-        final CountDownLatch inputLatch = new CountDownLatch(THREAD_COUNT - 1);
-        final BufferedImage scrImgCopy = srcImage;
-        final byte[][] workPixelsCopy = workPixels;
+            if (destImage != null && dstWidth == destImage.getWidth() &&
+                    dstHeight == destImage.getHeight()) {
+                out = destImage;
+                int nrDestChannels = ImageUtils.numberOfChannels(destImage);
+                if (nrDestChannels != numChannels) {
+                    String errorMgs = String.format("Destination image must be " +
+                                    "compatible width source image. Source image had %d " +
+                                    "channels destination image had %d channels",
+                            numChannels, nrDestChannels);
+                    throw new RuntimeException(errorMgs);
+                }
+            } else {
+                out = new BufferedImage(dstWidth, dstHeight,
+                        getResultBufferedImageType(srcImage));
+            }
 
-        for (int i = 1; i < THREAD_COUNT; i++) {
-            final int finalI = i;
-            threadPool.submit(() -> {
-                horizontalFromSrcToWork(scrImgCopy, workPixelsCopy, finalI,
-                        THREAD_COUNT);
-                inputLatch.countDown();
-            });
+            // Apply filter to sample vertically from Work to Dst.
+            final boolean isWritingDirectly = setUpDirectOutput(out);
+            if (!isWritingDirectly) {
+                outPixels = new byte[dstWidth * dstHeight * numChannels];
+                outOrigin = 0;
+                outScanlineStride = workRowLength;
+                outBandOffsets = new int[] { 0, 1, 2, 3 };
+            }
+            if (isFixedPoint) {
+                runInParallel(i -> verticalFromWorkToDstFixedPoint(
+                        fixedWorkPixels, i, THREAD_COUNT));
+            } else {
+                runInParallel(i -> verticalFromWorkToDst(
+                        workPixels, i, THREAD_COUNT));
+            }
+
+            if (!isWritingDirectly) {
+                ImageUtils.setBGRPixels(outPixels, out, 0, 0, dstWidth, dstHeight);
+            }
+        } finally {
+            outPixels = null;
+            if (isFixedPoint) {
+                releaseWorkBuffer(INT_WORK_BUFFER, fixedWorkPixels, Integer.BYTES);
+            } else {
+                releaseWorkBuffer(WORK_BUFFER, workPixels, Byte.BYTES);
+            }
         }
-        horizontalFromSrcToWork(scrImgCopy, workPixelsCopy, 0, THREAD_COUNT);
-        waitOnLatch(inputLatch);
 
-        final CountDownLatch outputLatch = new CountDownLatch(THREAD_COUNT - 1);
-        byte[] outPixels = new byte[dstWidth * dstHeight * numChannels];
+        assert multipleInvocationLock.decrementAndGet() == 0 :
+                "Multiple concurrent invocations detected";
 
-        // Apply filter to sample vertically from Work to Dst.
-        final byte[] outPixelsCopy = outPixels;
-        for (int i = 1; i < THREAD_COUNT; i++) {
-            final int finalI = i;
-            threadPool.submit(() -> {
-                verticalFromWorkToDst(workPixelsCopy, outPixelsCopy, finalI,
-                        THREAD_COUNT);
-                outputLatch.countDown();
-            });
-        }
-        verticalFromWorkToDst(workPixelsCopy, outPixelsCopy, 0, THREAD_COUNT);
-        waitOnLatch(outputLatch);
-
-        //noinspection UnusedAssignment
-        workPixels = null; // free memory
-        BufferedImage out;
+        return out;
+    }
+
+    /**
+     * @return Whether the given image has more than 8 bits per sample, in
+     *         which case it is resampled by {@link #doFilterHighBitDepth}
+     *         rather than being converted to 8 bits first.
+     */
+    private static boolean isHighBitDepth(BufferedImage image) {
+        final ColorModel cm = image.getColorModel();
+        if (!(cm instanceof ComponentColorModel)) {
+            return false;
+        }
+        switch (cm.getTransferType()) {
+            case DataBuffer.TYPE_USHORT:
+            case DataBuffer.TYPE_INT:
+                return Arrays.stream(cm.getComponentSize()).anyMatch(s -> s > 8);
+            case DataBuffer.TYPE_FLOAT:
+            case DataBuffer.TYPE_DOUBLE:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Variant of {@link #doFilter} for {@link #isHighBitDepth high bit depth}
+     * images, which uses the same filters and sub-sampling, but works in
+     * floating point and reads and writes samples via the rasters. The result
+     * has the same color model as the source image.
+     */
+    private BufferedImage doFilterHighBitDepth(BufferedImage srcImage,
+                                               BufferedImage destImage,
+                                               int dstWidth, int dstHeight) {
+        final ColorModel cm = srcImage.getColorModel();
+        final WritableRaster srcRaster = srcImage.getRaster();
+        final boolean isFloat =
+                cm.getTransferType() == DataBuffer.TYPE_FLOAT ||
+                cm.getTransferType() == DataBuffer.TYPE_DOUBLE;
+        this.numChannels = srcRaster.getNumBands();
+        this.srcWidth = srcImage.getWidth();
+        this.srcHeight = srcImage.getHeight();
+        this.workRowLength = dstWidth * numChannels;
+
+        final float[] maxValues = new float[numChannels];
+        for (int b = 0; b < numChannels; b++) {
+            maxValues[b] = isFloat ? 1f : (1L << cm.getComponentSize(b)) - 1;
+        }
+
+        final BufferedImage out;
         if (destImage != null && dstWidth == destImage.getWidth() &&
                 dstHeight == destImage.getHeight()) {
             out = destImage;
-            int nrDestChannels = ImageUtils.numberOfChannels(destImage);
+            int nrDestChannels = destImage.getRaster().getNumBands();
             if (nrDestChannels != numChannels) {
                 String errorMgs = String.format("Destination image must be " +
                                 "compatible width source image. Source image had %d " +
@@ -279,42 +574,271 @@ public class ResampleOp extends AdvancedResizeOp {
                 throw new RuntimeException(errorMgs);
             }
         } else {
-            out = new BufferedImage(dstWidth, dstHeight,
-                    getResultBufferedImageType(srcImage));
+            out = new BufferedImage(cm,
+                    cm.createCompatibleWritableRaster(dstWidth, dstHeight),
+                    cm.isAlphaPremultiplied(), null);
         }
+        final WritableRaster outRaster = out.getRaster();
 
-        ImageUtils.setBGRPixels(outPixels, out, 0, 0, dstWidth, dstHeight);
-
-        assert multipleInvocationLock.decrementAndGet() == 0 :
-                "Multiple concurrent invocations detected";
+        horizontalSubsamplingData = getSubSampling(filter, srcWidth, dstWidth);
+        verticalSubsamplingData = getSubSampling(filter, srcHeight, dstHeight);
 
+        final float[] workSamples = acquireWorkBuffer(FLOAT_WORK_BUFFER,
+                srcHeight * workRowLength, float[]::new);
+        try {
+            runInParallel(i -> horizontalFromSrcToWorkHighBitDepth(
+                    srcRaster, isFloat, workSamples, i, THREAD_COUNT));
+            runInParallel(i -> verticalFromWorkToDstHighBitDepth(
+                    workSamples, outRaster, isFloat, maxValues,
+                    i, THREAD_COUNT));
+        } finally {
+            releaseWorkBuffer(FLOAT_WORK_BUFFER, workSamples, Float.BYTES);
+        }
         return out;
     }
 
-    private void waitOnLatch(CountDownLatch latch) {
-        try {
-            latch.await();
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            throw new RuntimeException(e);
+    /**
+     * Apply filter to sample horizontally from Src to Work, in floating
+     * point and without clamping, which the vertical pass takes care of.
+     */
+    private void horizontalFromSrcToWorkHighBitDepth(WritableRaster srcRaster,
+                                                     boolean isFloat,
+                                                     float[] workSamples,
+                                                     int start, int delta) {
+        final int rowLength = srcWidth * numChannels;
+        final float[] srcSamples = getFloatRowBuffer(rowLength);
+        final int[] intSamples = isFloat ? null : getIntRowBuffer(rowLength);
+        final float[] samples = new float[numChannels];
+        final int minX = srcRaster.getMinX();
+        final int minY = srcRaster.getMinY();
+
+        for (int k = start; k < srcHeight; k = k + delta) {
+            if (isFloat) {
+                srcRaster.getPixels(minX, minY + k, srcWidth, 1, srcSamples);
+            } else {
+                // The int variant is much faster than the float one for
+                // integral sample models.
+                srcRaster.getPixels(minX, minY + k, srcWidth, 1, intSamples);
+                for (int i = 0; i < rowLength; i++) {
+                    srcSamples[i] = intSamples[i];
+                }
+            }
+
+            for (int i = 0; i < destWidth; i++) {
+                final int max = horizontalSubsamplingData.arrN[i];
+                int index = i * horizontalSubsamplingData.numContributors;
+                Arrays.fill(samples, 0f);
+                for (int j = 0; j < max; j++) {
+                    final float arrWeight = horizontalSubsamplingData.arrWeight[index];
+                    final int pixelIndex =
+                            horizontalSubsamplingData.arrPixel[index] * numChannels;
+                    for (int b = 0; b < numChannels; b++) {
+                        samples[b] += srcSamples[pixelIndex + b] * arrWeight;
+                    }
+                    index++;
+                }
+                System.arraycopy(samples, 0, workSamples,
+                        k * workRowLength + i * numChannels, numChannels);
+            }
         }
     }
 
-    private void verticalFromWorkToDst(byte[][] workPixels, byte[] outPixels,
+    /**
+     * Apply filter to sample vertically from Work to Dst, one destination row
+     * at a time, so that each row can be written to the raster in one call.
+     */
+    private void verticalFromWorkToDstHighBitDepth(float[] workSamples,
+                                                   WritableRaster outRaster,
+                                                   boolean isFloat,
+                                                   float[] maxValues,
+                                                   int start, int delta) {
+        final float[] dstSamples = getFloatRowBuffer(workRowLength);
+        final int[] intSamples = isFloat ? null : getIntRowBuffer(workRowLength);
+        final int minX = outRaster.getMinX();
+        final int minY = outRaster.getMinY();
+
+        for (int y = start; y < destHeight; y += delta) {
+            final int max = verticalSubsamplingData.arrN[y];
+            int index = y * verticalSubsamplingData.numContributors;
+            Arrays.fill(dstSamples, 0, workRowLength, 0f);
+            for (int j = 0; j < max; j++) {
+                final int rowLocation =
+                        verticalSubsamplingData.arrPixel[index] * workRowLength;
+                final float arrWeight = verticalSubsamplingData.arrWeight[index];
+                for (int i = 0; i < workRowLength; i++) {
+                    dstSamples[i] += workSamples[rowLocation + i] * arrWeight;
+                }
+                index++;
+            }
+
+            for (int i = 0; i < workRowLength; i++) {
+                final float maxValue = maxValues[i % numChannels];
+                final float sample = dstSamples[i];
+                if (isFloat) {
+                    dstSamples[i] = (sample < 0) ? 0 :
+                            (sample > maxValue) ? maxValue : sample;
+                } else {
+                    intSamples[i] = (sample < 0) ? 0 :
+                            (sample > maxValue) ? (int) maxValue :
+                                    (int) (sample + 0.5f);
+                }
+            }
+            if (isFloat) {
+                outRaster.setPixels(minX, minY + y, destWidth, 1, dstSamples);
+            } else {
+                outRaster.setPixels(minX, minY + y, destWidth, 1, intSamples);
+            }
+        }
+    }
+
+    /**
+     * Invokes the given slice function once for each slice index from
+     * {@literal 0} to {@link #THREAD_COUNT}, running slice {@literal 0} in the
+     * calling thread and the rest in the {@link ThreadPool#getComputePool()
+     * compute pool}, and returns when all of them have completed. Joining
+     * (rather than blocking on e.g. a latch) allows a compute pool thread
+     * calling this method to help run the slices.
+     */
+    private static void runInParallel(IntConsumer slice) {
+        final ForkJoinPool pool = ThreadPool.getInstance().getComputePool();
+        final List<ForkJoinTask<?>> tasks = new ArrayList<>(THREAD_COUNT - 1);
+        for (int i = 1; i < THREAD_COUNT; i++) {
+            final int finalI = i;
+            tasks.add(pool.submit(() -> slice.accept(finalI)));
+        }
+        slice.accept(0);
+        tasks.forEach(ForkJoinTask::join);
+    }
+
+    /**
+     * @param retained  One of the work buffer pools, like {@link
+     *                  #WORK_BUFFER}.
+     * @param length    Minimum length of the buffer.
+     * @param allocator Allocates a new buffer of the given length.
+     * @return          Work buffer of at least the given length, which
+     *                  should be {@link #releaseWorkBuffer released} to the
+     *                  same pool when it is no longer needed.
+     */
+    private static <T> T acquireWorkBuffer(ThreadLocal<SoftReference<T>> retained,
+                                           int length,
+                                           IntFunction<T> allocator) {
+        final SoftReference<T> ref = retained.get();
+        final T buffer = (ref != null) ? ref.get() : null;
+        if (buffer != null && Array.getLength(buffer) >= length) {
+            retained.remove();
+            return buffer;
+        }
+        return allocator.apply(length);
+    }
+
+    /**
+     * @param retained    Pool that the buffer was acquired from.
+     * @param buffer      Buffer to release.
+     * @param elementSize Size of each element of the buffer in bytes.
+     */
+    private static <T> void releaseWorkBuffer(ThreadLocal<SoftReference<T>> retained,
+                                              T buffer,
+                                              int elementSize) {
+        final int length = Array.getLength(buffer);
+        if ((long) length * elementSize > MAX_RETAINED_WORK_BUFFER_SIZE) {
+            return;
+        }
+        final SoftReference<T> ref = retained.get();
+        final T current = (ref != null) ? ref.get() : null;
+        if (current == null || Array.getLength(current) < length) {
+            retained.set(new SoftReference<>(buffer));
+        }
+    }
+
+    /**
+     * @return Row buffer of the current thread with at least the given
+     *         length.
+     */
+    private static byte[] getRowBuffer(int length) {
+        byte[] buffer = ROW_BUFFER.get();
+        if (buffer == null || buffer.length < length) {
+            buffer = new byte[length];
+            ROW_BUFFER.set(buffer);
+        }
+        return buffer;
+    }
+
+    /**
+     * @return Int row buffer of the current thread with at least the given
+     *         length.
+     */
+    private static int[] getIntRowBuffer(int length) {
+        int[] buffer = INT_ROW_BUFFER.get();
+        if (buffer == null || buffer.length < length) {
+            buffer = new int[length];
+            INT_ROW_BUFFER.set(buffer);
+        }
+        return buffer;
+    }
+
+    /**
+     * @return Float row buffer of the current thread with at least the given
+     *         length.
+     */
+    private static float[] getFloatRowBuffer(int length) {
+        float[] buffer = FLOAT_ROW_BUFFER.get();
+        if (buffer == null || buffer.length < length) {
+            buffer = new float[length];
+            FLOAT_ROW_BUFFER.set(buffer);
+        }
+        return buffer;
+    }
+
+    /**
+     * Points the output fields at the data buffer of the given image, if
+     * its samples are interleaved bytes with one per channel, so that the
+     * vertical pass can write to it directly rather than to an intermediate
+     * array that would have to be copied into it afterwards.
+     *
+     * @return Whether the output fields have been set.
+     */
+    private boolean setUpDirectOutput(BufferedImage image) {
+        final WritableRaster raster = image.getRaster();
+        if (!(raster.getSampleModel() instanceof PixelInterleavedSampleModel) ||
+                !(raster.getDataBuffer() instanceof DataBufferByte) ||
+                raster.getDataBuffer().getNumBanks() != 1 ||
+                raster.getNumBands() != numChannels) {
+            return false;
+        }
+        final PixelInterleavedSampleModel sm =
+                (PixelInterleavedSampleModel) raster.getSampleModel();
+        if (sm.getPixelStride() != numChannels) {
+            return false;
+        }
+        outPixels = ((DataBufferByte) raster.getDataBuffer()).getData();
+        outScanlineStride = sm.getScanlineStride();
+        outOrigin = raster.getDataBuffer().getOffset() -
+                raster.getSampleModelTranslateY() * outScanlineStride -
+                raster.getSampleModelTranslateX() * numChannels;
+        outBandOffsets = sm.getBandOffsets();
+        return true;
+    }
+
+    private void verticalFromWorkToDst(byte[] workPixels,
                                        int start, int delta) {
         if (numChannels == 1) {
-            verticalFromWorkToDstGray(workPixels, outPixels, start,
-                    THREAD_COUNT);
+            verticalFromWorkToDstGray(workPixels, start, delta);
             return;
         }
+        final byte[] outPixels = this.outPixels;
+        final int band0 = outBandOffsets[0];
+        final int band1 = outBandOffsets[1];
+        final int band2 = outBandOffsets[2];
         boolean useChannel3 = numChannels > 3;
+        final int band3 = useChannel3 ? outBandOffsets[3] : 0;
         for (int x = start; x < destWidth; x += delta) {
             final int xLocation = x * numChannels;
             for (int y = destHeight - 1; y >= 0; y--) {
                 final int yTimesNumContributors =
                         y * verticalSubsamplingData.numContributors;
                 final int max = verticalSubsamplingData.arrN[y];
-                final int sampleLocation = (y * destWidth + x) * numChannels;
+                final int sampleLocation =
+                        outOrigin + y * outScanlineStride + xLocation;
 
 
                 float sample0 = 0.0f;
@@ -323,43 +847,47 @@ public class ResampleOp extends AdvancedResizeOp {
                 float sample3 = 0.0f;
                 int index = yTimesNumContributors;
                 for (int j = max - 1; j >= 0; j--) {
-                    int valueLocation = verticalSubsamplingData.arrPixel[index];
+                    int valueLocation = verticalSubsamplingData.arrPixel[index] *
+                            workRowLength + xLocation;
                     float arrWeight = verticalSubsamplingData.arrWeight[index];
-                    sample0 += (workPixels[valueLocation][xLocation] & 0xff) * arrWeight;
-                    sample1 += (workPixels[valueLocation][xLocation + 1] & 0xff) * arrWeight;
-                    sample2 += (workPixels[valueLocation][xLocation + 2] & 0xff) * arrWeight;
+                    sample0 += (workPixels[valueLocation] & 0xff) * arrWeight;
+                    sample1 += (workPixels[valueLocation + 1] & 0xff) * arrWeight;
+                    sample2 += (workPixels[valueLocation + 2] & 0xff) * arrWeight;
                     if (useChannel3) {
-                        sample3 += (workPixels[valueLocation][xLocation + 3] & 0xff) * arrWeight;
+                        sample3 += (workPixels[valueLocation + 3] & 0xff) * arrWeight;
                     }
 
                     index++;
                 }
 
-                outPixels[sampleLocation] = toByte(sample0);
-                outPixels[sampleLocation + 1] = toByte(sample1);
-                outPixels[sampleLocation + 2] = toByte(sample2);
+                outPixels[sampleLocation + band0] = toByte(sample0);
+                outPixels[sampleLocation + band1] = toByte(sample1);
+                outPixels[sampleLocation + band2] = toByte(sample2);
                 if (useChannel3) {
-                    outPixels[sampleLocation + 3] = toByte(sample3);
+                    outPixels[sampleLocation + band3] = toByte(sample3);
                 }
             }
         }
     }
 
-    private void verticalFromWorkToDstGray(byte[][] workPixels, byte[] outPixels,
+    private void verticalFromWorkToDstGray(byte[] workPixels,
                                            int start, int delta) {
+        final byte[] outPixels = this.outPixels;
+        final int band0 = outBandOffsets[0];
         for (int x = start; x < destWidth; x += delta) {
             for (int y = destHeight - 1; y >= 0; y--) {
                 final int yTimesNumContributors =
                         y * verticalSubsamplingData.numContributors;
                 final int max = verticalSubsamplingData.arrN[y];
-                final int sampleLocation = (y * destWidth + x);
+                final int sampleLocation =
+                        outOrigin + y * outScanlineStride + x + band0;
 
                 float sample0 = 0.0f;
                 int index = yTimesNumContributors;
                 for (int j = max - 1; j >= 0; j--) {
                     int valueLocation = verticalSubsamplingData.arrPixel[index];
                     float arrWeight = verticalSubsamplingData.arrWeight[index];
-                    sample0 += (workPixels[valueLocation][x] & 0xff) * arrWeight;
+                    sample0 += (workPixels[valueLocation * workRowLength + x] & 0xff) * arrWeight;
                     index++;
                 }
 
@@ -372,21 +900,21 @@ public class ResampleOp extends AdvancedResizeOp {
      * Apply filter to sample horizontally from Src to Work
      */
     private void horizontalFromSrcToWork(BufferedImage srcImg,
-                                         byte[][] workPixels,
+                                         byte[] workPixels,
                                          int start, int delta) {
         if (numChannels == 1) {
             horizontalFromSrcToWorkGray(srcImg, workPixels, start, delta);
             return;
         }
-        final int[] tempPixels = new int[srcWidth];   // Used if we work on int based bitmaps, later used to keep channel values
-        final byte[] srcPixels = new byte[srcWidth * numChannels]; // create reusable row to minimize memory overhead
+        final int[] tempPixels = getIntRowBuffer(srcWidth);   // Used if we work on int based bitmaps, later used to keep channel values
+        final byte[] srcPixels = getRowBuffer(srcWidth * numChannels); // reusable row to minimize memory overhead
         final boolean useChannel3 = numChannels > 3;
 
         for (int k = start; k < srcHeight; k = k + delta) {
             ImageUtils.readPixelsBGR(srcImg, k, srcWidth, srcPixels, tempPixels);
 
             for (int i = destWidth - 1; i >= 0; i--) {
-                int sampleLocation = i * numChannels;
+                int sampleLocation = k * workRowLength + i * numChannels;
                 final int max = horizontalSubsamplingData.arrN[i];
 
                 float sample0 = 0.0f;
@@ -407,11 +935,11 @@ public class ResampleOp extends AdvancedResizeOp {
                     index++;
                 }
 
-                workPixels[k][sampleLocation] = toByte(sample0);
-                workPixels[k][sampleLocation + 1] = toByte(sample1);
-                workPixels[k][sampleLocation + 2] = toByte(sample2);
+                workPixels[sampleLocation] = toByte(sample0);
+                workPixels[sampleLocation + 1] = toByte(sample1);
+                workPixels[sampleLocation + 2] = toByte(sample2);
                 if (useChannel3) {
-                    workPixels[k][sampleLocation + 3] = toByte(sample3);
+                    workPixels[sampleLocation + 3] = toByte(sample3);
                 }
             }
         }
@@ -421,13 +949,13 @@ public class ResampleOp extends AdvancedResizeOp {
      * Apply filter to sample horizontally from Src to Work
      */
     private void horizontalFromSrcToWorkGray(BufferedImage srcImage,
-                                             byte[][] workPixels,
+                                             byte[] workPixels,
                                              int start, int delta) {
         // Used if we work on int-based bitmaps. Later used to keep channel
         // values
-        final int[] tempPixels = new int[srcWidth];
-        // Create reusable row to minimize memory overhead.
-        final byte[] srcPixels = new byte[srcWidth];
+        final int[] tempPixels = getIntRowBuffer(srcWidth);
+        // Reusable row to minimize memory overhead.
+        final byte[] srcPixels = getRowBuffer(srcWidth);
 
         for (int k = start; k < srcHeight; k = k + delta) {
             ImageUtils.readPixelsBGR(srcImage, k, srcWidth, srcPixels, tempPixels);
@@ -445,7 +973,125 @@ public class ResampleOp extends AdvancedResizeOp {
                     index++;
                 }
 
-                workPixels[k][i] = toByte(sample0);
+                workPixels[k * workRowLength + i] = toByte(sample0);
+            }
+        }
+    }
+
+    /**
+     * Fixed point equivalent of {@link #horizontalFromSrcToWork}. The sums
+     * are rounded to {@link #WORK_FRACTION_BITS} fraction bits rather than
+     * to bytes, and aren't clamped, which is left to the vertical pass.
+     */
+    private void horizontalFromSrcToWorkFixedPoint(BufferedImage srcImg,
+                                                   int[] workPixels,
+                                                   int start, int delta) {
+        final int[] tempPixels = getIntRowBuffer(srcWidth);
+        final byte[] srcPixels = getRowBuffer(srcWidth * numChannels);
+        final int[] arrN = horizontalSubsamplingData.arrN;
+        final int[] arrPixel = horizontalSubsamplingData.arrPixel;
+        final int[] arrWeight = horizontalSubsamplingData.arrFixedWeight;
+        final int numContributors = horizontalSubsamplingData.numContributors;
+        final int shift = WEIGHT_BITS - WORK_FRACTION_BITS;
+        final int half = 1 << (shift - 1);
+        final boolean isGray = numChannels == 1;
+        final boolean useChannel3 = numChannels > 3;
+
+        for (int k = start; k < srcHeight; k = k + delta) {
+            ImageUtils.readPixelsBGR(srcImg, k, srcWidth, srcPixels, tempPixels);
+            final int rowLocation = k * workRowLength;
+
+            for (int i = 0; i < destWidth; i++) {
+                final int index = i * numContributors;
+                final int max = index + arrN[i];
+                final int sampleLocation = rowLocation + i * numChannels;
+
+                if (isGray) {
+                    int sample0 = half;
+                    for (int j = index; j < max; j++) {
+                        sample0 += (srcPixels[arrPixel[j]] & 0xff) * arrWeight[j];
+                    }
+                    workPixels[sampleLocation] = sample0 >> shift;
+                    continue;
+                }
+
+                int sample0 = half;
+                int sample1 = half;
+                int sample2 = half;
+                int sample3 = half;
+                for (int j = index; j < max; j++) {
+                    final int weight = arrWeight[j];
+                    final int pixelIndex = arrPixel[j] * numChannels;
+                    sample0 += (srcPixels[pixelIndex] & 0xff) * weight;
+                    sample1 += (srcPixels[pixelIndex + 1] & 0xff) * weight;
+                    sample2 += (srcPixels[pixelIndex + 2] & 0xff) * weight;
+                    if (useChannel3) {
+                        sample3 += (srcPixels[pixelIndex + 3] & 0xff) * weight;
+                    }
+                }
+                workPixels[sampleLocation] = sample0 >> shift;
+                workPixels[sampleLocation + 1] = sample1 >> shift;
+                workPixels[sampleLocation + 2] = sample2 >> shift;
+                if (useChannel3) {
+                    workPixels[sampleLocation + 3] = sample3 >> shift;
+                }
+            }
+        }
+    }
+
+    /**
+     * Fixed point equivalent of {@link #verticalFromWorkToDst}. It works one
+     * destination row at a time, accumulating whole work rows, two
+     * contributors at a time, into a row of sums. That innermost loop is
+     * over contiguous ints with no dependencies between iterations, so that
+     * the JIT compiler can vectorize it.
+     */
+    private void verticalFromWorkToDstFixedPoint(int[] workPixels,
+                                                 int start, int delta) {
+        final int[] sums = getIntRowBuffer(workRowLength);
+        final byte[] outPixels = this.outPixels;
+        final int[] bandOffsets = outBandOffsets;
+        final int[] arrN = verticalSubsamplingData.arrN;
+        final int[] arrPixel = verticalSubsamplingData.arrPixel;
+        final int[] arrWeight = verticalSubsamplingData.arrFixedWeight;
+        final int numContributors = verticalSubsamplingData.numContributors;
+        final int rowLength = workRowLength;
+        final int shift = WEIGHT_BITS + WORK_FRACTION_BITS;
+        final int half = 1 << (shift - 1);
+
+        for (int y = start; y < destHeight; y += delta) {
+            final int index = y * numContributors;
+            final int max = index + arrN[y];
+            Arrays.fill(sums, 0, rowLength, 0);
+            int j = index;
+            for (; j + 1 < max; j += 2) {
+                final int row0 = arrPixel[j] * rowLength;
+                final int row1 = arrPixel[j + 1] * rowLength;
+                final int weight0 = arrWeight[j];
+                final int weight1 = arrWeight[j + 1];
+                for (int i = 0; i < rowLength; i++) {
+                    sums[i] += workPixels[row0 + i] * weight0 +
+                            workPixels[row1 + i] * weight1;
+                }
+            }
+            for (; j < max; j++) {
+                final int row0 = arrPixel[j] * rowLength;
+                final int weight0 = arrWeight[j];
+                for (int i = 0; i < rowLength; i++) {
+                    sums[i] += workPixels[row0 + i] * weight0;
+                }
+            }
+
+            final int rowLocation = outOrigin + y * outScanlineStride;
+            for (int x = 0, i = 0; x < destWidth; x++) {
+                final int pixelLocation = rowLocation + x * numChannels;
+                for (int c = 0; c < numChannels; c++, i++) {
+                    final int value = (sums[i] + half) >> shift;
+                    outPixels[pixelLocation + bandOffsets[c]] = (byte)
+                            ((value < 0) ? 0 :
+                                    (value > MAX_CHANNEL_VALUE) ?
+                                            MAX_CHANNEL_VALUE : value);
+                }
             }
         }
     }
@@ -17,16 +17,27 @@ import edu.illinois.library.cantaloupe.script.DelegateProxy;
 import edu.illinois.library.cantaloupe.script.DelegateProxyService;
 import edu.illinois.library.cantaloupe.script.DisabledException;
 import edu.illinois.library.cantaloupe.util.StringUtils;
+import org.apache.commons.codec.digest.DigestUtils;
 import org.slf4j.Logger;
 
+import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Base64;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -51,6 +62,14 @@ public abstract class AbstractResource {
     protected static final String RESPONSE_CONTENT_DISPOSITION_QUERY_ARG =
             "response-content-disposition";
 
+    /**
+     * {@link DateTimeFormatter#RFC_1123_DATE_TIME} doesn't zero-pad the day
+     * of the month, which HTTP dates require.
+     */
+    private static final DateTimeFormatter HTTP_DATE_FORMATTER =
+            DateTimeFormatter.ofPattern("EEE, dd MMM yyyy HH:mm:ss 'GMT'", Locale.US)
+                    .withZone(ZoneOffset.UTC);
+
     /**
      * Set by {@link #getDelegateProxy()}.
      */
@@ -580,6 +599,186 @@ public abstract class AbstractResource {
                 "." + outputFormat.getPreferredExtension();
     }
 
+    /**
+     * @param ifNoneMatch Value of an {@literal If-None-Match} header.
+     * @param entityTag   Entity tag, including quotes.
+     * @return            Whether any of the entity tags in the header value
+     *                    match the given one, using the weak comparison
+     *                    function (RFC 7232 sec. 2.3.2).
+     */
+    static boolean isMatchingEntityTag(String ifNoneMatch, String entityTag) {
+        if ("*".equals(ifNoneMatch.trim())) {
+            return true;
+        }
+        final String opaqueTag = stripWeakIndicator(entityTag);
+        for (String tag : ifNoneMatch.split(",")) {
+            if (stripWeakIndicator(tag.trim()).equals(opaqueTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String stripWeakIndicator(String entityTag) {
+        return entityTag.startsWith("W/") ? entityTag.substring(2) : entityTag;
+    }
+
+    /**
+     * @param ifModifiedSince Value of an {@literal If-Modified-Since} header.
+     * @param lastModified    Last-modified time of the representation.
+     * @return                Whether the representation has been modified
+     *                        since the given date, at the one-second
+     *                        resolution of HTTP dates. Invalid dates are
+     *                        ignored (RFC 7232 sec. 3.3), in which case it is
+     *                        considered to have been modified.
+     */
+    static boolean isModifiedSince(String ifModifiedSince,
+                                   Instant lastModified) {
+        try {
+            final Instant date = Instant.from(
+                    DateTimeFormatter.RFC_1123_DATE_TIME.parse(ifModifiedSince.trim()));
+            return lastModified.getEpochSecond() > date.getEpochSecond();
+        } catch (DateTimeParseException e) {
+            return true;
+        }
+    }
+
+    /**
+     * @param instant Instant to format.
+     * @return        HTTP date (RFC 7231 sec. 7.1.1.1) corresponding to the
+     *                given instant.
+     */
+    static String toHTTPDate(Instant instant) {
+        return HTTP_DATE_FORMATTER.format(instant);
+    }
+
+    /**
+     * Invokes {@link #respondNotModified(String, Instant)} with no
+     * last-modified time.
+     */
+    protected final boolean respondNotModified(String entityTag) {
+        return respondNotModified(entityTag, null);
+    }
+
+    /**
+     * <p>Adds {@literal ETag} and (if available) {@literal Last-Modified}
+     * headers to the response, and evaluates the {@literal If-None-Match}
+     * header of the request against the former, or, in its absence, the
+     * {@literal If-Modified-Since} header against the latter (RFC 7232 sec.
+     * 6). If the client's copy is current, a {@literal 304 Not Modified}
+     * response is sent.</p>
+     *
+     * <p>This should be invoked as early as the entity tag is known, in order
+     * to avoid needless work, but after any other headers that would be sent
+     * in a {@literal 200} response have been set, as the {@literal 304}
+     * response must carry them too.</p>
+     *
+     * @param entityTag    Strong entity tag, including quotes.
+     * @param lastModified Last-modified time of the representation, or
+     *                     {@literal null} if not known.
+     * @return             Whether a {@literal 304 Not Modified} response has
+     *                     been sent, in which case the caller should return
+     *                     without writing anything else.
+     */
+    protected final boolean respondNotModified(String entityTag,
+                                               Instant lastModified) {
+        getResponse().setHeader("ETag", entityTag);
+        if (lastModified != null) {
+            getResponse().setHeader("Last-Modified", toHTTPDate(lastModified));
+        }
+
+        final String ifNoneMatch =
+                getRequest().getHeaders().getFirstValue("If-None-Match");
+        final String ifModifiedSince =
+                getRequest().getHeaders().getFirstValue("If-Modified-Since");
+        boolean isNotModified;
+        if (ifNoneMatch != null) {
+            isNotModified = isMatchingEntityTag(ifNoneMatch, entityTag);
+        } else {
+            isNotModified = ifModifiedSince != null && lastModified != null &&
+                    !isModifiedSince(ifModifiedSince, lastModified);
+        }
+        if (isNotModified) {
+            getResponse().setStatus(Status.NOT_MODIFIED.getCode());
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Invokes {@link #writeAsync(Representation, Instant)} with no
+     * last-modified time.
+     */
+    protected final void writeAsync(Representation representation)
+            throws IOException {
+        writeAsync(representation, null);
+    }
+
+    /**
+     * Buffers the given representation in memory and then {@link
+     * #writeAsync(InputStream) writes it asynchronously}, with a strong
+     * {@literal ETag} header computed from its content. If the client's copy
+     * is current, a {@literal 304 Not Modified} response is sent instead (see
+     * {@link #respondNotModified(String, Instant)}). This is only appropriate
+     * for small representations.
+     *
+     * @param representation Representation to write.
+     * @param lastModified   Last-modified time of the representation, or
+     *                       {@literal null} if not known.
+     */
+    protected final void writeAsync(Representation representation,
+                                    Instant lastModified) throws IOException {
+        final ByteArrayOutputStream os = new ByteArrayOutputStream();
+        representation.write(os);
+        final byte[] bytes = os.toByteArray();
+        final String entityTag = "\"" + DigestUtils.md5Hex(bytes) + "\"";
+        if (respondNotModified(entityTag, lastModified)) {
+            return;
+        }
+        writeAsync(new ByteArrayInputStream(bytes));
+    }
+
+    /**
+     * <p>Writes the given stream to the response and closes it.</p>
+     *
+     * <p>If the Servlet container supports it, the stream is written
+     * asynchronously by an {@link AsyncStreamWriter}, and this method returns
+     * before it has been written, so that the calling thread is free to handle
+     * other requests while the data drains to the client. This is only
+     * appropriate for data that is available without further processing, like
+     * a cached image. Otherwise, it is written synchronously.</p>
+     *
+     * <p>If the stream is a {@link FileInputStream}, the file is sent by a
+     * {@link FileSender}, which adds a {@literal Content-Length} header,
+     * honors {@literal Range} headers, and avoids copying the file through
+     * the heap when running in Jetty.</p>
+     *
+     * <p>Nothing else may be written to the response after this method has
+     * been called.</p>
+     */
+    protected final void writeAsync(InputStream inputStream)
+            throws IOException {
+        final HttpServletRequest servletRequest = request.getServletRequest();
+        final boolean isAsync = servletRequest.isAsyncSupported();
+        if (inputStream instanceof FileInputStream) {
+            final FileSender sender = new FileSender(servletRequest, response,
+                    ((FileInputStream) inputStream).getChannel());
+            if (isAsync) {
+                sender.sendAsync(inputStream);
+            } else {
+                try (inputStream) {
+                    sender.send();
+                }
+            }
+        } else if (isAsync) {
+            AsyncStreamWriter.start(servletRequest, response, inputStream);
+        } else {
+            try (inputStream) {
+                inputStream.transferTo(response.getOutputStream());
+            }
+        }
+    }
+
     /**
      * @return Request being handled.
      */
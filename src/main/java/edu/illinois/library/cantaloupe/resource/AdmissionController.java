@@ -0,0 +1,310 @@
+package edu.illinois.library.cantaloupe.resource;
+
+import edu.illinois.library.cantaloupe.config.Configuration;
+import edu.illinois.library.cantaloupe.config.Key;
+import edu.illinois.library.cantaloupe.image.Dimension;
+import edu.illinois.library.cantaloupe.image.Info;
+import edu.illinois.library.cantaloupe.operation.Crop;
+import edu.illinois.library.cantaloupe.operation.OperationList;
+import edu.illinois.library.cantaloupe.operation.ReductionFactor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>Limits the total estimated memory cost of the image requests that are
+ * being processed at any one time, so that a few huge requests can't exhaust
+ * the heap.</p>
+ *
+ * <p>The cost of a request is {@link #estimateCost estimated} from its
+ * source image {@link Info} and {@link OperationList}. A request whose cost
+ * doesn't fit within the remaining budget waits in a FIFO queue until enough
+ * of the budget has been released by other requests. If it is still waiting
+ * after the configured amount of time, it is shed with a {@link
+ * ServiceUnavailableException}.</p>
+ *
+ * @since 5.0
+ */
+public final class AdmissionController {
+
+    /**
+     * Share of the budget held by an admitted request. Must be {@link
+     * #close() closed} when the request has been processed.
+     */
+    public final class Permit implements AutoCloseable {
+
+        private final long cost;
+        private boolean isReleased;
+
+        private Permit(long cost) {
+            this.cost = cost;
+        }
+
+        public long getCost() {
+            return cost;
+        }
+
+        @Override
+        public void close() {
+            synchronized (AdmissionController.this) {
+                if (!isReleased) {
+                    isReleased = true;
+                    release(cost);
+                }
+            }
+        }
+
+    }
+
+    private static final Logger LOGGER =
+            LoggerFactory.getLogger(AdmissionController.class);
+
+    /**
+     * Assumed number of bytes occupied by each decoded pixel, corresponding
+     * to an 8-bit-per-sample ARGB raster.
+     */
+    static final int BYTES_PER_PIXEL = 4;
+
+    private static final long DEFAULT_MAX_WAIT_SECONDS = 10;
+
+    private static AdmissionController instance;
+
+    private final long maxCost;
+    private final long maxWaitNanos;
+
+    /**
+     * Tickets of waiting requests, in order of arrival. Guarded by {@literal
+     * this}.
+     */
+    private final Deque<Object> waiters = new ArrayDeque<>();
+
+    /**
+     * Total cost of all outstanding permits. Guarded by {@literal this}.
+     */
+    private long costInUse;
+
+    private final AtomicLong numAdmitted = new AtomicLong();
+    private final AtomicLong numQueued   = new AtomicLong();
+    private final AtomicLong numShed     = new AtomicLong();
+
+    /**
+     * For testing only!
+     */
+    static synchronized void clearInstance() {
+        instance = null;
+    }
+
+    /**
+     * @return Shared instance.
+     */
+    public static synchronized AdmissionController getInstance() {
+        if (instance == null) {
+            final Configuration config = Configuration.getInstance();
+            final long maxCost = config.getLongBytes(
+                    Key.ADMISSION_CONTROL_MAX_MEMORY,
+                    Runtime.getRuntime().maxMemory() / 2);
+            final long maxWaitSeconds = config.getLong(
+                    Key.ADMISSION_CONTROL_MAX_WAIT,
+                    DEFAULT_MAX_WAIT_SECONDS);
+            instance = new AdmissionController(maxCost,
+                    TimeUnit.SECONDS.toMillis(maxWaitSeconds));
+        }
+        return instance;
+    }
+
+    /**
+     * @return Whether admission control is enabled in the application
+     *         configuration.
+     */
+    public static boolean isEnabled() {
+        return Configuration.getInstance().getBoolean(
+                Key.ADMISSION_CONTROL_ENABLED, false);
+    }
+
+    /**
+     * Estimates the number of bytes of heap that will be needed to process
+     * the given operations: the decoded source region, taking into account
+     * the reduction factor that a reader of a multi-resolution image will be
+     * able to use, plus the resulting image.
+     *
+     * @param info     Source image info.
+     * @param opList   Frozen operation list.
+     * @param fullSize Full size of the source image (or page).
+     * @return         Estimated cost in bytes.
+     */
+    static long estimateCost(Info info,
+                             OperationList opList,
+                             Dimension fullSize) {
+        final Crop crop = (Crop) opList.getFirst(Crop.class);
+        final Dimension regionSize = (crop != null) ?
+                crop.getRectangle(fullSize, opList.getScaleConstraint()).size() :
+                fullSize;
+        final Dimension resultingSize = opList.getResultingSize(fullSize);
+
+        int factor = 0;
+        if (regionSize.width() > 0 && regionSize.height() > 0) {
+            final double scale = Math.max(
+                    resultingSize.width() / regionSize.width(),
+                    resultingSize.height() / regionSize.height());
+            factor = Math.min(ReductionFactor.forScale(scale).factor,
+                    Math.max(0, info.getNumResolutions() - 1));
+        }
+        final double decodedPixels = regionSize.width() *
+                regionSize.height() / Math.pow(4, factor);
+        final double resultingPixels = resultingSize.width() *
+                resultingSize.height();
+        return Math.round((decodedPixels + resultingPixels) * BYTES_PER_PIXEL);
+    }
+
+    /**
+     * @param maxCost     Budget, i.e. maximum total cost of all outstanding
+     *                    permits.
+     * @param maxWaitMsec Maximum time that a request will wait to be admitted.
+     */
+    AdmissionController(long maxCost, long maxWaitMsec) {
+        LOGGER.info("{} budget: {} bytes; max wait: {} msec",
+                AdmissionController.class.getSimpleName(),
+                maxCost, maxWaitMsec);
+        this.maxCost      = maxCost;
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMsec);
+    }
+
+    /**
+     * Admits a request to process the given operations, waiting if
+     * necessary. If admission control is not {@link #isEnabled() enabled}, or
+     * the operations are a no-op, a zero-cost permit is returned immediately.
+     *
+     * @param info     Source image info.
+     * @param opList   Frozen operation list.
+     * @param fullSize Full size of the source image (or page).
+     * @return         Permit to {@link Permit#close() close} once the request
+     *                 has been processed.
+     * @throws ServiceUnavailableException if the request could not be
+     *         admitted in time.
+     */
+    public Permit admit(Info info,
+                        OperationList opList,
+                        Dimension fullSize) throws ServiceUnavailableException {
+        if (!isEnabled() ||
+                !opList.hasEffect(fullSize, info.getSourceFormat())) {
+            return new Permit(0);
+        }
+        return acquire(estimateCost(info, opList, fullSize));
+    }
+
+    /**
+     * @param cost Cost of the request. If greater than the whole budget, it
+     *             is reduced to the budget, so that the request will be
+     *             processed on its own.
+     * @throws ServiceUnavailableException if the request could not be
+     *         admitted in time.
+     */
+    synchronized Permit acquire(long cost) throws ServiceUnavailableException {
+        cost = Math.min(cost, maxCost);
+        if (waiters.isEmpty() && costInUse + cost <= maxCost) {
+            return grant(cost);
+        }
+
+        final Object ticket = new Object();
+        final long deadline = System.nanoTime() + maxWaitNanos;
+        waiters.addLast(ticket);
+        numQueued.incrementAndGet();
+        try {
+            while (waiters.peekFirst() != ticket ||
+                    costInUse + cost > maxCost) {
+                final long remainingNanos = deadline - System.nanoTime();
+                if (remainingNanos <= 0) {
+                    throw shed(cost);
+                }
+                TimeUnit.NANOSECONDS.timedWait(this, remainingNanos);
+            }
+            return grant(cost);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw shed(cost);
+        } finally {
+            waiters.remove(ticket);
+            // The next waiter may now be at the head of the queue.
+            notifyAll();
+        }
+    }
+
+    private Permit grant(long cost) {
+        costInUse += cost;
+        numAdmitted.incrementAndGet();
+        return new Permit(cost);
+    }
+
+    private synchronized void release(long cost) {
+        costInUse -= cost;
+        notifyAll();
+    }
+
+    private ServiceUnavailableException shed(long cost) {
+        numShed.incrementAndGet();
+        LOGGER.warn("Shedding a request costing {} bytes after waiting " +
+                "{} msec (budget in use: {}/{} bytes)",
+                cost, TimeUnit.NANOSECONDS.toMillis(maxWaitNanos),
+                costInUse, maxCost);
+        return new ServiceUnavailableException(
+                "The server is too busy to process this request.",
+                getRetryAfterSeconds());
+    }
+
+    /**
+     * @return Total cost of all requests currently being processed.
+     */
+    public synchronized long getCostInUse() {
+        return costInUse;
+    }
+
+    /**
+     * @return Budget, i.e. maximum total cost of all requests being processed
+     *         at once.
+     */
+    public long getMaxCost() {
+        return maxCost;
+    }
+
+    /**
+     * @return Number of requests that have been admitted.
+     */
+    public long getNumAdmitted() {
+        return numAdmitted.get();
+    }
+
+    /**
+     * @return Number of requests that have had to wait to be admitted, or to
+     *         be shed.
+     */
+    public long getNumQueued() {
+        return numQueued.get();
+    }
+
+    /**
+     * @return Number of requests that have been shed.
+     */
+    public long getNumShed() {
+        return numShed.get();
+    }
+
+    /**
+     * @return Number of requests currently waiting to be admitted.
+     */
+    public synchronized int getNumWaiting() {
+        return waiters.size();
+    }
+
+    /**
+     * @return Value of the {@literal Retry-After} header sent to shed
+     *         requests: the max wait time, in seconds, but at least 1.
+     */
+    long getRetryAfterSeconds() {
+        return Math.max(1, (long) Math.ceil(maxWaitNanos / 1e9));
+    }
+
+}
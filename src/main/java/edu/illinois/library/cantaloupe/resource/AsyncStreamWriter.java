@@ -0,0 +1,193 @@
+package edu.illinois.library.cantaloupe.resource;
+
+import edu.illinois.library.cantaloupe.util.Stopwatch;
+import org.eclipse.jetty.server.HttpOutput;
+import org.eclipse.jetty.util.Callback;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.ReadableByteChannel;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>Copies an {@link InputStream} to the response using non-blocking I/O,
+ * so that the thread that handled the request is released while the data
+ * drains to the client, however slow it may be.</p>
+ *
+ * <p>The Servlet container invokes {@link #onWritePossible()} whenever the
+ * response is able to accept more data without blocking. Each invocation
+ * writes as much as it can and returns. When the stream has been exhausted,
+ * or writing has failed, the stream is closed and the {@link AsyncContext}
+ * completed.</p>
+ *
+ * <p>File channels are instead {@link #sendChannel sent} using Jetty's own
+ * asynchronous API.</p>
+ *
+ * @see AbstractResource#writeAsync(InputStream)
+ * @since 5.0
+ */
+public final class AsyncStreamWriter implements WriteListener {
+
+    private static final Logger LOGGER =
+            LoggerFactory.getLogger(AsyncStreamWriter.class);
+
+    private static final int BUFFER_SIZE = 16384;
+
+    private static final AtomicLong NUM_IN_PROGRESS = new AtomicLong();
+
+    private final AsyncContext asyncContext;
+    private final InputStream inputStream;
+    private final ServletOutputStream outputStream;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private final Stopwatch watch = new Stopwatch();
+    private boolean isFinished;
+
+    /**
+     * @return Number of responses currently being written asynchronously.
+     */
+    public static long getNumInProgress() {
+        return NUM_IN_PROGRESS.get();
+    }
+
+    /**
+     * Puts the given request into asynchronous mode and starts writing the
+     * given stream to the response. Returns immediately.
+     *
+     * @param request     Request that {@link
+     *                    HttpServletRequest#isAsyncSupported() supports
+     *                    asynchronous mode}.
+     * @param response    Response to write to.
+     * @param inputStream Will be closed when it has been written, or writing
+     *                    has failed.
+     */
+    static void start(HttpServletRequest request,
+                      HttpServletResponse response,
+                      InputStream inputStream) throws IOException {
+        final AsyncContext context = request.startAsync();
+        // Clients that stop reading are dealt with by the connector's idle
+        // timeout, so slow but steady ones can take as long as they need.
+        context.setTimeout(0);
+        try {
+            final ServletOutputStream outputStream = response.getOutputStream();
+            outputStream.setWriteListener(
+                    new AsyncStreamWriter(context, inputStream, outputStream));
+        } catch (IOException | RuntimeException e) {
+            inputStream.close();
+            context.complete();
+            throw e;
+        }
+    }
+
+    /**
+     * Puts the given request into asynchronous mode and starts sending the
+     * given channel to the response. Jetty reads it into its own pooled
+     * buffers, so nothing needs to be allocated or mapped per response.
+     * Returns immediately.
+     *
+     * @param request Request that {@link
+     *                HttpServletRequest#isAsyncSupported() supports
+     *                asynchronous mode}.
+     * @param output  Jetty output stream of the response.
+     * @param channel Channel to send.
+     * @param toClose Will be closed when the channel has been sent, or
+     *                sending has failed.
+     */
+    static void sendChannel(HttpServletRequest request,
+                            HttpOutput output,
+                            ReadableByteChannel channel,
+                            Closeable toClose) throws IOException {
+        final Stopwatch watch = new Stopwatch();
+        final AsyncContext context = request.startAsync();
+        context.setTimeout(0);
+        NUM_IN_PROGRESS.incrementAndGet();
+        final Runnable finish = () -> {
+            NUM_IN_PROGRESS.decrementAndGet();
+            try {
+                toClose.close();
+            } catch (IOException e) {
+                LOGGER.warn("sendChannel(): failed to close the stream: {}",
+                        e.getMessage());
+            } finally {
+                context.complete();
+            }
+        };
+        try {
+            output.sendContent(channel, new Callback() {
+                @Override
+                public void succeeded() {
+                    LOGGER.debug("Sent channel asynchronously in {}", watch);
+                    finish.run();
+                }
+
+                @Override
+                public void failed(Throwable t) {
+                    LOGGER.debug("Failed to send channel asynchronously " +
+                            "after {}: {}", watch, t.getMessage());
+                    finish.run();
+                }
+            });
+        } catch (IOException | RuntimeException e) {
+            finish.run();
+            throw e;
+        }
+    }
+
+    private AsyncStreamWriter(AsyncContext asyncContext,
+                              InputStream inputStream,
+                              ServletOutputStream outputStream) {
+        this.asyncContext = asyncContext;
+        this.inputStream  = inputStream;
+        this.outputStream = outputStream;
+        NUM_IN_PROGRESS.incrementAndGet();
+    }
+
+    @Override
+    public void onWritePossible() throws IOException {
+        while (!isFinished && outputStream.isReady()) {
+            final int length = inputStream.read(buffer);
+            if (length < 0) {
+                LOGGER.debug("Wrote asynchronously in {}", watch);
+                finish();
+                return;
+            }
+            outputStream.write(buffer, 0, length);
+        }
+    }
+
+    /**
+     * Invoked when writing has failed, which usually means that the client
+     * has disconnected, or when {@link #onWritePossible()} has thrown an
+     * exception.
+     */
+    @Override
+    public void onError(Throwable t) {
+        LOGGER.debug("Failed to write asynchronously after {}: {}",
+                watch, t.getMessage());
+        finish();
+    }
+
+    private void finish() {
+        if (isFinished) {
+            return;
+        }
+        isFinished = true;
+        NUM_IN_PROGRESS.decrementAndGet();
+        try {
+            inputStream.close();
+        } catch (IOException e) {
+            LOGGER.warn("finish(): failed to close the stream: {}",
+                    e.getMessage());
+        } finally {
+            asyncContext.complete();
+        }
+    }
+
+}
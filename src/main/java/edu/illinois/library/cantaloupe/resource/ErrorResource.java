@@ -83,6 +83,10 @@ class ErrorResource extends AbstractResource {
         getResponse().setStatus(status.getCode());
         getResponse().setHeader("Cache-Control", "no-cache, must-revalidate");
         getResponse().setHeader("Content-Type", mediaType + ";charset=UTF-8");
+        if (error instanceof ServiceUnavailableException) {
+            getResponse().setHeader("Retry-After", Long.toString(
+                    ((ServiceUnavailableException) error).getRetryAfterSeconds()));
+        }
 
         new VelocityRepresentation(template, templateVars)
                 .write(getResponse().getOutputStream());
@@ -0,0 +1,301 @@
+package edu.illinois.library.cantaloupe.resource;
+
+import edu.illinois.library.cantaloupe.http.Range;
+import edu.illinois.library.cantaloupe.http.Status;
+import org.eclipse.jetty.server.HttpOutput;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * <p>Sends a file to the client, with a {@literal Content-Length} header.</p>
+ *
+ * <p>{@literal Range} headers in {@literal GET} requests are honored (RFC
+ * 7233). A single satisfiable range is sent in a {@literal 206 Partial
+ * Content} response, and several in a {@literal multipart/byteranges} one.
+ * If none are satisfiable, the response is {@literal 416 Range Not
+ * Satisfiable}. Requests with an {@literal If-Range} header that doesn't
+ * match the {@literal ETag} header of the response, if any, are sent the
+ * whole file.</p>
+ *
+ * <p>When running in Jetty, the whole file, or a single range of it, is
+ * handed to Jetty as a channel, which it reads into its own pooled buffers.
+ * Otherwise, it is streamed. Files are not memory-mapped, as mappings are
+ * only released when they are garbage-collected, which a busy server may not
+ * do often enough to avoid running out of address space or map count.</p>
+ *
+ * @since 5.0
+ */
+final class FileSender {
+
+    /**
+     * Channel over a range of a file, using positional reads so that it
+     * doesn't disturb the position of the file's channel, which is not
+     * closed along with it.
+     */
+    private static class RangeChannel implements ReadableByteChannel {
+
+        private final FileChannel channel;
+        private long position, remaining;
+        private boolean isOpen = true;
+
+        RangeChannel(FileChannel channel, long position, long length) {
+            this.channel   = channel;
+            this.position  = position;
+            this.remaining = length;
+        }
+
+        @Override
+        public int read(ByteBuffer dst) throws IOException {
+            if (!isOpen) {
+                throw new ClosedChannelException();
+            }
+            if (remaining <= 0) {
+                return -1;
+            }
+            final int limit = dst.limit();
+            if (dst.remaining() > remaining) {
+                dst.limit(dst.position() + (int) remaining);
+            }
+            try {
+                final int n = channel.read(dst, position);
+                if (n > 0) {
+                    position  += n;
+                    remaining -= n;
+                }
+                return n;
+            } finally {
+                dst.limit(limit);
+            }
+        }
+
+        @Override
+        public boolean isOpen() {
+            return isOpen;
+        }
+
+        @Override
+        public void close() {
+            isOpen = false;
+        }
+
+    }
+
+    private static final Logger LOGGER =
+            LoggerFactory.getLogger(FileSender.class);
+
+    /**
+     * Requests for more ranges than this are sent the whole file, as RFC
+     * 7233 permits, rather than a response consisting mostly of part
+     * headers.
+     */
+    static final int MAX_RANGES = 16;
+
+    private final HttpServletRequest request;
+    private final HttpServletResponse response;
+    private final FileChannel channel;
+
+    /**
+     * Set by {@link #prepare()} for {@literal multipart/byteranges}
+     * responses.
+     */
+    private String boundary, partType;
+
+    /**
+     * @param request  Request being handled.
+     * @param response Response to send the file to. Its {@literal
+     *                 Content-Type} should already be set.
+     * @param channel  Channel of the file to send. Will not be closed.
+     */
+    FileSender(HttpServletRequest request,
+               HttpServletResponse response,
+               FileChannel channel) {
+        this.request  = request;
+        this.response = response;
+        this.channel  = channel;
+    }
+
+    /**
+     * Sends the file, blocking until it has been sent.
+     */
+    void send() throws IOException {
+        final List<Range> ranges = prepare();
+        if (ranges.isEmpty()) {
+            return;
+        }
+        final ServletOutputStream output = response.getOutputStream();
+        if (ranges.size() == 1 && output instanceof HttpOutput) {
+            ((HttpOutput) output).sendContent(newChannel(ranges.get(0)));
+        } else {
+            try (InputStream body = newBodyStream(ranges, () -> {})) {
+                body.transferTo(output);
+            }
+        }
+    }
+
+    /**
+     * Puts the request into asynchronous mode and starts sending the file.
+     * Returns immediately.
+     *
+     * @param toClose Closed once the file has been sent, or sending has
+     *                failed.
+     */
+    void sendAsync(Closeable toClose) throws IOException {
+        final List<Range> ranges;
+        try {
+            ranges = prepare();
+        } catch (IOException | RuntimeException e) {
+            toClose.close();
+            throw e;
+        }
+        if (ranges.isEmpty()) {
+            toClose.close();
+            return;
+        }
+        final ServletOutputStream output = response.getOutputStream();
+        if (ranges.size() == 1 && output instanceof HttpOutput) {
+            AsyncStreamWriter.sendChannel(request, (HttpOutput) output,
+                    newChannel(ranges.get(0)), toClose);
+        } else {
+            AsyncStreamWriter.start(request, response,
+                    newBodyStream(ranges, toClose));
+        }
+    }
+
+    /**
+     * Sets the status and headers of the response.
+     *
+     * @return Ranges of the file to send. A single range may be the whole
+     *         file. If empty, the response has no body.
+     */
+    private List<Range> prepare() throws IOException {
+        final long length = channel.size();
+        final Range whole = new Range(0, length - 1, length);
+        response.setHeader("Accept-Ranges", "bytes");
+
+        final String rangeHeader = request.getHeader("Range");
+        final String ifRange     = request.getHeader("If-Range");
+        if (rangeHeader == null || !"GET".equals(request.getMethod()) ||
+                (ifRange != null &&
+                        !ifRange.equals(response.getHeader("ETag")))) {
+            response.setContentLengthLong(length);
+            return List.of(whole);
+        }
+
+        List<Range> ranges;
+        try {
+            ranges = Range.parse(rangeHeader, length);
+        } catch (IllegalArgumentException e) {
+            LOGGER.debug("Ignoring Range header: {}", e.getMessage());
+            response.setContentLengthLong(length);
+            return List.of(whole);
+        }
+        if (ranges.isEmpty()) {
+            response.setStatus(Status.RANGE_NOT_SATISFIABLE.getCode());
+            response.setHeader("Content-Range", "bytes */" + length);
+            response.setContentLength(0);
+            return Collections.emptyList();
+        }
+        if (ranges.size() > MAX_RANGES) {
+            response.setContentLengthLong(length);
+            return List.of(whole);
+        }
+
+        response.setStatus(Status.PARTIAL_CONTENT.getCode());
+        if (ranges.size() == 1) {
+            final Range range = ranges.get(0);
+            response.setHeader("Content-Range", contentRange(range));
+            response.setContentLengthLong(range.end - range.start + 1);
+        } else {
+            boundary = UUID.randomUUID().toString();
+            partType = response.getContentType();
+            long contentLength = closeDelimiter(boundary).length;
+            for (Range range : ranges) {
+                contentLength += partHeader(boundary, partType, range).length +
+                        range.end - range.start + 1;
+            }
+            response.setContentType(
+                    "multipart/byteranges; boundary=" + boundary);
+            response.setContentLengthLong(contentLength);
+        }
+        return ranges;
+    }
+
+    private static String contentRange(Range range) {
+        return "bytes " + range.start + "-" + range.end + "/" + range.length;
+    }
+
+    private static byte[] partHeader(String boundary,
+                                     String contentType,
+                                     Range range) {
+        final StringBuilder b = new StringBuilder();
+        b.append("\r\n--").append(boundary).append("\r\n");
+        if (contentType != null) {
+            b.append("Content-Type: ").append(contentType).append("\r\n");
+        }
+        b.append("Content-Range: ").append(contentRange(range))
+                .append("\r\n\r\n");
+        return b.toString().getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static byte[] closeDelimiter(String boundary) {
+        return ("\r\n--" + boundary + "--\r\n")
+                .getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private ReadableByteChannel newChannel(Range range) {
+        return new RangeChannel(channel, range.start,
+                range.end - range.start + 1);
+    }
+
+    /**
+     * @param ranges  Ranges to send. If there are several, they are sent as
+     *                the parts of a {@literal multipart/byteranges} body.
+     * @param toClose Closed along with the returned stream.
+     */
+    private InputStream newBodyStream(List<Range> ranges, Closeable toClose) {
+        final List<InputStream> streams = new ArrayList<>();
+        if (ranges.size() == 1) {
+            final Range range = ranges.get(0);
+            streams.add(Channels.newInputStream(newChannel(range)));
+        } else {
+            for (Range range : ranges) {
+                streams.add(new ByteArrayInputStream(
+                        partHeader(boundary, partType, range)));
+                streams.add(Channels.newInputStream(newChannel(range)));
+            }
+            streams.add(new ByteArrayInputStream(closeDelimiter(boundary)));
+        }
+        return new FilterInputStream(
+                new SequenceInputStream(Collections.enumeration(streams))) {
+            @Override
+            public void close() throws IOException {
+                try {
+                    super.close();
+                } finally {
+                    toClose.close();
+                }
+            }
+        };
+    }
+
+}
@@ -2,6 +2,7 @@ package edu.illinois.library.cantaloupe.resource;
 
 import edu.illinois.library.cantaloupe.http.Method;
 import edu.illinois.library.cantaloupe.http.Status;
+import edu.illinois.library.cantaloupe.processor.ProcessingCancelledException;
 import edu.illinois.library.cantaloupe.util.Stopwatch;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -118,9 +119,16 @@ public class HandlerServlet extends HttpServlet {
             if (resource != null) {
                 resource.destroy();
             }
-            LOGGER.debug("Responded to {} {} with HTTP {} in {}",
-                    request.getMethod(), request.getPathInfo(),
-                    response.getStatus(), requestClock);
+            if (request.isAsyncStarted()) {
+                LOGGER.debug("Responding asynchronously to {} {} with " +
+                                "HTTP {} after {}",
+                        request.getMethod(), request.getPathInfo(),
+                        response.getStatus(), requestClock);
+            } else {
+                LOGGER.debug("Responded to {} {} with HTTP {} in {}",
+                        request.getMethod(), request.getPathInfo(),
+                        response.getStatus(), requestClock);
+            }
         }
     }
 
@@ -139,6 +147,18 @@ public class HandlerServlet extends HttpServlet {
     private void handleError(HttpServletRequest request,
                              HttpServletResponse response,
                              Throwable t) {
+        // If processing was abandoned because the client disconnected,
+        // there is nobody to send an error response to. Other kinds of
+        // CancellationExceptions are errors like any other.
+        for (Throwable cause = t; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ProcessingCancelledException) {
+                LOGGER.debug("Abandoned processing of {} {}: {}",
+                        request.getMethod(), request.getPathInfo(),
+                        cause.getMessage());
+                return;
+            }
+        }
+
         // Try to use an ErrorResource, which will render an HTML template.
         ErrorResource resource = new ErrorResource(t);
         try {
@@ -6,23 +6,39 @@ import edu.illinois.library.cantaloupe.image.Dimension;
 import edu.illinois.library.cantaloupe.image.Format;
 import edu.illinois.library.cantaloupe.image.Info;
 import edu.illinois.library.cantaloupe.operation.OperationList;
+import edu.illinois.library.cantaloupe.processor.Cancellation;
 import edu.illinois.library.cantaloupe.processor.FileProcessor;
 import edu.illinois.library.cantaloupe.processor.FormatException;
+import edu.illinois.library.cantaloupe.processor.ProcessingCancelledException;
 import edu.illinois.library.cantaloupe.processor.Processor;
 import edu.illinois.library.cantaloupe.processor.ProcessorException;
 import edu.illinois.library.cantaloupe.processor.StreamProcessor;
 import edu.illinois.library.cantaloupe.source.StreamFactory;
 import edu.illinois.library.cantaloupe.util.Stopwatch;
+import edu.illinois.library.cantaloupe.util.StringUtils;
 import org.apache.commons.io.output.TeeOutputStream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayOutputStream;
+import java.io.FileInputStream;
+import java.io.FilterOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Representation that {@link Processor processes} an image and writes the
@@ -30,26 +46,249 @@ import java.util.Optional;
  */
 public class ImageRepresentation implements Representation {
 
+    /**
+     * Cancels a {@link Cancellation} when a write to the response fails,
+     * which usually means that the client has disconnected.
+     */
+    private static class CancellingOutputStream extends FilterOutputStream {
+
+        private final Cancellation cancellation;
+
+        CancellingOutputStream(OutputStream out, Cancellation cancellation) {
+            super(out);
+            this.cancellation = cancellation;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            try {
+                out.write(b);
+            } catch (IOException e) {
+                cancellation.cancel();
+                throw e;
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            try {
+                out.write(b, off, len);
+            } catch (IOException e) {
+                cancellation.cancel();
+                throw e;
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            try {
+                out.flush();
+            } catch (IOException e) {
+                cancellation.cancel();
+                throw e;
+            }
+        }
+
+        /**
+         * Closing the response stream is the Servlet container's
+         * responsibility.
+         */
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+
+    }
+
+    /**
+     * <p>Writes the output of a request that is generating a derivative image
+     * that other, identical requests are {@link #DERIVATIVES_IN_FLIGHT
+     * waiting on} through to the wrapped stream, while also accumulating a
+     * copy of it in memory, so that once it has been generated, it can be
+     * handed to them directly, independently of when the derivative cache
+     * makes it visible.</p>
+     *
+     * <p>If the output grows larger than {@link #MAX_COALESCED_BYTES}, the
+     * copy is discarded and the waiting requests are released to generate it
+     * themselves.</p>
+     */
+    private static class CoalescingOutputStream extends OutputStream {
+
+        private final CompletableFuture<byte[]> future;
+        private final OutputStream out;
+        private ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+
+        CoalescingOutputStream(OutputStream out,
+                               CompletableFuture<byte[]> future) {
+            this.out    = out;
+            this.future = future;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] { (byte) b }, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            if (buffer != null) {
+                if (buffer.size() + len <= MAX_COALESCED_BYTES) {
+                    buffer.write(b, off, len);
+                } else {
+                    // Too big to hold in memory, so let the waiting requests
+                    // generate it themselves.
+                    future.complete(null);
+                    buffer = null;
+                }
+            }
+        }
+
+        /**
+         * Hands the complete output to any waiting requests, and then flushes
+         * the wrapped stream.
+         */
+        void publish() throws IOException {
+            if (buffer != null) {
+                future.complete(buffer.toByteArray());
+                buffer = null;
+            }
+            out.flush();
+        }
+
+    }
+
+    /**
+     * Carries a {@link ServiceUnavailableException} from {@link
+     * AdmissionController#admit} through methods that may only throw {@link
+     * IOException}s.
+     */
+    private static class ShedException extends IOException {
+
+        ShedException(ServiceUnavailableException cause) {
+            super(cause.getMessage(), cause);
+        }
+
+        @Override
+        public ServiceUnavailableException getCause() {
+            return (ServiceUnavailableException) super.getCause();
+        }
+
+    }
+
     private static final Logger LOGGER =
             LoggerFactory.getLogger(ImageRepresentation.class);
 
+    /**
+     * Maximum size of a derivative image that will be held in memory for
+     * requests waiting on it. Larger ones are generated by each request.
+     */
+    private static final int MAX_COALESCED_BYTES = 8 * 1024 * 1024;
+
+    /**
+     * Maximum amount of time to wait for an identical derivative being
+     * generated by another request before giving up and generating it anew.
+     */
+    private static final long MAX_COALESCED_WAIT_SECONDS = 30;
+
+    /**
+     * Derivative images currently being generated and written to the
+     * derivative cache, keyed by {@link OperationList#toFilename()}. Requests
+     * for a derivative that is already in this map wait for its future to
+     * complete with the image data and write that to their response, rather
+     * than generating it themselves. The future completes with {@literal
+     * null} if the data is not available.
+     *
+     * @see CoalescingOutputStream
+     */
+    private static final ConcurrentMap<String, CompletableFuture<byte[]>>
+            DERIVATIVES_IN_FLIGHT = new ConcurrentHashMap<>();
+
+    /**
+     * Number of requests that have waited on an identical derivative being
+     * generated by another request.
+     */
+    private static final AtomicLong NUM_COALESCED_REQUESTS = new AtomicLong();
+
     private boolean bypassCache;
+    private final Cancellation cancellation = new Cancellation();
+    private Dimension fullSize;
     private Info imageInfo;
     private OperationList opList;
     private Processor processor;
 
+    /**
+     * Set by {@link #write(HttpServletRequest, HttpServletResponse)}.
+     */
+    private HttpServletRequest request;
+    private HttpServletResponse response;
+
+    /**
+     * <p>Returns a strong entity tag (RFC 7232 sec. 2.3) for the image that an
+     * instance would write. The image is a function of the operations and of
+     * the source image, as described by its info, so the tag is derived from
+     * those, and can be known before the source image is accessed.</p>
+     *
+     * <p>Like the derivative cache, the tag doesn't change when a source image
+     * changes in a way that its info doesn't reflect, or when the
+     * configuration of the processor changes, until the info cache is
+     * purged.</p>
+     *
+     * @param info   Source image info.
+     * @param opList Operation list, with all mutations applied.
+     * @return       Entity tag, including quotes.
+     */
+    public static String getEntityTag(Info info, OperationList opList) {
+        return "\"" + StringUtils.md5(opList.toString() + "\n" + info) + "\"";
+    }
+
+    /**
+     * @return Number of derivatives currently being generated and cached.
+     */
+    public static long getNumDerivativesInFlight() {
+        return DERIVATIVES_IN_FLIGHT.size();
+    }
+
+    /**
+     * @return Number of requests that have waited on an identical derivative
+     *         being generated by another request rather than generating it
+     *         themselves.
+     */
+    public static long getNumCoalescedRequests() {
+        return NUM_COALESCED_REQUESTS.get();
+    }
+
+    /**
+     * @param imageInfo   Info corresponding to the source image.
+     * @param processor   Processor configured for writing the image.
+     * @param opList      Instance describing the image.
+     * @param bypassCache If {@literal true}, the cache will not be written to
+     *                    nor read from.
+     */
+    public ImageRepresentation(final Info imageInfo,
+                               final Processor processor,
+                               final OperationList opList,
+                               final boolean bypassCache) {
+        this(imageInfo, imageInfo.getSize(), processor, opList, bypassCache);
+    }
+
     /**
      * @param imageInfo   Info corresponding to the source image.
+     * @param fullSize    Full size of the source image (or page), used to
+     *                    estimate the cost of processing for the {@link
+     *                    AdmissionController}.
      * @param processor   Processor configured for writing the image.
      * @param opList      Instance describing the image.
      * @param bypassCache If {@literal true}, the cache will not be written to
      *                    nor read from.
      */
     public ImageRepresentation(final Info imageInfo,
+                               final Dimension fullSize,
                                final Processor processor,
                                final OperationList opList,
                                final boolean bypassCache) {
         this.imageInfo = imageInfo;
+        this.fullSize = fullSize;
         this.processor = processor;
         this.opList = opList;
         this.bypassCache = bypassCache;
@@ -59,13 +298,55 @@ public class ImageRepresentation implements Representation {
      * Writes the image requested in the constructor to the given output
      * stream, either retrieving it from the derivative cache, or getting it
      * from a processor (and caching it if so configured) as appropriate.
+     *
+     * @throws ProcessingCancelledException if writing failed because the
+     *         client disconnected.
      */
     @Override
     public void write(OutputStream responseOS) throws IOException {
+        try {
+            final OutputStream os =
+                    new CancellingOutputStream(responseOS, cancellation);
+            doWrite(os);
+            // Make sure that any failure to write the rest of the response
+            // happens here, where it can be told apart from other errors.
+            os.flush();
+        } catch (IOException | RuntimeException e) {
+            // If the client went away, this is not really an error.
+            cancellation.check();
+            throw e;
+        }
+    }
+
+    /**
+     * Variant of {@link #write(OutputStream)} that sends images from the
+     * derivative cache or unprocessed source files using a {@link
+     * FileSender}, which adds a {@literal Content-Length} header, honors
+     * {@literal Range} headers, and avoids copying them through the heap when
+     * running in Jetty.
+     *
+     * @throws ProcessingCancelledException if processing was abandoned
+     *         because the client disconnected.
+     * @throws ServiceUnavailableException if the image needed to be processed
+     *         but the {@link AdmissionController} didn't admit it in time.
+     */
+    public void write(HttpServletRequest request,
+                      HttpServletResponse response)
+            throws IOException, ServiceUnavailableException {
+        this.request  = request;
+        this.response = response;
+        try {
+            write(response.getOutputStream());
+        } catch (ShedException e) {
+            throw e.getCause();
+        }
+    }
+
+    private void doWrite(OutputStream responseOS) throws IOException {
         // If we are bypassing the cache, write directly to the response.
         if (bypassCache) {
             LOGGER.debug("Bypassing the cache and writing directly to the response");
-            copyOrProcess(responseOS);
+            copyOrProcess(responseOS, true);
             return;
         }
 
@@ -74,7 +355,7 @@ public class ImageRepresentation implements Representation {
         if (!cacheFacade.isDerivativeCacheAvailable()) {
             LOGGER.debug("Derivative cache not available; writing directly " +
                     "to the response");
-            copyOrProcess(responseOS);
+            copyOrProcess(responseOS, true);
             return;
         }
 
@@ -87,7 +368,10 @@ public class ImageRepresentation implements Representation {
                 if (cacheIS != null) {
                     // The image is available, so write it to the response.
                     final Stopwatch watch = new Stopwatch();
-                    cacheIS.transferTo(responseOS);
+                    if (!(cacheIS instanceof FileInputStream) ||
+                            !sendFile(((FileInputStream) cacheIS).getChannel())) {
+                        cacheIS.transferTo(responseOS);
+                    }
 
                     LOGGER.debug("Streamed from {} in {}: {}",
                             cache.getClass().getSimpleName(), watch, opList);
@@ -97,15 +381,33 @@ public class ImageRepresentation implements Representation {
                 LOGGER.error("Failed to read from {}: {}",
                         cache.getClass().getSimpleName(), e.getMessage(), e);
                 // It may still be possible to fulfill the request.
-                copyOrProcess(responseOS);
+                copyOrProcess(responseOS, true);
                 return;
             }
         }
 
         // At this point, a derivative cache is available, but it doesn't
-        // contain an image that can fulfill the request. So, we will create a
-        // TeeOutputStream to write to the response output stream and the cache
-        // pseudo-simultaneously.
+        // contain an image that can fulfill the request. If another request
+        // is already generating the same image, wait for it to hand it over.
+        final String key = opList.toFilename();
+        final CompletableFuture<byte[]> future = new CompletableFuture<>();
+        final CompletableFuture<byte[]> inFlight =
+                DERIVATIVES_IN_FLIGHT.putIfAbsent(key, future);
+        if (inFlight != null) {
+            NUM_COALESCED_REQUESTS.incrementAndGet();
+            if (!awaitAndCopy(inFlight, responseOS)) {
+                // The other request failed, or its image was too big to hand
+                // over or took too long, so generate it here. It's not cached
+                // again, as the other request is responsible for that.
+                copyOrProcess(responseOS, true);
+            }
+            return;
+        }
+
+        // Otherwise, we will create a TeeOutputStream to write to the
+        // response output stream and the cache pseudo-simultaneously, a copy
+        // of which is held in memory until it's complete, for any identical
+        // requests that arrive in the meantime.
         //
         // N.B.: Closing responseOutputStream is the Servlet container's
         // responsibility. This means we also can't close teeOutputStream,
@@ -117,16 +419,73 @@ public class ImageRepresentation implements Representation {
         try (OutputStream cacheOS =
                      cacheFacade.newDerivativeImageOutputStream(opList)) {
             OutputStream teeOS = new TeeOutputStream(responseOS, cacheOS);
+            CoalescingOutputStream coalescingOS =
+                    new CoalescingOutputStream(teeOS, future);
             LOGGER.debug("Writing to the response & derivative " +
                     "cache simultaneously");
-            copyOrProcess(teeOS);
+            copyOrProcess(coalescingOS, false);
+            coalescingOS.publish();
         } catch (Throwable t) {
+            // Any waiting requests are on their own.
+            future.complete(null);
             // The cached image has been incompletely written and is corrupt,
             // so it must be purged.
             cacheFacade.purge(opList);
-            // It may still be possible to fulfill the request.
-            copyOrProcess(responseOS);
+            // If there was no room to process the image, trying again won't
+            // help.
+            if (t instanceof ShedException) {
+                throw (ShedException) t;
+            }
+            // If the client has gone away, there is nobody to fulfill the
+            // request for.
+            cancellation.check();
+            // Otherwise, it may still be possible to fulfill the request.
+            copyOrProcess(responseOS, true);
+        } finally {
+            // Requests that arrived before the image was cached may still
+            // have been handed the completed image above.
+            DERIVATIVES_IN_FLIGHT.remove(key, future);
+            future.complete(null);
+        }
+    }
+
+    /**
+     * Waits for another request to finish generating the derivative image
+     * corresponding to {@link #opList}, and then writes it to the response.
+     *
+     * @param inFlight   Future that will complete with the image data when the
+     *                   other request is done, or with {@literal null} if it
+     *                   isn't available.
+     * @param responseOS Will not be closed.
+     * @return           Whether the image was written. If not, nothing has
+     *                   been written to {@literal responseOS}.
+     */
+    private boolean awaitAndCopy(CompletableFuture<byte[]> inFlight,
+                                 OutputStream responseOS) throws IOException {
+        final Stopwatch watch = new Stopwatch();
+        LOGGER.debug("Waiting on an identical request in progress: {}",
+                opList);
+        final byte[] bytes;
+        try {
+            bytes = inFlight.get(MAX_COALESCED_WAIT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException | TimeoutException e) {
+            LOGGER.debug("Gave up waiting on an identical request after {}: {}",
+                    watch, opList);
+            return false;
+        }
+        if (bytes == null) {
+            LOGGER.debug("Identical request didn't hand over its image " +
+                    "after {}: {}", watch, opList);
+            return false;
         }
+        responseOS.write(bytes);
+        responseOS.flush();
+        LOGGER.debug("Wrote {} bytes from an identical request after {}: {}",
+                bytes.length, watch, opList);
+        return true;
     }
 
     /**
@@ -137,12 +496,16 @@ public class ImageRepresentation implements Representation {
      * pseudo-simultaneously.
      *
      * @param responseOS Will not be closed.
+     * @param isResponse Whether {@literal responseOS} is the response output
+     *                   stream, to which a source file can be {@link
+     *                   #sendFile sent} directly.
      */
-    private void copyOrProcess(OutputStream responseOS) throws IOException {
+    private void copyOrProcess(OutputStream responseOS,
+                               boolean isResponse) throws IOException {
         // If the operations are effectively a no-op, the source image can be
         // streamed through with no processing.
         if (!opList.hasEffect(imageInfo.getSize(), imageInfo.getSourceFormat())) {
-            copyFromSource(responseOS);
+            copyFromSource(responseOS, isResponse);
         } else {
             try {
                 process(responseOS);
@@ -152,15 +515,23 @@ public class ImageRepresentation implements Representation {
         }
     }
 
-    private void copyFromSource(OutputStream responseOS) throws IOException {
+    private void copyFromSource(OutputStream responseOS,
+                                boolean isResponse) throws IOException {
         boolean done = false;
         final Stopwatch watch = new Stopwatch();
 
         if (processor instanceof FileProcessor) {
             Path sourceFile = ((FileProcessor) processor).getSourceFile();
             if (sourceFile != null) {
-                Files.copy(sourceFile, responseOS);
-                done = true;
+                if (isResponse) {
+                    try (FileChannel channel = FileChannel.open(sourceFile)) {
+                        done = sendFile(channel);
+                    }
+                }
+                if (!done) {
+                    Files.copy(sourceFile, responseOS);
+                    done = true;
+                }
             }
         }
         if (!done && processor instanceof StreamProcessor) {
@@ -175,14 +546,57 @@ public class ImageRepresentation implements Representation {
         LOGGER.debug("Streamed with no processing in {}: {}", watch, opList);
     }
 
+    /**
+     * Sends the given file to the client using a {@link FileSender}, if
+     * {@link #write(HttpServletRequest, HttpServletResponse) writing to a
+     * response}.
+     *
+     * @return Whether the file was sent. If not, nothing has been written.
+     */
+    private boolean sendFile(FileChannel channel) throws IOException {
+        if (response == null) {
+            return false;
+        }
+        try {
+            new FileSender(request, response, channel).send();
+        } catch (IOException e) {
+            cancellation.cancel();
+            throw e;
+        }
+        return true;
+    }
+
+    /**
+     * Processes the image within an {@link AdmissionController.Permit}. When
+     * admission control is enabled, the result is buffered so that the permit
+     * can be released before it is written to the response, which might take
+     * a while if the client is slow.
+     */
     private void process(OutputStream responseOS)
-            throws FormatException, ProcessorException {
+            throws FormatException, ProcessorException, IOException {
         final Stopwatch watch = new Stopwatch();
 
-        processor.process(opList, imageInfo, responseOS);
+        if (AdmissionController.isEnabled()) {
+            final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            try (AdmissionController.Permit permit = admit()) {
+                processor.process(opList, imageInfo, buffer);
+            }
+            buffer.writeTo(responseOS);
+        } else {
+            processor.process(opList, imageInfo, responseOS);
+        }
 
         LOGGER.debug("{} processed in {}: {}",
                 processor.getClass().getSimpleName(), watch, opList);
     }
 
+    private AdmissionController.Permit admit() throws ShedException {
+        try {
+            return AdmissionController.getInstance().admit(
+                    imageInfo, opList, fullSize);
+        } catch (ServiceUnavailableException e) {
+            throw new ShedException(e);
+        }
+    }
+
 }
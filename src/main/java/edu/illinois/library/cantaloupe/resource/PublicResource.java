@@ -10,12 +10,15 @@ import edu.illinois.library.cantaloupe.http.Reference;
 import edu.illinois.library.cantaloupe.image.ScaleConstraint;
 import edu.illinois.library.cantaloupe.operation.Scale;
 import edu.illinois.library.cantaloupe.processor.Processor;
+import edu.illinois.library.cantaloupe.source.FileSource;
+import edu.illinois.library.cantaloupe.source.Source;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -117,6 +120,24 @@ public abstract class PublicResource extends AbstractResource {
         return info;
     }
 
+    /**
+     * @param source Source of the image being requested.
+     * @return       Last-modified time of the source image, if it is a file,
+     *               or else {@literal null}, as other sources don't expose a
+     *               reliable one.
+     */
+    protected static Instant getLastModified(Source source) {
+        if (source instanceof FileSource) {
+            try {
+                return Files.getLastModifiedTime(
+                        ((FileSource) source).getPath()).toInstant();
+            } catch (IOException e) {
+                LOGGER.debug("getLastModified(): {}", e.getMessage());
+            }
+        }
+        return null;
+    }
+
     /**
      * @return Page index (a.k.a. page number - 1) from the {@literal page}
      *         query argument, or {@literal 0} if not supplied.
@@ -0,0 +1,29 @@
+package edu.illinois.library.cantaloupe.resource;
+
+import edu.illinois.library.cantaloupe.http.Status;
+
+/**
+ * Indicates that a request can't be handled right now, but may be retried
+ * after some time. Translated by {@link ErrorResource} into an HTTP 503
+ * response with a {@literal Retry-After} header.
+ */
+public class ServiceUnavailableException extends ResourceException {
+
+    private final long retryAfterSeconds;
+
+    /**
+     * @param message           Error message.
+     * @param retryAfterSeconds Number of seconds after which the client may
+     *                          retry the request.
+     */
+    public ServiceUnavailableException(String message,
+                                       long retryAfterSeconds) {
+        super(Status.SERVICE_UNAVAILABLE, message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+
+}
@@ -7,11 +7,13 @@ import edu.illinois.library.cantaloupe.async.TaskQueue;
 import edu.illinois.library.cantaloupe.http.Method;
 import edu.illinois.library.cantaloupe.http.Status;
 import edu.illinois.library.cantaloupe.resource.IllegalClientArgumentException;
+import edu.illinois.library.cantaloupe.resource.ResourceException;
 import edu.illinois.library.cantaloupe.resource.Route;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.concurrent.Callable;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * Resource to enable an RPC-style asynchronous API for performing potentially
@@ -56,7 +58,12 @@ public class TasksResource extends AbstractAPIResource {
             // to a queue rather than a thread pool to avoid having multiple
             // expensive tasks running in parallel, and also to prevent them
             // from interfering with each other.
-            TaskQueue.getInstance().submit(task);
+            try {
+                TaskQueue.getInstance().submit(task, TaskQueue.Lane.API);
+            } catch (RejectedExecutionException e) {
+                throw new ResourceException(Status.SERVICE_UNAVAILABLE,
+                        e.getMessage());
+            }
 
             // TaskQueue will discard it when it's complete, so we also submit
             // it to TaskMnnitor which will hold onto it for status reporting.
@@ -183,9 +183,15 @@ public class ImageResource extends IIIF1Resource {
                         (Scale) ops.getFirst(Scale.class));
 
                 addHeaders(processor, ops.getOutputFormat(), disposition);
+                final String entityTag =
+                        ImageRepresentation.getEntityTag(info, ops);
+                if (respondNotModified(entityTag, getLastModified(source))) {
+                    return;
+                }
 
-                new ImageRepresentation(info, processor, ops, isBypassingCache())
-                        .write(getResponse().getOutputStream());
+                new ImageRepresentation(info, fullSize, processor, ops,
+                        isBypassingCache())
+                        .write(getRequest().getServletRequest(), getResponse());
 
                 // Notify the health checker of a successful response.
                 HealthChecker.addSourceProcessorPair(source, processor);
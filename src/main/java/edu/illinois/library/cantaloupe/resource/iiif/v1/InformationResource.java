@@ -99,8 +99,8 @@ public class InformationResource extends IIIF1Resource {
                                         getPageIndex(),
                                         getScaleConstraint());
                         addHeaders(imageInfo);
-                        newRepresentation(imageInfo)
-                                .write(getResponse().getOutputStream());
+                        writeAsync(newRepresentation(imageInfo));
+                        return;
                     }
                 }
             } catch (IOException e) {
@@ -165,7 +165,7 @@ public class InformationResource extends IIIF1Resource {
                         getScaleConstraint());
 
                 addHeaders(iiifInfo);
-                newRepresentation(iiifInfo).write(getResponse().getOutputStream());
+                writeAsync(newRepresentation(iiifInfo), getLastModified(source));
                 return;
             } catch (SourceFormatException e) {
                 LOGGER.debug("Format inferred by {} disagrees with the one " +
@@ -17,7 +17,6 @@ import edu.illinois.library.cantaloupe.processor.Processor;
 import edu.illinois.library.cantaloupe.processor.ProcessorConnector;
 import edu.illinois.library.cantaloupe.processor.ProcessorFactory;
 import edu.illinois.library.cantaloupe.processor.SourceFormatException;
-import edu.illinois.library.cantaloupe.resource.InputStreamRepresentation;
 import edu.illinois.library.cantaloupe.resource.IllegalClientArgumentException;
 import edu.illinois.library.cantaloupe.resource.ImageRepresentation;
 import edu.illinois.library.cantaloupe.resource.Route;
@@ -107,6 +106,15 @@ public class ImageResource extends IIIF2Resource {
                 ops.setScaleConstraint(getScaleConstraint());
                 ops.applyNonEndpointMutations(info, getDelegateProxy());
 
+                // If the client already has the image, there's nothing to do.
+                addHeaders(params, disposition,
+                        params.getOutputFormat().toFormat().getPreferredMediaType().toString());
+                final String entityTag =
+                        ImageRepresentation.getEntityTag(info, ops);
+                if (respondNotModified(entityTag)) {
+                    return;
+                }
+
                 InputStream cacheStream = null;
                 try {
                     cacheStream = cacheFacade.newDerivativeImageInputStream(ops);
@@ -117,11 +125,8 @@ public class ImageResource extends IIIF2Resource {
                 }
 
                 if (cacheStream != null) {
-                    addHeaders(params, disposition,
-                            params.getOutputFormat().toFormat().getPreferredMediaType().toString());
-
-                    new InputStreamRepresentation(cacheStream)
-                            .write(getResponse().getOutputStream());
+                    LOGGER.debug("Streaming from the cache without resolving");
+                    writeAsync(cacheStream);
                     return;
                 } else {
                     Format infoFormat = info.getSourceFormat();
@@ -205,9 +210,15 @@ public class ImageResource extends IIIF2Resource {
 
                 addHeaders(params, disposition,
                         params.getOutputFormat().toFormat().getPreferredMediaType().toString());
+                final String entityTag =
+                        ImageRepresentation.getEntityTag(info, ops);
+                if (respondNotModified(entityTag, getLastModified(source))) {
+                    return;
+                }
 
-                new ImageRepresentation(info, processor, ops, isBypassingCache)
-                        .write(getResponse().getOutputStream());
+                new ImageRepresentation(info, fullSize, processor, ops,
+                        isBypassingCache)
+                        .write(getRequest().getServletRequest(), getResponse());
 
                 // Notify the health checker of a successful response.
                 HealthChecker.addSourceProcessorPair(source, processor);
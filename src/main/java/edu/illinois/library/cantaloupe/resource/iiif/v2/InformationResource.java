@@ -90,8 +90,7 @@ public class InformationResource extends IIIF2Resource {
                         final Processor processor = new ProcessorFactory().
                                 newProcessor(format);
                         addHeaders();
-                        newRepresentation(info.get(), processor)
-                                .write(getResponse().getOutputStream());
+                        writeAsync(newRepresentation(info.get(), processor));
                         return;
                     }
                 }
@@ -151,8 +150,8 @@ public class InformationResource extends IIIF2Resource {
                 final Info info = getOrReadInfo(identifier, processor);
 
                 addHeaders();
-                newRepresentation(info, processor)
-                        .write(getResponse().getOutputStream());
+                writeAsync(newRepresentation(info, processor),
+                        getLastModified(source));
                 return;
             } catch (SourceFormatException e) {
                 LOGGER.debug("Format inferred by {} disagrees with the one " +
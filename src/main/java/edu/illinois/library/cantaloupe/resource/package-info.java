@@ -19,7 +19,10 @@
  *     edu.illinois.library.cantaloupe.resource.AbstractResource#getRequest()
  *     request} and/or write information to the {@link
  *     edu.illinois.library.cantaloupe.resource.AbstractResource#getResponse()
- *     response}</li>
+ *     response}. Data that is available without further processing, like
+ *     cached images and info, should be written with {@link
+ *     edu.illinois.library.cantaloupe.resource.AbstractResource#writeAsync(java.io.InputStream)},
+ *     which frees up the request thread while it drains to the client</li>
  *     <li>Connect it to a URI path pattern in the static initializer of {@link
  *     edu.illinois.library.cantaloupe.resource.Route}</li>
  * </ol>
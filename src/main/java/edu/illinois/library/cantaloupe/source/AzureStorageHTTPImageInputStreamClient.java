@@ -5,10 +5,12 @@ import com.microsoft.azure.storage.blob.CloudBlockBlob;
 import edu.illinois.library.cantaloupe.http.Range;
 import edu.illinois.library.cantaloupe.http.Response;
 import edu.illinois.library.cantaloupe.source.stream.HTTPImageInputStreamClient;
+import edu.illinois.library.cantaloupe.source.stream.ReadAheadPool;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.util.List;
 
 /**
  * Implementation backed by an Azure Storage client.
@@ -58,4 +60,13 @@ public class AzureStorageHTTPImageInputStreamClient
         }
     }
 
+    /**
+     * Override that sends the requests concurrently.
+     */
+    @Override
+    public List<Response> sendGETRequests(List<Range> ranges)
+            throws IOException {
+        return ReadAheadPool.sendGETRequests(this, ranges);
+    }
+
 }
@@ -5,6 +5,8 @@ import com.microsoft.azure.storage.blob.CloudBlockBlob;
 import edu.illinois.library.cantaloupe.config.Configuration;
 import edu.illinois.library.cantaloupe.config.Key;
 import edu.illinois.library.cantaloupe.source.stream.HTTPImageInputStream;
+import edu.illinois.library.cantaloupe.source.stream.ReadAheadPool;
+import edu.illinois.library.cantaloupe.source.stream.SharedChunkCache;
 import org.apache.commons.io.IOUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -64,6 +66,17 @@ class AzureStorageStreamFactory implements StreamFactory {
                 if (isChunkCacheEnabled()) {
                     stream.setMaxChunkCacheSize(getMaxChunkCacheSize());
                 }
+                if (SharedChunkCache.isEnabled()) {
+                    final String eTag = blob.getProperties().getEtag();
+                    stream.setSharedChunkCache(SharedChunkCache.getInstance(),
+                            blob.getUri().toString(),
+                            (eTag != null) ? eTag :
+                                    Long.toString(blob.getProperties().getLength()));
+                }
+                if (ReadAheadPool.isEnabled()) {
+                    stream.setReadAhead(ReadAheadPool.getNumWindows(),
+                            ReadAheadPool.getExecutor());
+                }
                 return stream;
             } catch (Throwable t) {
                 IOUtils.closeQuietly(stream);
@@ -4,6 +4,8 @@ import edu.illinois.library.cantaloupe.config.Configuration;
 import edu.illinois.library.cantaloupe.config.Key;
 import edu.illinois.library.cantaloupe.http.Headers;
 import edu.illinois.library.cantaloupe.source.stream.HTTPImageInputStream;
+import edu.illinois.library.cantaloupe.source.stream.ReadAheadPool;
+import edu.illinois.library.cantaloupe.source.stream.SharedChunkCache;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.Response;
@@ -29,6 +31,7 @@ final class HTTPStreamFactory implements StreamFactory {
     private final HTTPRequestInfo requestInfo;
     private final long contentLength;
     private final boolean serverAcceptsRanges;
+    private String eTag;
 
     HTTPStreamFactory(OkHttpClient client,
                       HTTPRequestInfo requestInfo,
@@ -40,6 +43,15 @@ final class HTTPStreamFactory implements StreamFactory {
         this.serverAcceptsRanges = serverAcceptsRanges;
     }
 
+    /**
+     * @param eTag Value of the {@literal ETag} header from a {@literal HEAD}
+     *             response, which will be used to validate chunks in the
+     *             {@link SharedChunkCache}. May be {@literal null}.
+     */
+    void setETag(String eTag) {
+        this.eTag = eTag;
+    }
+
     @Override
     public InputStream newInputStream() throws IOException {
         final Headers extraHeaders = requestInfo.getHeaders();
@@ -83,6 +95,15 @@ final class HTTPStreamFactory implements StreamFactory {
                 if (isChunkCacheEnabled()) {
                     stream.setMaxChunkCacheSize(getMaxChunkCacheSize());
                 }
+                if (SharedChunkCache.isEnabled()) {
+                    stream.setSharedChunkCache(SharedChunkCache.getInstance(),
+                            requestInfo.getURI(),
+                            (eTag != null) ? eTag : Long.toString(contentLength));
+                }
+                if (ReadAheadPool.isEnabled()) {
+                    stream.setReadAhead(ReadAheadPool.getNumWindows(),
+                            ReadAheadPool.getExecutor());
+                }
                 return stream;
             } else {
                 LOGGER.debug("newSeekableStream(): chunking is enabled, but " +
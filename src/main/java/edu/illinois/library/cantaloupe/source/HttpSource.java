@@ -135,6 +135,10 @@ class HttpSource extends AbstractSource implements StreamSource {
             return (value != null) ? Long.parseLong(value) : 0;
         }
 
+        String getETag() {
+            return headers.get("ETag");
+        }
+
     }
 
     /**
@@ -456,11 +460,13 @@ class HttpSource extends AbstractSource implements StreamSource {
         if (info != null) {
             LOGGER.debug("Resolved {} to {}", identifier, info.getURI());
             fetchHEADResponseInfo();
-            return new HTTPStreamFactory(
+            HTTPStreamFactory factory = new HTTPStreamFactory(
                     getHTTPClient(),
                     info,
                     headResponseInfo.getContentLength(),
                     headResponseInfo.acceptsRanges());
+            factory.setETag(headResponseInfo.getETag());
+            return factory;
         }
         return null;
     }
@@ -5,6 +5,8 @@ import edu.illinois.library.cantaloupe.http.Range;
 
 import edu.illinois.library.cantaloupe.http.Response;
 import edu.illinois.library.cantaloupe.source.stream.HTTPImageInputStreamClient;
+import okhttp3.Call;
+import okhttp3.Callback;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.ResponseBody;
@@ -12,6 +14,11 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 
 /**
  * Implementation backed by an {@link OkHttpClient}.
@@ -68,25 +75,85 @@ class OkHttpHTTPImageInputStreamClient implements HTTPImageInputStreamClient {
 
     @Override
     public Response sendGETRequest(Range range) throws IOException {
+        try (okhttp3.Response okHttpResponse =
+                     okHttpClient.newCall(newGETRequest(range)).execute()) {
+            return toRangedResponse(okHttpResponse);
+        }
+    }
+
+    /**
+     * Override that enqueues all of the requests at once on the client's
+     * dispatcher, which sends them concurrently over pooled connections (or
+     * multiplexed over one connection, in the case of HTTP/2).
+     */
+    @Override
+    public List<Response> sendGETRequests(List<Range> ranges)
+            throws IOException {
+        final List<Call> calls = new ArrayList<>(ranges.size());
+        final List<CompletableFuture<Response>> futures =
+                new ArrayList<>(ranges.size());
+        for (Range range : ranges) {
+            final CompletableFuture<Response> future = new CompletableFuture<>();
+            final Call call = okHttpClient.newCall(newGETRequest(range));
+            call.enqueue(new Callback() {
+                @Override
+                public void onFailure(Call call, IOException e) {
+                    future.completeExceptionally(e);
+                }
+
+                @Override
+                public void onResponse(Call call,
+                                       okhttp3.Response okHttpResponse) {
+                    try (okHttpResponse) {
+                        future.complete(toRangedResponse(okHttpResponse));
+                    } catch (IOException e) {
+                        future.completeExceptionally(e);
+                    }
+                }
+            });
+            calls.add(call);
+            futures.add(future);
+        }
+
+        try {
+            final List<Response> responses = new ArrayList<>(ranges.size());
+            for (CompletableFuture<Response> future : futures) {
+                responses.add(future.get());
+            }
+            return responses;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException(e.getCause());
+        } finally {
+            calls.forEach(Call::cancel);
+        }
+    }
+
+    private Request newGETRequest(Range range) {
         Request.Builder builder = new Request.Builder()
                 .url(uri)
                 .addHeader("Range", "bytes=" + range.start + "-" + range.end)
                 .addHeader("User-Agent", HttpSource.getUserAgent());
         extraHeaders.forEach(h -> builder.addHeader(h.getName(), h.getValue()));
 
-        Request request = builder.build();
-
         LOGGER.trace("Requesting GET {} (extra headers: {})",
                 uri, extraHeaders);
 
-        try (okhttp3.Response okHttpResponse =
-                     okHttpClient.newCall(request).execute()) {
-            if (okHttpResponse.code() == 200 || okHttpResponse.code() == 206) {
-                return toResponse(okHttpResponse);
-            } else {
-                throw new IOException("Unexpected HTTP response code: " +
-                        okHttpResponse.code());
-            }
+        return builder.build();
+    }
+
+    private static Response toRangedResponse(okhttp3.Response okHttpResponse)
+            throws IOException {
+        if (okHttpResponse.code() == 200 || okHttpResponse.code() == 206) {
+            return toResponse(okHttpResponse);
+        } else {
+            throw new IOException("Unexpected HTTP response code: " +
+                    okHttpResponse.code());
         }
     }
 
@@ -3,6 +3,7 @@ package edu.illinois.library.cantaloupe.source;
 import edu.illinois.library.cantaloupe.http.Range;
 import edu.illinois.library.cantaloupe.http.Response;
 import edu.illinois.library.cantaloupe.source.stream.HTTPImageInputStreamClient;
+import edu.illinois.library.cantaloupe.source.stream.ReadAheadPool;
 import io.minio.MinioClient;
 import io.minio.ObjectStat;
 import io.minio.errors.ErrorResponseException;
@@ -16,6 +17,7 @@ import java.io.InputStream;
 import java.nio.file.AccessDeniedException;
 import java.nio.file.NoSuchFileException;
 import java.security.InvalidKeyException;
+import java.util.List;
 
 /**
  * Implementation backed by an AWS S3 client.
@@ -82,4 +84,13 @@ class S3HTTPImageInputStreamClient implements HTTPImageInputStreamClient {
         }
     }
 
+    /**
+     * Override that sends the requests concurrently.
+     */
+    @Override
+    public List<Response> sendGETRequests(List<Range> ranges)
+            throws IOException {
+        return ReadAheadPool.sendGETRequests(this, ranges);
+    }
+
 }
@@ -2,7 +2,7 @@ package edu.illinois.library.cantaloupe.source;
 
 final class S3ObjectInfo {
 
-    private String bucketName, key;
+    private String bucketName, eTag, key;
     private long length = -1;
 
     S3ObjectInfo(String key, String bucketName) {
@@ -14,6 +14,13 @@ final class S3ObjectInfo {
         return bucketName;
     }
 
+    /**
+     * @return Entity tag of the object, or {@literal null} if unknown.
+     */
+    String getETag() {
+        return eTag;
+    }
+
     String getKey() {
         return key;
     }
@@ -22,6 +29,10 @@ final class S3ObjectInfo {
         return length;
     }
 
+    void setETag(String eTag) {
+        this.eTag = eTag;
+    }
+
     void setLength(long length) {
         this.length = length;
     }
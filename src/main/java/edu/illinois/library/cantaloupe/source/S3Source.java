@@ -11,6 +11,7 @@ import edu.illinois.library.cantaloupe.image.MediaType;
 import edu.illinois.library.cantaloupe.script.DelegateMethod;
 import edu.illinois.library.cantaloupe.util.AWSClientBuilder;
 import io.minio.MinioClient;
+import io.minio.ObjectStat;
 import io.minio.errors.ErrorResponseException;
 import io.minio.errors.InvalidBucketNameException;
 import io.minio.errors.InvalidEndpointException;
@@ -87,7 +88,7 @@ import java.util.regex.Pattern;
 final class S3Source extends AbstractSource implements StreamSource {
 
     private static class S3ObjectAttributes {
-        String contentType;
+        String contentType, eTag;
         long length;
     }
 
@@ -314,8 +315,10 @@ final class S3Source extends AbstractSource implements StreamSource {
             final String key        = info.getKey();
             final MinioClient mc    = getClientInstance();
             try {
+                final ObjectStat stat   = mc.statObject(bucket, key);
                 objectAttributes        = new S3ObjectAttributes();
-                objectAttributes.length = mc.statObject(bucket, key).length();
+                objectAttributes.length = stat.length();
+                objectAttributes.eTag   = stat.etag();
             } catch (InvalidBucketNameException | InvalidKeyException e) {
                 throw new NoSuchFileException(info.toString());
             } catch (ErrorResponseException e) {
@@ -409,6 +412,7 @@ final class S3Source extends AbstractSource implements StreamSource {
     public StreamFactory newStreamFactory() throws IOException {
         S3ObjectInfo info = getObjectInfo();
         info.setLength(getObjectAttributes().length);
+        info.setETag(getObjectAttributes().eTag);
         return new S3StreamFactory(info);
     }
 
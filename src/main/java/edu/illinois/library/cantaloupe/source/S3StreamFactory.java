@@ -4,6 +4,8 @@ import edu.illinois.library.cantaloupe.async.ThreadPool;
 import edu.illinois.library.cantaloupe.config.Configuration;
 import edu.illinois.library.cantaloupe.config.Key;
 import edu.illinois.library.cantaloupe.source.stream.HTTPImageInputStream;
+import edu.illinois.library.cantaloupe.source.stream.ReadAheadPool;
+import edu.illinois.library.cantaloupe.source.stream.SharedChunkCache;
 import org.apache.commons.io.IOUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -110,6 +112,17 @@ class S3StreamFactory implements StreamFactory {
                 if (isChunkCacheEnabled()) {
                     stream.setMaxChunkCacheSize(getMaxChunkCacheSize());
                 }
+                if (SharedChunkCache.isEnabled()) {
+                    final String eTag = objectInfo.getETag();
+                    stream.setSharedChunkCache(SharedChunkCache.getInstance(),
+                            "s3://" + objectInfo,
+                            (eTag != null) ? eTag :
+                                    Long.toString(objectInfo.getLength()));
+                }
+                if (ReadAheadPool.isEnabled()) {
+                    stream.setReadAhead(ReadAheadPool.getNumWindows(),
+                            ReadAheadPool.getExecutor());
+                }
                 return stream;
             } catch (Throwable t) {
                 IOUtils.closeQuietly(stream);
@@ -9,6 +9,18 @@ import org.slf4j.LoggerFactory;
 import javax.imageio.stream.ImageInputStream;
 import javax.imageio.stream.ImageInputStreamImpl;
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * <p>Input stream that supports pseudo-seeking over HTTP.</p>
@@ -22,7 +34,23 @@ import java.io.IOException;
  *
  * <p>Downloaded chunks can be cached in memory by passing a positive value to
  * {@link #setMaxChunkCacheSize(long)}. This could help readers that seek
- * around a lot beyond the window size. The cache is per-instance.</p>
+ * around a lot beyond the window size. The cache is per-instance. A {@link
+ * SharedChunkCache} that is shared by all instances can additionally be
+ * supplied via {@link #setSharedChunkCache(SharedChunkCache, String,
+ * String)}.</p>
+ *
+ * <p>Read-ahead can be enabled via {@link #setReadAhead(int,
+ * ExecutorService)}. When the stream detects that it is being read
+ * sequentially, it downloads upcoming windows in parallel in the background,
+ * starting with one and doubling up to the given maximum for as long as the
+ * access pattern remains sequential. Random access (e.g. tile seeking) does
+ * not trigger any read-ahead, and discards any read-ahead windows that will
+ * not be needed.</p>
+ *
+ * <p>Clients that know in advance which parts of the resource they will need,
+ * like readers of tiled images, can call {@link #prefetch(List)} to download
+ * them in one batch rather than one window at a time. Runs of adjacent
+ * windows are coalesced into single requests.</p>
  *
  * <p>The HTTP client is abstracted into the exceedingly simple {@link
  * HTTPImageInputStreamClient} interface, so probably any existing client
@@ -53,15 +81,50 @@ public class HTTPImageInputStream extends ImageInputStreamImpl
      */
     private static final int DEFAULT_WINDOW_SIZE = 1024 * 512;
 
+    /**
+     * Number of consecutive forward window transitions after which access is
+     * considered to be sequential.
+     */
+    private static final int SEQUENTIAL_THRESHOLD = 2;
+
+    /**
+     * Maximum number of bytes that can be downloaded by {@link
+     * #prefetch(List)}. Anything beyond that will be downloaded on demand.
+     */
+    private static final long MAX_PREFETCH_SIZE = 1024 * 1024 * 32;
+
+    /**
+     * Maximum number of adjacent windows that will be coalesced into one
+     * request by {@link #prefetch(List)}.
+     */
+    private static final int MAX_WINDOWS_PER_REQUEST = 8;
+
     private HTTPImageInputStreamClient client;
     private ObjectCache<Range,byte[]> chunkCache;
+    private SharedChunkCache sharedChunkCache;
+    private String resourceID, resourceValidator;
+    private ExecutorService readAheadExecutor;
+    private int maxReadAheadWindows;
+    private int numSequentialWindows;
+
+    /**
+     * Pending read-ahead downloads, keyed by window index.
+     */
+    private final Map<Integer,Future<byte[]>> readAheads = new HashMap<>();
+
+    /**
+     * Chunks downloaded by {@link #prefetch(List)} that have not yet been
+     * read, keyed by window index.
+     */
+    private final Map<Integer,byte[]> prefetchedChunks = new HashMap<>();
     private long streamLength   = -1;
     private int windowPos;
     private int windowSize      = DEFAULT_WINDOW_SIZE;
     private int windowIndex     = -1;
     private byte[] windowBuffer = new byte[windowSize];
 
-    private int numChunkDownloads, numChunkCacheHits, numChunkCacheMisses;
+    private int numChunkDownloads, numChunkCacheHits, numChunkCacheMisses,
+            numReadAheadHits, numPrefetchHits;
     private long numBytesDownloaded, numBytesRead;
 
     private static void debug(String message, Object... vars) {
@@ -124,6 +187,40 @@ public class HTTPImageInputStream extends ImageInputStreamImpl
         }
     }
 
+    /**
+     * Enables use of a chunk cache that is shared with other instances. Must
+     * be called before any reading or seeking occurs.
+     *
+     * @param sharedChunkCache Shared chunk cache.
+     * @param resourceID       Identifier of the resource, e.g. its URI, which
+     *                         must be unique within the shared cache.
+     * @param validator        Value that changes whenever the resource changes,
+     *                         e.g. its {@literal ETag} or, failing that, its
+     *                         length.
+     */
+    public void setSharedChunkCache(SharedChunkCache sharedChunkCache,
+                                    String resourceID,
+                                    String validator) {
+        this.sharedChunkCache  = sharedChunkCache;
+        this.resourceID        = resourceID;
+        this.resourceValidator = validator;
+    }
+
+    /**
+     * Enables read-ahead. Must be called before any reading or seeking
+     * occurs.
+     *
+     * @param maxWindows Maximum number of windows to download ahead of the
+     *                   current one. Supply {@literal 0} to disable
+     *                   read-ahead.
+     * @param executor   Executor on which to download windows. It should be
+     *                   bounded, and reject tasks when saturated.
+     */
+    public void setReadAhead(int maxWindows, ExecutorService executor) {
+        this.maxReadAheadWindows = maxWindows;
+        this.readAheadExecutor   = executor;
+    }
+
     /**
      * <p>Sets the window size. Must be called before any reading or seeking
      * occurs.</p>
@@ -164,24 +261,141 @@ public class HTTPImageInputStream extends ImageInputStreamImpl
     public void close() throws IOException {
         logStatistics();
         try {
+            readAheads.values().forEach(f -> f.cancel(true));
+            readAheads.clear();
+            prefetchedChunks.clear();
             super.close();
         } finally {
             client       = null;
-            windowBuffer = null;
-            chunkCache   = null;
+            windowBuffer     = null;
+            chunkCache       = null;
+            sharedChunkCache = null;
         }
     }
 
     private void logStatistics() {
         LOGGER.debug("Downloaded {} chunks ({} ({}%) of {} bytes); " +
-                        "read {}% of chunk data; {} cache hits; {} cache misses",
+                        "read {}% of chunk data; {} cache hits; {} cache misses; " +
+                        "{} read-ahead hits; {} prefetch hits",
                 numChunkDownloads,
                 numBytesDownloaded,
                 String.format("%.2f", numBytesDownloaded * 100 / (double) streamLength),
                 streamLength,
                 String.format("%.2f", numBytesRead * 100 / (double) numBytesDownloaded),
                 numChunkCacheHits,
-                numChunkCacheMisses);
+                numChunkCacheMisses,
+                numReadAheadHits,
+                numPrefetchHits);
+    }
+
+    /**
+     * <p>Downloads all of the windows overlapping the given byte ranges that
+     * are not already available, using as few requests as possible, sent
+     * together via {@link HTTPImageInputStreamClient#sendGETRequests(List)}.
+     * Subsequent reads from those windows will not require any further
+     * requests.</p>
+     *
+     * <p>The total amount of data downloaded is limited to a few tens of MB;
+     * windows beyond that limit will be downloaded on demand as usual. Each
+     * downloaded window is held only until it is read, or until it would
+     * push the total held past the limit.</p>
+     *
+     * @param byteRanges Byte ranges that will be needed. Only the {@link
+     *                   Range#start} and {@link Range#end} properties are
+     *                   used.
+     */
+    public void prefetch(List<Range> byteRanges) throws IOException {
+        final long maxWindows = Math.max(1, MAX_PREFETCH_SIZE / windowSize);
+        final SortedSet<Integer> windowIndices = new TreeSet<>();
+        for (Range byteRange : byteRanges) {
+            final long end = Math.min(byteRange.end, streamLength - 1);
+            if (byteRange.start < 0 || byteRange.start > end) {
+                continue;
+            }
+            final int firstIndex = (int) (byteRange.start / windowSize);
+            final int lastIndex  = (int) (end / windowSize);
+            for (int i = firstIndex; i <= lastIndex; i++) {
+                if (!isWindowAvailable(i)) {
+                    windowIndices.add(i);
+                }
+            }
+        }
+        while (windowIndices.size() > maxWindows) {
+            windowIndices.remove(windowIndices.last());
+        }
+        if (windowIndices.isEmpty()) {
+            return;
+        }
+        // Windows left over from previous invocations may never be read, so
+        // drop them rather than hold more than the limit.
+        if (prefetchedChunks.size() + windowIndices.size() > maxWindows) {
+            prefetchedChunks.clear();
+        }
+
+        // Coalesce runs of adjacent windows into single requests.
+        final List<int[]> runs          = new ArrayList<>();
+        final List<Range> requestRanges = new ArrayList<>();
+        int runStart = -1, runEnd = -1;
+        for (int index : windowIndices) {
+            if (runStart >= 0 && index == runEnd + 1 &&
+                    index - runStart < MAX_WINDOWS_PER_REQUEST) {
+                runEnd = index;
+            } else {
+                if (runStart >= 0) {
+                    runs.add(new int[] { runStart, runEnd });
+                }
+                runStart = runEnd = index;
+            }
+        }
+        runs.add(new int[] { runStart, runEnd });
+        for (int[] run : runs) {
+            final Range range = getRange(run[0]);
+            range.end = getRange(run[1]).end;
+            requestRanges.add(range);
+        }
+
+        debug("prefetch(): requesting {} windows in {} ranges",
+                windowIndices.size(), requestRanges.size());
+        final List<Response> responses =
+                client.sendGETRequests(requestRanges);
+
+        for (int r = 0; r < runs.size(); r++) {
+            final int[] run     = runs.get(r);
+            final byte[] entity = responses.get(r).getBody();
+            numBytesDownloaded += entity.length;
+            numChunkDownloads++;
+            for (int index = run[0]; index <= run[1]; index++) {
+                final Range range = getRange(index);
+                final int from    = (index - run[0]) * windowSize;
+                final int to      = Math.min(
+                        from + (int) (range.end - range.start + 1),
+                        entity.length);
+                if (from >= to) {
+                    break;
+                }
+                final byte[] chunk = Arrays.copyOfRange(entity, from, to);
+                prefetchedChunks.put(index, chunk);
+                if (sharedChunkCache != null) {
+                    sharedChunkCache.put(
+                            resourceID, resourceValidator, range, chunk);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return Whether the window at the given index can be read without
+     *         having to send a request.
+     */
+    private boolean isWindowAvailable(int index) {
+        if (index == windowIndex || prefetchedChunks.containsKey(index) ||
+                readAheads.containsKey(index)) {
+            return true;
+        }
+        final Range range = getRange(index);
+        return (chunkCache != null && chunkCache.get(range) != null) ||
+                (sharedChunkCache != null && sharedChunkCache.contains(
+                        resourceID, resourceValidator, range));
     }
 
     /**
@@ -306,32 +520,142 @@ public class HTTPImageInputStream extends ImageInputStreamImpl
     private void prepareWindowBuffer() throws IOException {
         final int neededWindowIndex = getStreamWindowIndex();
         if (neededWindowIndex != windowIndex) {
+            if (windowIndex >= 0 && neededWindowIndex == windowIndex + 1) {
+                numSequentialWindows++;
+            } else {
+                numSequentialWindows = 0;
+            }
+            discardReadAheads(neededWindowIndex);
+
             Range range  = getRange(neededWindowIndex);
-            windowBuffer = fetchChunk(range);
+            windowBuffer = fetchChunk(neededWindowIndex, range);
             windowIndex  = neededWindowIndex;
             windowPos    = getIndexWithinWindow();
+
+            if (numSequentialWindows >= SEQUENTIAL_THRESHOLD) {
+                scheduleReadAheads(neededWindowIndex);
+            }
+        }
+    }
+
+    /**
+     * Cancels any read-ahead downloads of windows that lie outside the
+     * read-ahead range of the given window index.
+     */
+    private void discardReadAheads(int currentWindowIndex) {
+        if (readAheads.isEmpty()) {
+            return;
+        }
+        final int maxIndex = currentWindowIndex + maxReadAheadWindows;
+        readAheads.entrySet().removeIf(entry -> {
+            int index = entry.getKey();
+            if (index < currentWindowIndex || index > maxIndex) {
+                entry.getValue().cancel(true);
+                return true;
+            }
+            return false;
+        });
+    }
+
+    /**
+     * Submits read-ahead downloads of the windows following the given one.
+     * The number of windows grows exponentially with the length of the
+     * current sequential run.
+     */
+    private void scheduleReadAheads(int currentWindowIndex) {
+        if (readAheadExecutor == null || maxReadAheadWindows < 1) {
+            return;
+        }
+        final int exponent = Math.min(
+                numSequentialWindows - SEQUENTIAL_THRESHOLD, 30);
+        final int numWindows = Math.min(maxReadAheadWindows, 1 << exponent);
+        final HTTPImageInputStreamClient client = this.client;
+
+        for (int i = 1; i <= numWindows; i++) {
+            final int index = currentWindowIndex + i;
+            final Range range = getRange(index);
+            if (range.start >= streamLength) {
+                break;
+            } else if (isWindowAvailable(index)) {
+                continue;
+            }
+            try {
+                debug("Scheduling read-ahead of range: {}", range);
+                readAheads.put(index, readAheadExecutor.submit(
+                        () -> client.sendGETRequest(range).getBody()));
+            } catch (RejectedExecutionException e) {
+                LOGGER.trace("scheduleReadAheads(): executor is saturated");
+                break;
+            }
+        }
+    }
+
+    /**
+     * @return Chunk downloaded by a read-ahead task, or {@literal null} if
+     *         there is no read-ahead task for the given window index or it
+     *         failed.
+     */
+    private byte[] awaitReadAhead(int windowIndex) throws IOException {
+        final Future<byte[]> future = readAheads.remove(windowIndex);
+        if (future == null) {
+            return null;
+        }
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException();
+        } catch (ExecutionException e) {
+            LOGGER.debug("awaitReadAhead(): read-ahead failed; will retry " +
+                    "synchronously: {}", e.getMessage());
+            return null;
         }
     }
 
     /**
-     * Fetches a chunk for the given range by either retrieving it from the
-     * chunk cache or downloading it.
+     * Fetches a chunk for the given range by retrieving it from the
+     * per-instance chunk cache, the chunks downloaded by {@link
+     * #prefetch(List)}, the shared chunk cache, a pending read-ahead, or
+     * downloading it, in that order.
      */
-    private byte[] fetchChunk(Range range) throws IOException {
-        byte[] chunk;
+    private byte[] fetchChunk(int windowIndex, Range range) throws IOException {
+        byte[] chunk = null;
         if (chunkCache != null) {
             chunk = chunkCache.get(range);
             if (chunk != null) {
                 LOGGER.trace("Chunk cache hit for range: {}", range);
                 numChunkCacheHits++;
+                return chunk;
+            }
+            numChunkCacheMisses++;
+        }
+        // Prefetched chunks are only read once, and are handed over to the
+        // per-instance chunk cache, if any.
+        chunk = prefetchedChunks.remove(windowIndex);
+        if (chunk != null) {
+            numPrefetchHits++;
+        } else if (sharedChunkCache != null) {
+            chunk = sharedChunkCache.get(resourceID, resourceValidator, range);
+            if (chunk != null) {
+                LOGGER.trace("Shared chunk cache hit for range: {}", range);
+            }
+        }
+        if (chunk == null) {
+            chunk = awaitReadAhead(windowIndex);
+            if (chunk != null) {
+                numReadAheadHits++;
+                numBytesDownloaded += chunk.length;
+                numChunkDownloads++;
             } else {
-                numChunkCacheMisses++;
                 chunk = downloadChunk(range);
-                chunkCache.put(range, chunk);
             }
-        } else {
-            numChunkCacheMisses++;
-            chunk = downloadChunk(range);
+            if (sharedChunkCache != null) {
+                sharedChunkCache.put(resourceID, resourceValidator, range, chunk);
+            }
+        }
+        if (chunkCache != null) {
+            chunkCache.put(range, chunk);
         }
         return chunk;
     }
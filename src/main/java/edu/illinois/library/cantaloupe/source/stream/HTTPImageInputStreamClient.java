@@ -4,6 +4,8 @@ import edu.illinois.library.cantaloupe.http.Range;
 import edu.illinois.library.cantaloupe.http.Response;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Adapts any HTTP client to work with {@link HTTPImageInputStream}. The client
@@ -31,4 +33,26 @@ public interface HTTPImageInputStreamClient {
      */
     Response sendGETRequest(Range range) throws IOException;
 
+    /**
+     * <p>Fetches several ranges in one batch.</p>
+     *
+     * <p>This default implementation fetches them one after another using
+     * {@link #sendGETRequest(Range)}. Implementations are encouraged to
+     * override it to fetch them concurrently; see {@link
+     * ReadAheadPool#sendGETRequests(HTTPImageInputStreamClient, List)}.</p>
+     *
+     * @param ranges Byte ranges to request.
+     * @return       Responses in the same order as the ranges.
+     * @throws IOException if any of the requests fails.
+     * @since 5.0
+     */
+    default List<Response> sendGETRequests(List<Range> ranges)
+            throws IOException {
+        final List<Response> responses = new ArrayList<>(ranges.size());
+        for (Range range : ranges) {
+            responses.add(sendGETRequest(range));
+        }
+        return responses;
+    }
+
 }
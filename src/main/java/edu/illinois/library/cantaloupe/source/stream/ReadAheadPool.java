@@ -0,0 +1,157 @@
+package edu.illinois.library.cantaloupe.source.stream;
+
+import edu.illinois.library.cantaloupe.config.Configuration;
+import edu.illinois.library.cantaloupe.config.Key;
+import edu.illinois.library.cantaloupe.http.Range;
+import edu.illinois.library.cantaloupe.http.Response;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded thread pool shared by all {@link HTTPImageInputStream}s for
+ * read-ahead and batched downloading. When it is saturated, new tasks are
+ * rejected rather than queued indefinitely, and the streams fall back to
+ * downloading synchronously.
+ *
+ * @since 5.0
+ */
+public final class ReadAheadPool {
+
+    private static final Logger LOGGER =
+            LoggerFactory.getLogger(ReadAheadPool.class);
+
+    private static final int DEFAULT_MAX_THREADS = 16;
+    private static final int DEFAULT_NUM_WINDOWS = 4;
+
+    /**
+     * Queue capacity, as a multiple of the max thread count.
+     */
+    private static final int QUEUE_CAPACITY_FACTOR = 4;
+
+    private static ExecutorService executor;
+
+    private static class ReadAheadThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger threadNumber = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable);
+            thread.setName("read-ahead-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+
+    /**
+     * @return Shared executor.
+     */
+    public static synchronized ExecutorService getExecutor() {
+        if (executor == null || executor.isShutdown()) {
+            int maxThreads = Configuration.getInstance().getInt(
+                    Key.SOURCE_READ_AHEAD_MAX_THREADS, DEFAULT_MAX_THREADS);
+            if (maxThreads < 1) {
+                maxThreads = DEFAULT_MAX_THREADS;
+            }
+            LOGGER.debug("Creating read-ahead pool with {} max threads",
+                    maxThreads);
+            ThreadPoolExecutor tpe = new ThreadPoolExecutor(
+                    maxThreads, maxThreads,
+                    60, TimeUnit.SECONDS,
+                    new ArrayBlockingQueue<>(maxThreads * QUEUE_CAPACITY_FACTOR),
+                    new ReadAheadThreadFactory(),
+                    new ThreadPoolExecutor.AbortPolicy());
+            tpe.allowCoreThreadTimeOut(true);
+            executor = tpe;
+        }
+        return executor;
+    }
+
+    /**
+     * @return Max number of windows to read ahead, from the application
+     *         configuration.
+     */
+    public static int getNumWindows() {
+        return Configuration.getInstance().getInt(
+                Key.SOURCE_READ_AHEAD_WINDOWS, DEFAULT_NUM_WINDOWS);
+    }
+
+    /**
+     * @return Whether read-ahead is enabled in the application configuration.
+     */
+    public static boolean isEnabled() {
+        return Configuration.getInstance().getBoolean(
+                Key.SOURCE_READ_AHEAD_ENABLED, false);
+    }
+
+    /**
+     * Sends the given requests concurrently using the {@link #getExecutor()
+     * shared executor}. Requests that the executor rejects are sent in the
+     * calling thread. This is a helper for {@link
+     * HTTPImageInputStreamClient#sendGETRequests(List)} implementations whose
+     * underlying clients are thread-safe but have no asynchronous API of their
+     * own.
+     *
+     * @return Responses in the same order as the ranges.
+     */
+    public static List<Response> sendGETRequests(
+            HTTPImageInputStreamClient client,
+            List<Range> ranges) throws IOException {
+        final ExecutorService executor       = getExecutor();
+        final List<Future<Response>> futures = new ArrayList<>(ranges.size());
+        try {
+            // The first range is reserved for the calling thread.
+            for (int i = 1; i < ranges.size(); i++) {
+                final Range range = ranges.get(i);
+                try {
+                    futures.add(executor.submit(
+                            () -> client.sendGETRequest(range)));
+                } catch (RejectedExecutionException e) {
+                    futures.add(null);
+                }
+            }
+            final List<Response> responses = new ArrayList<>(ranges.size());
+            if (!ranges.isEmpty()) {
+                responses.add(client.sendGETRequest(ranges.get(0)));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                final Future<Response> future = futures.get(i);
+                if (future != null) {
+                    responses.add(future.get());
+                } else {
+                    responses.add(client.sendGETRequest(ranges.get(i + 1)));
+                }
+            }
+            return responses;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException(e.getCause());
+        } finally {
+            futures.stream()
+                    .filter(f -> f != null && !f.isDone())
+                    .forEach(f -> f.cancel(true));
+        }
+    }
+
+    private ReadAheadPool() {}
+
+}
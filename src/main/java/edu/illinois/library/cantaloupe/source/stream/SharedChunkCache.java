@@ -0,0 +1,202 @@
+package edu.illinois.library.cantaloupe.source.stream;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import edu.illinois.library.cantaloupe.config.Configuration;
+import edu.illinois.library.cantaloupe.config.Key;
+import edu.illinois.library.cantaloupe.http.Range;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>Process-wide heap cache of chunks downloaded by {@link
+ * HTTPImageInputStream}s. Unlike the per-instance chunk cache, this one is
+ * shared across requests, so that data that is read over and over again, like
+ * image headers and tile indexes, only has to be downloaded once.</p>
+ *
+ * <p>Chunks are keyed by resource identifier (e.g. URI or bucket/key),
+ * validator (e.g. {@literal ETag} or length) and range. The cache is bounded
+ * by total byte size rather than by chunk count.</p>
+ *
+ * @since 5.0
+ */
+public final class SharedChunkCache {
+
+    /**
+     * Cache key. The validator protects against serving stale chunks of a
+     * resource that has been changed at its source.
+     */
+    static final class ChunkKey {
+
+        private final String resource, validator;
+        private final long start, end;
+
+        ChunkKey(String resource, String validator, Range range) {
+            this.resource  = resource;
+            this.validator = validator;
+            this.start     = range.start;
+            this.end       = range.end;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == this) {
+                return true;
+            } else if (obj instanceof ChunkKey) {
+                ChunkKey other = (ChunkKey) obj;
+                return start == other.start &&
+                        end == other.end &&
+                        Objects.equals(resource, other.resource) &&
+                        Objects.equals(validator, other.validator);
+            }
+            return false;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(resource, validator, start, end);
+        }
+
+        @Override
+        public String toString() {
+            return resource + " [" + validator + "] " + start + "-" + end;
+        }
+
+    }
+
+    private static final Logger LOGGER =
+            LoggerFactory.getLogger(SharedChunkCache.class);
+
+    private static final long DEFAULT_MAX_SIZE = 1024 * 1024 * 100;
+
+    private static SharedChunkCache instance;
+
+    private final long maxSize;
+
+    // This is thread-safe.
+    private final Cache<ChunkKey, byte[]> store;
+
+    private final AtomicLong numHits            = new AtomicLong();
+    private final AtomicLong numMisses          = new AtomicLong();
+    private final AtomicLong numBytesDownloaded = new AtomicLong();
+
+    /**
+     * For testing only!
+     */
+    static synchronized void clearInstance() {
+        instance = null;
+    }
+
+    /**
+     * @return Shared instance.
+     */
+    public static synchronized SharedChunkCache getInstance() {
+        if (instance == null) {
+            final long maxSize = Configuration.getInstance().getLongBytes(
+                    Key.SOURCE_SHARED_CHUNK_CACHE_MAX_SIZE, DEFAULT_MAX_SIZE);
+            instance = new SharedChunkCache(maxSize);
+        }
+        return instance;
+    }
+
+    /**
+     * @return Whether the shared chunk cache is enabled in the application
+     *         configuration.
+     */
+    public static boolean isEnabled() {
+        return Configuration.getInstance().getBoolean(
+                Key.SOURCE_SHARED_CHUNK_CACHE_ENABLED, false);
+    }
+
+    /**
+     * @param maxSize Maximum total byte size of all cached chunks.
+     */
+    SharedChunkCache(long maxSize) {
+        LOGGER.info("Max {} size: {} bytes",
+                SharedChunkCache.class.getSimpleName(), maxSize);
+        this.maxSize = maxSize;
+        this.store   = Caffeine.newBuilder()
+                .maximumWeight(maxSize)
+                .<ChunkKey, byte[]>weigher((key, chunk) -> chunk.length)
+                .build();
+    }
+
+    /**
+     * Performs any pending maintenance, such as evictions.
+     */
+    void cleanUp() {
+        store.cleanUp();
+    }
+
+    /**
+     * Unlike {@link #get}, this does not affect the hit or miss counts.
+     */
+    boolean contains(String resource, String validator, Range range) {
+        return store.getIfPresent(
+                new ChunkKey(resource, validator, range)) != null;
+    }
+
+    /**
+     * @return Chunk corresponding to the given arguments, or {@literal null}
+     *         if not present.
+     */
+    byte[] get(String resource, String validator, Range range) {
+        byte[] chunk = store.getIfPresent(
+                new ChunkKey(resource, validator, range));
+        if (chunk != null) {
+            numHits.incrementAndGet();
+        } else {
+            numMisses.incrementAndGet();
+        }
+        return chunk;
+    }
+
+    /**
+     * Adds a freshly downloaded chunk.
+     */
+    void put(String resource, String validator, Range range, byte[] chunk) {
+        numBytesDownloaded.addAndGet(chunk.length);
+        store.put(new ChunkKey(resource, validator, range), chunk);
+    }
+
+    /**
+     * @return Total number of bytes downloaded into the cache since the
+     *         application was started.
+     */
+    public long getNumBytesDownloaded() {
+        return numBytesDownloaded.get();
+    }
+
+    public long getNumHits() {
+        return numHits.get();
+    }
+
+    public long getNumMisses() {
+        return numMisses.get();
+    }
+
+    /**
+     * @return Maximum total byte size of all cached chunks.
+     */
+    public long maxSize() {
+        return maxSize;
+    }
+
+    public void purge() {
+        store.invalidateAll();
+    }
+
+    /**
+     * @return Current total byte size of all cached chunks. This is
+     *         approximate, as it does not account for pending evictions.
+     */
+    public long size() {
+        return store.policy().eviction()
+                .map(e -> e.weightedSize().orElse(0))
+                .orElse(0L);
+    }
+
+}
@@ -1,10 +1,19 @@
 package edu.illinois.library.cantaloupe.status;
 
 import edu.illinois.library.cantaloupe.Application;
+import edu.illinois.library.cantaloupe.async.TaskQueue;
+import edu.illinois.library.cantaloupe.async.ThreadPool;
 import edu.illinois.library.cantaloupe.cache.InfoCache;
 import edu.illinois.library.cantaloupe.cache.InfoService;
+import edu.illinois.library.cantaloupe.processor.Cancellation;
+import edu.illinois.library.cantaloupe.processor.PdfDocumentCache;
+import edu.illinois.library.cantaloupe.processor.codec.DecodedTileCache;
+import edu.illinois.library.cantaloupe.resource.AdmissionController;
+import edu.illinois.library.cantaloupe.resource.AsyncStreamWriter;
+import edu.illinois.library.cantaloupe.resource.ImageRepresentation;
 import edu.illinois.library.cantaloupe.script.DelegateProxy;
 import edu.illinois.library.cantaloupe.script.InvocationCache;
+import edu.illinois.library.cantaloupe.source.stream.SharedChunkCache;
 
 import java.lang.management.ManagementFactory;
 import java.lang.management.RuntimeMXBean;
@@ -17,6 +26,44 @@ import java.util.Map;
  */
 public final class ApplicationStatus {
 
+    /**
+     * @return Estimated memory cost of all image requests currently being
+     *         processed, in bytes.
+     */
+    public long getAdmissionControlCostInUse() {
+        return AdmissionController.getInstance().getCostInUse();
+    }
+
+    /**
+     * @return Admission control memory budget in bytes.
+     */
+    public long getAdmissionControlMaxCost() {
+        return AdmissionController.getInstance().getMaxCost();
+    }
+
+    /**
+     * @return Number of image requests that have been shed by admission
+     *         control.
+     */
+    public long getAdmissionControlShedRequests() {
+        return AdmissionController.getInstance().getNumShed();
+    }
+
+    /**
+     * @return Number of image requests currently waiting to be admitted.
+     */
+    public long getAdmissionControlWaitingRequests() {
+        return AdmissionController.getInstance().getNumWaiting();
+    }
+
+    /**
+     * @return Number of responses currently being written asynchronously.
+     * @see AsyncStreamWriter#getNumInProgress()
+     */
+    public long getAsyncWritesInProgress() {
+        return AsyncStreamWriter.getNumInProgress();
+    }
+
     public String getApplicationVersion() {
         return Application.getVersion();
     }
@@ -37,6 +84,47 @@ public final class ApplicationStatus {
         return cache.size();
     }
 
+    /**
+     * @return Max {@link DecodedTileCache} size in bytes.
+     */
+    public long getDecodedTileCacheMaxSize() {
+        return DecodedTileCache.getInstance().maxSize();
+    }
+
+    /**
+     * @return Current {@link DecodedTileCache} size in bytes.
+     */
+    public long getDecodedTileCacheSize() {
+        return DecodedTileCache.getInstance().size();
+    }
+
+    /**
+     * @return Number of derivative images currently being generated and
+     *         cached.
+     * @see ImageRepresentation#getNumDerivativesInFlight()
+     */
+    public long getDerivativesInFlight() {
+        return ImageRepresentation.getNumDerivativesInFlight();
+    }
+
+    /**
+     * @return Number of image requests whose processing was abandoned because
+     *         the client disconnected.
+     * @see Cancellation#getNumCancelled()
+     */
+    public long getNumCancelledDerivativeRequests() {
+        return Cancellation.getNumCancelled();
+    }
+
+    /**
+     * @return Number of image requests that were fulfilled by waiting on an
+     *         identical concurrent request.
+     * @see ImageRepresentation#getNumCoalescedRequests()
+     */
+    public long getNumCoalescedDerivativeRequests() {
+        return ImageRepresentation.getNumCoalescedRequests();
+    }
+
     /**
      * @return Max {@link InfoCache} size in bytes.
      */
@@ -53,6 +141,137 @@ public final class ApplicationStatus {
         return infoCache.size();
     }
 
+    /**
+     * @return Number of infos currently being read by a processor.
+     * @see InfoService#getNumInfosInFlight()
+     */
+    public long getInfoReadsInFlight() {
+        return InfoService.getInstance().getNumInfosInFlight();
+    }
+
+    /**
+     * @return Number of info reads that were satisfied by waiting on another
+     *         thread's concurrent read.
+     * @see InfoService#getNumCoalescedReads()
+     */
+    public long getNumCoalescedInfoReads() {
+        return InfoService.getInstance().getNumCoalescedReads();
+    }
+
+    /**
+     * @return Max total byte size of the {@link PdfDocumentCache}.
+     */
+    public long getPdfDocumentCacheMaxSize() {
+        return PdfDocumentCache.getInstance().maxSize();
+    }
+
+    /**
+     * @return Current total byte size of the {@link PdfDocumentCache}.
+     */
+    public long getPdfDocumentCacheSize() {
+        return PdfDocumentCache.getInstance().size();
+    }
+
+    /**
+     * @return Number of {@link PdfDocumentCache} hits.
+     */
+    public long getPdfDocumentCacheHits() {
+        return PdfDocumentCache.getInstance().getNumHits();
+    }
+
+    /**
+     * @return Number of {@link PdfDocumentCache} misses.
+     */
+    public long getPdfDocumentCacheMisses() {
+        return PdfDocumentCache.getInstance().getNumMisses();
+    }
+
+    /**
+     * @return Current total byte size of the {@link SharedChunkCache}.
+     */
+    public long getSharedChunkCacheSize() {
+        return SharedChunkCache.getInstance().size();
+    }
+
+    /**
+     * @return Max total byte size of the {@link SharedChunkCache}.
+     */
+    public long getSharedChunkCacheMaxSize() {
+        return SharedChunkCache.getInstance().maxSize();
+    }
+
+    /**
+     * @return Number of {@link SharedChunkCache} hits.
+     */
+    public long getSharedChunkCacheHits() {
+        return SharedChunkCache.getInstance().getNumHits();
+    }
+
+    /**
+     * @return Number of {@link SharedChunkCache} misses.
+     */
+    public long getSharedChunkCacheMisses() {
+        return SharedChunkCache.getInstance().getNumMisses();
+    }
+
+    /**
+     * @return Number of bytes downloaded into the {@link SharedChunkCache}.
+     */
+    public long getSharedChunkCacheDownloadedBytes() {
+        return SharedChunkCache.getInstance().getNumBytesDownloaded();
+    }
+
+    /**
+     * @return Number of tasks queued in all {@link TaskQueue} lanes.
+     */
+    public long getTaskQueueDepth() {
+        final TaskQueue queue = TaskQueue.getInstance();
+        long depth = 0;
+        for (TaskQueue.Lane lane : TaskQueue.Lane.values()) {
+            depth += queue.getQueueDepth(lane);
+        }
+        return depth;
+    }
+
+    /**
+     * @return Number of tasks dropped or rejected by all {@link TaskQueue}
+     *         lanes because their queues were full.
+     */
+    public long getTaskQueueDroppedTasks() {
+        final TaskQueue queue = TaskQueue.getInstance();
+        long count = 0;
+        for (TaskQueue.Lane lane : TaskQueue.Lane.values()) {
+            count += queue.getNumDroppedTasks(lane);
+        }
+        return count;
+    }
+
+    /**
+     * @return Number of {@link ThreadPool} threads, of all priorities,
+     *         currently running a task.
+     */
+    public long getThreadPoolActiveThreads() {
+        final ThreadPool pool = ThreadPool.getInstance();
+        long count = 0;
+        for (ThreadPool.Priority priority : ThreadPool.Priority.values()) {
+            count += pool.getNumActiveThreads(priority);
+        }
+        return count;
+    }
+
+    /**
+     * @return Number of tasks waiting for a {@link ThreadPool} thread, of any
+     *         priority.
+     */
+    public long getThreadPoolQueuedTasks() {
+        final ThreadPool pool = ThreadPool.getInstance();
+        long count = 0;
+        for (ThreadPool.Priority priority : ThreadPool.Priority.values()) {
+            count += pool.getNumQueuedTasks(priority);
+        }
+        return count;
+    }
+
     /**
      * @return Free VM heap in bytes.
      */
@@ -101,18 +320,113 @@ public final class ApplicationStatus {
         section.put("version", getApplicationVersion());
         status.put("application", section);
 
+        // Admission control
+        section = new LinkedHashMap<>();
+        section.put("enabled", AdmissionController.isEnabled());
+        section.put("maxCostBytes", getAdmissionControlMaxCost());
+        section.put("costInUseBytes", getAdmissionControlCostInUse());
+        section.put("waiting", getAdmissionControlWaitingRequests());
+        section.put("admitted", AdmissionController.getInstance().getNumAdmitted());
+        section.put("queued", AdmissionController.getInstance().getNumQueued());
+        section.put("shed", getAdmissionControlShedRequests());
+        status.put("admissionControl", section);
+
+        // Asynchronous response writing
+        section = new LinkedHashMap<>();
+        section.put("inProgress", getAsyncWritesInProgress());
+        status.put("asyncWrites", section);
+
         // DMIC
         section = new LinkedHashMap<>();
         section.put("size", getDMICSize());
         section.put("maxSize", getDMICMaxSize());
         status.put("delegateMethodInvocationCache", section);
 
+        // Decoded tile cache
+        section = new LinkedHashMap<>();
+        section.put("enabled", DecodedTileCache.isEnabled());
+        section.put("size", getDecodedTileCacheSize());
+        section.put("maxSize", getDecodedTileCacheMaxSize());
+        status.put("decodedTileCache", section);
+
+        // Derivative generation
+        section = new LinkedHashMap<>();
+        section.put("inFlight", getDerivativesInFlight());
+        section.put("coalesced", getNumCoalescedDerivativeRequests());
+        section.put("cancelled", getNumCancelledDerivativeRequests());
+        status.put("derivatives", section);
+
         // Info cache
         section = new LinkedHashMap<>();
         section.put("size", getInfoCacheSize());
         section.put("maxSize", getInfoCacheMaxSize());
         status.put("infoCache", section);
 
+        // Info reads
+        section = new LinkedHashMap<>();
+        section.put("inFlight", getInfoReadsInFlight());
+        section.put("coalesced", getNumCoalescedInfoReads());
+        status.put("infoReads", section);
+
+        // PDF document cache
+        section = new LinkedHashMap<>();
+        section.put("enabled", PdfDocumentCache.isEnabled());
+        section.put("size", getPdfDocumentCacheSize());
+        section.put("maxSize", getPdfDocumentCacheMaxSize());
+        section.put("hits", getPdfDocumentCacheHits());
+        section.put("misses", getPdfDocumentCacheMisses());
+        status.put("pdfDocumentCache", section);
+
+        // Shared chunk cache
+        section = new LinkedHashMap<>();
+        section.put("enabled", SharedChunkCache.isEnabled());
+        section.put("size", getSharedChunkCacheSize());
+        section.put("maxSize", getSharedChunkCacheMaxSize());
+        section.put("hits", getSharedChunkCacheHits());
+        section.put("misses", getSharedChunkCacheMisses());
+        section.put("downloadedBytes", getSharedChunkCacheDownloadedBytes());
+        status.put("sharedChunkCache", section);
+
+        // Task queue
+        final TaskQueue taskQueue = TaskQueue.getInstance();
+        section = new LinkedHashMap<>();
+        section.put("depth", getTaskQueueDepth());
+        section.put("dropped", getTaskQueueDroppedTasks());
+        for (TaskQueue.Lane lane : TaskQueue.Lane.values()) {
+            Map<String,Object> laneSection = new LinkedHashMap<>();
+            laneSection.put("depth", taskQueue.getQueueDepth(lane));
+            laneSection.put("activeWorkers", taskQueue.getNumActiveWorkers(lane));
+            laneSection.put("completed", taskQueue.getNumCompletedTasks(lane));
+            laneSection.put("dropped", taskQueue.getNumDroppedTasks(lane));
+            laneSection.put("runInCaller", taskQueue.getNumTasksRunInCaller(lane));
+            laneSection.put("meanWaitMsec", taskQueue.getMeanWaitMsec(lane));
+            laneSection.put("maxWaitMsec", taskQueue.getMaxWaitMsec(lane));
+            laneSection.put("meanRunMsec", taskQueue.getMeanRunMsec(lane));
+            section.put(lane.toString().toLowerCase(), laneSection);
+        }
+        status.put("taskQueue", section);
+
+        // Thread pool
+        final ThreadPool threadPool = ThreadPool.getInstance();
+        section = new LinkedHashMap<>();
+        section.put("activeThreads", getThreadPoolActiveThreads());
+        section.put("queued", getThreadPoolQueuedTasks());
+        for (ThreadPool.Priority priority : ThreadPool.Priority.values()) {
+            Map<String,Object> poolSection = new LinkedHashMap<>();
+            poolSection.put("maxThreads", threadPool.getMaxThreads(priority));
+            poolSection.put("activeThreads", threadPool.getNumActiveThreads(priority));
+            poolSection.put("queued", threadPool.getNumQueuedTasks(priority));
+            poolSection.put("completed", threadPool.getNumCompletedTasks(priority));
+            section.put(priority.toString().toLowerCase(), poolSection);
+        }
+        Map<String,Object> computeSection = new LinkedHashMap<>();
+        computeSection.put("parallelism", threadPool.getComputePool().getParallelism());
+        computeSection.put("activeThreads", threadPool.getNumActiveComputeThreads());
+        computeSection.put("queued", threadPool.getNumQueuedComputeTasks());
+        computeSection.put("steals", threadPool.getNumComputeSteals());
+        section.put("compute", computeSection);
+        status.put("threadPool", section);
+
         // Memory
         section = new LinkedHashMap<>();
         section.put("usedHeapBytes", getVMTotalHeap() - getVMFreeHeap());
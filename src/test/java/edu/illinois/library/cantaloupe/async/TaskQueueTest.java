@@ -1,10 +1,16 @@
 package edu.illinois.library.cantaloupe.async;
 
+import edu.illinois.library.cantaloupe.config.Configuration;
+import edu.illinois.library.cantaloupe.config.Key;
 import edu.illinois.library.cantaloupe.test.BaseTest;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -19,6 +25,12 @@ public class TaskQueueTest extends BaseTest {
         instance = TaskQueue.getInstance();
     }
 
+    @AfterEach
+    public void tearDown() throws Exception {
+        super.tearDown();
+        TaskQueue.clearInstance();
+    }
+
     /* queuedTasks() */
 
     @Test
@@ -166,4 +178,140 @@ public class TaskQueueTest extends BaseTest {
                 future.getException().getMessage());
     }
 
+    /* submit(Callable<?>, Lane) */
+
+    @Test
+    void testSubmitToLaneWithMultipleWorkers() throws Exception {
+        Configuration.getInstance().setProperty(
+                Key.TASK_QUEUE_CACHE_WRITE_WORKERS, 3);
+        TaskQueue.clearInstance();
+        instance = TaskQueue.getInstance();
+
+        MockCallable<?> callable1 = new MockCallable();
+        MockCallable<?> callable2 = new MockCallable();
+        MockCallable<?> callable3 = new MockCallable();
+        instance.submit(callable1, TaskQueue.Lane.CACHE_WRITE);
+        instance.submit(callable2, TaskQueue.Lane.CACHE_WRITE);
+        instance.submit(callable3, TaskQueue.Lane.CACHE_WRITE);
+
+        Thread.sleep(20);
+
+        // All of them are running.
+        assertEquals(0, instance.queuedTasks().size());
+        assertEquals(3, instance.getNumActiveWorkers(TaskQueue.Lane.CACHE_WRITE));
+
+        Thread.sleep(200);
+        assertTrue(callable1.ran());
+        assertTrue(callable2.ran());
+        assertTrue(callable3.ran());
+        assertEquals(3, instance.getNumCompletedTasks(TaskQueue.Lane.CACHE_WRITE));
+    }
+
+    @Test
+    void testSubmitDoesNotBlockOtherLanes() throws Exception {
+        MockCallable<?> slowCallable = new MockCallable();
+        MockCallable<?> callable     = new MockCallable();
+        instance.submit(slowCallable, TaskQueue.Lane.CACHE_WRITE);
+        instance.submit(new MockCallable<>(), TaskQueue.Lane.PURGE);
+        instance.submit(callable, TaskQueue.Lane.API);
+
+        Thread.sleep(150);
+        assertTrue(callable.ran());
+    }
+
+    @Test
+    void testSubmitToFullLaneWithDropPolicy() throws Exception {
+        Configuration.getInstance().setProperty(
+                Key.TASK_QUEUE_CACHE_WRITE_WORKERS, 1);
+        Configuration.getInstance().setProperty(
+                Key.TASK_QUEUE_CACHE_WRITE_MAX_SIZE, 1);
+        TaskQueue.clearInstance();
+        instance = TaskQueue.getInstance();
+
+        MockCallable<?> callable1 = new MockCallable();
+        MockCallable<?> callable2 = new MockCallable();
+        MockCallable<?> callable3 = new MockCallable();
+        instance.submit(callable1, TaskQueue.Lane.CACHE_WRITE); // runs
+        instance.submit(callable2, TaskQueue.Lane.CACHE_WRITE); // queued
+        instance.submit(callable3, TaskQueue.Lane.CACHE_WRITE); // dropped
+
+        assertEquals(1, instance.getNumDroppedTasks(TaskQueue.Lane.CACHE_WRITE));
+        Thread.sleep(300);
+        assertTrue(callable1.ran());
+        assertTrue(callable2.ran());
+        assertFalse(callable3.ran());
+    }
+
+    @Test
+    void testSubmitToFullLaneWithRejectPolicy() {
+        Configuration.getInstance().setProperty(
+                Key.TASK_QUEUE_API_MAX_SIZE, 1);
+        TaskQueue.clearInstance();
+        instance = TaskQueue.getInstance();
+
+        instance.submit(new MockCallable<>(), TaskQueue.Lane.API); // runs
+        instance.submit(new MockCallable<>(), TaskQueue.Lane.API); // queued
+        assertThrows(RejectedExecutionException.class,
+                () -> instance.submit(new MockCallable<>(), TaskQueue.Lane.API));
+        assertEquals(1, instance.getNumDroppedTasks(TaskQueue.Lane.API));
+    }
+
+    @Test
+    void testSubmitToFullLaneWithCallerRunsPolicy() {
+        Configuration.getInstance().setProperty(
+                Key.TASK_QUEUE_PURGE_MAX_SIZE, 1);
+        TaskQueue.clearInstance();
+        instance = TaskQueue.getInstance();
+
+        MockCallable<?> callable = new MockCallable();
+        instance.submit(new MockCallable<>(), TaskQueue.Lane.PURGE); // runs
+        instance.submit(new MockCallable<>(), TaskQueue.Lane.PURGE); // queued
+        instance.submit(callable, TaskQueue.Lane.PURGE);
+
+        // It ran in this thread, so it has already finished.
+        assertTrue(callable.ran());
+        assertEquals(1, instance.getNumTasksRunInCaller(TaskQueue.Lane.PURGE));
+    }
+
+    /* getQueueDepth() */
+
+    @Test
+    void testGetQueueDepth() throws Exception {
+        Configuration.getInstance().setProperty(
+                Key.TASK_QUEUE_PURGE_WORKERS, 1);
+        TaskQueue.clearInstance();
+        instance = TaskQueue.getInstance();
+
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch latch   = new CountDownLatch(1);
+        try {
+            instance.submit(() -> {
+                started.countDown();
+                latch.await();
+                return null;
+            }, TaskQueue.Lane.PURGE);
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            assertEquals(0, instance.getQueueDepth(TaskQueue.Lane.PURGE));
+
+            instance.submit(new MockCallable<>(), TaskQueue.Lane.PURGE);
+            assertEquals(1, instance.getQueueDepth(TaskQueue.Lane.PURGE));
+        } finally {
+            latch.countDown();
+        }
+    }
+
+    /* getMeanWaitMsec() */
+
+    @Test
+    void testGetMeanWaitMsec() throws Exception {
+        assertEquals(0, instance.getMeanWaitMsec(TaskQueue.Lane.GENERAL));
+        instance.submit(new MockCallable<>());
+        instance.submit(new MockCallable<>());
+        Thread.sleep(300);
+        // The second one waited ~100 msec for the first.
+        assertTrue(instance.getMeanWaitMsec(TaskQueue.Lane.GENERAL) > 20);
+        assertTrue(instance.getMaxWaitMsec(TaskQueue.Lane.GENERAL) >= 50);
+        assertTrue(instance.getMeanRunMsec(TaskQueue.Lane.GENERAL) >= 50);
+    }
+
 }
@@ -1,10 +1,16 @@
 package edu.illinois.library.cantaloupe.async;
 
+import edu.illinois.library.cantaloupe.config.Configuration;
+import edu.illinois.library.cantaloupe.config.Key;
 import edu.illinois.library.cantaloupe.test.BaseTest;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -26,6 +32,85 @@ public class ThreadPoolTest extends BaseTest {
         instance = null;
     }
 
+    @Test
+    void testGetComputePool() {
+        assertEquals(Runtime.getRuntime().availableProcessors(),
+                instance.getComputePool().getParallelism());
+        assertEquals(2, (int) instance.getComputePool().submit(() -> 2).join());
+    }
+
+    @Test
+    void testGetComputePoolWithConfiguredParallelism() {
+        Configuration.getInstance().setProperty(
+                Key.THREAD_POOL_COMPUTE_PARALLELISM, 3);
+        ThreadPool.clearInstance();
+        instance = ThreadPool.getInstance();
+        assertEquals(3, instance.getComputePool().getParallelism());
+    }
+
+    @Test
+    void testGetMaxThreads() {
+        for (ThreadPool.Priority priority : ThreadPool.Priority.values()) {
+            assertTrue(instance.getMaxThreads(priority) >=
+                    Runtime.getRuntime().availableProcessors());
+        }
+    }
+
+    @Test
+    void testGetMaxThreadsWithConfiguredValue() {
+        Configuration.getInstance().setProperty(
+                Key.THREAD_POOL_HIGH_MAX_THREADS, 3);
+        ThreadPool.clearInstance();
+        instance = ThreadPool.getInstance();
+        assertEquals(3, instance.getMaxThreads(ThreadPool.Priority.HIGH));
+    }
+
+    @Test
+    void testGetMaxIOThreads() {
+        assertTrue(instance.getMaxIOThreads() >=
+                Runtime.getRuntime().availableProcessors());
+    }
+
+    @Test
+    void testGetMaxIOThreadsWithConfiguredValue() {
+        Configuration.getInstance().setProperty(
+                Key.THREAD_POOL_IO_MAX_THREADS, 3);
+        ThreadPool.clearInstance();
+        instance = ThreadPool.getInstance();
+        assertEquals(3, instance.getMaxIOThreads());
+    }
+
+    @Test
+    void testGetNumCompletedTasks() throws Exception {
+        instance.submit(() -> {}, ThreadPool.Priority.LOW).get();
+        Thread.sleep(20); // the count is updated after the future completes
+        assertEquals(1, instance.getNumCompletedTasks(ThreadPool.Priority.LOW));
+    }
+
+    @Test
+    void testSubmitQueuesTasksWhenAllThreadsAreBusy() throws Exception {
+        Configuration.getInstance().setProperty(
+                Key.THREAD_POOL_LOW_MAX_THREADS, 1);
+        ThreadPool.clearInstance();
+        instance = ThreadPool.getInstance();
+
+        final CountDownLatch latch = new CountDownLatch(1);
+        final Future<?> first = instance.submit(() -> {
+            latch.await();
+            return null;
+        }, ThreadPool.Priority.LOW);
+        final Future<?> second = instance.submit(() -> {},
+                ThreadPool.Priority.LOW);
+        Thread.sleep(20);
+        assertEquals(1, instance.getNumActiveThreads(ThreadPool.Priority.LOW));
+        assertEquals(1, instance.getNumQueuedTasks(ThreadPool.Priority.LOW));
+
+        latch.countDown();
+        first.get();
+        second.get();
+        assertEquals(0, instance.getNumQueuedTasks(ThreadPool.Priority.LOW));
+    }
+
     @Test
     void testIsShutdown() {
         assertFalse(instance.isShutdown());
@@ -78,4 +163,60 @@ public class ThreadPoolTest extends BaseTest {
         assertEquals(1, atomicInt.get());
     }
 
+    @Test
+    void testSubmitIODoesNotWaitForSaturatedPools() throws Exception {
+        Configuration.getInstance().setProperty(
+                Key.THREAD_POOL_NORMAL_MAX_THREADS, 1);
+        ThreadPool.clearInstance();
+        instance = ThreadPool.getInstance();
+
+        final CountDownLatch latch = new CountDownLatch(1);
+        try {
+            instance.submit(() -> {
+                latch.await();
+                return null;
+            });
+            instance.submit(() -> {});
+            Thread.sleep(20);
+            assertEquals(1, instance.getNumQueuedTasks(ThreadPool.Priority.NORMAL));
+
+            // A stream drain that a request thread is waiting on
+            instance.submitIO(() -> "drained").get(2, TimeUnit.SECONDS);
+        } finally {
+            latch.countDown();
+        }
+    }
+
+    @Test
+    void testSubmitIORejectsTasksWhenAllThreadsAreBusy() throws Exception {
+        Configuration.getInstance().setProperty(
+                Key.THREAD_POOL_IO_MAX_THREADS, 1);
+        ThreadPool.clearInstance();
+        instance = ThreadPool.getInstance();
+
+        final CountDownLatch latch = new CountDownLatch(1);
+        try {
+            instance.submitIO(() -> {
+                latch.await();
+                return null;
+            });
+            assertThrows(RejectedExecutionException.class,
+                    () -> instance.submitIO(() -> {}));
+        } finally {
+            latch.countDown();
+        }
+    }
+
+    @Test
+    void testSubmitIOCallable() throws Exception {
+        assertEquals(2, instance.submitIO(() -> 2).get());
+    }
+
+    @Test
+    void testSubmitIORunnable() throws Exception {
+        final AtomicInteger atomicInt = new AtomicInteger(0);
+        instance.submitIO(atomicInt::incrementAndGet).get();
+        assertEquals(1, atomicInt.get());
+    }
+
 }
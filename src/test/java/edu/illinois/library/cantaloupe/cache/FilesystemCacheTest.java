@@ -21,7 +21,9 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.DirectoryNotEmptyException;
@@ -382,6 +384,22 @@ public class FilesystemCacheTest extends AbstractCacheTest {
         }).run();
     }
 
+    /* newDerivativeImageInputStream(OperationList) */
+
+    @Test
+    void testNewDerivativeImageInputStreamReturnsFileInputStream()
+            throws Exception {
+        OperationList ops = new OperationList(
+                new Identifier("cats"), new Encode(Format.JPG));
+        try (OutputStream os = instance.newDerivativeImageOutputStream(ops)) {
+            os.write(new byte[] { 1, 2, 3 });
+        }
+        try (InputStream is = instance.newDerivativeImageInputStream(ops)) {
+            assertTrue(is instanceof FileInputStream);
+            assertEquals(3, ((FileInputStream) is).getChannel().size());
+        }
+    }
+
     /* newSourceImageOutputStream(Identifier) */
 
     @Test
@@ -15,7 +15,16 @@ import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
 import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -138,6 +147,174 @@ public class InfoServiceTest extends BaseTest {
         assertEquals(64, info.orElseThrow().getSize(0).width(), DELTA);
     }
 
+    @Test
+    void testGetOrReadInfoCoalescesConcurrentReads() throws Exception {
+        final Identifier identifier = new Identifier("jpg");
+        final AtomicInteger numReads = new AtomicInteger();
+        final CountDownLatch readLatch = new CountDownLatch(1);
+        final FileProcessor proc = new MockFileProcessor() {
+            @Override
+            public Info readInfo() {
+                numReads.incrementAndGet();
+                try {
+                    readLatch.await();
+                } catch (InterruptedException ignore) {
+                }
+                return new Info();
+            }
+        };
+        proc.setSourceFormat(Format.JPG);
+        proc.setSourceFile(TestUtil.getImage("jpg"));
+
+        final int numThreads = 8;
+        final ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+        try {
+            final List<Future<Optional<Info>>> futures = new ArrayList<>();
+            for (int i = 0; i < numThreads; i++) {
+                futures.add(executor.submit(() ->
+                        instance.getOrReadInfo(identifier, proc)));
+            }
+            // Wait for all but the reading thread to start waiting.
+            for (int i = 0; i < 500 &&
+                    instance.getNumCoalescedReads() < numThreads - 1; i++) {
+                Thread.sleep(10);
+            }
+            readLatch.countDown();
+
+            for (Future<Optional<Info>> future : futures) {
+                assertTrue(future.get().isPresent());
+            }
+            assertEquals(1, numReads.get());
+            assertEquals(numThreads - 1, instance.getNumCoalescedReads());
+            assertEquals(0, instance.getNumInfosInFlight());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testGetOrReadInfoPropagatesReadErrorsToWaitingThreads()
+            throws Exception {
+        final Identifier identifier = new Identifier("jpg");
+        final CountDownLatch readLatch = new CountDownLatch(1);
+        final FileProcessor proc = new MockFileProcessor() {
+            @Override
+            public Info readInfo() {
+                try {
+                    readLatch.await();
+                } catch (InterruptedException ignore) {
+                }
+                throw new IllegalStateException("read failed");
+            }
+        };
+        proc.setSourceFormat(Format.JPG);
+        proc.setSourceFile(TestUtil.getImage("jpg"));
+
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Optional<Info>> future1 = executor.submit(() ->
+                    instance.getOrReadInfo(identifier, proc));
+            Future<Optional<Info>> future2 = executor.submit(() ->
+                    instance.getOrReadInfo(identifier, proc));
+            for (int i = 0; i < 500 &&
+                    instance.getNumCoalescedReads() < 1; i++) {
+                Thread.sleep(10);
+            }
+            readLatch.countDown();
+
+            ExecutionException e = assertThrows(ExecutionException.class,
+                    future1::get);
+            assertTrue(e.getCause() instanceof IllegalStateException);
+            e = assertThrows(ExecutionException.class, future2::get);
+            assertTrue(e.getCause() instanceof IllegalStateException);
+            assertEquals(0, instance.getNumInfosInFlight());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testGetOrReadInfoPropagatesErrorsToWaitingThreads()
+            throws Exception {
+        final Identifier identifier = new Identifier("jpg");
+        final CountDownLatch readLatch = new CountDownLatch(1);
+        final FileProcessor proc = new MockFileProcessor() {
+            @Override
+            public Info readInfo() {
+                try {
+                    readLatch.await();
+                } catch (InterruptedException ignore) {
+                }
+                throw new AssertionError("read failed");
+            }
+        };
+        proc.setSourceFormat(Format.JPG);
+        proc.setSourceFile(TestUtil.getImage("jpg"));
+
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Optional<Info>> future1 = executor.submit(() ->
+                    instance.getOrReadInfo(identifier, proc));
+            Future<Optional<Info>> future2 = executor.submit(() ->
+                    instance.getOrReadInfo(identifier, proc));
+            for (int i = 0; i < 500 &&
+                    instance.getNumCoalescedReads() < 1; i++) {
+                Thread.sleep(10);
+            }
+            readLatch.countDown();
+
+            ExecutionException e = assertThrows(ExecutionException.class,
+                    () -> future1.get(5, TimeUnit.SECONDS));
+            assertTrue(e.getCause() instanceof AssertionError);
+            e = assertThrows(ExecutionException.class,
+                    () -> future2.get(5, TimeUnit.SECONDS));
+            assertTrue(e.getCause().getCause() instanceof AssertionError);
+            assertEquals(0, instance.getNumInfosInFlight());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testGetOrReadInfoReadsInfoAfterWaitingTooLong() throws Exception {
+        final Identifier identifier = new Identifier("jpg");
+        final AtomicInteger numReads = new AtomicInteger();
+        final CountDownLatch readLatch = new CountDownLatch(1);
+        final FileProcessor proc = new MockFileProcessor() {
+            @Override
+            public Info readInfo() {
+                // The first read hangs until the end of the test.
+                if (numReads.incrementAndGet() == 1) {
+                    try {
+                        readLatch.await();
+                    } catch (InterruptedException ignore) {
+                    }
+                }
+                return new Info();
+            }
+        };
+        proc.setSourceFormat(Format.JPG);
+        proc.setSourceFile(TestUtil.getImage("jpg"));
+        instance.setMaxWait(50);
+
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            executor.submit(() -> instance.getOrReadInfo(identifier, proc));
+            for (int i = 0; i < 500 && numReads.get() < 1; i++) {
+                Thread.sleep(10);
+            }
+            Future<Optional<Info>> future = executor.submit(() ->
+                    instance.getOrReadInfo(identifier, proc));
+
+            assertTrue(future.get(5, TimeUnit.SECONDS).isPresent());
+            assertEquals(2, numReads.get());
+            assertEquals(1, instance.getNumCoalescedReads());
+        } finally {
+            readLatch.countDown();
+            executor.shutdownNow();
+        }
+    }
+
     /* isObjectCacheEnabled() */
 
     @Test
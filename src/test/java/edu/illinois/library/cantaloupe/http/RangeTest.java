@@ -4,6 +4,8 @@ import edu.illinois.library.cantaloupe.test.BaseTest;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 public class RangeTest extends BaseTest {
@@ -17,6 +19,65 @@ public class RangeTest extends BaseTest {
         instance = new Range(0, 100, 500);
     }
 
+    /* parse() */
+
+    @Test
+    void testParseWithSingleRange() {
+        assertEquals(List.of(new Range(0, 99, 500)),
+                Range.parse("bytes=0-99", 500));
+    }
+
+    @Test
+    void testParseWithMultipleRanges() {
+        assertEquals(List.of(new Range(0, 99, 500), new Range(200, 299, 500)),
+                Range.parse("bytes=0-99, 200-299", 500));
+    }
+
+    @Test
+    void testParseWithOpenEndedRange() {
+        assertEquals(List.of(new Range(100, 499, 500)),
+                Range.parse("bytes=100-", 500));
+    }
+
+    @Test
+    void testParseWithSuffixRange() {
+        assertEquals(List.of(new Range(400, 499, 500)),
+                Range.parse("bytes=-100", 500));
+    }
+
+    @Test
+    void testParseWithSuffixRangeLongerThanLength() {
+        assertEquals(List.of(new Range(0, 499, 500)),
+                Range.parse("bytes=-1000", 500));
+    }
+
+    @Test
+    void testParseTruncatesEndToLength() {
+        assertEquals(List.of(new Range(100, 499, 500)),
+                Range.parse("bytes=100-999", 500));
+    }
+
+    @Test
+    void testParseOmitsUnsatisfiableRanges() {
+        assertEquals(List.of(new Range(0, 9, 500)),
+                Range.parse("bytes=500-599,0-9,-0", 500));
+        assertTrue(Range.parse("bytes=500-", 500).isEmpty());
+    }
+
+    @Test
+    void testParseWithInvalidValues() {
+        assertThrows(IllegalArgumentException.class,
+                () -> Range.parse("items=0-9", 500));
+        assertThrows(IllegalArgumentException.class,
+                () -> Range.parse("bytes=9-0", 500));
+        assertThrows(IllegalArgumentException.class,
+                () -> Range.parse("bytes=-", 500));
+        assertThrows(IllegalArgumentException.class,
+                () -> Range.parse("bytes=cats", 500));
+        assertThrows(IllegalArgumentException.class,
+                () -> Range.parse("bytes=0-99999999999999999999", 500));
+    }
+
     @Test
     void testEqualsWithEqualInstances() {
         Range other = new Range(0, 100, 500);
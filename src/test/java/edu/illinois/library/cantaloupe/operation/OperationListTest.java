@@ -465,6 +465,47 @@ public class OperationListTest extends BaseTest {
         assertEquals(Compression.LZW, encode.getCompression());
     }
 
+    @Test
+    void applyNonEndpointMutationsWithPNGOutputFormat() throws Exception {
+        final Configuration config = Configuration.getInstance();
+        config.setProperty(Key.PROCESSOR_MAX_SAMPLE_SIZE, 16);
+
+        final Dimension fullSize = new Dimension(2000, 1000);
+        final Info info = Info.builder().withSize(fullSize).build();
+        final OperationList opList = new OperationList(
+                new Identifier("cats"), new Encode(Format.PNG));
+        final RequestContext context = new RequestContext();
+        context.setOperationList(opList, fullSize);
+        DelegateProxyService service = DelegateProxyService.getInstance();
+        DelegateProxy proxy = service.newDelegateProxy(context);
+
+        opList.applyNonEndpointMutations(info, proxy);
+
+        Encode encode = (Encode) opList.getFirst(Encode.class);
+        assertEquals(16, encode.getMaxComponentSize());
+    }
+
+    @Test
+    void applyNonEndpointMutationsDoesNotRaiseMaxSampleSizeOfJPEGs()
+            throws Exception {
+        final Configuration config = Configuration.getInstance();
+        config.setProperty(Key.PROCESSOR_MAX_SAMPLE_SIZE, 16);
+
+        final Dimension fullSize = new Dimension(2000, 1000);
+        final Info info = Info.builder().withSize(fullSize).build();
+        final OperationList opList = new OperationList(
+                new Identifier("cats"), new Encode(Format.JPG));
+        final RequestContext context = new RequestContext();
+        context.setOperationList(opList, fullSize);
+        DelegateProxyService service = DelegateProxyService.getInstance();
+        DelegateProxy proxy = service.newDelegateProxy(context);
+
+        opList.applyNonEndpointMutations(info, proxy);
+
+        Encode encode = (Encode) opList.getFirst(Encode.class);
+        assertEquals(8, encode.getMaxComponentSize());
+    }
+
     @Test
     void applyNonEndpointMutationsWithMetadata() throws Exception {
         Configuration config = Configuration.getInstance();
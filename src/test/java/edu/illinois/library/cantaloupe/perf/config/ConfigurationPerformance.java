@@ -0,0 +1,60 @@
+package edu.illinois.library.cantaloupe.perf.config;
+
+import java.util.concurrent.TimeUnit;
+
+import edu.illinois.library.cantaloupe.config.Configuration;
+import edu.illinois.library.cantaloupe.config.Key;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import static edu.illinois.library.cantaloupe.test.PerformanceTestConstants.*;
+
+/**
+ * Measures the throughput of configuration reads from many concurrent
+ * threads, similar to the way they happen under load.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = WARMUP_ITERATIONS,
+        time = WARMUP_TIME)
+@Measurement(iterations = MEASUREMENT_ITERATIONS,
+        time = MEASUREMENT_TIME)
+@State(Scope.Benchmark)
+@Threads(64)
+@Fork(value = 1, jvmArgs = { "-server", "-Xms128M", "-Xmx128M", "-Dcantaloupe.config=memory" })
+public class ConfigurationPerformance {
+
+    @Setup
+    public void setUp() {
+        Configuration config = Configuration.getInstance();
+        config.setProperty(Key.DERIVATIVE_CACHE_ENABLED, true);
+        config.setProperty(Key.DERIVATIVE_CACHE, "FilesystemCache");
+    }
+
+    @Benchmark
+    public Configuration getInstance() {
+        return Configuration.getInstance();
+    }
+
+    @Benchmark
+    public boolean getBoolean() {
+        return Configuration.getInstance()
+                .getBoolean(Key.DERIVATIVE_CACHE_ENABLED, false);
+    }
+
+    @Benchmark
+    public String getString() {
+        return Configuration.getInstance()
+                .getString(Key.DERIVATIVE_CACHE, "");
+    }
+
+}
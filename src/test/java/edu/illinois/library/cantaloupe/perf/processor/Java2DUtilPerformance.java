@@ -0,0 +1,168 @@
+package edu.illinois.library.cantaloupe.perf.processor;
+
+import java.awt.image.BufferedImage;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import edu.illinois.library.cantaloupe.operation.Color;
+import edu.illinois.library.cantaloupe.operation.ColorTransform;
+import edu.illinois.library.cantaloupe.processor.Java2DUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import static edu.illinois.library.cantaloupe.test.PerformanceTestConstants.*;
+
+/**
+ * Compares {@link Java2DUtil#transformColor} to the per-pixel {@link
+ * BufferedImage#getRGB(int, int)}/{@link BufferedImage#setRGB(int, int, int)}
+ * implementation that it replaced, which is reproduced here.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = WARMUP_ITERATIONS,
+        time = WARMUP_TIME)
+@Measurement(iterations = MEASUREMENT_ITERATIONS,
+        time = MEASUREMENT_TIME)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgs = { "-server", "-Xms512M", "-Xmx512M", "-Dcantaloupe.config=memory" })
+public class Java2DUtilPerformance {
+
+    private static final int WIDTH  = 3000;
+    private static final int HEIGHT = 2000;
+
+    @Param({ "TYPE_3BYTE_BGR", "TYPE_4BYTE_ABGR", "TYPE_INT_ARGB",
+            "TYPE_USHORT_GRAY" })
+    private String imageType;
+
+    private BufferedImage image;
+
+    @Setup
+    public void setUp() throws Exception {
+        final int type = BufferedImage.class.getField(imageType).getInt(null);
+        image = new BufferedImage(WIDTH, HEIGHT, type);
+        final Random random = new Random(0);
+        for (int y = 0; y < HEIGHT; y++) {
+            for (int x = 0; x < WIDTH; x++) {
+                image.setRGB(x, y, random.nextInt());
+            }
+        }
+    }
+
+    // Both transforms operate in place, and repeating them on the same image
+    // costs the same as the first time, so there is no need to start from a
+    // fresh copy each time.
+
+    @Benchmark
+    public BufferedImage binarize() {
+        return Java2DUtil.transformColor(image, ColorTransform.BITONAL);
+    }
+
+    @Benchmark
+    public BufferedImage binarizeWithGetRGB() {
+        legacyBinarize(image);
+        return image;
+    }
+
+    @Benchmark
+    public BufferedImage grayscale() {
+        return Java2DUtil.transformColor(image, ColorTransform.GRAY);
+    }
+
+    @Benchmark
+    public BufferedImage grayscaleWithGetRGB() {
+        legacyGrayscale(image);
+        return image;
+    }
+
+    private static void legacyGrayscale(BufferedImage image) {
+        for (int x = 0; x < image.getWidth(); x++) {
+            for (int j = 0; j < image.getHeight(); j++) {
+                int alpha = new java.awt.Color(image.getRGB(x, j)).getAlpha();
+                int red   = new java.awt.Color(image.getRGB(x, j)).getRed();
+                int green = new java.awt.Color(image.getRGB(x, j)).getGreen();
+                int blue  = new java.awt.Color(image.getRGB(x, j)).getBlue();
+
+                red = (int) (0.21 * red + 0.71 * green + 0.07 * blue);
+                Color color = new Color(red, red, red, alpha);
+                image.setRGB(x, j, color.getARGB());
+            }
+        }
+    }
+
+    private static void legacyBinarize(BufferedImage image) {
+        int red;
+        int newPixel;
+        int threshold = legacyOtsuThreshold(image);
+
+        for (int x = 0; x < image.getWidth(); x++) {
+            for (int y = 0; y < image.getHeight(); y++) {
+                red = new Color(image.getRGB(x, y)).getRed();
+                int alpha = new Color(image.getRGB(x, y)).getAlpha();
+                if (red > threshold) {
+                    newPixel = 255;
+                } else {
+                    newPixel = 0;
+                }
+                Color color = new Color(newPixel, newPixel, newPixel, alpha);
+                image.setRGB(x, y, color.getARGB());
+            }
+        }
+    }
+
+    private static int[] legacyHistogram(BufferedImage input) {
+        int[] histogram = new int[256];
+
+        for (int x = 0; x < input.getWidth(); x++) {
+            for (int y = 0; y < input.getHeight(); y++) {
+                int red = new Color(input.getRGB(x, y)).getRed();
+                histogram[red]++;
+            }
+        }
+        return histogram;
+    }
+
+    private static int legacyOtsuThreshold(BufferedImage image) {
+        int[] histogram = legacyHistogram(image);
+        int total = image.getHeight() * image.getWidth();
+
+        float sum = 0;
+        for (int i = 0; i < 256; i++) {
+            sum += i * histogram[i];
+        }
+
+        float sumB = 0;
+        int wB = 0, wF;
+        float varMax = 0;
+        int threshold = 0;
+
+        for (int i = 0; i < 256; i++) {
+            wB += histogram[i];
+            if (wB == 0) {
+                continue;
+            }
+            wF = total - wB;
+            if (wF == 0) {
+                break;
+            }
+            sumB += (float) (i * histogram[i]);
+            float mB = sumB / wB;
+            float mF = (sum - sumB) / wF;
+            float varBetween = (float) wB * (float) wF * (mB - mF) * (mB - mF);
+            if (varBetween > varMax) {
+                varMax = varBetween;
+                threshold = i;
+            }
+        }
+        return threshold;
+    }
+
+}
@@ -7,10 +7,13 @@ import edu.illinois.library.cantaloupe.config.Configuration;
 import edu.illinois.library.cantaloupe.config.Key;
 import edu.illinois.library.cantaloupe.image.Format;
 import edu.illinois.library.cantaloupe.image.Info;
+import edu.illinois.library.cantaloupe.operation.CropByPixels;
 import edu.illinois.library.cantaloupe.operation.Encode;
 import edu.illinois.library.cantaloupe.operation.OperationList;
-import edu.illinois.library.cantaloupe.processor.FileProcessor;
+import edu.illinois.library.cantaloupe.operation.ScaleByPercent;
 import edu.illinois.library.cantaloupe.processor.ProcessorFactory;
+import edu.illinois.library.cantaloupe.processor.StreamProcessor;
+import edu.illinois.library.cantaloupe.source.PathStreamFactory;
 import edu.illinois.library.cantaloupe.test.TestUtil;
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.BenchmarkMode;
@@ -39,13 +42,16 @@ public class TurboJpegProcessorPerformance {
     private static final Format SOURCE_FORMAT = Format.JPG;
     private static final Format OUTPUT_FORMAT = Format.JPG;
 
-    private FileProcessor processor;
+    private static final String LARGE_FIXTURE =
+            "jpg-rgb-594x522x8-baseline.jpg";
+
+    private StreamProcessor processor;
 
     @Setup
     public void setUp() throws Exception {
         Configuration config = Configuration.getInstance();
         config.setProperty(Key.PROCESSOR_FALLBACK, "TurboJpegProcessor");
-        processor = (FileProcessor) new ProcessorFactory().newProcessor(SOURCE_FORMAT);
+        processor = (StreamProcessor) new ProcessorFactory().newProcessor(SOURCE_FORMAT);
     }
 
     @TearDown
@@ -56,17 +62,59 @@ public class TurboJpegProcessorPerformance {
     @Benchmark
     public void process() throws Exception {
         processor.setSourceFormat(SOURCE_FORMAT);
-        processor.setSourceFile(TestUtil.getImage("jpg"));
+        processor.setStreamFactory(
+                new PathStreamFactory(TestUtil.getImage("jpg")));
         processor.process(
                 new OperationList(new Encode(OUTPUT_FORMAT)),
                 Info.builder().withSize(64, 56).build(),
                 OutputStream.nullOutputStream());
     }
 
+    @Benchmark
+    public void processWithRegion() throws Exception {
+        processor.setSourceFormat(SOURCE_FORMAT);
+        processor.setStreamFactory(
+                new PathStreamFactory(TestUtil.getImage(LARGE_FIXTURE)));
+        processor.process(
+                new OperationList(
+                        new CropByPixels(200, 200, 128, 128),
+                        new Encode(OUTPUT_FORMAT)),
+                Info.builder().withSize(594, 522).build(),
+                OutputStream.nullOutputStream());
+    }
+
+    @Benchmark
+    public void processWithScale() throws Exception {
+        processor.setSourceFormat(SOURCE_FORMAT);
+        processor.setStreamFactory(
+                new PathStreamFactory(TestUtil.getImage(LARGE_FIXTURE)));
+        processor.process(
+                new OperationList(
+                        new ScaleByPercent(0.2),
+                        new Encode(OUTPUT_FORMAT)),
+                Info.builder().withSize(594, 522).build(),
+                OutputStream.nullOutputStream());
+    }
+
+    @Benchmark
+    public void processWithRegionAndScale() throws Exception {
+        processor.setSourceFormat(SOURCE_FORMAT);
+        processor.setStreamFactory(
+                new PathStreamFactory(TestUtil.getImage(LARGE_FIXTURE)));
+        processor.process(
+                new OperationList(
+                        new CropByPixels(100, 100, 400, 400),
+                        new ScaleByPercent(0.3),
+                        new Encode(OUTPUT_FORMAT)),
+                Info.builder().withSize(594, 522).build(),
+                OutputStream.nullOutputStream());
+    }
+
     @Benchmark
     public void readInfo() throws Exception {
         processor.setSourceFormat(SOURCE_FORMAT);
-        processor.setSourceFile(TestUtil.getImage("jpg"));
+        processor.setStreamFactory(
+                new PathStreamFactory(TestUtil.getImage("jpg")));
         processor.readInfo();
     }
 
@@ -0,0 +1,98 @@
+package edu.illinois.library.cantaloupe.perf.processor.resample;
+
+import java.awt.image.BufferedImage;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import edu.illinois.library.cantaloupe.processor.resample.ResampleFilter;
+import edu.illinois.library.cantaloupe.processor.resample.ResampleFilters;
+import edu.illinois.library.cantaloupe.processor.resample.ResampleOp;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import static edu.illinois.library.cantaloupe.test.PerformanceTestConstants.*;
+
+/**
+ * Compares the {@link ResampleOp.Kernel kernels} of {@link ResampleOp} with
+ * each of the {@link ResampleFilters filters}, scaling to common tile sizes
+ * from twice and half of them.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = WARMUP_ITERATIONS,
+        time = WARMUP_TIME)
+@Measurement(iterations = MEASUREMENT_ITERATIONS,
+        time = MEASUREMENT_TIME)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgs = { "-server", "-Xms512M", "-Xmx512M", "-Dcantaloupe.config=memory" })
+public class ResampleOpPerformance {
+
+    private static final Map<String, ResampleFilter> FILTERS = Map.of(
+            "Bell", ResampleFilters.getBellFilter(),
+            "BiCubic", ResampleFilters.getBiCubicFilter(),
+            "BiCubicHighFreqResponse", ResampleFilters.getBiCubicHighFreqResponse(),
+            "Box", ResampleFilters.getBoxFilter(),
+            "BSpline", ResampleFilters.getBSplineFilter(),
+            "Hermite", ResampleFilters.getHermiteFilter(),
+            "Lanczos3", ResampleFilters.getLanczos3Filter(),
+            "Mitchell", ResampleFilters.getMitchellFilter(),
+            "Triangle", ResampleFilters.getTriangleFilter());
+
+    @Param({ "Bell", "BiCubic", "BiCubicHighFreqResponse", "Box", "BSpline",
+            "Hermite", "Lanczos3", "Mitchell", "Triangle" })
+    private String filter;
+
+    @Param({ "FLOAT", "FIXED_POINT" })
+    private String kernel;
+
+    @Param({ "256", "512", "1024" })
+    private int tileSize;
+
+    private BufferedImage largeImage, smallImage;
+
+    private static BufferedImage newImage(int size) {
+        final BufferedImage image = new BufferedImage(size, size,
+                BufferedImage.TYPE_3BYTE_BGR);
+        final Random random = new Random(0);
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                image.setRGB(x, y, random.nextInt());
+            }
+        }
+        return image;
+    }
+
+    @Setup
+    public void setUp() {
+        largeImage = newImage(tileSize * 2);
+        smallImage = newImage(tileSize / 2);
+    }
+
+    private BufferedImage resample(BufferedImage image) {
+        final ResampleOp op = new ResampleOp(tileSize, tileSize);
+        op.setFilter(FILTERS.get(filter));
+        op.setKernel(ResampleOp.Kernel.valueOf(kernel));
+        return op.filter(image, null);
+    }
+
+    @Benchmark
+    public BufferedImage downscale() {
+        return resample(largeImage);
+    }
+
+    @Benchmark
+    public BufferedImage upscale() {
+        return resample(smallImage);
+    }
+
+}
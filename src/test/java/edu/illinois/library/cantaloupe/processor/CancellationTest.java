@@ -0,0 +1,29 @@
+package edu.illinois.library.cantaloupe.processor;
+
+import edu.illinois.library.cantaloupe.test.BaseTest;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CancellationTest extends BaseTest {
+
+    @Test
+    void testCheckWithUncancelledInstance() {
+        final Cancellation cancellation = new Cancellation();
+        cancellation.check();
+        assertFalse(cancellation.isCancelled());
+    }
+
+    @Test
+    void testCheckWithCancelledInstance() {
+        final long numCancelled = Cancellation.getNumCancelled();
+        final Cancellation cancellation = new Cancellation();
+        cancellation.cancel();
+        assertTrue(cancellation.isCancelled());
+        assertThrows(ProcessingCancelledException.class, cancellation::check);
+        assertThrows(ProcessingCancelledException.class, cancellation::check);
+        // Each instance is counted only once.
+        assertEquals(numCancelled + 1, Cancellation.getNumCancelled());
+    }
+
+}
@@ -1,5 +1,7 @@
 package edu.illinois.library.cantaloupe.processor;
 
+import edu.illinois.library.cantaloupe.config.Configuration;
+import edu.illinois.library.cantaloupe.config.Key;
 import edu.illinois.library.cantaloupe.image.Dimension;
 import edu.illinois.library.cantaloupe.image.Orientation;
 import edu.illinois.library.cantaloupe.image.Rectangle;
@@ -34,6 +36,8 @@ import java.awt.image.BufferedImage;
 import java.awt.image.ColorModel;
 import java.awt.image.ComponentColorModel;
 import java.awt.image.DataBuffer;
+import java.awt.image.IndexColorModel;
+import java.awt.image.Raster;
 import java.awt.image.WritableRaster;
 import java.io.IOException;
 import java.net.URI;
@@ -506,8 +510,95 @@ class Java2DUtilTest extends BaseTest {
         assertEquals(inImage.getWidth(), outImage.getHeight());
     }
 
+    /* isRightAngle() */
+
+    @Test
+    void testIsRightAngle() {
+        assertFalse(Java2DUtil.isRightAngle(new Rotate(0)));
+        assertFalse(Java2DUtil.isRightAngle(new Rotate(15)));
+        assertFalse(Java2DUtil.isRightAngle(new Rotate(359.99999)));
+        assertTrue(Java2DUtil.isRightAngle(new Rotate(90)));
+        assertTrue(Java2DUtil.isRightAngle(new Rotate(180)));
+        assertTrue(Java2DUtil.isRightAngle(new Rotate(270)));
+    }
+
     /* rotate(BufferedImage, Rotate) */
 
+    /**
+     * @return 3x2 image in which every pixel is different.
+     */
+    private static BufferedImage newRemapImage(int type) {
+        final BufferedImage image = new BufferedImage(3, 2, type);
+        for (int y = 0; y < 2; y++) {
+            for (int x = 0; x < 3; x++) {
+                image.setRGB(x, y, 0xff000000 | (x * 80 << 16) | (y * 200 << 8));
+            }
+        }
+        return image;
+    }
+
+    @Test
+    void testRotateWithRightAnglesRemapsPixelsExactly() {
+        for (int type : new int[] { BufferedImage.TYPE_3BYTE_BGR,
+                BufferedImage.TYPE_4BYTE_ABGR, BufferedImage.TYPE_INT_RGB }) {
+            final BufferedImage inImage = newRemapImage(type);
+
+            BufferedImage outImage = Java2DUtil.rotate(inImage, new Rotate(90));
+            assertEquals(type, outImage.getType());
+            assertEquals(2, outImage.getWidth());
+            assertEquals(3, outImage.getHeight());
+            for (int y = 0; y < 2; y++) {
+                for (int x = 0; x < 3; x++) {
+                    assertEquals(inImage.getRGB(x, y), outImage.getRGB(1 - y, x));
+                }
+            }
+
+            outImage = Java2DUtil.rotate(inImage, new Rotate(180));
+            assertEquals(type, outImage.getType());
+            for (int y = 0; y < 2; y++) {
+                for (int x = 0; x < 3; x++) {
+                    assertEquals(inImage.getRGB(x, y), outImage.getRGB(2 - x, 1 - y));
+                }
+            }
+
+            outImage = Java2DUtil.rotate(inImage, new Rotate(270));
+            assertEquals(type, outImage.getType());
+            assertEquals(2, outImage.getWidth());
+            assertEquals(3, outImage.getHeight());
+            for (int y = 0; y < 2; y++) {
+                for (int x = 0; x < 3; x++) {
+                    assertEquals(inImage.getRGB(x, y), outImage.getRGB(y, 2 - x));
+                }
+            }
+        }
+    }
+
+    @Test
+    void testRotateWithRightAngleAndLargeImage() {
+        // Larger than the tiles that pixels are copied in
+        final BufferedImage inImage = newColorImage(150, 100, 8, true);
+        inImage.setRGB(0, 0, 0xffff0000);
+        inImage.setRGB(149, 99, 0xff0000ff);
+
+        BufferedImage outImage = Java2DUtil.rotate(inImage, new Rotate(90));
+        assertEquals(100, outImage.getWidth());
+        assertEquals(150, outImage.getHeight());
+        assertRGBA(outImage.getRGB(99, 0), 255, 0, 0, 255);
+        assertRGBA(outImage.getRGB(0, 149), 0, 0, 255, 255);
+    }
+
+    @Test
+    void testRotateWithRightAnglePreserves16BitSamples() {
+        final BufferedImage inImage = newColorImage(16, false);
+        final WritableRaster raster = inImage.getRaster();
+        raster.setPixel(0, 0, new int[] { 65535, 1, 30000 });
+
+        BufferedImage outImage = Java2DUtil.rotate(inImage, new Rotate(90));
+        assertSame(inImage.getColorModel(), outImage.getColorModel());
+        assertArrayEquals(new int[] { 65535, 1, 30000 },
+                outImage.getRaster().getPixel(19, 0, new int[3]));
+    }
+
     @Test
     void testRotateDimensions() {
         BufferedImage inImage = newColorImage(8, false);
@@ -718,6 +809,38 @@ class Java2DUtilTest extends BaseTest {
         assertEquals(1, outImage.getHeight());
     }
 
+    @Test
+    void testScaleWithFixedPointKernel() {
+        BufferedImage inImage = new BufferedImage(100, 100,
+                BufferedImage.TYPE_3BYTE_BGR);
+        for (int y = 0; y < 100; y++) {
+            for (int x = 0; x < 100; x++) {
+                inImage.getRaster().setPixel(x, y,
+                        new int[] { x * 2, y * 2, x + y });
+            }
+        }
+        ScaleByPixels scale = new ScaleByPixels(
+                40, 40, ScaleByPixels.Mode.ASPECT_FIT_INSIDE);
+        ScaleConstraint sc = new ScaleConstraint(1, 1);
+        ReductionFactor rf = new ReductionFactor(0);
+        BufferedImage expected = Java2DUtil.scale(inImage, scale, sc, rf);
+
+        Configuration.getInstance().setProperty(
+                Key.PROCESSOR_RESAMPLE_KERNEL, "fixed_point");
+        BufferedImage outImage = Java2DUtil.scale(inImage, scale, sc, rf);
+
+        assertEquals(40, outImage.getWidth());
+        assertEquals(40, outImage.getHeight());
+        for (int y = 0; y < 40; y++) {
+            for (int x = 0; x < 40; x++) {
+                for (int b = 0; b < 3; b++) {
+                    assertEquals(expected.getRaster().getSample(x, y, b),
+                            outImage.getRaster().getSample(x, y, b), 1);
+                }
+            }
+        }
+    }
+
     /* sharpen() */
 
     @Test
@@ -828,6 +951,100 @@ class Java2DUtilTest extends BaseTest {
         assertEquals(16, outImage.getColorModel().getComponentSize(0));
     }
 
+    @Test
+    void testTransformColorFromIntARGBToBitonalPreservesAlpha() {
+        BufferedImage inImage = new BufferedImage(100, 100,
+                BufferedImage.TYPE_INT_ARGB);
+        inImage.setRGB(0, 0, 0x80ff0000);
+        inImage.setRGB(1, 0, 0x4000ffff);
+
+        BufferedImage outImage = Java2DUtil.transformColor(inImage,
+                ColorTransform.BITONAL);
+
+        assertRGBA(outImage.getRGB(0, 0), 255, 255, 255, 128);
+        assertRGBA(outImage.getRGB(1, 0), 0, 0, 0, 64);
+    }
+
+    @Test
+    void testTransformColorFromIntARGBToGrayPreservesAlpha() {
+        BufferedImage inImage = new BufferedImage(100, 100,
+                BufferedImage.TYPE_INT_ARGB);
+        inImage.setRGB(0, 0, 0x80ff0000);
+
+        BufferedImage outImage = Java2DUtil.transformColor(inImage,
+                ColorTransform.GRAY);
+
+        assertGray(outImage.getRGB(0, 0));
+        assertEquals(128, (outImage.getRGB(0, 0) >> 24) & 0xff);
+        assertEquals(BufferedImage.TYPE_INT_ARGB, outImage.getType());
+    }
+
+    @Test
+    void testTransformColorFromCustomIndexedToGray() {
+        // A pixel stride of 2 makes this a TYPE_CUSTOM image that
+        // convertIndexedTo8BitARGB() won't convert.
+        final byte[] reds = new byte[256], greens = new byte[256],
+                blues = new byte[256];
+        for (int i = 0; i < 256; i++) {
+            reds[i] = greens[i] = blues[i] = (byte) i;
+        }
+        reds[1] = (byte) 255;
+        greens[1] = blues[1] = 0;
+        IndexColorModel cm = new IndexColorModel(8, 256, reds, greens, blues);
+        WritableRaster raster = Raster.createInterleavedRaster(
+                DataBuffer.TYPE_BYTE, 100, 100, 200, 2, new int[] { 0 }, null);
+        BufferedImage inImage = new BufferedImage(cm, raster, false, null);
+        assertEquals(BufferedImage.TYPE_CUSTOM, inImage.getType());
+        for (int y = 0; y < 100; y++) {
+            for (int x = 0; x < 100; x++) {
+                raster.setSample(x, y, 0, 1);
+            }
+        }
+
+        BufferedImage outImage = Java2DUtil.transformColor(inImage,
+                ColorTransform.GRAY);
+
+        assertGray(outImage);
+        // The samples are palette indices, not colors, so they must not be
+        // grayscaled directly, which would leave the image red.
+        assertNotEquals(1, outImage.getRaster().getSample(0, 0, 0));
+    }
+
+    @Test
+    void testTransformColorToGrayWithSubimage() {
+        BufferedImage parentImage = newColorImage(100, 100, 8, false);
+        Graphics2D g2d = parentImage.createGraphics();
+        g2d.setColor(java.awt.Color.RED);
+        g2d.fill(new Rectangle(0, 0, 100, 100).toAWTRectangle());
+        g2d.dispose();
+        BufferedImage inImage = parentImage.getSubimage(10, 20, 50, 40);
+
+        Java2DUtil.transformColor(inImage, ColorTransform.GRAY);
+
+        assertGray(inImage);
+        assertGray(parentImage.getRGB(10, 20));
+        assertGray(parentImage.getRGB(59, 59));
+        // Pixels outside of the subimage are untouched.
+        assertRGBA(parentImage.getRGB(9, 20), 255, 0, 0, 255);
+        assertRGBA(parentImage.getRGB(60, 59), 255, 0, 0, 255);
+        assertRGBA(parentImage.getRGB(10, 60), 255, 0, 0, 255);
+    }
+
+    @Test
+    void testTransformColorToGrayWithLargeImage() {
+        // Large enough to be processed in parallel.
+        BufferedImage inImage = newColorImage(2000, 2000, 8, false);
+        Graphics2D g2d = inImage.createGraphics();
+        g2d.setColor(java.awt.Color.RED);
+        g2d.fill(new Rectangle(0, 0, 2000, 2000).toAWTRectangle());
+        g2d.dispose();
+
+        BufferedImage outImage = Java2DUtil.transformColor(inImage,
+                ColorTransform.GRAY);
+
+        assertGray(outImage);
+    }
+
     @Test
     void testTransformColorFromBitonalToBitonal() {
         BufferedImage inImage = new BufferedImage(100, 100,
@@ -865,4 +1082,30 @@ class Java2DUtilTest extends BaseTest {
         assertEquals(100, outImage.getHeight());
     }
 
+    @Test
+    void testTransposeHorizontally() {
+        final BufferedImage inImage = newRemapImage(BufferedImage.TYPE_3BYTE_BGR);
+        BufferedImage outImage = Java2DUtil.transpose(inImage, Transpose.HORIZONTAL);
+
+        assertEquals(BufferedImage.TYPE_3BYTE_BGR, outImage.getType());
+        for (int y = 0; y < 2; y++) {
+            for (int x = 0; x < 3; x++) {
+                assertEquals(inImage.getRGB(x, y), outImage.getRGB(2 - x, y));
+            }
+        }
+    }
+
+    @Test
+    void testTransposeVertically() {
+        final BufferedImage inImage = newRemapImage(BufferedImage.TYPE_3BYTE_BGR);
+        BufferedImage outImage = Java2DUtil.transpose(inImage, Transpose.VERTICAL);
+
+        assertEquals(BufferedImage.TYPE_3BYTE_BGR, outImage.getType());
+        for (int y = 0; y < 2; y++) {
+            for (int x = 0; x < 3; x++) {
+                assertEquals(inImage.getRGB(x, y), outImage.getRGB(x, 1 - y));
+            }
+        }
+    }
+
 }
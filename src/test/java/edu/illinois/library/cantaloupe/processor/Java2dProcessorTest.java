@@ -4,6 +4,7 @@ import edu.illinois.library.cantaloupe.image.Format;
 import edu.illinois.library.cantaloupe.image.Info;
 import edu.illinois.library.cantaloupe.operation.Encode;
 import edu.illinois.library.cantaloupe.operation.OperationList;
+import edu.illinois.library.cantaloupe.operation.ScaleByPercent;
 import edu.illinois.library.cantaloupe.processor.codec.ImageReader;
 import edu.illinois.library.cantaloupe.processor.codec.ImageReaderFactory;
 import edu.illinois.library.cantaloupe.resource.iiif.ProcessorFeature;
@@ -11,6 +12,8 @@ import edu.illinois.library.cantaloupe.test.TestUtil;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.nio.file.Path;
@@ -98,6 +101,40 @@ public class Java2dProcessorTest extends AbstractImageIOProcessorTest {
         }
     }
 
+    private BufferedImage processHighBitDepthPNG(Encode encode)
+            throws Exception {
+        OperationList ops = new OperationList(
+                new ScaleByPercent(0.5), encode);
+        Info info = Info.builder()
+                .withSize(64, 56)
+                .withFormat(Format.PNG)
+                .build();
+        instance.setSourceFile(TestUtil.getImage("png-rgb-64x56x16.png"));
+        instance.setSourceFormat(Format.PNG);
+
+        try (ByteArrayOutputStream os = new ByteArrayOutputStream()) {
+            instance.process(ops, info, os);
+            return ImageIO.read(new ByteArrayInputStream(os.toByteArray()));
+        }
+    }
+
+    @Test
+    void testProcessWithHighBitDepthSourceReducesTo8Bits() throws Exception {
+        BufferedImage image = processHighBitDepthPNG(new Encode(Format.PNG));
+        assertEquals(32, image.getWidth());
+        assertEquals(8, image.getColorModel().getComponentSize(0));
+    }
+
+    @Test
+    void testProcessWithHighBitDepthSourcePreservesBitDepth()
+            throws Exception {
+        Encode encode = new Encode(Format.PNG);
+        encode.setMaxComponentSize(16);
+        BufferedImage image = processHighBitDepthPNG(encode);
+        assertEquals(32, image.getWidth());
+        assertEquals(16, image.getColorModel().getComponentSize(0));
+    }
+
     @Test
     @Override
     public void testProcessWithTurboJPEGAvailable() {
@@ -6,6 +6,7 @@ import edu.illinois.library.cantaloupe.image.Dimension;
 import edu.illinois.library.cantaloupe.image.Format;
 import edu.illinois.library.cantaloupe.image.Identifier;
 import edu.illinois.library.cantaloupe.image.Info;
+import edu.illinois.library.cantaloupe.operation.CropByPixels;
 import edu.illinois.library.cantaloupe.operation.Encode;
 import edu.illinois.library.cantaloupe.operation.OperationList;
 import edu.illinois.library.cantaloupe.operation.ValidationException;
@@ -15,6 +16,9 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.OutputStream;
 import java.util.Arrays;
@@ -112,6 +116,81 @@ public class PdfBoxProcessorTest extends AbstractProcessorTest {
                 () -> instance.process(ops, imageInfo, outputStream));
     }
 
+    @Test
+    void testProcessWithDocumentCache() throws Exception {
+        Configuration.getInstance().setProperty(
+                Key.PROCESSOR_PDF_DOCUMENT_CACHE_ENABLED, true);
+        PdfDocumentCache.clearInstance();
+        final PdfDocumentCache cache = PdfDocumentCache.getInstance();
+        final Identifier identifier = new Identifier("cats");
+
+        instance.setIdentifier(identifier);
+        instance.setSourceFile(TestUtil.getImage("pdf-multipage.pdf"));
+        final Info imageInfo = instance.readInfo();
+        instance.close();
+
+        for (String page : new String[] { "1", "2" }) {
+            PdfBoxProcessor proc = newInstance();
+            proc.setIdentifier(identifier);
+            proc.setSourceFile(TestUtil.getImage("pdf-multipage.pdf"));
+            OperationList ops = new OperationList(new Encode(Format.JPG));
+            ops.getOptions().put("page", page);
+            proc.process(ops, imageInfo, OutputStream.nullOutputStream());
+        }
+        assertEquals(1, cache.getNumMisses());
+        assertEquals(2, cache.getNumHits());
+    }
+
+    @Test
+    void testProcessWithCropRendersOnlyTheRegion() throws Exception {
+        instance.setSourceFile(TestUtil.getImage("pdf.pdf"));
+        final Info imageInfo = instance.readInfo();
+
+        // Render the whole page.
+        OperationList ops = new OperationList(new Encode(Format.PNG));
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        instance.process(ops, imageInfo, os);
+        final BufferedImage fullImage =
+                ImageIO.read(new ByteArrayInputStream(os.toByteArray()));
+
+        // Render a region of it.
+        ops = new OperationList(
+                new CropByPixels(20, 10, 50, 40), new Encode(Format.PNG));
+        os = new ByteArrayOutputStream();
+        instance.setSourceFile(TestUtil.getImage("pdf.pdf"));
+        instance.process(ops, imageInfo, os);
+        final BufferedImage region =
+                ImageIO.read(new ByteArrayInputStream(os.toByteArray()));
+
+        assertEquals(50, region.getWidth());
+        assertEquals(40, region.getHeight());
+        // Antialiasing may differ slightly at the region edges, so compare
+        // only the interior.
+        int numDifferences = 0;
+        for (int y = 1; y < region.getHeight() - 1; y++) {
+            for (int x = 1; x < region.getWidth() - 1; x++) {
+                if (region.getRGB(x, y) != fullImage.getRGB(x + 20, y + 10)) {
+                    numDifferences++;
+                }
+            }
+        }
+        assertTrue(numDifferences < region.getWidth() * region.getHeight() / 20);
+    }
+
+    @Test
+    void testReadInfoTileSize() throws Exception {
+        instance.setSourceFile(TestUtil.getImage("pdf.pdf"));
+        Info info = instance.readInfo();
+        assertEquals(new Dimension(100, 88), info.getImages().get(0).getTileSize());
+
+        Configuration.getInstance().setProperty(Key.PROCESSOR_DPI, 1000);
+        instance.close();
+        instance = newInstance();
+        instance.setSourceFile(TestUtil.getImage("pdf.pdf"));
+        info = instance.readInfo();
+        assertEquals(new Dimension(512, 512), info.getImages().get(0).getTileSize());
+    }
+
     @Test
     void testReadInfoXMPAwareness() throws Exception {
         instance.setSourceFile(TestUtil.getImage("pdf-xmp.pdf"));
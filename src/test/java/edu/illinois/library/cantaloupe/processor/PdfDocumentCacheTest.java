@@ -0,0 +1,247 @@
+package edu.illinois.library.cantaloupe.processor;
+
+import edu.illinois.library.cantaloupe.image.Identifier;
+import edu.illinois.library.cantaloupe.test.BaseTest;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PdfDocumentCacheTest extends BaseTest {
+
+    private static final int DOCUMENT_SIZE = 1000;
+
+    private PdfDocumentCache instance;
+
+    private static PdfDocumentCache.DocumentKey newKey(String identifier) {
+        return new PdfDocumentCache.DocumentKey(
+                new Identifier(identifier), null, 0, 0);
+    }
+
+    private static PdfDocumentCache.Entry newEntry() {
+        return new PdfDocumentCache.Entry(new PDDocument(), null, DOCUMENT_SIZE);
+    }
+
+    @BeforeEach
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        PdfDocumentCache.clearInstance();
+        instance = new PdfDocumentCache(DOCUMENT_SIZE * 2);
+    }
+
+    @Test
+    void testAcquireWithHit() throws Exception {
+        final AtomicInteger numLoads = new AtomicInteger();
+        final PdfDocumentCache.Loader loader = () -> {
+            numLoads.incrementAndGet();
+            return newEntry();
+        };
+        final PDDocument document;
+        try (PdfDocumentCache.Lease lease = instance.acquire(newKey("cats"), loader)) {
+            document = lease.getDocument();
+        }
+        try (PdfDocumentCache.Lease lease = instance.acquire(newKey("cats"), loader)) {
+            assertSame(document, lease.getDocument());
+        }
+        assertEquals(1, numLoads.get());
+        assertEquals(1, instance.getNumHits());
+        assertEquals(1, instance.getNumMisses());
+    }
+
+    @Test
+    void testAcquireWithConcurrentLeasesLoadsAnotherInstance() throws Exception {
+        final AtomicInteger numLoads = new AtomicInteger();
+        final PdfDocumentCache.Loader loader = () -> {
+            numLoads.incrementAndGet();
+            return newEntry();
+        };
+        try (PdfDocumentCache.Lease lease1 = instance.acquire(newKey("cats"), loader);
+             PdfDocumentCache.Lease lease2 = instance.acquire(newKey("cats"), loader)) {
+            assertNotSame(lease1.getDocument(), lease2.getDocument());
+            instance.cleanUp();
+            assertEquals(DOCUMENT_SIZE * 2, instance.size());
+        }
+        assertEquals(2, numLoads.get());
+        assertEquals(1, instance.getNumHits());
+        assertEquals(1, instance.getNumMisses());
+    }
+
+    @Test
+    void testAcquireWithAllInstancesLeasedWaitsForOne() throws Exception {
+        instance = new PdfDocumentCache(DOCUMENT_SIZE * 2, 1);
+        final PdfDocumentCache.Lease lease1 =
+                instance.acquire(newKey("cats"), PdfDocumentCacheTest::newEntry);
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<PdfDocumentCache.Lease> future = executor.submit(() ->
+                    instance.acquire(newKey("cats"), PdfDocumentCacheTest::newEntry));
+            assertThrows(TimeoutException.class,
+                    () -> future.get(200, TimeUnit.MILLISECONDS));
+
+            lease1.close();
+            try (PdfDocumentCache.Lease lease2 = future.get(5, TimeUnit.SECONDS)) {
+                assertSame(lease1.getDocument(), lease2.getDocument());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testAcquireWithMiss() throws Exception {
+        try (PdfDocumentCache.Lease lease1 = instance.acquire(newKey("cats"), PdfDocumentCacheTest::newEntry);
+             PdfDocumentCache.Lease lease2 = instance.acquire(newKey("dogs"), PdfDocumentCacheTest::newEntry)) {
+            assertNotSame(lease1.getDocument(), lease2.getDocument());
+        }
+        assertEquals(0, instance.getNumHits());
+        assertEquals(2, instance.getNumMisses());
+    }
+
+    @Test
+    void testAcquireWithLoaderException() {
+        assertThrows(IOException.class, () -> instance.acquire(newKey("cats"),
+                () -> { throw new IOException("bad"); }));
+        assertEquals(0, instance.size());
+    }
+
+    @Test
+    void testAcquireWithEntryLargerThanCache() throws Exception {
+        instance = new PdfDocumentCache(DOCUMENT_SIZE / 2);
+        PdfDocumentCache.Entry entry = newEntry();
+        try (PdfDocumentCache.Lease lease = instance.acquire(newKey("cats"), () -> entry)) {
+            instance.cleanUp();
+            assertNotNull(lease.getDocument().getDocumentCatalog());
+            assertFalse(entry.isClosed());
+        }
+        assertTrue(entry.isClosed());
+    }
+
+    @Test
+    void testEvictedDocumentIsNotClosedWhileLeased() throws Exception {
+        PdfDocumentCache.Entry entry = newEntry();
+        PdfDocumentCache.Lease lease = instance.acquire(newKey("cats"), () -> entry);
+        instance.purge();
+        instance.cleanUp();
+        assertFalse(entry.isClosed());
+        lease.close();
+        assertTrue(entry.isClosed());
+    }
+
+    @Test
+    void testUnevictedDocumentIsNotClosedWhenReleased() throws Exception {
+        PdfDocumentCache.Entry entry = newEntry();
+        instance.acquire(newKey("cats"), () -> entry).close();
+        assertFalse(entry.isClosed());
+    }
+
+    @Test
+    void testLeaseCloseIsIdempotent() throws Exception {
+        PdfDocumentCache.Entry entry = newEntry();
+        PdfDocumentCache.Lease lease1 = instance.acquire(newKey("cats"), () -> entry);
+        PdfDocumentCache.Lease lease2 = instance.acquire(newKey("cats"),
+                PdfDocumentCacheTest::newEntry);
+        instance.purge();
+        lease1.close();
+        lease1.close();
+        assertFalse(entry.isClosed());
+        lease2.close();
+        assertTrue(entry.isClosed());
+    }
+
+    @Test
+    void testGetInstance() {
+        assertSame(PdfDocumentCache.getInstance(),
+                PdfDocumentCache.getInstance());
+    }
+
+    @Test
+    void testMaxInstances() {
+        assertEquals(4, instance.maxInstances());
+        assertEquals(2, new PdfDocumentCache(DOCUMENT_SIZE, 2).maxInstances());
+    }
+
+    @Test
+    void testMaxSize() {
+        assertEquals(DOCUMENT_SIZE * 2, instance.maxSize());
+    }
+
+    @Test
+    void testPurge() throws Exception {
+        instance.acquire(newKey("cats"), PdfDocumentCacheTest::newEntry).close();
+        instance.purge();
+        instance.cleanUp();
+        assertEquals(0, instance.size());
+    }
+
+    @Test
+    void testPurgeWithIdentifier() throws Exception {
+        PdfDocumentCache.Entry cats = newEntry();
+        PdfDocumentCache.Entry dogs = newEntry();
+        instance.acquire(newKey("cats"), () -> cats).close();
+        instance.acquire(newKey("dogs"), () -> dogs).close();
+
+        instance.purge(new Identifier("cats"));
+        instance.cleanUp();
+
+        assertTrue(cats.isClosed());
+        assertFalse(dogs.isClosed());
+        assertEquals(DOCUMENT_SIZE, instance.size());
+    }
+
+    @Test
+    void testSizeIsBounded() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            instance.acquire(newKey("cats" + i), PdfDocumentCacheTest::newEntry)
+                    .close();
+        }
+        instance.cleanUp();
+        assertTrue(instance.size() <= instance.maxSize());
+    }
+
+    @Test
+    void testAcquireWithExpiredDocument() throws Exception {
+        instance = new PdfDocumentCache(DOCUMENT_SIZE * 2, 1, 1);
+        PdfDocumentCache.Entry entry = newEntry();
+        instance.acquire(newKey("cats"), () -> entry).close();
+        Thread.sleep(1100);
+
+        instance.acquire(newKey("cats"), PdfDocumentCacheTest::newEntry).close();
+        instance.cleanUp();
+        assertTrue(entry.isClosed());
+        assertEquals(2, instance.getNumMisses());
+    }
+
+    @Test
+    void testAcquireWithValidatedDocumentDoesNotExpire() throws Exception {
+        instance = new PdfDocumentCache(DOCUMENT_SIZE * 2, 1, 1);
+        PdfDocumentCache.DocumentKey key = new PdfDocumentCache.DocumentKey(
+                new Identifier("cats"), null, 1000, DOCUMENT_SIZE);
+        PdfDocumentCache.Entry entry = newEntry();
+        instance.acquire(key, () -> entry).close();
+        Thread.sleep(1100);
+
+        instance.acquire(key, PdfDocumentCacheTest::newEntry).close();
+        assertFalse(entry.isClosed());
+        assertEquals(1, instance.getNumHits());
+    }
+
+    @Test
+    void testUncached() {
+        PdfDocumentCache.Entry entry = newEntry();
+        PdfDocumentCache.Lease lease = PdfDocumentCache.uncached(entry);
+        assertFalse(entry.isClosed());
+        lease.close();
+        assertTrue(entry.isClosed());
+    }
+
+}
@@ -2,12 +2,22 @@ package edu.illinois.library.cantaloupe.processor;
 
 import edu.illinois.library.cantaloupe.image.Format;
 import edu.illinois.library.cantaloupe.image.Info;
+import edu.illinois.library.cantaloupe.image.Rectangle;
+import edu.illinois.library.cantaloupe.operation.Encode;
+import edu.illinois.library.cantaloupe.operation.OperationList;
+import edu.illinois.library.cantaloupe.operation.ReductionFactor;
+import edu.illinois.library.cantaloupe.operation.Rotate;
+import edu.illinois.library.cantaloupe.operation.ScaleByPixels;
 import edu.illinois.library.cantaloupe.resource.iiif.ProcessorFeature;
 import edu.illinois.library.cantaloupe.source.PathStreamFactory;
 import edu.illinois.library.cantaloupe.test.TestUtil;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.util.EnumSet;
 import java.util.Set;
 
@@ -37,6 +47,27 @@ public class TurboJpegProcessorTest extends AbstractProcessorTest {
         return proc;
     }
 
+    @Test
+    void testGetReducedROIWithNoReductionFactor() {
+        Rectangle roi = TurboJpegProcessor.getReducedROI(
+                new Rectangle(5, 3, 40, 30), new ReductionFactor(0), 64, 48);
+        assertEquals(new Rectangle(5, 3, 40, 30), roi);
+    }
+
+    @Test
+    void testGetReducedROIWithReductionFactor() {
+        Rectangle roi = TurboJpegProcessor.getReducedROI(
+                new Rectangle(8, 4, 40, 32), new ReductionFactor(2), 16, 12);
+        assertEquals(new Rectangle(2, 1, 10, 8), roi);
+    }
+
+    @Test
+    void testGetReducedROIClampsToImageBounds() {
+        Rectangle roi = TurboJpegProcessor.getReducedROI(
+                new Rectangle(8, 8, 60, 60), new ReductionFactor(1), 32, 32);
+        assertEquals(new Rectangle(4, 4, 28, 28), roi);
+    }
+
     @Test
     void testGetInitializationErrorWithNoException() {
         assertNull(instance.getInitializationError());
@@ -93,6 +124,57 @@ public class TurboJpegProcessorTest extends AbstractProcessorTest {
         // This processor doesn't support this output format.
     }
 
+    /**
+     * The fixture is transformable, so the rotation is done by the reader,
+     * before scaling.
+     */
+    private BufferedImage processWithRightAngleRotation(int degrees)
+            throws Exception {
+        OperationList ops = new OperationList(
+                new ScaleByPixels(32, 12, ScaleByPixels.Mode.NON_ASPECT_FILL),
+                new Rotate(degrees),
+                new Encode(Format.JPG));
+        Info info = Info.builder()
+                .withSize(64, 48)
+                .withFormat(Format.JPG)
+                .build();
+        instance.setSourceFile(TestUtil.getImage("jpg-rgb-64x48x8.jpg"));
+
+        try (ByteArrayOutputStream os = new ByteArrayOutputStream()) {
+            instance.process(ops, info, os);
+            return ImageIO.read(new ByteArrayInputStream(os.toByteArray()));
+        }
+    }
+
+    @Test
+    void testProcessWithRotate90DegreesAndScale() throws Exception {
+        BufferedImage image = processWithRightAngleRotation(90);
+        assertEquals(12, image.getWidth());
+        assertEquals(32, image.getHeight());
+    }
+
+    @Test
+    void testProcessWithRotate180DegreesAndScale() throws Exception {
+        BufferedImage image = processWithRightAngleRotation(180);
+        assertEquals(32, image.getWidth());
+        assertEquals(12, image.getHeight());
+    }
+
+    @Test
+    void testProcessWithRotate270DegreesAndScale() throws Exception {
+        BufferedImage image = processWithRightAngleRotation(270);
+        assertEquals(12, image.getWidth());
+        assertEquals(32, image.getHeight());
+    }
+
+    @Test
+    void testReadInfoWithSourceFile() throws Exception {
+        instance.setSourceFile(TestUtil.getImage("jpg-rgb-64x56x8-baseline.jpg"));
+        Info info = instance.readInfo();
+        assertEquals(64, info.getSize().intWidth());
+        assertEquals(56, info.getSize().intHeight());
+    }
+
     @Test
     void testReadInfoEXIFAwareness() throws Exception {
         instance.setStreamFactory(new PathStreamFactory(TestUtil.getImage("jpg-exif.jpg")));
@@ -0,0 +1,66 @@
+package edu.illinois.library.cantaloupe.processor.codec;
+
+import edu.illinois.library.cantaloupe.image.Dimension;
+import edu.illinois.library.cantaloupe.image.Rectangle;
+import edu.illinois.library.cantaloupe.test.BaseTest;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AbstractIIOImageReaderTest extends BaseTest {
+
+    private static final Dimension TILE_SIZE = new Dimension(16, 16);
+
+    /* splitRegion() */
+
+    @Test
+    void testSplitRegionWithRegionSpanningFewTiles() {
+        Rectangle region = new Rectangle(5, 5, 20, 8);
+        List<Rectangle> parts =
+                AbstractIIOImageReader.splitRegion(region, TILE_SIZE, 8);
+        assertEquals(List.of(region), parts);
+    }
+
+    @Test
+    void testSplitRegionWithMaxPartsLessThan2() {
+        Rectangle region = new Rectangle(0, 0, 64, 64);
+        List<Rectangle> parts =
+                AbstractIIOImageReader.splitRegion(region, TILE_SIZE, 1);
+        assertEquals(List.of(region), parts);
+    }
+
+    @Test
+    void testSplitRegionSplitsRows() {
+        Rectangle region = new Rectangle(5, 10, 40, 50); // 3 cols x 4 rows
+        List<Rectangle> parts =
+                AbstractIIOImageReader.splitRegion(region, TILE_SIZE, 8);
+        assertEquals(List.of(
+                new Rectangle(5, 10, 40, 6),
+                new Rectangle(5, 16, 40, 16),
+                new Rectangle(5, 32, 40, 16),
+                new Rectangle(5, 48, 40, 12)), parts);
+    }
+
+    @Test
+    void testSplitRegionSplitsColumns() {
+        Rectangle region = new Rectangle(0, 0, 64, 20); // 4 cols x 2 rows
+        List<Rectangle> parts =
+                AbstractIIOImageReader.splitRegion(region, TILE_SIZE, 2);
+        assertEquals(List.of(
+                new Rectangle(0, 0, 32, 20),
+                new Rectangle(32, 0, 32, 20)), parts);
+    }
+
+    @Test
+    void testSplitRegionRespectsMaxParts() {
+        Rectangle region = new Rectangle(0, 0, 16, 160); // 1 col x 10 rows
+        List<Rectangle> parts =
+                AbstractIIOImageReader.splitRegion(region, TILE_SIZE, 3);
+        assertEquals(3, parts.size());
+        assertEquals(new Rectangle(0, 0, 16, 64), parts.get(0));
+        assertEquals(new Rectangle(0, 128, 16, 32), parts.get(2));
+    }
+
+}
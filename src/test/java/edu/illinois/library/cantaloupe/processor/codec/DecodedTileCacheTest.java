@@ -0,0 +1,120 @@
+package edu.illinois.library.cantaloupe.processor.codec;
+
+import edu.illinois.library.cantaloupe.image.Identifier;
+import edu.illinois.library.cantaloupe.test.BaseTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.awt.image.BufferedImage;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DecodedTileCacheTest extends BaseTest {
+
+    private DecodedTileCache instance;
+
+    @BeforeEach
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        DecodedTileCache.clearInstance();
+        instance = new DecodedTileCache(64 * 64 * 4 * 10);
+    }
+
+    @Test
+    void testGetByteSize() {
+        assertEquals(64 * 64 * 4, DecodedTileCache.getByteSize(
+                new BufferedImage(64, 64, BufferedImage.TYPE_INT_ARGB)));
+        assertEquals(64 * 64 * 3, DecodedTileCache.getByteSize(
+                new BufferedImage(64, 64, BufferedImage.TYPE_3BYTE_BGR)));
+        assertEquals(64 * 64 * 2, DecodedTileCache.getByteSize(
+                new BufferedImage(64, 64, BufferedImage.TYPE_USHORT_GRAY)));
+    }
+
+    @Test
+    void testGetInstance() {
+        assertSame(DecodedTileCache.getInstance(),
+                DecodedTileCache.getInstance());
+    }
+
+    @Test
+    void testGetWithHit() {
+        Identifier identifier = new Identifier("cats");
+        BufferedImage tile = new BufferedImage(64, 64, BufferedImage.TYPE_INT_ARGB);
+        instance.put(identifier, "1/2", 1, 2, 3, tile);
+        assertSame(tile, instance.get(identifier, "1/2", 1, 2, 3));
+    }
+
+    @Test
+    void testGetWithMiss() {
+        Identifier identifier = new Identifier("cats");
+        BufferedImage tile = new BufferedImage(64, 64, BufferedImage.TYPE_INT_ARGB);
+        instance.put(identifier, "1/2", 1, 2, 3, tile);
+        assertNull(instance.get(new Identifier("dogs"), "1/2", 1, 2, 3));
+        assertNull(instance.get(identifier, "1/2", 0, 2, 3));
+        assertNull(instance.get(identifier, "1/2", 1, 3, 2));
+    }
+
+    @Test
+    void testGetWithChangedValidator() {
+        Identifier identifier = new Identifier("cats");
+        BufferedImage tile = new BufferedImage(64, 64, BufferedImage.TYPE_INT_ARGB);
+        instance.put(identifier, "1/2", 1, 2, 3, tile);
+        assertNull(instance.get(identifier, "1/3", 1, 2, 3));
+        assertNull(instance.get(identifier, null, 1, 2, 3));
+    }
+
+    @Test
+    void testGetWithExpiredTile() throws Exception {
+        instance = new DecodedTileCache(64 * 64 * 4 * 10, 1);
+        Identifier identifier = new Identifier("cats");
+        instance.put(identifier, null, 0, 0, 0,
+                new BufferedImage(64, 64, BufferedImage.TYPE_INT_ARGB));
+        assertNotNull(instance.get(identifier, null, 0, 0, 0));
+        Thread.sleep(1100);
+        assertNull(instance.get(identifier, null, 0, 0, 0));
+    }
+
+    @Test
+    void testPurge() {
+        Identifier identifier = new Identifier("cats");
+        instance.put(identifier, null, 0, 0, 0,
+                new BufferedImage(64, 64, BufferedImage.TYPE_INT_ARGB));
+        instance.purge();
+        assertNull(instance.get(identifier, null, 0, 0, 0));
+    }
+
+    @Test
+    void testPurgeWithIdentifier() {
+        Identifier cats = new Identifier("cats");
+        Identifier dogs = new Identifier("dogs");
+        instance.put(cats, null, 0, 0, 0,
+                new BufferedImage(64, 64, BufferedImage.TYPE_INT_ARGB));
+        instance.put(dogs, null, 0, 0, 0,
+                new BufferedImage(64, 64, BufferedImage.TYPE_INT_ARGB));
+        instance.purge(cats);
+        assertNull(instance.get(cats, null, 0, 0, 0));
+        assertNotNull(instance.get(dogs, null, 0, 0, 0));
+    }
+
+    @Test
+    void testSize() {
+        assertEquals(0, instance.size());
+        instance.put(new Identifier("cats"), null, 0, 0, 0,
+                new BufferedImage(64, 64, BufferedImage.TYPE_INT_ARGB));
+        instance.cleanUp();
+        assertEquals(64 * 64 * 4, instance.size());
+    }
+
+    @Test
+    void testSizeIsBoundedByMaxSize() {
+        for (int i = 0; i < 20; i++) {
+            instance.put(new Identifier("cats"), null, 0, i, 0,
+                    new BufferedImage(64, 64, BufferedImage.TYPE_INT_ARGB));
+        }
+        instance.cleanUp();
+        assertTrue(instance.size() > 0);
+        assertTrue(instance.size() <= instance.maxSize());
+    }
+
+}
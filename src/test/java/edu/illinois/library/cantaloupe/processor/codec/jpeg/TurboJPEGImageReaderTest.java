@@ -7,7 +7,6 @@ import edu.illinois.library.cantaloupe.test.TestUtil;
 import edu.illinois.library.cantaloupe.util.Rational;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
-import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 
 import java.awt.image.BufferedImage;
@@ -201,7 +200,6 @@ public class TurboJPEGImageReaderTest extends BaseTest {
     }
 
     @Test
-    @Disabled // rotation doesn't work yet
     public void testReadWithRotate90() throws Exception {
         instance.close();
 
@@ -217,7 +215,6 @@ public class TurboJPEGImageReaderTest extends BaseTest {
     }
 
     @Test
-    @Disabled // rotation doesn't work yet
     public void testReadWithRotate180() throws Exception {
         instance.close();
 
@@ -233,7 +230,6 @@ public class TurboJPEGImageReaderTest extends BaseTest {
     }
 
     @Test
-    @Disabled // rotation doesn't work yet
     public void testReadWithRotate270() throws Exception {
         instance.close();
 
@@ -286,6 +282,18 @@ public class TurboJPEGImageReaderTest extends BaseTest {
         assertEquals(30, roiWithinImage.intHeight());
     }
 
+    @Test
+    public void testReadAsBufferedImageWithPathSource() throws Exception {
+        instance.close();
+
+        instance = new TurboJPEGImageReader();
+        instance.setSource(TestUtil.getImage("jpg-rgb-128x96x8.jpg"));
+
+        BufferedImage image = instance.readAsBufferedImage(new Rectangle());
+        assertEquals(128, image.getWidth());
+        assertEquals(96, image.getHeight());
+    }
+
     @Test
     public void testReadAsBufferedImageWithSupportedScale() throws Exception {
         instance.setScale(new Rational(1, 4));
@@ -297,7 +305,6 @@ public class TurboJPEGImageReaderTest extends BaseTest {
     }
 
     @Test
-    @Disabled // rotation doesn't work yet
     public void testReadAsBufferedImageWithRotate90() throws Exception {
         instance.close();
 
@@ -314,7 +321,6 @@ public class TurboJPEGImageReaderTest extends BaseTest {
     }
 
     @Test
-    @Disabled // rotation doesn't work yet
     void testReadAsBufferedImageWithRotate180() throws Exception {
         instance.close();
 
@@ -331,7 +337,6 @@ public class TurboJPEGImageReaderTest extends BaseTest {
     }
 
     @Test
-    @Disabled // rotation doesn't work yet
     public void testReadAsBufferedImageWithRotate270() throws Exception {
         instance.close();
 
@@ -1,14 +1,30 @@
 package edu.illinois.library.cantaloupe.processor.codec.tiff;
 
 import edu.illinois.library.cantaloupe.config.Configuration;
+import edu.illinois.library.cantaloupe.config.Key;
+import edu.illinois.library.cantaloupe.http.Range;
+import edu.illinois.library.cantaloupe.http.Response;
 import edu.illinois.library.cantaloupe.image.Compression;
 import edu.illinois.library.cantaloupe.image.Dimension;
+import edu.illinois.library.cantaloupe.image.Identifier;
+import edu.illinois.library.cantaloupe.image.Rectangle;
+import edu.illinois.library.cantaloupe.image.ScaleConstraint;
+import edu.illinois.library.cantaloupe.operation.CropByPixels;
+import edu.illinois.library.cantaloupe.operation.ReductionFactor;
+import edu.illinois.library.cantaloupe.operation.ScaleByPercent;
 import edu.illinois.library.cantaloupe.processor.codec.AbstractImageReaderTest;
+import edu.illinois.library.cantaloupe.processor.codec.ReaderHint;
+import edu.illinois.library.cantaloupe.source.stream.HTTPImageInputStream;
+import edu.illinois.library.cantaloupe.source.stream.HTTPImageInputStreamClient;
 import edu.illinois.library.cantaloupe.test.TestUtil;
 import org.junit.jupiter.api.Test;
 
+import java.awt.image.BufferedImage;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.EnumSet;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -148,6 +164,146 @@ public class TIFFImageReaderTest extends AbstractImageReaderTest {
         assertEquals(new Dimension(16, 16), instance.getTileSize(0));
     }
 
+    /* getByteRanges() */
+
+    @Test
+    void testGetByteRangesWithTiledImage() throws Exception {
+        TIFFImageReader reader = (TIFFImageReader) instance;
+        assertEquals(1, reader.getByteRanges(0, new Rectangle(0, 0, 1, 1)).size());
+        assertEquals(1, reader.getByteRanges(0, new Rectangle(20, 20, 10, 10)).size());
+        assertEquals(4, reader.getByteRanges(0, new Rectangle(10, 10, 20, 20)).size());
+        assertEquals(16, reader.getByteRanges(0, new Rectangle(0, 0, 64, 56)).size());
+    }
+
+    @Test
+    void testGetByteRangesReturnsValidRanges() throws Exception {
+        TIFFImageReader reader = (TIFFImageReader) instance;
+        final long length = Files.size(getSupportedFixture());
+        List<Range> ranges = reader.getByteRanges(0, new Rectangle(0, 0, 64, 56));
+        for (Range range : ranges) {
+            assertTrue(range.start > 0);
+            assertTrue(range.end >= range.start);
+            assertTrue(range.end < length);
+        }
+    }
+
+    @Test
+    void testGetByteRangesWithStripedImage() throws Exception {
+        instance.dispose();
+        instance = new TIFFImageReader();
+        instance.setSource(TestUtil.getImage("tif-rgb-1res-64x56x8-striped-uncompressed.tif"));
+        TIFFImageReader reader = (TIFFImageReader) instance;
+        List<Range> fullRanges =
+                reader.getByteRanges(0, new Rectangle(0, 0, 64, 56));
+        List<Range> topRanges =
+                reader.getByteRanges(0, new Rectangle(0, 0, 64, 1));
+        assertFalse(fullRanges.isEmpty());
+        assertEquals(1, topRanges.size());
+        assertEquals(fullRanges.get(0).start, topRanges.get(0).start);
+    }
+
+    @Test
+    void testReadWithParallelDecoding() throws Exception {
+        final CropByPixels crop = new CropByPixels(5, 5, 50, 40);
+        final BufferedImage expected = instance.read(crop,
+                new ScaleByPercent(), new ScaleConstraint(1, 1),
+                new ReductionFactor(), EnumSet.noneOf(ReaderHint.class));
+
+        Configuration.getInstance().setProperty(
+                Key.PROCESSOR_TIF_PARALLEL_DECODING, true);
+        instance.dispose();
+        instance = newInstance();
+        final BufferedImage actual = instance.read(crop,
+                new ScaleByPercent(), new ScaleConstraint(1, 1),
+                new ReductionFactor(), EnumSet.noneOf(ReaderHint.class));
+
+        assertEquals(expected.getWidth(), actual.getWidth());
+        assertEquals(expected.getHeight(), actual.getHeight());
+        for (int y = 0; y < expected.getHeight(); y++) {
+            for (int x = 0; x < expected.getWidth(); x++) {
+                assertEquals(expected.getRGB(x, y), actual.getRGB(x, y));
+            }
+        }
+    }
+
+    @Test
+    void testReadWithDecodedTileCache() throws Exception {
+        final CropByPixels crop = new CropByPixels(5, 5, 50, 40);
+        final BufferedImage expected = instance.read(crop,
+                new ScaleByPercent(), new ScaleConstraint(1, 1),
+                new ReductionFactor(), EnumSet.noneOf(ReaderHint.class));
+
+        Configuration.getInstance().setProperty(
+                Key.PROCESSOR_TILE_CACHE_ENABLED, true);
+        // Read twice: once to populate the cache and once to read from it.
+        for (int i = 0; i < 2; i++) {
+            instance.dispose();
+            instance = newInstance();
+            instance.setIdentifier(new Identifier(
+                    "testReadWithDecodedTileCache"));
+            final BufferedImage actual = instance.read(crop,
+                    new ScaleByPercent(), new ScaleConstraint(1, 1),
+                    new ReductionFactor(), EnumSet.noneOf(ReaderHint.class));
+            assertEquals(expected.getWidth(), actual.getWidth());
+            assertEquals(expected.getHeight(), actual.getHeight());
+            for (int y = 0; y < expected.getHeight(); y++) {
+                for (int x = 0; x < expected.getWidth(); x++) {
+                    assertEquals(expected.getRGB(x, y), actual.getRGB(x, y));
+                }
+            }
+        }
+    }
+
+    @Test
+    void testReadWithFailedPrefetch() throws Exception {
+        final CropByPixels crop = new CropByPixels(5, 5, 50, 40);
+        final BufferedImage expected = instance.read(crop,
+                new ScaleByPercent(), new ScaleConstraint(1, 1),
+                new ReductionFactor(), EnumSet.noneOf(ReaderHint.class));
+
+        // Client whose batch requests fail, but whose single requests succeed
+        final byte[] data = Files.readAllBytes(getSupportedFixture());
+        final HTTPImageInputStreamClient client = new HTTPImageInputStreamClient() {
+            @Override
+            public Response sendHEADRequest() {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public Response sendGETRequest(Range range) {
+                byte[] body = new byte[(int) (range.end - range.start + 1)];
+                System.arraycopy(data, (int) range.start, body, 0, body.length);
+                Response response = new Response();
+                response.setStatus(206);
+                response.setBody(body);
+                return response;
+            }
+
+            @Override
+            public List<Response> sendGETRequests(List<Range> ranges)
+                    throws IOException {
+                throw new IOException("Batch request failed");
+            }
+        };
+        final HTTPImageInputStream stream =
+                new HTTPImageInputStream(client, data.length);
+        stream.setWindowSize(1024);
+        instance.dispose();
+        instance = new TIFFImageReader();
+        instance.setSource(stream);
+
+        final BufferedImage actual = instance.read(crop,
+                new ScaleByPercent(), new ScaleConstraint(1, 1),
+                new ReductionFactor(), EnumSet.noneOf(ReaderHint.class));
+        assertEquals(expected.getWidth(), actual.getWidth());
+        assertEquals(expected.getHeight(), actual.getHeight());
+        for (int y = 0; y < expected.getHeight(); y++) {
+            for (int x = 0; x < expected.getWidth(); x++) {
+                assertEquals(expected.getRGB(x, y), actual.getRGB(x, y));
+            }
+        }
+    }
+
     @Test
     public void testReadWithMultiResolutionImage() {
         // TODO: write this
@@ -0,0 +1,295 @@
+package edu.illinois.library.cantaloupe.processor.resample;
+
+import edu.illinois.library.cantaloupe.test.BaseTest;
+import org.junit.jupiter.api.Test;
+
+import java.awt.Graphics2D;
+import java.awt.Transparency;
+import java.awt.color.ColorSpace;
+import java.awt.image.BufferedImage;
+import java.awt.image.ColorModel;
+import java.awt.image.ComponentColorModel;
+import java.awt.image.DataBuffer;
+import java.awt.image.WritableRaster;
+import java.util.Arrays;
+import java.util.Random;
+
+import static edu.illinois.library.cantaloupe.test.Assert.ImageAssert.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ResampleOpTest extends BaseTest {
+
+    private static BufferedImage newImage(int width, int height, int type) {
+        final BufferedImage image = new BufferedImage(width, height, type);
+        final Random random = new Random(0);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                image.setRGB(x, y, random.nextInt());
+            }
+        }
+        return image;
+    }
+
+    private static BufferedImage newSolidImage(int width, int height,
+                                               int type, int argb) {
+        final BufferedImage image = new BufferedImage(width, height, type);
+        final Graphics2D g2d = image.createGraphics();
+        g2d.setColor(new java.awt.Color(argb, true));
+        g2d.fillRect(0, 0, width, height);
+        g2d.dispose();
+        return image;
+    }
+
+    /**
+     * @return Image with the given constant samples, with the same number of
+     *         bits and data type as in e.g. a 16-bit RGBA PNG.
+     */
+    private static BufferedImage newComponentImage(int width, int height,
+                                                   int dataType,
+                                                   float... samples) {
+        final ColorModel cm = new ComponentColorModel(
+                ColorSpace.getInstance(ColorSpace.CS_sRGB),
+                samples.length > 3, false,
+                (samples.length > 3) ?
+                        Transparency.TRANSLUCENT : Transparency.OPAQUE,
+                dataType);
+        final WritableRaster raster =
+                cm.createCompatibleWritableRaster(width, height);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                raster.setPixel(x, y, samples);
+            }
+        }
+        return new BufferedImage(cm, raster, false, null);
+    }
+
+    private static void assertSamePixels(BufferedImage expected,
+                                         BufferedImage actual) {
+        assertEquals(expected.getWidth(), actual.getWidth());
+        assertEquals(expected.getHeight(), actual.getHeight());
+        for (int y = 0; y < expected.getHeight(); y++) {
+            for (int x = 0; x < expected.getWidth(); x++) {
+                assertEquals(expected.getRGB(x, y), actual.getRGB(x, y),
+                        "Pixel at " + x + "," + y);
+            }
+        }
+    }
+
+    /* filter() */
+
+    @Test
+    void testFilterWithByteImage() {
+        BufferedImage inImage = newSolidImage(100, 80,
+                BufferedImage.TYPE_3BYTE_BGR, 0xff204080);
+        BufferedImage outImage = new ResampleOp(50, 40).filter(inImage, null);
+
+        assertEquals(50, outImage.getWidth());
+        assertEquals(40, outImage.getHeight());
+        assertEquals(BufferedImage.TYPE_3BYTE_BGR, outImage.getType());
+        assertRGBA(outImage.getRGB(25, 20), 0x20, 0x40, 0x80, 255);
+    }
+
+    @Test
+    void testFilterWithIntImage() {
+        BufferedImage inImage = newSolidImage(100, 80,
+                BufferedImage.TYPE_INT_ARGB, 0x80204080);
+        BufferedImage outImage = new ResampleOp(50, 40).filter(inImage, null);
+
+        assertEquals(BufferedImage.TYPE_4BYTE_ABGR, outImage.getType());
+        assertRGBA(outImage.getRGB(25, 20), 0x20, 0x40, 0x80, 0x80);
+    }
+
+    @Test
+    void testFilterWithGrayImage() {
+        BufferedImage inImage = newSolidImage(100, 80,
+                BufferedImage.TYPE_BYTE_GRAY, 0xff808080);
+        int expected = inImage.getRGB(0, 0);
+        BufferedImage outImage = new ResampleOp(50, 40).filter(inImage, null);
+
+        assertEquals(BufferedImage.TYPE_BYTE_GRAY, outImage.getType());
+        assertEquals(expected, outImage.getRGB(25, 20));
+    }
+
+    @Test
+    void testFilterWithUShortGrayImage() {
+        BufferedImage inImage = new BufferedImage(100, 80,
+                BufferedImage.TYPE_USHORT_GRAY);
+        int[] samples = new int[100 * 80];
+        Arrays.fill(samples, 1001); // not representable in 8 bits
+        inImage.getRaster().setPixels(0, 0, 100, 80, samples);
+
+        BufferedImage outImage = new ResampleOp(50, 40).filter(inImage, null);
+
+        assertEquals(50, outImage.getWidth());
+        assertEquals(40, outImage.getHeight());
+        assertEquals(BufferedImage.TYPE_USHORT_GRAY, outImage.getType());
+        assertEquals(1001, outImage.getRaster().getSample(25, 20, 0));
+    }
+
+    @Test
+    void testFilterWith16BitRGBAImage() {
+        BufferedImage inImage = newComponentImage(100, 80,
+                DataBuffer.TYPE_USHORT, 1001, 30000, 65535, 32769);
+
+        BufferedImage outImage = new ResampleOp(50, 40).filter(inImage, null);
+
+        assertEquals(50, outImage.getWidth());
+        assertEquals(40, outImage.getHeight());
+        assertEquals(inImage.getColorModel(), outImage.getColorModel());
+        assertArrayEquals(new int[] { 1001, 30000, 65535, 32769 },
+                outImage.getRaster().getPixel(25, 20, (int[]) null));
+    }
+
+    @Test
+    void testFilterWithFloatImage() {
+        BufferedImage inImage = newComponentImage(100, 80,
+                DataBuffer.TYPE_FLOAT, 0.1f, 0.5f, 1f);
+
+        BufferedImage outImage = new ResampleOp(150, 120).filter(inImage, null);
+
+        assertEquals(DataBuffer.TYPE_FLOAT,
+                outImage.getRaster().getDataBuffer().getDataType());
+        assertArrayEquals(new float[] { 0.1f, 0.5f, 1f },
+                outImage.getRaster().getPixel(75, 60, (float[]) null),
+                0.0001f);
+    }
+
+    @Test
+    void testFilterWith16BitImageMatches8BitImage() {
+        // The 16-bit image is the 8-bit one with each sample multiplied by
+        // 257, so the results should differ only by rounding. (They are
+        // gradients, as the 8-bit path also clamps in between its passes,
+        // which makes a difference at sharp edges.)
+        BufferedImage byteImage = new BufferedImage(100, 80,
+                BufferedImage.TYPE_3BYTE_BGR);
+        BufferedImage ushortImage = newComponentImage(100, 80,
+                DataBuffer.TYPE_USHORT, 0, 0, 0);
+        for (int y = 0; y < 80; y++) {
+            for (int x = 0; x < 100; x++) {
+                // 3BYTE_BGR rasters' bands are in RGB order
+                int[] pixel = { x * 2, y * 3, (x + y) % 256 };
+                byteImage.getRaster().setPixel(x, y, pixel);
+                for (int b = 0; b < 3; b++) {
+                    pixel[b] *= 257;
+                }
+                ushortImage.getRaster().setPixel(x, y, pixel);
+            }
+        }
+
+        BufferedImage byteResult = new ResampleOp(50, 40).filter(byteImage, null);
+        BufferedImage ushortResult = new ResampleOp(50, 40).filter(ushortImage, null);
+
+        for (int y = 0; y < 40; y++) {
+            for (int x = 0; x < 50; x++) {
+                for (int b = 0; b < 3; b++) {
+                    int expected = byteResult.getRaster().getSample(x, y, b);
+                    int actual = ushortResult.getRaster().getSample(x, y, b) / 257;
+                    assertTrue(Math.abs(expected - actual) <= 1,
+                            "Sample " + b + " at " + x + "," + y);
+                }
+            }
+        }
+    }
+
+    @Test
+    void testFilterWithFixedPointKernel() {
+        for (int type : new int[] { BufferedImage.TYPE_3BYTE_BGR,
+                BufferedImage.TYPE_4BYTE_ABGR, BufferedImage.TYPE_INT_RGB,
+                BufferedImage.TYPE_BYTE_GRAY }) {
+            BufferedImage inImage = new BufferedImage(100, 80, type);
+            for (int y = 0; y < 80; y++) {
+                for (int x = 0; x < 100; x++) {
+                    inImage.setRGB(x, y, 0x80000000 | (x * 2) << 16 |
+                            (y * 3) << 8 | (x + y));
+                }
+            }
+            for (int[] size : new int[][] { { 50, 40 }, { 250, 190 } }) {
+                ResampleOp floatOp = new ResampleOp(size[0], size[1]);
+                BufferedImage expected = floatOp.filter(inImage, null);
+
+                ResampleOp fixedPointOp = new ResampleOp(size[0], size[1]);
+                fixedPointOp.setKernel(ResampleOp.Kernel.FIXED_POINT);
+                BufferedImage outImage = fixedPointOp.filter(inImage, null);
+
+                assertEquals(expected.getType(), outImage.getType());
+                WritableRaster expectedRaster = expected.getRaster();
+                WritableRaster outRaster = outImage.getRaster();
+                for (int y = 0; y < size[1]; y++) {
+                    for (int x = 0; x < size[0]; x++) {
+                        for (int b = 0; b < outRaster.getNumBands(); b++) {
+                            int diff = expectedRaster.getSample(x, y, b) -
+                                    outRaster.getSample(x, y, b);
+                            assertTrue(Math.abs(diff) <= 1,
+                                    "Sample " + b + " at " + x + "," + y);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void testFilterWithFixedPointKernelPreservesFlatRegions() {
+        BufferedImage inImage = newSolidImage(100, 80,
+                BufferedImage.TYPE_INT_ARGB, 0x80204080);
+        ResampleOp op = new ResampleOp(33, 27);
+        op.setKernel(ResampleOp.Kernel.FIXED_POINT);
+        BufferedImage outImage = op.filter(inImage, null);
+
+        for (int y = 0; y < 27; y++) {
+            for (int x = 0; x < 33; x++) {
+                assertRGBA(outImage.getRGB(x, y), 0x20, 0x40, 0x80, 0x80);
+            }
+        }
+    }
+
+    @Test
+    void testFilterWithDestinationImage() {
+        BufferedImage inImage = newImage(100, 80, BufferedImage.TYPE_3BYTE_BGR);
+        BufferedImage expected = new ResampleOp(50, 40).filter(inImage, null);
+
+        BufferedImage destImage = new BufferedImage(50, 40,
+                BufferedImage.TYPE_3BYTE_BGR);
+        BufferedImage outImage =
+                new ResampleOp(50, 40).filter(inImage, destImage);
+
+        assertSame(destImage, outImage);
+        assertSamePixels(expected, outImage);
+    }
+
+    @Test
+    void testFilterWithSubimageDestinationImage() {
+        BufferedImage inImage = newImage(100, 80, BufferedImage.TYPE_3BYTE_BGR);
+        BufferedImage expected = new ResampleOp(50, 40).filter(inImage, null);
+
+        BufferedImage parentImage = newSolidImage(70, 60,
+                BufferedImage.TYPE_3BYTE_BGR, 0xffff0000);
+        BufferedImage destImage = parentImage.getSubimage(10, 15, 50, 40);
+        new ResampleOp(50, 40).filter(inImage, destImage);
+
+        assertSamePixels(expected, destImage);
+        // Pixels outside of the subimage are untouched.
+        assertRGBA(parentImage.getRGB(9, 15), 255, 0, 0, 255);
+        assertRGBA(parentImage.getRGB(60, 54), 255, 0, 0, 255);
+        assertRGBA(parentImage.getRGB(10, 55), 255, 0, 0, 255);
+    }
+
+    @Test
+    void testFilterIsRepeatable() {
+        // Interleave invocations of different sizes so that buffers and
+        // sub-sampling data are reused across them.
+        BufferedImage largeImage = newImage(300, 200,
+                BufferedImage.TYPE_4BYTE_ABGR);
+        BufferedImage smallImage = newImage(60, 50,
+                BufferedImage.TYPE_4BYTE_ABGR);
+
+        BufferedImage large1 = new ResampleOp(150, 100).filter(largeImage, null);
+        BufferedImage small1 = new ResampleOp(30, 25).filter(smallImage, null);
+        BufferedImage large2 = new ResampleOp(150, 100).filter(largeImage, null);
+        BufferedImage small2 = new ResampleOp(30, 25).filter(smallImage, null);
+
+        assertSamePixels(large1, large2);
+        assertSamePixels(small1, small2);
+    }
+
+}
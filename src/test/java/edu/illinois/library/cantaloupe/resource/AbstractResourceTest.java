@@ -12,6 +12,7 @@ import org.junit.jupiter.api.Test;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Map;
 
@@ -235,4 +236,65 @@ public class AbstractResourceTest extends BaseTest {
         assertNull(disposition);
     }
 
+    @Test
+    void testIsMatchingEntityTagWithMatchingTag() {
+        assertTrue(AbstractResource.isMatchingEntityTag("\"abc\"", "\"abc\""));
+    }
+
+    @Test
+    void testIsMatchingEntityTagWithNonMatchingTag() {
+        assertFalse(AbstractResource.isMatchingEntityTag("\"abc\"", "\"def\""));
+    }
+
+    @Test
+    void testIsMatchingEntityTagWithAsterisk() {
+        assertTrue(AbstractResource.isMatchingEntityTag("*", "\"abc\""));
+    }
+
+    @Test
+    void testIsMatchingEntityTagWithWeakTag() {
+        assertTrue(AbstractResource.isMatchingEntityTag("W/\"abc\"", "\"abc\""));
+    }
+
+    @Test
+    void testIsMatchingEntityTagWithList() {
+        assertTrue(AbstractResource.isMatchingEntityTag(
+                "\"def\", \"abc\"", "\"abc\""));
+        assertFalse(AbstractResource.isMatchingEntityTag(
+                "\"def\", \"ghi\"", "\"abc\""));
+    }
+
+    @Test
+    void testIsModifiedSinceWithEarlierDate() {
+        assertTrue(AbstractResource.isModifiedSince(
+                "Sat, 17 Oct 2026 12:00:00 GMT",
+                Instant.parse("2026-10-17T12:00:01Z")));
+    }
+
+    @Test
+    void testIsModifiedSinceWithSameDate() {
+        assertFalse(AbstractResource.isModifiedSince(
+                "Sat, 17 Oct 2026 12:00:00 GMT",
+                Instant.parse("2026-10-17T12:00:00.500Z")));
+    }
+
+    @Test
+    void testIsModifiedSinceWithLaterDate() {
+        assertFalse(AbstractResource.isModifiedSince(
+                "Sun, 18 Oct 2026 12:00:00 GMT",
+                Instant.parse("2026-10-17T12:00:00Z")));
+    }
+
+    @Test
+    void testIsModifiedSinceWithInvalidDate() {
+        assertTrue(AbstractResource.isModifiedSince(
+                "cats", Instant.parse("2026-10-17T12:00:00Z")));
+    }
+
+    @Test
+    void testToHTTPDate() {
+        assertEquals("Fri, 02 Oct 2026 09:05:03 GMT",
+                AbstractResource.toHTTPDate(Instant.parse("2026-10-02T09:05:03.250Z")));
+    }
+
 }
@@ -0,0 +1,199 @@
+package edu.illinois.library.cantaloupe.resource;
+
+import edu.illinois.library.cantaloupe.config.Configuration;
+import edu.illinois.library.cantaloupe.config.Key;
+import edu.illinois.library.cantaloupe.http.Status;
+import edu.illinois.library.cantaloupe.image.Dimension;
+import edu.illinois.library.cantaloupe.image.Format;
+import edu.illinois.library.cantaloupe.image.Identifier;
+import edu.illinois.library.cantaloupe.image.Info;
+import edu.illinois.library.cantaloupe.operation.CropByPixels;
+import edu.illinois.library.cantaloupe.operation.Encode;
+import edu.illinois.library.cantaloupe.operation.OperationList;
+import edu.illinois.library.cantaloupe.operation.ScaleByPercent;
+import edu.illinois.library.cantaloupe.test.BaseTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AdmissionControllerTest extends BaseTest {
+
+    private static final Dimension FULL_SIZE = new Dimension(1000, 1000);
+
+    private AdmissionController instance;
+
+    private static Info newInfo(int numResolutions) {
+        return Info.builder()
+                .withSize(FULL_SIZE)
+                .withFormat(Format.TIF)
+                .withNumResolutions(numResolutions)
+                .build();
+    }
+
+    private CompletableFuture<AdmissionController.Permit> acquireAsync(long cost) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return instance.acquire(cost);
+            } catch (ServiceUnavailableException e) {
+                throw new RuntimeException(e);
+            }
+        });
+    }
+
+    @BeforeEach
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        AdmissionController.clearInstance();
+        instance = new AdmissionController(100, 1000);
+    }
+
+    /* estimateCost() */
+
+    @Test
+    void testEstimateCostWithFullImage() {
+        OperationList opList = new OperationList(
+                new Identifier("cats"), new Encode(Format.JPG));
+        // 1000x1000 decoded + 1000x1000 resulting
+        assertEquals(2000000 * AdmissionController.BYTES_PER_PIXEL,
+                AdmissionController.estimateCost(newInfo(1), opList, FULL_SIZE));
+    }
+
+    @Test
+    void testEstimateCostWithCrop() {
+        OperationList opList = new OperationList(new Identifier("cats"),
+                new CropByPixels(0, 0, 100, 100), new Encode(Format.JPG));
+        // 100x100 decoded + 100x100 resulting
+        assertEquals(20000 * AdmissionController.BYTES_PER_PIXEL,
+                AdmissionController.estimateCost(newInfo(1), opList, FULL_SIZE));
+    }
+
+    @Test
+    void testEstimateCostWithScaleAndMultipleResolutions() {
+        OperationList opList = new OperationList(new Identifier("cats"),
+                new ScaleByPercent(0.25), new Encode(Format.JPG));
+        // 250x250 decoded + 250x250 resulting
+        assertEquals(125000 * AdmissionController.BYTES_PER_PIXEL,
+                AdmissionController.estimateCost(newInfo(3), opList, FULL_SIZE));
+    }
+
+    @Test
+    void testEstimateCostWithScaleAndSingleResolution() {
+        OperationList opList = new OperationList(new Identifier("cats"),
+                new ScaleByPercent(0.25), new Encode(Format.JPG));
+        // 1000x1000 decoded + 250x250 resulting
+        assertEquals(1062500 * AdmissionController.BYTES_PER_PIXEL,
+                AdmissionController.estimateCost(newInfo(1), opList, FULL_SIZE));
+    }
+
+    /* acquire() */
+
+    @Test
+    void testAcquireWithinBudget() throws Exception {
+        try (AdmissionController.Permit permit = instance.acquire(60)) {
+            assertEquals(60, permit.getCost());
+            assertEquals(60, instance.getCostInUse());
+        }
+        assertEquals(0, instance.getCostInUse());
+        assertEquals(1, instance.getNumAdmitted());
+        assertEquals(0, instance.getNumQueued());
+    }
+
+    @Test
+    void testAcquireWithCostGreaterThanBudget() throws Exception {
+        try (AdmissionController.Permit permit = instance.acquire(1000)) {
+            assertEquals(100, permit.getCost());
+        }
+    }
+
+    @Test
+    void testAcquireWaitsForRelease() throws Exception {
+        AdmissionController.Permit permit1 = instance.acquire(60);
+        CompletableFuture<AdmissionController.Permit> future = acquireAsync(60);
+        Thread.sleep(50);
+        assertFalse(future.isDone());
+        assertEquals(1, instance.getNumWaiting());
+
+        permit1.close();
+        try (AdmissionController.Permit permit2 = future.get(1, TimeUnit.SECONDS)) {
+            assertEquals(60, instance.getCostInUse());
+        }
+        assertEquals(1, instance.getNumQueued());
+    }
+
+    @Test
+    void testAcquireIsFirstInFirstOut() throws Exception {
+        AdmissionController.Permit permit = instance.acquire(50);
+        CompletableFuture<AdmissionController.Permit> big = acquireAsync(80);
+        Thread.sleep(50);
+        // This one would fit, but must not jump ahead of the big one.
+        CompletableFuture<AdmissionController.Permit> small = acquireAsync(10);
+        Thread.sleep(50);
+        assertFalse(small.isDone());
+        assertEquals(2, instance.getNumWaiting());
+
+        permit.close();
+        big.get(1, TimeUnit.SECONDS).close();
+        small.get(1, TimeUnit.SECONDS).close();
+        assertEquals(0, instance.getCostInUse());
+    }
+
+    @Test
+    void testAcquireShedsAfterMaxWait() throws Exception {
+        instance = new AdmissionController(100, 50);
+        try (AdmissionController.Permit permit = instance.acquire(60)) {
+            ServiceUnavailableException e =
+                    assertThrows(ServiceUnavailableException.class,
+                            () -> instance.acquire(60));
+            assertEquals(Status.SERVICE_UNAVAILABLE, e.getStatus());
+            assertEquals(1, e.getRetryAfterSeconds());
+        }
+        assertEquals(1, instance.getNumShed());
+        assertEquals(0, instance.getNumWaiting());
+        assertEquals(0, instance.getCostInUse());
+    }
+
+    /* admit() */
+
+    @Test
+    void testAdmitWhenDisabled() throws Exception {
+        Configuration.getInstance().setProperty(
+                Key.ADMISSION_CONTROL_ENABLED, false);
+        OperationList opList = new OperationList(new Identifier("cats"),
+                new CropByPixels(0, 0, 100, 100), new Encode(Format.JPG));
+        try (AdmissionController.Permit permit =
+                     instance.admit(newInfo(1), opList, FULL_SIZE)) {
+            assertEquals(0, permit.getCost());
+        }
+    }
+
+    @Test
+    void testAdmitWhenEnabled() throws Exception {
+        Configuration.getInstance().setProperty(
+                Key.ADMISSION_CONTROL_ENABLED, true);
+        OperationList opList = new OperationList(new Identifier("cats"),
+                new CropByPixels(0, 0, 100, 100), new Encode(Format.JPG));
+        try (AdmissionController.Permit permit =
+                     instance.admit(newInfo(1), opList, FULL_SIZE)) {
+            // clamped to the budget
+            assertEquals(100, permit.getCost());
+        }
+    }
+
+    /* close() */
+
+    @Test
+    void testPermitCloseIsIdempotent() throws Exception {
+        AdmissionController.Permit permit1 = instance.acquire(40);
+        AdmissionController.Permit permit2 = instance.acquire(40);
+        permit1.close();
+        permit1.close();
+        assertEquals(40, instance.getCostInUse());
+        permit2.close();
+    }
+
+}
@@ -0,0 +1,155 @@
+package edu.illinois.library.cantaloupe.resource;
+
+import edu.illinois.library.cantaloupe.test.BaseTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FileSenderTest extends BaseTest {
+
+    private static final int FILE_LENGTH = 100;
+
+    private Path file;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @BeforeEach
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        final byte[] bytes = new byte[FILE_LENGTH];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) i;
+        }
+        file = Files.createTempFile(getClass().getSimpleName(), null);
+        Files.write(file, bytes);
+
+        request = new MockHttpServletRequest();
+        request.setMethod("GET");
+        response = new MockHttpServletResponse();
+        response.setContentType("image/jpeg");
+    }
+
+    @AfterEach
+    @Override
+    public void tearDown() throws Exception {
+        super.tearDown();
+        Files.deleteIfExists(file);
+    }
+
+    private void send() throws Exception {
+        try (FileChannel channel = FileChannel.open(file)) {
+            new FileSender(request, response, channel).send();
+        }
+    }
+
+    private void assertWholeFileSent() {
+        assertEquals(0, response.getStatus());
+        assertEquals(FILE_LENGTH, response.getContentLength());
+        assertEquals(FILE_LENGTH, response.getBody().length);
+        assertEquals("bytes", response.getHeader("Accept-Ranges"));
+        assertNull(response.getHeader("Content-Range"));
+    }
+
+    @Test
+    void testSendWithoutRange() throws Exception {
+        send();
+        assertWholeFileSent();
+    }
+
+    @Test
+    void testSendWithSingleRange() throws Exception {
+        request.setHeader("Range", "bytes=10-19");
+        send();
+
+        assertEquals(206, response.getStatus());
+        assertEquals("bytes 10-19/100", response.getHeader("Content-Range"));
+        assertEquals(10, response.getContentLength());
+        assertEquals("image/jpeg", response.getContentType());
+        byte[] expected = new byte[10];
+        for (int i = 0; i < expected.length; i++) {
+            expected[i] = (byte) (i + 10);
+        }
+        assertArrayEquals(expected, response.getBody());
+    }
+
+    @Test
+    void testSendWithMultipleRanges() throws Exception {
+        request.setHeader("Range", "bytes=0-1,-2");
+        send();
+
+        assertEquals(206, response.getStatus());
+        assertTrue(response.getContentType()
+                .startsWith("multipart/byteranges; boundary="));
+        assertEquals(response.getContentLength(), response.getBody().length);
+        final String body = new String(response.getBody(),
+                StandardCharsets.ISO_8859_1);
+        assertTrue(body.contains("Content-Type: image/jpeg\r\n"));
+        assertTrue(body.contains("Content-Range: bytes 0-1/100\r\n\r\n" +
+                (char) 0 + (char) 1 + "\r\n"));
+        assertTrue(body.contains("Content-Range: bytes 98-99/100\r\n\r\n" +
+                (char) 98 + (char) 99 + "\r\n"));
+        assertTrue(body.endsWith("--\r\n"));
+    }
+
+    @Test
+    void testSendWithTooManyRanges() throws Exception {
+        final String[] specs = new String[FileSender.MAX_RANGES + 1];
+        Arrays.setAll(specs, i -> i + "-" + i);
+        request.setHeader("Range", "bytes=" + String.join(",", specs));
+        send();
+        assertWholeFileSent();
+    }
+
+    @Test
+    void testSendWithUnsatisfiableRange() throws Exception {
+        request.setHeader("Range", "bytes=100-");
+        send();
+
+        assertEquals(416, response.getStatus());
+        assertEquals("bytes */100", response.getHeader("Content-Range"));
+        assertEquals(0, response.getBody().length);
+    }
+
+    @Test
+    void testSendWithInvalidRange() throws Exception {
+        request.setHeader("Range", "bytes=cats");
+        send();
+        assertWholeFileSent();
+    }
+
+    @Test
+    void testSendWithMatchingIfRange() throws Exception {
+        request.setHeader("Range", "bytes=10-19");
+        request.setHeader("If-Range", "\"abc\"");
+        response.setHeader("ETag", "\"abc\"");
+        send();
+        assertEquals(206, response.getStatus());
+    }
+
+    @Test
+    void testSendWithNonMatchingIfRange() throws Exception {
+        request.setHeader("Range", "bytes=10-19");
+        request.setHeader("If-Range", "\"abc\"");
+        response.setHeader("ETag", "\"def\"");
+        send();
+        assertWholeFileSent();
+    }
+
+    @Test
+    void testSendWithRangeInHEADRequest() throws Exception {
+        request.setMethod("HEAD");
+        request.setHeader("Range", "bytes=10-19");
+        send();
+        assertWholeFileSent();
+    }
+
+}
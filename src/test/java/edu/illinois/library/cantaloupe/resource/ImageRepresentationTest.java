@@ -0,0 +1,194 @@
+package edu.illinois.library.cantaloupe.resource;
+
+import edu.illinois.library.cantaloupe.cache.CacheFacade;
+import edu.illinois.library.cantaloupe.config.Configuration;
+import edu.illinois.library.cantaloupe.config.Key;
+import edu.illinois.library.cantaloupe.image.Dimension;
+import edu.illinois.library.cantaloupe.image.Format;
+import edu.illinois.library.cantaloupe.image.Identifier;
+import edu.illinois.library.cantaloupe.image.Info;
+import edu.illinois.library.cantaloupe.operation.Encode;
+import edu.illinois.library.cantaloupe.operation.OperationList;
+import edu.illinois.library.cantaloupe.processor.Cancellation;
+import edu.illinois.library.cantaloupe.processor.FileProcessor;
+import edu.illinois.library.cantaloupe.processor.MockFileProcessor;
+import edu.illinois.library.cantaloupe.processor.ProcessingCancelledException;
+import edu.illinois.library.cantaloupe.processor.ProcessorException;
+import edu.illinois.library.cantaloupe.test.BaseTest;
+import edu.illinois.library.cantaloupe.test.TestUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ImageRepresentationTest extends BaseTest {
+
+    private static final byte[] IMAGE = { 1, 2, 3 };
+
+    private Info info;
+
+    /**
+     * @param processLatch Latch that the processor awaits after writing
+     *                     {@link #IMAGE}, before returning.
+     */
+    private static FileProcessor newProcessor(CountDownLatch processLatch) {
+        final FileProcessor proc = new MockFileProcessor() {
+            @Override
+            public void process(OperationList opList,
+                                Info sourceInfo,
+                                OutputStream outputStream) throws ProcessorException {
+                try {
+                    outputStream.write(IMAGE);
+                    processLatch.await();
+                } catch (InterruptedException | IOException e) {
+                    throw new ProcessorException(e);
+                }
+            }
+        };
+        proc.setSourceFormat(Format.JPG);
+        proc.setSourceFile(TestUtil.getImage("jpg"));
+        return proc;
+    }
+
+    @BeforeEach
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        final Configuration config = Configuration.getInstance();
+        config.setProperty(Key.DERIVATIVE_CACHE_ENABLED, true);
+        config.setProperty(Key.DERIVATIVE_CACHE, "HeapCache");
+
+        info = Info.builder()
+                .withSize(new Dimension(100, 100))
+                .withFormat(Format.JPG)
+                .build();
+    }
+
+    /* write() */
+
+    @Test
+    void testWriteWritesGeneratedDerivativeToResponseWhileGeneratingIt()
+            throws Exception {
+        final CountDownLatch processLatch = new CountDownLatch(1);
+        final CountDownLatch writeLatch   = new CountDownLatch(1);
+        final OperationList opList = new OperationList(
+                new Identifier("testWriteWritesGeneratedDerivativeToResponseWhileGeneratingIt"),
+                new Encode(Format.PNG));
+        final ByteArrayOutputStream os = new ByteArrayOutputStream() {
+            @Override
+            public synchronized void write(byte[] b, int off, int len) {
+                super.write(b, off, len);
+                writeLatch.countDown();
+            }
+        };
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final Future<?> future = executor.submit(() -> {
+                new ImageRepresentation(info, newProcessor(processLatch),
+                        opList, false).write(os);
+                return null;
+            });
+            // The output is written before the processor has returned.
+            assertTrue(writeLatch.await(5, TimeUnit.SECONDS));
+            processLatch.countDown();
+            future.get();
+            assertArrayEquals(IMAGE, os.toByteArray());
+        } finally {
+            processLatch.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testWriteCoalescesIdenticalRequests() throws Exception {
+        final long initialCount = ImageRepresentation.getNumCoalescedRequests();
+        final CountDownLatch processLatch = new CountDownLatch(1);
+        final FileProcessor proc = newProcessor(processLatch);
+        final OperationList opList = new OperationList(
+                new Identifier("testWriteCoalescesIdenticalRequests"),
+                new Encode(Format.PNG));
+
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final List<Future<byte[]>> futures = new ArrayList<>();
+            for (int i = 0; i < 2; i++) {
+                futures.add(executor.submit(() -> {
+                    ByteArrayOutputStream os = new ByteArrayOutputStream();
+                    new ImageRepresentation(info, proc, opList, false).write(os);
+                    return os.toByteArray();
+                }));
+            }
+            // Wait for the second request to start waiting on the first.
+            for (int i = 0; i < 500 && ImageRepresentation
+                    .getNumCoalescedRequests() == initialCount; i++) {
+                Thread.sleep(10);
+            }
+            assertEquals(1, ImageRepresentation.getNumDerivativesInFlight());
+            processLatch.countDown();
+
+            for (Future<byte[]> future : futures) {
+                assertArrayEquals(IMAGE, future.get());
+            }
+            assertEquals(initialCount + 1,
+                    ImageRepresentation.getNumCoalescedRequests());
+            assertEquals(0, ImageRepresentation.getNumDerivativesInFlight());
+        } finally {
+            processLatch.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testWriteWithDisconnectedClientAbandonsTheImage() throws Exception {
+        final AtomicInteger numProcessed = new AtomicInteger();
+        final FileProcessor proc = new MockFileProcessor() {
+            @Override
+            public void process(OperationList opList,
+                                Info sourceInfo,
+                                OutputStream outputStream) throws ProcessorException {
+                numProcessed.incrementAndGet();
+                try {
+                    outputStream.write(IMAGE);
+                } catch (IOException e) {
+                    throw new ProcessorException(e);
+                }
+            }
+        };
+        proc.setSourceFormat(Format.JPG);
+        proc.setSourceFile(TestUtil.getImage("jpg"));
+        final OperationList opList = new OperationList(
+                new Identifier("testWriteWithDisconnectedClientAbandonsTheImage"),
+                new Encode(Format.PNG));
+        final OutputStream os = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+        };
+
+        final long numCancelled = Cancellation.getNumCancelled();
+        assertThrows(ProcessingCancelledException.class, () ->
+                new ImageRepresentation(info, proc, opList, false).write(os));
+        // The image was neither processed again nor cached.
+        assertEquals(1, numProcessed.get());
+        try (InputStream is =
+                     new CacheFacade().newDerivativeImageInputStream(opList)) {
+            assertNull(is);
+        }
+        assertEquals(numCancelled + 1, Cancellation.getNumCancelled());
+    }
+
+}
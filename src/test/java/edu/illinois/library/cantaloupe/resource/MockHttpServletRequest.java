@@ -17,12 +17,14 @@ import java.io.BufferedReader;
 import java.security.Principal;
 import java.util.Collection;
 import java.util.Enumeration;
+import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
 
 public class MockHttpServletRequest implements HttpServletRequest {
 
-    private String contextPath, requestURL = "";
+    private final Map<String,String> headers = new HashMap<>();
+    private String contextPath, method, requestURL = "";
 
     @Override
     public boolean authenticate(HttpServletResponse httpServletResponse) {
@@ -96,7 +98,7 @@ public class MockHttpServletRequest implements HttpServletRequest {
 
     @Override
     public String getHeader(String s) {
-        return null;
+        return headers.get(s);
     }
 
     @Override
@@ -146,7 +148,7 @@ public class MockHttpServletRequest implements HttpServletRequest {
 
     @Override
     public String getMethod() {
-        return null;
+        return method;
     }
 
     @Override
@@ -353,6 +355,14 @@ public class MockHttpServletRequest implements HttpServletRequest {
         this.contextPath = contextPath;
     }
 
+    public void setHeader(String name, String value) {
+        headers.put(name, value);
+    }
+
+    public void setMethod(String method) {
+        this.method = method;
+    }
+
     public void setRequestURL(String requestURL) {
         this.requestURL = requestURL;
     }
@@ -1,17 +1,32 @@
 package edu.illinois.library.cantaloupe.resource;
 
 import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
 import javax.servlet.http.Cookie;
 import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayOutputStream;
 import java.io.PrintWriter;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.Locale;
+import java.util.Map;
 
 public class MockHttpServletResponse implements HttpServletResponse {
 
-    private String description;
+    private final Map<String,String> headers = new HashMap<>();
+    private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+    private String contentType = "text/plain", description;
+    private long contentLength = -1;
     private int status;
 
+    public byte[] getBody() {
+        return body.toByteArray();
+    }
+
+    public long getContentLength() {
+        return contentLength;
+    }
+
     @Override
     public void addCookie(Cookie cookie) {
     }
@@ -69,12 +84,12 @@ public class MockHttpServletResponse implements HttpServletResponse {
 
     @Override
     public String getContentType() {
-        return "text/plain";
+        return contentType;
     }
 
     @Override
     public String getHeader(String s) {
-        return null;
+        return headers.get(s);
     }
 
     @Override
@@ -94,7 +109,21 @@ public class MockHttpServletResponse implements HttpServletResponse {
 
     @Override
     public ServletOutputStream getOutputStream() {
-        return null;
+        return new ServletOutputStream() {
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setWriteListener(WriteListener writeListener) {
+            }
+
+            @Override
+            public void write(int b) {
+                body.write(b);
+            }
+        };
     }
 
     @Override
@@ -142,14 +171,17 @@ public class MockHttpServletResponse implements HttpServletResponse {
 
     @Override
     public void setContentLength(int i) {
+        contentLength = i;
     }
 
     @Override
     public void setContentLengthLong(long l) {
+        contentLength = l;
     }
 
     @Override
     public void setContentType(String s) {
+        contentType = s;
     }
 
     @Override
@@ -158,6 +190,7 @@ public class MockHttpServletResponse implements HttpServletResponse {
 
     @Override
     public void setHeader(String s, String s1) {
+        headers.put(s, s1);
     }
 
     @Override
@@ -10,6 +10,7 @@ import edu.illinois.library.cantaloupe.http.Response;
 import edu.illinois.library.cantaloupe.image.Identifier;
 import edu.illinois.library.cantaloupe.image.ScaleConstraint;
 import edu.illinois.library.cantaloupe.operation.OperationList;
+import edu.illinois.library.cantaloupe.processor.Cancellation;
 import edu.illinois.library.cantaloupe.resource.ResourceTest;
 import edu.illinois.library.cantaloupe.resource.Route;
 import edu.illinois.library.cantaloupe.resource.iiif.ImageResourceTester;
@@ -17,7 +18,14 @@ import edu.illinois.library.cantaloupe.test.TestUtil;
 import org.apache.commons.lang3.StringUtils;
 import org.junit.jupiter.api.Test;
 
+import java.io.OutputStream;
+import java.net.Socket;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 
 import static edu.illinois.library.cantaloupe.test.Assert.HTTPAssert.*;
@@ -169,6 +177,32 @@ public class ImageResourceTest extends ResourceTest {
                 uri, TestUtil.getImage(IMAGE));
     }
 
+    @Test
+    void testGETCancelledWhenClientDisconnects() throws Exception {
+        Configuration config = Configuration.getInstance();
+        config.setProperty(Key.MAX_PIXELS, 0);
+        config.setProperty(Key.MAX_SCALE, 0);
+        final long numCancelled = Cancellation.getNumCancelled();
+
+        // Big enough to take a while to process, and not to fit in any
+        // buffers, so that the server fails to write all of it to the
+        // closed connection.
+        URI uri = getHTTPURI("/" + IMAGE + "/full/4000,/0/color.png");
+        try (Socket socket = new Socket(uri.getHost(), uri.getPort())) {
+            OutputStream os = socket.getOutputStream();
+            os.write(("GET " + uri.getRawPath() + " HTTP/1.1\r\n" +
+                    "Host: " + uri.getHost() + ":" + uri.getPort() + "\r\n" +
+                    "\r\n").getBytes(StandardCharsets.US_ASCII));
+            os.flush();
+        }
+
+        for (int i = 0; i < 1000 &&
+                Cancellation.getNumCancelled() == numCancelled; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(numCancelled + 1, Cancellation.getNumCancelled());
+    }
+
     @Test
     void testGETContentDispositionHeaderWithNoHeader() throws Exception {
         URI uri = getHTTPURI("/" + IMAGE + "/full/full/0/color.jpg");
@@ -191,6 +225,87 @@ public class ImageResourceTest extends ResourceTest {
         assertStatus(403, getHTTPURI("/" + IMAGE + "/full/full/0/color.jpg"));
     }
 
+    @Test
+    void testGETEntityTagHeader() throws Exception {
+        client = newClient("/" + IMAGE + "/full/full/0/color.jpg");
+        Response response = client.send();
+
+        String value = response.getHeaders().getFirstValue("ETag");
+        assertTrue(value.matches("\"[0-9a-f]{32}\""));
+    }
+
+    @Test
+    void testGETWithMatchingIfNoneMatchHeader() throws Exception {
+        client = newClient("/" + IMAGE + "/full/full/0/color.jpg");
+        String entityTag = client.send().getHeaders().getFirstValue("ETag");
+
+        client.getHeaders().set("If-None-Match", entityTag);
+        Response response = client.send();
+        assertEquals(304, response.getStatus());
+        assertEquals(entityTag, response.getHeaders().getFirstValue("ETag"));
+        assertEquals(0, response.getBody().length);
+    }
+
+    @Test
+    void testGETWithMatchingIfNoneMatchHeaderSendsCacheHeaders()
+            throws Exception {
+        Configuration config = Configuration.getInstance();
+        config.setProperty(Key.CLIENT_CACHE_ENABLED, true);
+        config.setProperty(Key.CLIENT_CACHE_MAX_AGE, "1234");
+
+        client = newClient("/" + IMAGE + "/full/full/0/color.jpg");
+        Headers expectedHeaders = client.send().getHeaders();
+
+        client.getHeaders().set("If-None-Match",
+                expectedHeaders.getFirstValue("ETag"));
+        Response response = client.send();
+        assertEquals(304, response.getStatus());
+        for (String name : List.of("Cache-Control", "Vary", "Last-Modified")) {
+            assertEquals(expectedHeaders.getFirstValue(name),
+                    response.getHeaders().getFirstValue(name));
+        }
+    }
+
+    @Test
+    void testGETWithNonMatchingIfNoneMatchHeader() throws Exception {
+        client = newClient("/" + IMAGE + "/full/full/0/color.jpg");
+        client.getHeaders().set("If-None-Match", "\"cats\"");
+        Response response = client.send();
+        assertEquals(200, response.getStatus());
+    }
+
+    @Test
+    void testGETLastModifiedHeader() throws Exception {
+        client = newClient("/" + IMAGE + "/full/full/0/color.jpg");
+        Response response = client.send();
+
+        String value = response.getHeaders().getFirstValue("Last-Modified");
+        assertEquals(Files.getLastModifiedTime(TestUtil.getImage(IMAGE)).toInstant()
+                        .truncatedTo(ChronoUnit.SECONDS),
+                Instant.from(DateTimeFormatter.RFC_1123_DATE_TIME.parse(value)));
+    }
+
+    @Test
+    void testGETWithIfModifiedSinceHeader() throws Exception {
+        client = newClient("/" + IMAGE + "/full/full/0/color.jpg");
+        String lastModified =
+                client.send().getHeaders().getFirstValue("Last-Modified");
+
+        client.getHeaders().set("If-Modified-Since", lastModified);
+        Response response = client.send();
+        assertEquals(304, response.getStatus());
+        assertEquals(0, response.getBody().length);
+    }
+
+    @Test
+    void testGETWithOlderIfModifiedSinceHeader() throws Exception {
+        client = newClient("/" + IMAGE + "/full/full/0/color.jpg");
+        client.getHeaders().set("If-Modified-Since",
+                "Thu, 01 Jan 1970 00:00:00 GMT");
+        Response response = client.send();
+        assertEquals(200, response.getStatus());
+    }
+
     @Test
     void testGETHTTP2() throws Exception {
         URI uri = getHTTPURI("/" + IMAGE + "/full/full/0/color.jpg");
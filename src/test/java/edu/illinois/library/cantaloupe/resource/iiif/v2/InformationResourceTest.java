@@ -183,6 +183,50 @@ public class InformationResourceTest extends ResourceTest {
         assertStatus(403, getHTTPURI("/" + IMAGE + "/info.json"));
     }
 
+    @Test
+    void testGETEntityTagHeader() throws Exception {
+        client = newClient("/" + IMAGE + "/info.json");
+        Response response = client.send();
+
+        String value = response.getHeaders().getFirstValue("ETag");
+        assertTrue(value.matches("\"[0-9a-f]{32}\""));
+    }
+
+    @Test
+    void testGETWithMatchingIfNoneMatchHeader() throws Exception {
+        client = newClient("/" + IMAGE + "/info.json");
+        String entityTag = client.send().getHeaders().getFirstValue("ETag");
+
+        client.getHeaders().set("If-None-Match", entityTag);
+        Response response = client.send();
+        assertEquals(304, response.getStatus());
+        assertEquals(entityTag, response.getHeaders().getFirstValue("ETag"));
+        assertEquals(0, response.getBody().length);
+    }
+
+    @Test
+    void testGETWithNonMatchingIfNoneMatchHeader() throws Exception {
+        client = newClient("/" + IMAGE + "/info.json");
+        client.getHeaders().set("If-None-Match", "\"cats\"");
+        Response response = client.send();
+        assertEquals(200, response.getStatus());
+    }
+
+    @Test
+    void testGETWithIfModifiedSinceHeader() throws Exception {
+        client = newClient("/" + IMAGE + "/info.json");
+        String lastModified =
+                client.send().getHeaders().getFirstValue("Last-Modified");
+        assertNotNull(lastModified);
+
+        client.getHeaders().set("If-Modified-Since", lastModified);
+        Response response = client.send();
+        assertEquals(304, response.getStatus());
+        assertEquals(lastModified,
+                response.getHeaders().getFirstValue("Last-Modified"));
+        assertEquals(0, response.getBody().length);
+    }
+
     @Test
     void testGETHTTP2() throws Exception {
         URI uri = getHTTPURI("/" + IMAGE + "/info.json");
@@ -19,6 +19,12 @@ import java.net.URI;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -60,6 +66,45 @@ public class HTTPImageInputStreamTest extends BaseTest {
         }
     }
 
+    /**
+     * Thread-safe client that serves ranges of a byte array, and records the
+     * threads that requested them.
+     */
+    private static class InMemoryHTTPImageInputStreamClient
+            implements HTTPImageInputStreamClient {
+
+        private final byte[] data;
+        private final Set<Thread> requestingThreads =
+                ConcurrentHashMap.newKeySet();
+        private final AtomicInteger numGETRequests = new AtomicInteger();
+
+        InMemoryHTTPImageInputStreamClient(byte[] data) {
+            this.data = data;
+        }
+
+        @Override
+        public Response sendHEADRequest() {
+            Response response = new Response();
+            response.setStatus(200);
+            response.getHeaders().set("Accept-Ranges", "bytes");
+            response.getHeaders().set("Content-Length",
+                    Integer.toString(data.length));
+            return response;
+        }
+
+        @Override
+        public Response sendGETRequest(Range range) {
+            requestingThreads.add(Thread.currentThread());
+            numGETRequests.incrementAndGet();
+            byte[] body = new byte[(int) (range.end - range.start + 1)];
+            System.arraycopy(data, (int) range.start, body, 0, body.length);
+            Response response = new Response();
+            response.setStatus(206);
+            response.setBody(body);
+            return response;
+        }
+    }
+
     private WebServer webServer;
 
     @BeforeEach
@@ -173,6 +218,181 @@ public class HTTPImageInputStreamTest extends BaseTest {
         assertArrayEquals(expectedBytes, actualBytes);
     }
 
+    @Test
+    void testReadWithSharedChunkCache() throws Exception {
+        final Path fixture         = TestUtil.getImage("tif");
+        final int fixtureLength    = (int) Files.size(fixture);
+        final byte[] expectedBytes = Files.readAllBytes(fixture);
+        final SharedChunkCache cache = new SharedChunkCache(1024 * 1024);
+
+        for (int i = 0; i < 2; i++) {
+            final byte[] actualBytes = new byte[fixtureLength];
+            try (HTTPImageInputStream instance = newInstanceFromConstructor2(fixture)) {
+                instance.setWindowSize(1024);
+                instance.setSharedChunkCache(cache, "uri",
+                        Long.toString(fixtureLength));
+                instance.read(actualBytes, 0, fixtureLength);
+            }
+            assertArrayEquals(expectedBytes, actualBytes);
+        }
+
+        final long numChunks = (long) Math.ceil(fixtureLength / 1024.0);
+        assertEquals(numChunks, cache.getNumMisses());
+        assertEquals(numChunks, cache.getNumHits());
+        assertEquals(fixtureLength, cache.getNumBytesDownloaded());
+    }
+
+    private static Range newRange(long start, long end) {
+        Range range = new Range();
+        range.start = start;
+        range.end   = end;
+        return range;
+    }
+
+    @Test
+    void testPrefetch() throws Exception {
+        final Path fixture         = TestUtil.getImage("tif");
+        final int fixtureLength    = (int) Files.size(fixture);
+        final byte[] expectedBytes = Files.readAllBytes(fixture);
+        final InMemoryHTTPImageInputStreamClient client =
+                new InMemoryHTTPImageInputStreamClient(expectedBytes);
+
+        try (HTTPImageInputStream instance =
+                     new HTTPImageInputStream(client, fixtureLength)) {
+            instance.setWindowSize(100);
+            // Windows 0-2 should be coalesced into one request, and window 10
+            // fetched in another.
+            instance.prefetch(List.of(
+                    newRange(0, 150), newRange(120, 250), newRange(1000, 1010)));
+            assertEquals(2, client.numGETRequests.get());
+
+            // Already-available windows are not requested again.
+            instance.prefetch(List.of(newRange(0, 299)));
+            assertEquals(2, client.numGETRequests.get());
+
+            for (int pos : new int[] { 1005, 0, 299, 150 }) {
+                instance.seek(pos);
+                assertEquals(expectedBytes[pos] & 0xff, instance.read());
+            }
+            assertEquals(2, client.numGETRequests.get());
+        }
+    }
+
+    @Test
+    void testPrefetchReleasesWindowsOnceRead() throws Exception {
+        final Path fixture         = TestUtil.getImage("tif");
+        final int fixtureLength    = (int) Files.size(fixture);
+        final byte[] expectedBytes = Files.readAllBytes(fixture);
+        final InMemoryHTTPImageInputStreamClient client =
+                new InMemoryHTTPImageInputStreamClient(expectedBytes);
+
+        try (HTTPImageInputStream instance =
+                     new HTTPImageInputStream(client, fixtureLength)) {
+            instance.setWindowSize(100);
+            instance.prefetch(List.of(newRange(0, 99), newRange(1000, 1099)));
+            assertEquals(2, client.numGETRequests.get());
+
+            // With no chunk cache, reading a window again after moving away
+            // from it requires downloading it again.
+            for (int pos : new int[] { 1005, 0, 1005 }) {
+                instance.seek(pos);
+                assertEquals(expectedBytes[pos] & 0xff, instance.read());
+            }
+            assertEquals(3, client.numGETRequests.get());
+        }
+    }
+
+    @Test
+    void testPrefetchWithRangeBeyondEndOfStream() throws Exception {
+        final Path fixture         = TestUtil.getImage("tif");
+        final int fixtureLength    = (int) Files.size(fixture);
+        final byte[] expectedBytes = Files.readAllBytes(fixture);
+        final InMemoryHTTPImageInputStreamClient client =
+                new InMemoryHTTPImageInputStreamClient(expectedBytes);
+
+        try (HTTPImageInputStream instance =
+                     new HTTPImageInputStream(client, fixtureLength)) {
+            instance.setWindowSize(1000);
+            instance.prefetch(List.of(
+                    newRange(fixtureLength - 10, fixtureLength + 1000)));
+            instance.seek(fixtureLength - 1);
+            assertEquals(expectedBytes[fixtureLength - 1] & 0xff,
+                    instance.read());
+            assertEquals(1, client.numGETRequests.get());
+        }
+    }
+
+    @Test
+    void testReadWithReadAhead() throws Exception {
+        final Path fixture         = TestUtil.getImage("tif");
+        final int fixtureLength    = (int) Files.size(fixture);
+        final byte[] expectedBytes = Files.readAllBytes(fixture);
+        final byte[] actualBytes   = new byte[fixtureLength];
+        final InMemoryHTTPImageInputStreamClient client =
+                new InMemoryHTTPImageInputStreamClient(expectedBytes);
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        try (HTTPImageInputStream instance =
+                     new HTTPImageInputStream(client, fixtureLength)) {
+            instance.setWindowSize(256);
+            instance.setReadAhead(4, executor);
+            for (int i = 0; i < fixtureLength; i += 100) {
+                instance.read(actualBytes, i, Math.min(100, fixtureLength - i));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertArrayEquals(expectedBytes, actualBytes);
+        assertTrue(client.requestingThreads.size() > 1);
+    }
+
+    @Test
+    void testSeekWithReadAhead() throws Exception {
+        final Path fixture         = TestUtil.getImage("tif");
+        final int fixtureLength    = (int) Files.size(fixture);
+        final byte[] expectedBytes = Files.readAllBytes(fixture);
+        final InMemoryHTTPImageInputStreamClient client =
+                new InMemoryHTTPImageInputStreamClient(expectedBytes);
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        try (HTTPImageInputStream instance =
+                     new HTTPImageInputStream(client, fixtureLength)) {
+            instance.setWindowSize(64);
+            instance.setReadAhead(4, executor);
+            for (int pos : new int[] { 0, 64, 128, 192, 1000, 10, 500, 256 }) {
+                instance.seek(pos);
+                assertEquals(expectedBytes[pos] & 0xff, instance.read());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testRandomAccessDoesNotReadAhead() throws Exception {
+        final Path fixture         = TestUtil.getImage("tif");
+        final int fixtureLength    = (int) Files.size(fixture);
+        final byte[] expectedBytes = Files.readAllBytes(fixture);
+        final InMemoryHTTPImageInputStreamClient client =
+                new InMemoryHTTPImageInputStreamClient(expectedBytes);
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        try (HTTPImageInputStream instance =
+                     new HTTPImageInputStream(client, fixtureLength)) {
+            instance.setWindowSize(64);
+            instance.setReadAhead(4, executor);
+            for (int pos : new int[] { 1000, 0, 500, 2000, 100, 1500 }) {
+                instance.seek(pos);
+                instance.read();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(Set.of(Thread.currentThread()), client.requestingThreads);
+    }
+
     @Test
     void functionalTestWithBMP() throws Exception {
         final Path fixture = TestUtil.getImage("bmp");
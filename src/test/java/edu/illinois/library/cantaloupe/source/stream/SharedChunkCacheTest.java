@@ -0,0 +1,99 @@
+package edu.illinois.library.cantaloupe.source.stream;
+
+import edu.illinois.library.cantaloupe.http.Range;
+import edu.illinois.library.cantaloupe.test.BaseTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SharedChunkCacheTest extends BaseTest {
+
+    private SharedChunkCache instance;
+
+    private static Range newRange(long start, long end) {
+        Range range  = new Range();
+        range.start  = start;
+        range.end    = end;
+        range.length = 1000;
+        return range;
+    }
+
+    @BeforeEach
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        SharedChunkCache.clearInstance();
+        instance = new SharedChunkCache(1024);
+    }
+
+    @Test
+    void testGetInstance() {
+        assertSame(SharedChunkCache.getInstance(),
+                SharedChunkCache.getInstance());
+    }
+
+    @Test
+    void testGetWithHit() {
+        byte[] chunk = new byte[100];
+        instance.put("uri", "etag", newRange(0, 99), chunk);
+        assertSame(chunk, instance.get("uri", "etag", newRange(0, 99)));
+        assertEquals(1, instance.getNumHits());
+        assertEquals(0, instance.getNumMisses());
+    }
+
+    @Test
+    void testGetWithMiss() {
+        instance.put("uri", "etag", newRange(0, 99), new byte[100]);
+        assertNull(instance.get("uri", "etag", newRange(100, 199)));
+        assertNull(instance.get("other", "etag", newRange(0, 99)));
+        assertEquals(0, instance.getNumHits());
+        assertEquals(2, instance.getNumMisses());
+    }
+
+    @Test
+    void testGetWithChangedValidator() {
+        instance.put("uri", "etag1", newRange(0, 99), new byte[100]);
+        assertNull(instance.get("uri", "etag2", newRange(0, 99)));
+    }
+
+    @Test
+    void testGetNumBytesDownloaded() {
+        instance.put("uri", "etag", newRange(0, 99), new byte[100]);
+        instance.put("uri", "etag", newRange(100, 149), new byte[50]);
+        assertEquals(150, instance.getNumBytesDownloaded());
+    }
+
+    @Test
+    void testMaxSize() {
+        assertEquals(1024, instance.maxSize());
+    }
+
+    @Test
+    void testPurge() {
+        instance.put("uri", "etag", newRange(0, 99), new byte[100]);
+        instance.purge();
+        assertNull(instance.get("uri", "etag", newRange(0, 99)));
+    }
+
+    @Test
+    void testSize() {
+        assertEquals(0, instance.size());
+        instance.put("uri", "etag", newRange(0, 99), new byte[100]);
+        instance.put("uri", "etag", newRange(100, 149), new byte[50]);
+        instance.cleanUp();
+        assertEquals(150, instance.size());
+    }
+
+    @Test
+    void testSizeIsBoundedByMaxSize() {
+        for (int i = 0; i < 50; i++) {
+            instance.put("uri", "etag", newRange(i * 100, i * 100 + 99),
+                    new byte[100]);
+        }
+        instance.cleanUp();
+        assertTrue(instance.size() > 0);
+        assertTrue(instance.size() <= 1024);
+    }
+
+}
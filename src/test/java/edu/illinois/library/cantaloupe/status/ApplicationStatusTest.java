@@ -16,6 +16,30 @@ public class ApplicationStatusTest extends BaseTest {
         instance = new ApplicationStatus();
     }
 
+    @Test
+    void testGetAdmissionControlCostInUse() {
+        assertEquals(0, instance.getAdmissionControlCostInUse());
+    }
+
+    @Test
+    void testGetAdmissionControlMaxCost() {
+        assertTrue(instance.getAdmissionControlMaxCost() > 0);
+    }
+
+    @Test
+    void testGetAdmissionControlShedRequests() {
+        assertTrue(instance.getAdmissionControlShedRequests() >= 0);
+    }
+    @Test
+    void testGetAdmissionControlWaitingRequests() {
+        assertEquals(0, instance.getAdmissionControlWaitingRequests());
+    }
+
+    @Test
+    void testGetAsyncWritesInProgress() {
+        assertEquals(0, instance.getAsyncWritesInProgress());
+    }
+
     @Test
     void testGetDMICMaxSize() {
         assertTrue(instance.getDMICMaxSize() > 100);
@@ -26,6 +50,30 @@ public class ApplicationStatusTest extends BaseTest {
         assertEquals(0, instance.getDMICSize());
     }
 
+    @Test
+    void testGetDecodedTileCacheMaxSize() {
+        assertTrue(instance.getDecodedTileCacheMaxSize() > 0);
+    }
+
+    @Test
+    void testGetDecodedTileCacheSize() {
+        assertTrue(instance.getDecodedTileCacheSize() >= 0);
+    }
+
+    @Test
+    void testGetDerivativesInFlight() {
+        assertEquals(0, instance.getDerivativesInFlight());
+    }
+
+    @Test
+    void testGetNumCancelledDerivativeRequests() {
+        assertTrue(instance.getNumCancelledDerivativeRequests() >= 0);
+    }
+    @Test
+    void testGetNumCoalescedDerivativeRequests() {
+        assertTrue(instance.getNumCoalescedDerivativeRequests() >= 0);
+    }
+
     @Test
     void testGetInfoCacheMaxSize() {
         assertTrue(instance.getInfoCacheMaxSize() > 100);
@@ -36,6 +84,77 @@ public class ApplicationStatusTest extends BaseTest {
         assertEquals(0, instance.getInfoCacheSize());
     }
 
+    @Test
+    void testGetInfoReadsInFlight() {
+        assertEquals(0, instance.getInfoReadsInFlight());
+    }
+
+    @Test
+    void testGetNumCoalescedInfoReads() {
+        assertTrue(instance.getNumCoalescedInfoReads() >= 0);
+    }
+
+    @Test
+    void testGetPdfDocumentCacheMaxSize() {
+        assertTrue(instance.getPdfDocumentCacheMaxSize() > 0);
+    }
+
+    @Test
+    void testGetPdfDocumentCacheSize() {
+        assertTrue(instance.getPdfDocumentCacheSize() >= 0);
+    }
+
+    @Test
+    void testGetPdfDocumentCacheHits() {
+        assertTrue(instance.getPdfDocumentCacheHits() >= 0);
+    }
+
+    @Test
+    void testGetPdfDocumentCacheMisses() {
+        assertTrue(instance.getPdfDocumentCacheMisses() >= 0);
+    }
+
+    @Test
+    void testGetSharedChunkCacheSize() {
+        assertTrue(instance.getSharedChunkCacheSize() >= 0);
+    }
+
+    @Test
+    void testGetSharedChunkCacheMaxSize() {
+        assertTrue(instance.getSharedChunkCacheMaxSize() > 0);
+    }
+
+    @Test
+    void testGetSharedChunkCacheHits() {
+        assertTrue(instance.getSharedChunkCacheHits() >= 0);
+    }
+
+    @Test
+    void testGetSharedChunkCacheMisses() {
+        assertTrue(instance.getSharedChunkCacheMisses() >= 0);
+    }
+
+    @Test
+    void testGetSharedChunkCacheDownloadedBytes() {
+        assertTrue(instance.getSharedChunkCacheDownloadedBytes() >= 0);
+    }
+
+    @Test
+    void testGetTaskQueueDepth() {
+        assertTrue(instance.getTaskQueueDepth() >= 0);
+    }
+    @Test
+    void testGetTaskQueueDroppedTasks() {
+        assertTrue(instance.getTaskQueueDroppedTasks() >= 0);
+    }
+    @Test
+    void testGetThreadPoolActiveThreads() {
+        assertTrue(instance.getThreadPoolActiveThreads() >= 0);
+    }
+    @Test
+    void testGetThreadPoolQueuedTasks() {
+        assertTrue(instance.getThreadPoolQueuedTasks() >= 0);
+    }
     @Test
     void testGetVMFreeHeap() {
         assertTrue(instance.getVMFreeHeap() > 1000);